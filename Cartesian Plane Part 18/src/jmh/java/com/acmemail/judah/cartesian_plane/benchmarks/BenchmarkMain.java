@@ -0,0 +1,71 @@
+package com.acmemail.judah.cartesian_plane.benchmarks;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point for the benchmark jar.
+ * Accepts the standard JMH command line options
+ * (run with <em>-h</em> for a list);
+ * for example:
+ * <pre>
+ *     java -jar target/benchmarks.jar EquationBenchmark -p engine=jep
+ * </pre>
+ * <p>
+ * The only difference from the standard JMH entry point
+ * is that results are always written
+ * in a machine-readable format,
+ * so that successive runs can be compared.
+ * Unless overridden by the <em>-rf</em> and <em>-rff</em> options,
+ * results are written, in JSON format,
+ * to the file <em>jmh-result.json</em>
+ * in the current directory.
+ * </p>
+ *
+ * @author Jack Straub
+ */
+public class BenchmarkMain
+{
+    /** Default file in which to write results. */
+    public static final String  DEF_RESULT_FILE = "jmh-result.json";
+
+    /**
+     * Application entry point.
+     *
+     * @param args  JMH command line options
+     *
+     * @throws CommandLineOptionException   if the options are invalid
+     * @throws RunnerException              if a benchmark fails to run
+     * @throws IOException                  if an I/O error occurs
+     */
+    public static void main( String[] args )
+        throws CommandLineOptionException, RunnerException, IOException
+    {
+        CommandLineOptions      cmdLine = new CommandLineOptions( args );
+        ChainedOptionsBuilder   bldr    = new OptionsBuilder().parent( cmdLine );
+        if ( !cmdLine.getResultFormat().hasValue() )
+            bldr.resultFormat( ResultFormatType.JSON );
+        if ( !cmdLine.getResult().hasValue() )
+            bldr.result( DEF_RESULT_FILE );
+
+        // Requests for information are delegated to the standard
+        // entry point; only actual benchmark runs are affected
+        // by the default result options.
+        if ( cmdLine.shouldHelp()
+            || cmdLine.shouldList()
+            || cmdLine.shouldListWithParams()
+            || cmdLine.shouldListProfilers()
+            || cmdLine.shouldListResultFormats() )
+            Main.main( args );
+        else
+            new Runner( bldr.build() ).run();
+    }
+}
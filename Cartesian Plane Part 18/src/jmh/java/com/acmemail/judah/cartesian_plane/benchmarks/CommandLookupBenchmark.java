@@ -0,0 +1,91 @@
+package com.acmemail.judah.cartesian_plane.benchmarks;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.acmemail.judah.cartesian_plane.input.Command;
+import com.acmemail.judah.cartesian_plane.input.CommandReader;
+import com.acmemail.judah.cartesian_plane.input.ParsedCommand;
+
+/**
+ * Measures the per-line cost
+ * of recognizing a command.
+ * Lines are chosen to name
+ * the first and last commands in the Command enum,
+ * a shortcut
+ * and an invalid command;
+ * the cost of recognition
+ * should not depend on which command is named.
+ * For comparison,
+ * <em>linearScan</em> resolves the command name
+ * by comparing it to the name of each Command in turn.
+ *
+ * @author Jack Straub
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class CommandLookupBenchmark
+{
+    /** The line to parse. */
+    @Param( { "equation eName", "SAVE file", "y=2x", "bogus arg" } )
+    public String   line;
+
+    /**
+     * Parses a command line.
+     *
+     * @return  the parsed command
+     */
+    @Benchmark
+    public ParsedCommand parseCommand()
+    {
+        return CommandReader.parseCommand( line );
+    }
+
+    /**
+     * Resolves the command name
+     * at the start of a command line.
+     *
+     * @return  the resolved command
+     */
+    @Benchmark
+    public Command toCommand()
+    {
+        int     split   = line.indexOf( ' ' );
+        int     end     = split < 0 ? line.length() : split;
+        return Command.toCommand( line, 0, end );
+    }
+
+    /**
+     * Resolves the command name
+     * at the start of a command line
+     * by comparing it to the name of each Command in turn.
+     *
+     * @return  the resolved command
+     */
+    @Benchmark
+    public Command linearScan()
+    {
+        int     split   = line.indexOf( ' ' );
+        String  name    =
+            (split < 0 ? line : line.substring( 0, split )).toUpperCase();
+        return Arrays.stream( Command.values() )
+            .filter( e -> name.equals( e.name() ) )
+            .findFirst()
+            .orElse( Command.INVALID );
+    }
+}
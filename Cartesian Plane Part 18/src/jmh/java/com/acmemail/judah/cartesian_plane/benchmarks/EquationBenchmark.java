@@ -0,0 +1,254 @@
+package com.acmemail.judah.cartesian_plane.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.acmemail.judah.cartesian_plane.input.Equation;
+import com.acmemail.judah.cartesian_plane.input.CompiledEquation;
+import com.acmemail.judah.cartesian_plane.input.Exp4jEquation;
+import com.acmemail.judah.cartesian_plane.input.JEPEquation;
+
+/**
+ * Measures the cost of evaluating an Equation
+ * over its range,
+ * comparing the Exp4j and JEP implementations.
+ * <p>
+ * Each benchmark is parameterized by:
+ * </p>
+ * <ul>
+ * <li>
+ *      <em>engine:</em>
+ *      the Equation implementation,
+ *      <em>exp4j</em>, <em>compiled</em> or <em>jep</em>;
+ * </li>
+ * <li>
+ *      <em>complexity:</em>
+ *      the complexity of the expression being evaluated;
+ *      see {@linkplain Complexity};
+ *      and
+ * </li>
+ * <li>
+ *      <em>samples:</em>
+ *      the number of values in the range
+ *      over which the expression is evaluated.
+ * </li>
+ * </ul>
+ * <p>
+ * Every point generated by a plot
+ * is consumed by a Blackhole,
+ * so the benchmarks measure the cost
+ * of both evaluation and point construction.
+ * </p>
+ *
+ * @author Jack Straub
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class EquationBenchmark
+{
+    /** Lower bound of the range of every equation. */
+    private static final double rangeStart  = -10;
+    /** Upper bound of the range of every equation. */
+    private static final double rangeEnd    = 10;
+
+    /**
+     * Expressions of increasing complexity.
+     * Each is a format string
+     * in which the independent variable
+     * is represented by <em>%1$s</em>.
+     * Only syntax common to Exp4j and JEP is used;
+     * in particular, all multiplication is explicit.
+     *
+     * @author Jack Straub
+     */
+    public enum Complexity
+    {
+        /** A linear expression; no function calls. */
+        SIMPLE( "2 * %1$s + 1" ),
+        /** A polynomial plus one function call. */
+        MEDIUM( "%1$s ^ 2 - 3 * %1$s + sin(%1$s)" ),
+        /** Several nested function calls and divisions. */
+        COMPLEX(
+            "sqrt(abs(%1$s)) * cos(2 * %1$s) + exp(%1$s / 10) "
+            + "- sin(%1$s) / (1 + %1$s ^ 2)"
+        );
+
+        /** Format string from which the expression is derived. */
+        private final String    template;
+
+        /**
+         * Constructor.
+         * Establishes the format string
+         * from which the expression is derived.
+         *
+         * @param template  the format string
+         */
+        private Complexity( String template )
+        {
+            this.template = template;
+        }
+
+        /**
+         * Gets the expression
+         * in a given independent variable.
+         *
+         * @param var   the given independent variable
+         *
+         * @return  the expression in the given variable
+         */
+        public String getExpression( String var )
+        {
+            String  expr    = String.format( template, var );
+            return expr;
+        }
+    }
+
+    /** The Equation implementation to measure. */
+    @Param( { "exp4j", "compiled", "jep" } )
+    public String       engine;
+
+    /** The complexity of the expression to evaluate. */
+    @Param( { "SIMPLE", "MEDIUM", "COMPLEX" } )
+    public Complexity   complexity;
+
+    /** The number of values in the range of the equation. */
+    @Param( { "1000", "100000" } )
+    public int          samples;
+
+    /**
+     * The equation under test;
+     * the y-expression is a function of <em>x</em>.
+     */
+    private Equation    equation;
+    /**
+     * The parametric equation under test;
+     * the x- and y-expressions are functions of <em>t</em>.
+     */
+    private Equation    paramEquation;
+    /** Input array for batch evaluation. */
+    private double[]    xcos;
+    /** Output array for batch evaluation. */
+    private double[]    ycos;
+
+    /**
+     * Instantiates and configures the equations under test.
+     */
+    @Setup( Level.Trial )
+    public void setup()
+    {
+        equation = newEquation();
+        equation.setYExpression( complexity.getExpression( "x" ) );
+        equation.setRExpression( complexity.getExpression( "t" ) );
+        equation.setTExpression( complexity.getExpression( "r" ) );
+
+        paramEquation = newEquation();
+        paramEquation.setXExpression( complexity.getExpression( "t" ) );
+        paramEquation.setYExpression( complexity.getExpression( "t" ) );
+
+        xcos = new double[equation.getRangeSize()];
+        ycos = new double[xcos.length];
+        equation.getRangeValues( xcos );
+    }
+
+    /**
+     * Generates the points of the equation <em>y=f(x)</em>.
+     *
+     * @param blackhole sink for the generated points
+     */
+    @Benchmark
+    public void yPlot( Blackhole blackhole )
+    {
+        equation.yPlot().forEach( blackhole::consume );
+    }
+
+    /**
+     * Generates the points of the parametric equations
+     * <em>x=f(t)</em>, <em>y=f(t)</em>.
+     *
+     * @param blackhole sink for the generated points
+     */
+    @Benchmark
+    public void xyPlot( Blackhole blackhole )
+    {
+        paramEquation.xyPlot().forEach( blackhole::consume );
+    }
+
+    /**
+     * Generates the points of the polar equation
+     * <em>r=f(t)</em>.
+     *
+     * @param blackhole sink for the generated points
+     */
+    @Benchmark
+    public void rPlot( Blackhole blackhole )
+    {
+        equation.rPlot().forEach( blackhole::consume );
+    }
+
+    /**
+     * Generates the points of the polar equation
+     * <em>t=f(r)</em>.
+     *
+     * @param blackhole sink for the generated points
+     */
+    @Benchmark
+    public void tPlot( Blackhole blackhole )
+    {
+        equation.tPlot().forEach( blackhole::consume );
+    }
+
+    /**
+     * Evaluates the equation <em>y=f(x)</em>
+     * in batch mode,
+     * without constructing points.
+     *
+     * @return  the array of computed y-coordinates
+     */
+    @Benchmark
+    public double[] evaluateY()
+    {
+        equation.evaluateY( xcos, ycos );
+        return ycos;
+    }
+
+    /**
+     * Instantiates an Equation
+     * using the implementation under test,
+     * and configures its range
+     * to contain the required number of samples.
+     *
+     * @return  the instantiated Equation
+     */
+    private Equation newEquation()
+    {
+        Equation    result  = null;
+        if ( engine.equals( "jep" ) )
+            result = new JEPEquation();
+        else if ( engine.equals( "compiled" ) )
+            result = new CompiledEquation();
+        else
+            result = new Exp4jEquation();
+        double      step    = (rangeEnd - rangeStart) / samples;
+        result.setRangeStart( String.valueOf( rangeStart ) );
+        result.setRangeEnd( String.valueOf( rangeEnd ) );
+        result.setRangeStep( String.valueOf( step ) );
+        return result;
+    }
+}
@@ -0,0 +1,101 @@
+package com.acmemail.judah.cartesian_plane.benchmarks;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.acmemail.judah.cartesian_plane.GraphManager;
+import com.acmemail.judah.cartesian_plane.Profile;
+
+/**
+ * Measures the cost of drawing a complete graph
+ * (background, grid lines, axes, tic marks and labels)
+ * with a GraphManager,
+ * using the default Profile.
+ * Drawing is performed off-screen,
+ * into a BufferedImage,
+ * so the benchmark runs in headless mode.
+ * The benchmark is parameterized
+ * by the size of the image.
+ *
+ * @author Jack Straub
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgsAppend = "-Djava.awt.headless=true" )
+public class GraphManagerBenchmark
+{
+    /** The size of the image, expressed as <em>width</em>x<em>height</em>. */
+    @Param( { "800x600", "3840x2160" } )
+    public String           size;
+
+    /** The image in which to draw. */
+    private BufferedImage   image;
+    /** Graphics context of the image. */
+    private Graphics2D      gtx;
+    /** The bounds of the graph. */
+    private Rectangle2D     rect;
+    /** The GraphManager under test. */
+    private GraphManager    graphMgr;
+
+    /**
+     * Allocates the image,
+     * and instantiates the GraphManager under test.
+     */
+    @Setup( Level.Trial )
+    public void setup()
+    {
+        String[]    dims    = size.split( "x" );
+        int         width   = Integer.parseInt( dims[0] );
+        int         height  = Integer.parseInt( dims[1] );
+        image = new BufferedImage( width, height, BufferedImage.TYPE_INT_RGB );
+        gtx = image.createGraphics();
+        gtx.setRenderingHint(
+            RenderingHints.KEY_ANTIALIASING,
+            RenderingHints.VALUE_ANTIALIAS_ON
+        );
+        rect = new Rectangle2D.Double( 0, 0, width, height );
+        graphMgr = new GraphManager( rect, new Profile() );
+    }
+
+    /**
+     * Releases the graphics context of the image.
+     */
+    @TearDown( Level.Trial )
+    public void tearDown()
+    {
+        gtx.dispose();
+    }
+
+    /**
+     * Draws the complete graph.
+     *
+     * @return  the image in which the graph is drawn
+     */
+    @Benchmark
+    public BufferedImage drawAll()
+    {
+        graphMgr.refresh( gtx, rect );
+        graphMgr.drawAll();
+        return image;
+    }
+}
@@ -0,0 +1,180 @@
+package com.acmemail.judah.cartesian_plane.benchmarks;
+
+import java.util.Stack;
+import java.util.concurrent.TimeUnit;
+
+import org.nfunk.jep.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.acmemail.judah.cartesian_plane.input.JEPAbstractFunction;
+import com.acmemail.judah.cartesian_plane.input.JEPFunctions;
+
+/**
+ * <p>
+ * Measures the cost of invoking a JEP custom function
+ * once per sample.
+ * Run with the GC profiler
+ * (<em>-prof gc</em>)
+ * to compare allocation per sample
+ * (<em>gc.alloc.rate.norm</em>):
+ * </p>
+ * <ul>
+ * <li>
+ *      <em>fixedArity:</em>
+ *      the one- or two-parameter <em>evaluate</em> overload;
+ *      allocates nothing;
+ * </li>
+ * <li>
+ *      <em>varargs:</em>
+ *      the varargs <em>evaluate</em> method,
+ *      which requires a new parameter array per call;
+ *      and
+ * </li>
+ * <li>
+ *      <em>stackRun:</em>
+ *      the <em>run</em> method invoked by JEP,
+ *      which must pop boxed parameters from the stack
+ *      and push a boxed result.
+ * </li>
+ * </ul>
+ *
+ * @author Jack Straub
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class JEPFunctionBenchmark
+{
+    /** 
+     * The number of parameters to the function under test.
+     * Functions with one parameter
+     * are represented by <em>sec</em>;
+     * there is no two-parameter function in JEPFunctions,
+     * so {@linkplain Hypot} is used instead.
+     */
+    @Param( { "1", "2" } )
+    public int                  arity;
+
+    /** The function under test. */
+    private JEPAbstractFunction function;
+    /** Stack used to invoke the function via <em>run</em>. */
+    private Stack<Object>       stack;
+    /** The value of the first parameter; varies per sample. */
+    private double              param1;
+    /** The value of the second parameter. */
+    private double              param2;
+
+    /**
+     * Instantiates the function under test.
+     */
+    @Setup( Level.Trial )
+    public void setup()
+    {
+        if ( arity == 1 )
+            function = new JEPFunctions.Secant();
+        else
+            function = new Hypot();
+        function.setCurNumberOfParameters( arity );
+        stack = new Stack<>();
+        param1 = .5;
+        param2 = 2;
+    }
+
+    /**
+     * Invokes the fixed-arity overload.
+     *
+     * @return  the result of the function
+     */
+    @Benchmark
+    public double fixedArity()
+    {
+        param1 += .001;
+        double  result  =
+            arity == 1 ? 
+            function.evaluate( param1 ) : 
+            function.evaluate( param1, param2 );
+        return result;
+    }
+
+    /**
+     * Invokes the varargs method.
+     *
+     * @return  the result of the function
+     */
+    @Benchmark
+    public double varargs()
+    {
+        param1 += .001;
+        double  result  =
+            arity == 1 ? 
+            function.evaluate( new double[] { param1 } ) : 
+            function.evaluate( new double[] { param1, param2 } );
+        return result;
+    }
+
+    /**
+     * Invokes the function as JEP does,
+     * via the <em>run</em> method.
+     *
+     * @return  the result of the function
+     * 
+     * @throws ParseException   if thrown by the function
+     */
+    @Benchmark
+    public Object stackRun() throws ParseException
+    {
+        param1 += .001;
+        stack.push( param1 );
+        if ( arity == 2 )
+            stack.push( param2 );
+        function.run( stack );
+        return stack.pop();
+    }
+
+    /**
+     * Two-parameter function,
+     * following the JEPFunctions pattern.
+     * 
+     * @author Jack Straub
+     */
+    public static class Hypot extends JEPAbstractFunction
+    {
+        /**
+         * Constructor.
+         * Establishes the name of the custom function,
+         * and the number of required arguments.
+         */
+        public Hypot()
+        {
+            super( "hypot", 2 );
+        }
+
+        @Override
+        public double evaluate( double... params )
+        {
+            double  hypot   = evaluate( params[0], params[1] );
+            return hypot;
+        }
+
+        @Override
+        public double evaluate( double param1, double param2 )
+        {
+            double  hypot   = Math.sqrt( param1 * param1 + param2 * param2 );
+            return hypot;
+        }
+    }
+}
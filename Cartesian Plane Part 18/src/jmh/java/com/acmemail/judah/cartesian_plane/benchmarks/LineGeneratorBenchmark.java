@@ -0,0 +1,124 @@
+package com.acmemail.judah.cartesian_plane.benchmarks;
+
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.acmemail.judah.cartesian_plane.LineGenerator;
+
+/**
+ * Measures the cost of generating grid lines
+ * with a LineGenerator,
+ * for a 4K (3840 x 2160 pixel) rectangle.
+ * Construction is measured separately
+ * from each of the ways of iterating over the lines.
+ * The benchmarks are parameterized
+ * by the number of lines per unit.
+ *
+ * @author Jack Straub
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class LineGeneratorBenchmark
+{
+    /** The pixels per unit of the grid. */
+    private static final float      gridUnit    = 50;
+    /** The bounds of the grid. */
+    private static final Rectangle2D rect       =
+        new Rectangle2D.Double( 0, 0, 3840, 2160 );
+
+    /** The number of lines per unit. */
+    @Param( { "1", "5", "20" } )
+    public float            lpu;
+
+    /** LineGenerator used by the iteration benchmarks. */
+    private LineGenerator   lineGen;
+    /** Path used by the appendTo benchmark. */
+    private Path2D          path;
+
+    /**
+     * Instantiates the LineGenerator
+     * used by the iteration benchmarks.
+     */
+    @Setup( Level.Trial )
+    public void setup()
+    {
+        lineGen = new LineGenerator( rect, gridUnit, lpu );
+        path = new Path2D.Float();
+    }
+
+    /**
+     * Constructs a LineGenerator.
+     *
+     * @return  the constructed LineGenerator
+     */
+    @Benchmark
+    public LineGenerator construct()
+    {
+        LineGenerator   gen = new LineGenerator( rect, gridUnit, lpu );
+        return gen;
+    }
+
+    /**
+     * Iterates over the lines of a LineGenerator,
+     * obtaining a new line object for each line.
+     *
+     * @param blackhole sink for the generated lines
+     */
+    @Benchmark
+    public void iterate( Blackhole blackhole )
+    {
+        lineGen.iterator().forEachRemaining( blackhole::consume );
+    }
+
+    /**
+     * Iterates over the lines of a LineGenerator,
+     * reusing a single line object.
+     *
+     * @param blackhole sink for the line coordinates
+     */
+    @Benchmark
+    public void sharedIterate( Blackhole blackhole )
+    {
+        Iterator<Line2D>    iter    = lineGen.sharedIterator();
+        while ( iter.hasNext() )
+        {
+            Line2D  line    = iter.next();
+            blackhole.consume( line.getX1() );
+            blackhole.consume( line.getY2() );
+        }
+    }
+
+    /**
+     * Appends the lines of a LineGenerator to a path.
+     *
+     * @return  the path to which the lines were appended
+     */
+    @Benchmark
+    public Path2D appendTo()
+    {
+        path.reset();
+        lineGen.appendTo( path );
+        return path;
+    }
+}
@@ -0,0 +1,135 @@
+package com.acmemail.judah.cartesian_plane.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.nio.CharBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.acmemail.judah.cartesian_plane.Profile;
+import com.acmemail.judah.cartesian_plane.input.CommandReader;
+import com.acmemail.judah.cartesian_plane.input.ProfileParser;
+
+/**
+ * Measures the cost of parsing text input:
+ * equation files, via CommandReader,
+ * and profile files, via ProfileParser.
+ * Input is read from memory
+ * so that the benchmarks do not measure file I/O.
+ *
+ * @author Jack Straub
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class ParserBenchmark
+{
+    /**
+     * Template for one equation,
+     * in the format of an equation file.
+     * The equation number is substituted for <em>%1$d</em>.
+     */
+    private static final String equationTemplate    =
+        "# Equation %1$d\n"
+        + "EQUATION Equation %1$d\n"
+        + "start 0\n"
+        + "end 200pi\n"
+        + "step .001\n"
+        + "set a=%1$d,b=2,c=3\n"
+        + "param t\n"
+        + "radius r\n"
+        + "theta t\n"
+        + "y= a * x ^ 2 + b * x + c\n"
+        + "x= cos(%1$d * t)\n"
+        + "t= %1$d * sin(%1$d * t)\n"
+        + "r= cos(%1$d * t)\n"
+        + "prec 3\n"
+        + "plot RPlot\n"
+        + "\n";
+
+    /** The number of equations in the parsed command text. */
+    @Param( { "1", "100" } )
+    public int          equations;
+
+    /** The command text to parse. */
+    private String      commands;
+    /** 
+     * The command text to parse,
+     * as it would be decoded from an equation file.
+     */
+    private CharBuffer  commandBuffer;
+    /** The profile properties to parse. */
+    private List<String>    properties;
+
+    /**
+     * Generates the text to parse.
+     */
+    @Setup( Level.Trial )
+    public void setup()
+    {
+        StringBuilder   bldr    = new StringBuilder();
+        for ( int inx = 1 ; inx <= equations ; ++inx )
+            bldr.append( String.format( equationTemplate, inx ) );
+        commands = bldr.toString();
+        commandBuffer = CharBuffer.wrap( commands.toCharArray() );
+        properties = new ProfileParser().getProperties().toList();
+    }
+
+    /**
+     * Parses a sequence of equation commands.
+     *
+     * @param blackhole sink for the parsed commands
+     */
+    @Benchmark
+    public void commandReader( Blackhole blackhole )
+    {
+        StringReader    strReader   = new StringReader( commands );
+        BufferedReader  bufReader   = new BufferedReader( strReader );
+        new CommandReader( bufReader ).stream().forEach( blackhole::consume );
+    }
+
+    /**
+     * Parses a sequence of equation commands
+     * by scanning a CharBuffer in place.
+     *
+     * @param blackhole sink for the parsed commands
+     *
+     * @see CommandReader#open(java.nio.file.Path)
+     */
+    @Benchmark
+    public void commandReaderText( Blackhole blackhole )
+    {
+        CharBuffer  text    = commandBuffer.duplicate();
+        new CommandReader( text ).stream().forEach( blackhole::consume );
+    }
+
+    /**
+     * Parses the properties of a complete profile.
+     *
+     * @return  the profile configured from the parsed properties
+     */
+    @Benchmark
+    public Profile loadProperties()
+    {
+        ProfileParser   parser  = new ProfileParser();
+        parser.loadProperties( properties.stream() );
+        return parser.getProfile();
+    }
+}
@@ -325,6 +325,22 @@ public class CPConstants
     public static final String  PLOT_COLOR_PN           = "plotColor";
     /** Default value of color to use when plotting a point on the grid. */
     public static final String  PLOT_COLOR_DV           = "20";
+    /** 
+     * Indicates whether plots are to be generated
+     * by adaptive sampling,
+     * rather than by stepping through the iteration range.
+     */
+    public static final String  PLOT_ADAPTIVE_PN        = "plotAdaptive";
+    /** Default value of "plots are generated by adaptive sampling." */
+    public static final String  PLOT_ADAPTIVE_DV        = "false";
+    /** 
+     * Indicates whether successive plot points
+     * are to be connected to form a polyline,
+     * rather than drawn individually.
+     */
+    public static final String  PLOT_CONNECTED_PN       = "plotConnected";
+    /** Default value of "plot points are connected." */
+    public static final String  PLOT_CONNECTED_DV       = "false";
     
     /////////////////////////////////////////////////
     //   Profile properties
@@ -1,17 +1,35 @@
 package com.acmemail.judah.cartesian_plane;
 
+import java.awt.AlphaComposite;
 import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Cursor;
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Point;
+import java.awt.RenderingHints;
 import java.awt.Shape;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Path2D;
+import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.beans.PropertyChangeEvent;
-import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+import com.acmemail.judah.cartesian_plane.input.Command;
+import com.acmemail.judah.cartesian_plane.input.Equation;
 
 /**
  * This class encapsulates the display of a Cartesian plane.
@@ -395,7 +413,7 @@ import javax.swing.JPanel;
 @SuppressWarnings("serial")
 public class CartesianPlane 
     extends JPanel 
-    implements PropertyChangeListener
+    implements PropertyChangeBatchListener
 {
     /** 
      * This declaration is just for convenience; it saves
@@ -404,16 +422,53 @@ public class CartesianPlane
     private static final PropertyManager pmgr   = PropertyManager.INSTANCE;
     
     private static final int    mainWindowWidthDV   =
-        pmgr.asInt( CPConstants.MW_WIDTH_PN );
+        pmgr.asInt( Property.MW_WIDTH );
     private static final int    mainWindowHeightDV   =
-        pmgr.asInt( CPConstants.MW_HEIGHT_PN );
+        pmgr.asInt( Property.MW_HEIGHT );
+    
+    /** 
+     * The maximum number of plot points
+     * to accumulate in a single path before drawing it.
+     * Limits the memory required by the path,
+     * and the size of the area the rasterizer must process,
+     * while still amortizing the per-draw overhead
+     * of the Java2D pipeline over many points.
+     */
+    private static final int    maxPlotPathSize = 4096;
+    
+    /** Refresh level: a property change requires no redrawing. */
+    private static final int    NO_REFRESH      = 0;
+    /** Refresh level: a property change requires the plot be redrawn. */
+    private static final int    PLOT_REFRESH    = 1;
+    /** Refresh level: a property change requires the grid be redrawn. */
+    private static final int    FULL_REFRESH    = 2;
+    
+    /** The smallest grid unit that can be reached by zooming. */
+    private static final float  minGridUnit     = 1;
+    /** The largest grid unit that can be reached by zooming. */
+    private static final float  maxGridUnit     = 100000;
+    /** The zoom factor applied for each notch of the mouse wheel. */
+    private static final double wheelZoomFactor = 1.1;
+    /** 
+     * The time, in milliseconds,
+     * after the last mouse-wheel event
+     * at which a zoom gesture is considered to have settled.
+     */
+    private static final int    zoomSettleDelay = 250;
     
     /////////////////////////////////////////////////
     //   General grid properties
     /////////////////////////////////////////////////
-    /** Grid units (pixels-per-unit) default value: float. */
+    /** 
+     * Grid units (pixels-per-unit) default value: float.
+     * Initialized from the GRID_UNIT property,
+     * and modified by zooming;
+     * zooming does not change the property.
+     * 
+     * @see #commitZoom()
+     */
     private float   gridUnit            = 
-        pmgr.asFloat( CPConstants.GRID_UNIT_PN );
+        pmgr.asFloat( Property.GRID_UNIT );
 
     /////////////////////////////////////////////////
     //   Main window properties
@@ -424,27 +479,27 @@ public class CartesianPlane
     //   See the default constructor.
     /////////////////////////////////////////////////
     private Color   mwBGColor           = 
-        pmgr.asColor( CPConstants.MW_BG_COLOR_PN );
+        pmgr.asColor( Property.MW_BG_COLOR );
     
     /////////////////////////////////////////////////
     //   Margin properties
     /////////////////////////////////////////////////
     private float   marginTopWidth      =
-        pmgr.asFloat( CPConstants.MARGIN_TOP_WIDTH_PN );
+        pmgr.asFloat( Property.MARGIN_TOP_WIDTH );
     private Color   marginTopBGColor    =
-        pmgr.asColor( CPConstants.MARGIN_TOP_BG_COLOR_PN );
+        pmgr.asColor( Property.MARGIN_TOP_BG_COLOR );
     private float   marginRightWidth      =
-        pmgr.asFloat( CPConstants.MARGIN_RIGHT_WIDTH_PN );
+        pmgr.asFloat( Property.MARGIN_RIGHT_WIDTH );
     private Color   marginRightBGColor    =
-        pmgr.asColor( CPConstants.MARGIN_RIGHT_BG_COLOR_PN );
+        pmgr.asColor( Property.MARGIN_RIGHT_BG_COLOR );
     private float   marginBottomWidth      =
-        pmgr.asFloat( CPConstants.MARGIN_BOTTOM_WIDTH_PN );
+        pmgr.asFloat( Property.MARGIN_BOTTOM_WIDTH );
     private Color   marginBottomBGColor    =
-        pmgr.asColor( CPConstants.MARGIN_BOTTOM_BG_COLOR_PN );
+        pmgr.asColor( Property.MARGIN_BOTTOM_BG_COLOR );
     private float   marginLeftWidth      =
-        pmgr.asFloat( CPConstants.MARGIN_LEFT_WIDTH_PN );
+        pmgr.asFloat( Property.MARGIN_LEFT_WIDTH );
     private Color   marginLeftBGColor    =
-        pmgr.asColor( CPConstants.MARGIN_LEFT_BG_COLOR_PN );
+        pmgr.asColor( Property.MARGIN_LEFT_BG_COLOR );
     
     /** 
      * Supplier, set by the user,
@@ -453,13 +508,28 @@ public class CartesianPlane
     private Supplier<Stream<PlotCommand>>   streamSupplier  = 
         () -> Stream.empty();
     
+    /**
+     * Evaluates, on a background thread,
+     * the plot of the equation set by the user, if any.
+     * Each time a result is published
+     * the plot is redrawn.
+     * 
+     * @see #setPlotEquation(Equation, Command)
+     */
+    private final PlotRenderer  plotRenderer    = 
+        new PlotRenderer( this::redrawPlot );
+    
     /////////////////////////////////////////////////
     //   Plot properties (properties to use
     //   when plotting a point on the grid)
     /////////////////////////////////////////////////
     private Color   plotColor           =
-        pmgr.asColor( CPConstants.PLOT_COLOR_PN );
+        pmgr.asColor( Property.PLOT_COLOR );
     private PlotShape  plotShape       = new PointShape();
+    private boolean    plotAdaptive    =
+        pmgr.asBoolean( Property.PLOT_ADAPTIVE );
+    private boolean    plotConnected   =
+        pmgr.asBoolean( Property.PLOT_CONNECTED );
     
     private GraphManager  graphMgr;
 
@@ -474,8 +544,78 @@ public class CartesianPlane
     private Graphics2D          gtx;
     private Rectangle2D         gridRect;
     private PlotShape           currPlotShape;
+    private boolean             currPlotConnected;
     private double              xOffset;
     private double              yOffset;
+    /**
+     * The area of the grid in which the plot is being drawn;
+     * normally the grid rectangle, but only a strip of it
+     * when the plot layer is being updated after a pan.
+     * 
+     * @see #paintPlotStrip(Graphics2D, Rectangle2D)
+     */
+    private Rectangle2D         plotArea;
+    
+    /////////////////////////////////////////////////
+    //   Navigation (pan and zoom) state
+    /////////////////////////////////////////////////
+    /** 
+     * Horizontal displacement, in pixels,
+     * of the origin from the center of the grid rectangle.
+     */
+    private double              panX            = 0;
+    /** 
+     * Vertical displacement, in pixels,
+     * of the origin from the center of the grid rectangle.
+     */
+    private double              panY            = 0;
+    /** The value of xOffset when the cached layers were rendered. */
+    private double              layerXOffset    = 0;
+    /** The value of yOffset when the cached layers were rendered. */
+    private double              layerYOffset    = 0;
+    /** 
+     * Transformation from the cached layers to the display
+     * during a zoom gesture; 
+     * the identity transform if no zoom gesture is in progress.
+     */
+    private final AffineTransform   zoomTransform   = new AffineTransform();
+    /** Commits a zoom gesture once it has settled. */
+    private final Timer         zoomTimer       = 
+        new Timer( zoomSettleDelay, e -> commitZoom() );
+    
+    /** 
+     * Accumulates the shapes of plot points
+     * that have not yet been drawn.
+     * 
+     * @see #plotPoint(float, float)
+     * @see #flushPlot()
+     */
+    private final Path2D        plotPath        = new Path2D.Double();
+    /** The number of plot points accumulated in plotPath. */
+    private int                 plotPathSize    = 0;
+    /**
+     * Accumulates plot points that have not yet been drawn
+     * when plot points are connected.
+     * 
+     * @see #setPlotConnected(boolean)
+     */
+    private final PolylineBuilder   polyline    = new PolylineBuilder();
+    
+    /**
+     * Cached rendering of the static elements of the plane:
+     * background, grid lines, axes, tic marks, labels and margins.
+     * Invalidated when the size of the plane changes,
+     * or when any of the properties that control
+     * the static elements changes.
+     */
+    private final RenderLayer   staticLayer     = new RenderLayer( false );
+    /**
+     * Cached rendering of the user plot.
+     * Invalidated when the static layer is invalidated,
+     * when the plot changes,
+     * or on receipt of a redraw notification.
+     */
+    private final RenderLayer   plotLayer       = new RenderLayer( true );
         
     /**
      * Constructor.
@@ -499,22 +639,57 @@ public class CartesianPlane
         setPreferredSize( dim );
         pmgr.addPropertyChangeListener( this );
         
-        // Register listener for redraw notifications
+        // Register listener for redraw notifications; bursts of
+        // redraw requests are coalesced by the NotificationManager
+        // into a single redraw.
         NotificationManager.INSTANCE.addNotificationListener(
             CPConstants.REDRAW_NP,
-            e -> repaint()
+            e -> redrawPlot()
         );
         
+        // Mouse-wheel zoom and drag pan
+        Navigator   navigator   = new Navigator();
+        addMouseListener( navigator );
+        addMouseMotionListener( navigator );
+        addMouseWheelListener( navigator );
+        zoomTimer.setRepeats( false );
+        
         graphMgr = new GraphManager( gridRect, new Profile() );
     }
     
     /**
      * This method is where you do all your drawing.
-     * Note the the window must be COMPLETELY redrawn
-     * every time this method is called;
-     * Java does not remember anything you previously drew.
+     * The plane is rendered in two layers,
+     * each of which is cached in an off-screen image:
+     * the static layer
+     * (background, grid lines, axes, tics, labels and margins)
+     * and the plot layer.
+     * A layer is only re-rendered
+     * if it has been invalidated;
+     * otherwise this method simply
+     * composites the cached images.
+     * <p>
+     * When the plane has been panned
+     * the cached layers are scrolled,
+     * and only the strips of the grid
+     * exposed by the scroll are rendered.
+     * During a zoom gesture
+     * the cached layers are scaled,
+     * and nothing is rendered
+     * until the gesture settles.
+     * </p>
+     * <p>
+     * The plot of an equation set by the user
+     * is never evaluated by this method;
+     * it is evaluated on a background thread
+     * (see {@linkplain PlotRenderer}),
+     * and this method merely draws the most recently
+     * published result.
+     * </p>
      * 
      * @param graphics  Graphics context, for doing all drawing.
+     * 
+     * @see RenderLayer
      */
     @Override
     public void paintComponent( Graphics graphics )
@@ -523,9 +698,7 @@ public class CartesianPlane
         super.paintComponent( graphics );
         currWidth = getWidth();
         currHeight = getHeight();
-        gtx = (Graphics2D)graphics.create();
-        gtx.setColor( mwBGColor );
-        gtx.fillRect( 0,  0, currWidth, currHeight );
+        Graphics2D  target  = (Graphics2D)graphics.create();
         // end boilerplate
 
         // Describe the rectangle containing the grid
@@ -535,147 +708,718 @@ public class CartesianPlane
         float   minYco      = marginTopWidth;
         gridRect = 
             new Rectangle2D.Float( minXco, minYco, gridWidth, gridHeight );
+        
+        // Values to use in mapping Cartesian coordinates 
+        // to pixel coordinates
+        xOffset = gridRect.getX() + (gridRect.getWidth() - 1) / 2 + panX;
+        yOffset = gridRect.getY() + (gridRect.getHeight() - 1) / 2 + panY;
+        plotArea = gridRect;
 
+        // If the layers have been scrolled the plot is not
+        // re-evaluated until the pan is complete.
+        boolean scrolled    = false;
+        if ( !staticLayer.isValid( target, currWidth, currHeight ) )
+        {
+            paintStaticLayer( target );
+            plotLayer.invalidate();
+        }
+        else if ( xOffset != layerXOffset || yOffset != layerYOffset )
+            scrolled = scrollLayers( target );
+        if ( !scrolled )
+            plotRenderer.update( 
+                plotAdaptive, 
+                gridUnit, 
+                getUserBounds( gridRect )
+            );
+        if ( !plotLayer.isValid( target, currWidth, currHeight ) )
+            paintPlotLayer( target );
+        
+        staticLayer.draw( target );
+        if ( zoomTransform.isIdentity() )
+            plotLayer.draw( target );
+        else
+            drawZoomed( target );
+        
+        // begin boilerplate
+        target.dispose();
+        // end boilerplate
+    }
+    
+    /**
+     * Causes the user plot to be redrawn.
+     * The static layer of the plane
+     * is not re-rendered.
+     */
+    public void redrawPlot()
+    {
+        plotLayer.invalidate();
+        repaint();
+    }
+    
+    /**
+     * Gets the GraphManager
+     * that draws the grid lines, axes, tics and labels.
+     * Package-private;
+     * intended for testing.
+     * 
+     * @return  the GraphManager that draws the grid
+     */
+    GraphManager getGraphManager()
+    {
+        return graphMgr;
+    }
+    
+    /**
+     * Moves the origin of the plane
+     * by a given distance.
+     * The cached layers are scrolled
+     * the next time the plane is painted,
+     * and only the exposed strips of the grid
+     * are rendered;
+     * call {@linkplain #settle()} 
+     * to render the plane in full
+     * once a sequence of pans is complete.
+     * 
+     * @param dx    the horizontal distance, in pixels
+     * @param dy    the vertical distance, in pixels
+     */
+    private void pan( double dx, double dy )
+    {
+        panX += dx;
+        panY += dy;
+        repaint();
+    }
+    
+    /**
+     * Scales the plane by a given factor
+     * about a given point.
+     * The scale is applied to the cached layers immediately,
+     * but the grid unit is not changed,
+     * and the plane is not re-rendered,
+     * until the zoom gesture settles.
+     * The cumulative scale is limited
+     * so that the grid unit remains
+     * between minGridUnit and maxGridUnit.
+     * 
+     * @param factor    the given factor
+     * @param anchor    the given point, in pixel coordinates
+     * 
+     * @see #commitZoom()
+     */
+    private void zoom( double factor, Point2D anchor )
+    {
+        double          currScale   = zoomTransform.getScaleX();
+        double          newUnit     = gridUnit * currScale * factor;
+        newUnit = Math.max( minGridUnit, Math.min( maxGridUnit, newUnit ) );
+        double          scale       = newUnit / (gridUnit * currScale);
+        AffineTransform step        = new AffineTransform();
+        step.translate( anchor.getX(), anchor.getY() );
+        step.scale( scale, scale );
+        step.translate( -anchor.getX(), -anchor.getY() );
+        zoomTransform.preConcatenate( step );
+        zoomTimer.restart();
+        repaint();
+    }
+    
+    /**
+     * Completes a zoom gesture, if one is in progress.
+     * The grid unit is updated
+     * to reflect the cumulative scale of the gesture,
+     * and the origin is moved
+     * so that the points under the zoom anchors
+     * remain stationary.
+     * The zoom is view state, like the pan offset;
+     * the GRID_UNIT property,
+     * and hence the grid unit in the user's profile,
+     * is not changed.
+     * A subsequent change to the GRID_UNIT property
+     * replaces the zoomed grid unit.
+     * 
+     * @see #zoom(double, Point2D)
+     */
+    private void commitZoom()
+    {
+        zoomTimer.stop();
+        if ( !zoomTransform.isIdentity() )
+        {
+            Point2D origin  = new Point2D.Double( layerXOffset, layerYOffset );
+            zoomTransform.transform( origin, origin );
+            panX += origin.getX() - layerXOffset;
+            panY += origin.getY() - layerYOffset;
+            
+            gridUnit = (float)(gridUnit * zoomTransform.getScaleX());
+            zoomTransform.setToIdentity();
+            settle();
+        }
+    }
+    
+    /**
+     * Forces the plane to be rendered in full
+     * at the completion of a pan or zoom gesture.
+     */
+    private void settle()
+    {
+        staticLayer.invalidate();
+        plotLayer.invalidate();
+        repaint();
+    }
+    
+    /**
+     * Renders the static layer of the plane:
+     * background, grid lines, axes, tics, labels and margins.
+     * 
+     * @param target    
+     *      the graphics context in which the layer
+     *      will eventually be drawn
+     */
+    private void paintStaticLayer( Graphics2D target )
+    {
+        GraphicsConfiguration   config  = getGraphicsConfiguration();
+        gtx = staticLayer.begin( config, target, currWidth, currHeight );
+        gtx.setColor( mwBGColor );
+        gtx.fillRect( 0,  0, currWidth, currHeight );
 
         // Set the clip region to the rectangle bounding the grid before
         // drawing any lines. Don't forget to restore the original clip
         // region after drawing the lines.
         Shape   origClip    = gtx.getClip();
         gtx.setClip( gridRect );
+        graphMgr.refresh( gtx, getGraphRect(), gridUnit );
+        graphMgr.drawAll();
+        gtx.setClip( origClip );
+
+        paintMargins();
+        gtx.dispose();
+        
+        layerXOffset = xOffset;
+        layerYOffset = yOffset;
+    }
+    
+    /**
+     * Renders the plot layer of the plane.
+     * The most recently published plot is drawn,
+     * followed by any patches published for it
+     * (see {@linkplain PlotRenderer#getPatches()}).
+     * The plot is clipped to the grid rectangle.
+     * 
+     * @param target    
+     *      the graphics context in which the layer
+     *      will eventually be drawn
+     */
+    private void paintPlotLayer( Graphics2D target )
+    {
+        GraphicsConfiguration   config  = getGraphicsConfiguration();
+        gtx = plotLayer.begin( config, target, currWidth, currHeight );
+        gtx.setClip( gridRect );
         
         // The plot color and plot shape are set to defaults
-        // each time paintComponent is invoked. The user can
+        // each time the plot is drawn. The user can
         // change the values but they will only be in effect
-        // for the duration of one paintComponent execute; with
-        // the next paintComponent execution they will return
+        // for the duration of one drawing; with
+        // the next drawing they will return
         // to their default values.
         currPlotShape = plotShape;
+        currPlotConnected = plotConnected;
+        drawUserPlot( plotRenderer.getPlot() );
+        for ( PlotGeometry patch : plotRenderer.getPatches() )
+        {
+            drawPlotGeometry( patch );
+            flushPlot();
+        }
+        gtx.dispose();
+    }
+    
+    /**
+     * Scrolls the cached layers
+     * to reflect a change in the position of the origin,
+     * and renders the strips of the grid
+     * exposed by the scroll.
+     * The layers can only be scrolled
+     * by a whole number of device pixels;
+     * for the duration of this paint
+     * the origin is taken to be where the layers put it,
+     * and any remainder is left for the next paint
+     * (or for the full re-render at the end of the pan).
+     * If the origin has moved so far
+     * that nothing in the cached layers can be reused
+     * the layers are rendered in full.
+     * 
+     * @param target    
+     *      the graphics context in which the layers
+     *      will eventually be drawn
+     *      
+     * @return  true if the cached layers were scrolled
+     */
+    private boolean scrollLayers( Graphics2D target )
+    {
+        double  dx          = xOffset - layerXOffset;
+        double  dy          = yOffset - layerYOffset;
+        boolean plotValid   = 
+            plotLayer.isValid( target, currWidth, currHeight );
+        boolean scrolled    = 
+            Math.abs( dx ) < gridRect.getWidth()
+            && Math.abs( dy ) < gridRect.getHeight();
+        if ( !scrolled )
+        {
+            paintStaticLayer( target );
+            plotLayer.invalidate();
+        }
+        else
+        {
+            Point2D shift   = staticLayer.scroll( gridRect, dx, dy );
+            dx = shift.getX();
+            dy = shift.getY();
+            if ( plotValid )
+                plotLayer.scroll( gridRect, dx, dy );
+            layerXOffset += dx;
+            layerYOffset += dy;
+            xOffset = layerXOffset;
+            yOffset = layerYOffset;
+            for ( Rectangle2D strip : getExposedStrips( dx, dy ) )
+            {
+                paintStaticStrip( target, strip );
+                if ( plotValid )
+                    paintPlotStrip( target, strip );
+            }
+        }
+        return scrolled;
+    }
+    
+    /**
+     * Gets the strips of the grid rectangle
+     * exposed when its contents are scrolled
+     * by a given distance.
+     * There is a vertical strip if the horizontal distance is non-zero,
+     * and a horizontal strip if the vertical distance is non-zero;
+     * the strips do not overlap.
+     * Each strip is one pixel wider than the scroll distance
+     * to allow for rounding.
+     * 
+     * @param dx    the horizontal scroll distance
+     * @param dy    the vertical scroll distance
+     * 
+     * @return  the exposed strips
+     */
+    private List<Rectangle2D> getExposedStrips( double dx, double dy )
+    {
+        List<Rectangle2D>   strips  = new ArrayList<>( 2 );
+        double  minXco      = gridRect.getMinX();
+        double  minYco      = gridRect.getMinY();
+        double  width       = gridRect.getWidth();
+        double  height      = gridRect.getHeight();
+        double  stripWidth  = 
+            dx == 0 ? 0 : Math.min( Math.ceil( Math.abs( dx ) ) + 1, width );
+        double  stripHeight = 
+            dy == 0 ? 0 : Math.min( Math.ceil( Math.abs( dy ) ) + 1, height );
         
-        // Values to use in mapping Cartesian coordinates 
-        // to pixel coordinates
-        xOffset = gridRect.getX() + (gridRect.getWidth() - 1) / 2;
-        yOffset = gridRect.getY() + (gridRect.getHeight() - 1) / 2;
-
-        graphMgr.refresh( gtx, gridRect );
-        graphMgr.drawAll();
-        drawUserPlot();
+        double  stripXco    = dx > 0 ? minXco : minXco + width - stripWidth;
+        if ( stripWidth > 0 )
+            strips.add( 
+                new Rectangle2D.Double( stripXco, minYco, stripWidth, height )
+            );
         
-        gtx.setClip( origClip );
-
-        paintMargins();
+        // The horizontal strip excludes the vertical strip
+        double  stripYco    = dy > 0 ? minYco : minYco + height - stripHeight;
+        double  hStripXco   = dx > 0 ? minXco + stripWidth : minXco;
+        double  hStripWidth = width - stripWidth;
+        if ( stripHeight > 0 && hStripWidth > 0 )
+            strips.add( 
+                new Rectangle2D.Double( 
+                    hStripXco, 
+                    stripYco, 
+                    hStripWidth, 
+                    stripHeight
+                )
+            );
+        return strips;
+    }
+    
+    /**
+     * Renders a given strip of the static layer.
+     * 
+     * @param target    
+     *      the graphics context in which the layer
+     *      will eventually be drawn
+     * @param strip     the given strip
+     */
+    private void paintStaticStrip( Graphics2D target, Rectangle2D strip )
+    {
+        gtx = staticLayer.edit( target );
+        gtx.clip( strip );
+        graphMgr.refresh( gtx, getGraphRect(), gridUnit );
+        graphMgr.drawAll();
+        gtx.dispose();
+    }
+    
+    /**
+     * Renders a given strip of the plot layer.
+     * Only the portion of the most recently published plot
+     * that lies within the strip
+     * is drawn; the plot is not re-evaluated
+     * on the event dispatch thread.
+     * A YPLOT, or a plot generated by adaptive sampling,
+     * may not have been evaluated for the strip,
+     * in which case the strip
+     * is evaluated in the background,
+     * and drawn when the plot layer is next rendered.
+     * 
+     * @see PlotRenderer#getPlot(Rectangle2D)
+     * 
+     * @param target    
+     *      the graphics context in which the layer
+     *      will eventually be drawn
+     * @param strip     the given strip
+     */
+    private void paintPlotStrip( Graphics2D target, Rectangle2D strip )
+    {
+        gtx = plotLayer.edit( target );
+        gtx.clip( strip );
+        Composite   composite   = gtx.getComposite();
+        gtx.setComposite( AlphaComposite.Clear );
+        gtx.fill( strip );
+        gtx.setComposite( composite );
         
-        // begin boilerplate
+        plotArea = strip;
+        currPlotShape = plotShape;
+        currPlotConnected = plotConnected;
+        drawUserPlot( plotRenderer.getPlot( getUserBounds( strip ) ) );
+        plotArea = gridRect;
         gtx.dispose();
-        // end boilerplate
     }
     
+    /**
+     * Draws the grid rectangle
+     * during a zoom gesture.
+     * The cached layers are scaled 
+     * and drawn without being re-rendered.
+     * The static layer, 
+     * including the margins,
+     * must already have been drawn.
+     * 
+     * @param target    the graphics context in which to draw
+     */
+    private void drawZoomed( Graphics2D target )
+    {
+        Graphics2D  zoomGtx = (Graphics2D)target.create();
+        zoomGtx.clip( gridRect );
+        zoomGtx.setColor( mwBGColor );
+        zoomGtx.fill( gridRect );
+        zoomGtx.setRenderingHint( 
+            RenderingHints.KEY_INTERPOLATION, 
+            RenderingHints.VALUE_INTERPOLATION_BILINEAR
+        );
+        zoomGtx.transform( zoomTransform );
+        staticLayer.draw( zoomGtx );
+        plotLayer.draw( zoomGtx );
+        zoomGtx.dispose();
+    }
+    
+    /**
+     * Gets the rectangle within which 
+     * the GraphManager lays out the grid.
+     * The GraphManager places the origin
+     * at the center of its rectangle,
+     * so after a pan the rectangle is centered
+     * on the origin,
+     * and made large enough to cover the grid rectangle.
+     * If the origin is far outside the grid rectangle
+     * the rectangle is centered instead
+     * on a point a whole number of grid line spacings
+     * from the origin,
+     * just far enough away from the grid rectangle
+     * that the axes, tic marks and labels are not visible;
+     * this preserves the position of the grid lines,
+     * and limits the number of lines that must be generated.
+     * 
+     * @return  the rectangle within which to lay out the grid
+     */
+    private Rectangle2D getGraphRect()
+    {
+        float   lpu         = pmgr.asFloat( Property.GRID_LINE_LPU );
+        double  spacing     = lpu > 0 ? gridUnit / lpu : gridUnit;
+        double  minXco      = gridRect.getMinX();
+        double  maxXco      = gridRect.getMaxX();
+        double  minYco      = gridRect.getMinY();
+        double  maxYco      = gridRect.getMaxY();
+        
+        // Note: LineGenerator puts the origin at the center
+        // of its rectangle, which is half a pixel to the right of,
+        // and below, (xOffset, yOffset).
+        double  originXco   = 
+            snapOrigin( xOffset + .5, minXco, maxXco, spacing );
+        double  originYco   = 
+            snapOrigin( yOffset + .5, minYco, maxYco, spacing );
+        double  halfWidth   = 
+            Math.max( originXco - minXco, maxXco - originXco );
+        double  halfHeight  = 
+            Math.max( originYco - minYco, maxYco - originYco );
+        Rectangle2D rect    = 
+            new Rectangle2D.Double(
+                originXco - halfWidth,
+                originYco - halfHeight,
+                2 * halfWidth,
+                2 * halfHeight
+            );
+        return rect;
+    }
+    
+    /**
+     * Moves a given coordinate of the origin
+     * toward a given range
+     * in increments of a given spacing
+     * until it is no further from the range
+     * than the length of the range.
+     * 
+     * @param origin    the given coordinate of the origin
+     * @param min       the lower bound of the given range
+     * @param max       the upper bound of the given range
+     * @param spacing   the given spacing
+     * 
+     * @return  the adjusted coordinate
+     * 
+     * @see #getGraphRect()
+     */
+    private static double 
+    snapOrigin( double origin, double min, double max, double spacing )
+    {
+        double  extent  = max - min;
+        double  result  = origin;
+        if ( origin < min - extent )
+        {
+            double  excess  = min - extent - origin;
+            result = origin + Math.floor( excess / spacing ) * spacing;
+        }
+        else if ( origin > max + extent )
+        {
+            double  excess  = origin - max - extent;
+            result = origin - Math.floor( excess / spacing ) * spacing;
+        }
+        return result;
+    }
+    
+    /**
+     * Plots a point at the given user coordinates
+     * using the current plot shape and color,
+     * or, if plot points are connected,
+     * adds the point to the current polyline.
+     * For efficiency,
+     * points are not drawn individually;
+     * the shape of the point is added to a path
+     * which is drawn, in a single operation,
+     * when the plot color or shape changes,
+     * when the path reaches its maximum size,
+     * or when plotting is complete.
+     * 
+     * @param userXco   the x-coordinate of the point
+     * @param userYco   the y-coordinate of the point
+     * 
+     * @see #flushPlot()
+     */
     public void plotPoint( float userXco, float userYco )
     {
         double  xco = userXco * gridUnit + xOffset;
         double  yco = -userYco * gridUnit + yOffset;
-        Shape   shape   = currPlotShape.getShape( xco, yco );
-        gtx.draw( shape );
+        addPlotPoint( xco, yco );
     }
     
     /**
      * Sets the color to use to draw plot points for
      * the duration of one execution of paintComponent.
+     * Points plotted with the previous color
+     * are drawn before the color is changed.
      * 
      * @param color the color to use to draw plot points
      */
     public void setPlotColor( Color color )
     {
+        flushPlot();
         gtx.setColor( color );
     }
     
     /**
      * Sets the shape to use to draw plot points for
      * the duration of one execution of paintComponent.
+     * Points plotted with the previous shape
+     * are drawn before the shape is changed.
      * 
      * @param plotShape the shape to use to draw plot points
      */
     public void setPlotShape( PlotShape plotShape )
     {
+        flushPlot();
         currPlotShape = plotShape;
     }
     
+    /**
+     * Determines, for the duration of one execution 
+     * of paintComponent,
+     * whether successive plot points are connected
+     * to form a polyline,
+     * or drawn individually using the current plot shape.
+     * A polyline is broken 
+     * at points that can't be evaluated
+     * and at apparent discontinuities,
+     * and is simplified before drawing
+     * so that its vertex count is limited
+     * to what the pixel grid can show.
+     * Points plotted in the previous mode
+     * are drawn before the mode is changed.
+     * 
+     * @param connected true to connect successive plot points
+     * 
+     * @see PolylineBuilder
+     */
+    public void setPlotConnected( boolean connected )
+    {
+        flushPlot();
+        currPlotConnected = connected;
+    }
+    
+    /**
+     * Responds to a change in the value of a property.
+     * 
+     * @param evt   object describing the change
+     */
+    @Override
     public void propertyChange( PropertyChangeEvent evt )
     {
-        String  pName   = evt.getPropertyName();
-        String  newVal  = (String)evt.getNewValue();
-        boolean update  = false;
-        switch ( pName )
+        int     level   = applyChange( evt );
+        refresh( level );
+    }
+    
+    /**
+     * Responds to the changes in the values of properties
+     * made during a PropertyManager batch.
+     * The encapsulated properties are all updated
+     * before the grid is redrawn,
+     * and the grid is redrawn at most once.
+     * 
+     * @param events    objects describing the changes
+     */
+    @Override
+    public void propertyChangeBatch( List<PropertyChangeEvent> events )
+    {
+        int     level   = NO_REFRESH;
+        for ( PropertyChangeEvent evt : events )
+            level = Math.max( level, applyChange( evt ) );
+        refresh( level );
+    }
+    
+    /**
+     * Updates the encapsulated value, if any,
+     * of a property that has changed,
+     * and determines what part of the grid
+     * must be redrawn as a consequence.
+     * 
+     * @param evt   object describing the change
+     * 
+     * @return  
+     *      the required refresh level:
+     *      NO_REFRESH, PLOT_REFRESH or FULL_REFRESH
+     */
+    private int applyChange( PropertyChangeEvent evt )
+    {
+        Property    property    = 
+            Property.fromName( evt.getPropertyName() );
+        int         level       = NO_REFRESH;
+        if ( property != null )
         {
-        case CPConstants.GRID_UNIT_PN:
-            gridUnit = CPConstants.asFloat( newVal );
-            update = true;
-            break;
-        case CPConstants.MW_BG_COLOR_PN:
-            mwBGColor = CPConstants.asColor( newVal );
-            update = true;
-            break;
-        case CPConstants.MARGIN_TOP_WIDTH_PN:
-            marginTopWidth = CPConstants.asFloat( newVal );
-            update = true;
-            break;
-        case CPConstants.MARGIN_TOP_BG_COLOR_PN:
-            marginTopBGColor = CPConstants.asColor( newVal );
-            update = true;
-            break;
-        case CPConstants.MARGIN_RIGHT_WIDTH_PN:
-            marginRightWidth = CPConstants.asFloat( newVal );
-            update = true;
-            break;
-        case CPConstants.MARGIN_RIGHT_BG_COLOR_PN:
-            marginRightBGColor = CPConstants.asColor( newVal );
-            update = true;
-            break;
-        case CPConstants.MARGIN_BOTTOM_WIDTH_PN:
-            marginBottomWidth = CPConstants.asFloat( newVal );
-            update = true;
-            break;
-        case CPConstants.MARGIN_BOTTOM_BG_COLOR_PN:
-            marginBottomBGColor = CPConstants.asColor( newVal );
-            update = true;
-            break;
-        case CPConstants.MARGIN_LEFT_WIDTH_PN:
-            marginLeftWidth = CPConstants.asFloat( newVal );
-            update = true;
-            break;
-        case CPConstants.MARGIN_LEFT_BG_COLOR_PN:
-            marginLeftBGColor = CPConstants.asColor( newVal );
-            update = true;
-            break;
-        case CPConstants.TIC_MINOR_COLOR_PN:
-        case CPConstants.TIC_MINOR_WEIGHT_PN:
-        case CPConstants.TIC_MINOR_LEN_PN:
-        case CPConstants.TIC_MINOR_MPU_PN:
-        case CPConstants.TIC_MINOR_DRAW_PN:
-        case CPConstants.TIC_MAJOR_COLOR_PN:
-        case CPConstants.TIC_MAJOR_WEIGHT_PN:
-        case CPConstants.TIC_MAJOR_LEN_PN:
-        case CPConstants.TIC_MAJOR_MPU_PN:
-        case CPConstants.TIC_MAJOR_DRAW_PN:
-        case CPConstants.GRID_LINE_COLOR_PN:
-        case CPConstants.GRID_LINE_WEIGHT_PN:
-        case CPConstants.GRID_LINE_LPU_PN:
-        case CPConstants.GRID_LINE_DRAW_PN:
-        case CPConstants.AXIS_COLOR_PN:
-        case CPConstants.AXIS_WEIGHT_PN:
-        case CPConstants.LABEL_FONT_COLOR_PN:
-        case CPConstants.LABEL_FONT_NAME_PN:
-        case CPConstants.LABEL_FONT_STYLE_PN:
-        case CPConstants.LABEL_FONT_SIZE_PN:
-        case CPConstants.LABEL_DRAW_PN:
-            update = true;
-            break;
+            switch ( property )
+            {
+            case GRID_UNIT:
+                gridUnit = pmgr.asFloat( property );
+                level = FULL_REFRESH;
+                break;
+            case MW_BG_COLOR:
+                mwBGColor = pmgr.asColor( property );
+                level = FULL_REFRESH;
+                break;
+            case MARGIN_TOP_WIDTH:
+                marginTopWidth = pmgr.asFloat( property );
+                level = FULL_REFRESH;
+                break;
+            case MARGIN_TOP_BG_COLOR:
+                marginTopBGColor = pmgr.asColor( property );
+                level = FULL_REFRESH;
+                break;
+            case MARGIN_RIGHT_WIDTH:
+                marginRightWidth = pmgr.asFloat( property );
+                level = FULL_REFRESH;
+                break;
+            case MARGIN_RIGHT_BG_COLOR:
+                marginRightBGColor = pmgr.asColor( property );
+                level = FULL_REFRESH;
+                break;
+            case MARGIN_BOTTOM_WIDTH:
+                marginBottomWidth = pmgr.asFloat( property );
+                level = FULL_REFRESH;
+                break;
+            case MARGIN_BOTTOM_BG_COLOR:
+                marginBottomBGColor = pmgr.asColor( property );
+                level = FULL_REFRESH;
+                break;
+            case MARGIN_LEFT_WIDTH:
+                marginLeftWidth = pmgr.asFloat( property );
+                level = FULL_REFRESH;
+                break;
+            case MARGIN_LEFT_BG_COLOR:
+                marginLeftBGColor = pmgr.asColor( property );
+                level = FULL_REFRESH;
+                break;
+            case PLOT_ADAPTIVE:
+                plotAdaptive = pmgr.asBoolean( property );
+                level = PLOT_REFRESH;
+                break;
+            case PLOT_CONNECTED:
+                plotConnected = pmgr.asBoolean( property );
+                level = PLOT_REFRESH;
+                break;
+            case TIC_MINOR_COLOR:
+            case TIC_MINOR_WEIGHT:
+            case TIC_MINOR_LEN:
+            case TIC_MINOR_MPU:
+            case TIC_MINOR_DRAW:
+            case TIC_MAJOR_COLOR:
+            case TIC_MAJOR_WEIGHT:
+            case TIC_MAJOR_LEN:
+            case TIC_MAJOR_MPU:
+            case TIC_MAJOR_DRAW:
+            case GRID_LINE_COLOR:
+            case GRID_LINE_WEIGHT:
+            case GRID_LINE_LPU:
+            case GRID_LINE_DRAW:
+            case AXIS_COLOR:
+            case AXIS_WEIGHT:
+            case LABEL_FONT_COLOR:
+            case LABEL_FONT_NAME:
+            case LABEL_FONT_STYLE:
+            case LABEL_FONT_SIZE:
+            case LABEL_DRAW:
+                level = FULL_REFRESH;
+                break;
+            }
         }
-        
-        if ( update )
+        return level;
+    }
+    
+    /**
+     * Redraws the grid, or part of the grid,
+     * as required by a change in properties.
+     * 
+     * @param level
+     *      the required refresh level:
+     *      NO_REFRESH, PLOT_REFRESH or FULL_REFRESH
+     */
+    private void refresh( int level )
+    {
+        if ( level == FULL_REFRESH )
         {
             graphMgr.resetProfile();
+            staticLayer.invalidate();
             repaint();
         }
+        else if ( level == PLOT_REFRESH )
+            redrawPlot();
     }
     
     /**
@@ -688,6 +1432,8 @@ public class CartesianPlane
      */
     public void setStreamSupplier( Supplier<Stream<PlotCommand>> supplier )
     {
+        plotLayer.invalidate();
+        plotRenderer.setPlot( null, null );
         if ( supplier != null )
             streamSupplier = supplier;
         else
@@ -695,12 +1441,185 @@ public class CartesianPlane
     }
     
     /**
-     * Draws the user plot.
+     * Sets the equation to plot,
+     * and the type of plot to generate.
+     * The coordinates of the plot are cached,
+     * and are only recalculated
+     * when the equation changes;
+     * see {@linkplain PlotGeometry}.
+     * The plot is evaluated on a background thread,
+     * and is drawn progressively
+     * as results are published;
+     * see {@linkplain PlotRenderer}.
+     * Any evaluation of a previous plot
+     * that is in progress is cancelled.
+     * Setting the equation to null
+     * removes the plot.
+     * This method replaces any stream supplier
+     * previously set by the user.
+     * 
+     * @param equation  the equation to plot; may be null
+     * @param plotType  
+     *      the type of plot to generate:
+     *      YPLOT, XYPLOT, RPLOT or TPLOT
+     * 
+     * @throws IllegalArgumentException
+     *      if equation is not null and plotType is not a plot command
+     *      
+     * @see #setStreamSupplier(Supplier)
+     */
+    public void setPlotEquation( Equation equation, Command plotType )
+    {
+        plotRenderer.setPlot( equation, plotType );
+        plotLayer.invalidate();
+        streamSupplier = () -> Stream.empty();
+    }
+    
+    /**
+     * Cancels the evaluation of the plot
+     * of the equation set by the user,
+     * if one is in progress.
+     * This is appropriate, for example,
+     * when the user edits the equation,
+     * making the plot being evaluated obsolete.
+     * The plot that is currently displayed
+     * is not affected.
+     * 
+     * @see #setPlotEquation(Equation, Command)
+     */
+    public void cancelPlot()
+    {
+        plotRenderer.cancel();
+    }
+    
+    /**
+     * Draws the user plot,
+     * consisting of the commands
+     * obtained from the stream supplier, if any,
+     * and a given plot of the equation set by the user.
+     * 
+     * @param plotGeometry  
+     *      the given plot of the equation set by the user;
+     *      may be null
      */
-    private void drawUserPlot()
+    private void drawUserPlot( PlotGeometry plotGeometry )
     {
         gtx.setColor( plotColor );
         streamSupplier.get().forEach( c -> c.execute() );
+        if ( plotGeometry != null )
+            drawPlotGeometry( plotGeometry );
+        flushPlot();
+    }
+    
+    /**
+     * Draws a given PlotGeometry object,
+     * culled to the area of the grid
+     * in which the plot is being drawn.
+     * The plot is not re-evaluated.
+     * 
+     * @param plotGeometry  the given PlotGeometry object
+     */
+    private void drawPlotGeometry( PlotGeometry plotGeometry )
+    {
+        plotGeometry.restrict( getUserBounds( plotArea ) );
+        int     size    = plotGeometry.size();
+        for ( int inx = 0 ; inx < size ; ++inx )
+        {
+            // Breaks mark discontinuities; there's nothing to draw,
+            // but a polyline must not be connected across a break.
+            if ( plotGeometry.isBreak( inx ) )
+            {
+                if ( currPlotConnected )
+                    polyline.addBreak();
+            }
+            else
+            {
+                double  xco     = 
+                    plotGeometry.getXco( inx ) * gridUnit + xOffset;
+                double  yco     = 
+                    -plotGeometry.getYco( inx ) * gridUnit + yOffset;
+                addPlotPoint( xco, yco );
+            }
+        }
+    }
+    
+    /**
+     * Plots a point at the given pixel coordinates.
+     * If plot points are connected
+     * the point is added to the current polyline,
+     * otherwise the current plot shape is drawn
+     * centered at the point.
+     * 
+     * @param xco   the x-coordinate of the point
+     * @param yco   the y-coordinate of the point
+     */
+    private void addPlotPoint( double xco, double yco )
+    {
+        if ( currPlotConnected )
+            polyline.add( xco, yco );
+        else
+            addPlotShape( xco, yco );
+    }
+    
+    /**
+     * Adds the current plot shape,
+     * centered at the given pixel coordinates,
+     * to the path of plot points waiting to be drawn.
+     * If the path reaches its maximum size
+     * it is drawn immediately.
+     * 
+     * @param xco   the x-coordinate of the center of the shape
+     * @param yco   the y-coordinate of the center of the shape
+     */
+    private void addPlotShape( double xco, double yco )
+    {
+        Shape   shape   = currPlotShape.getShape( xco, yco );
+        plotPath.append( shape, false );
+        if ( ++plotPathSize >= maxPlotPathSize )
+            flushPlot();
+    }
+    
+    /**
+     * Draws, in a single operation,
+     * all the plot points 
+     * accumulated since the last flush.
+     * If plot points are connected
+     * the simplified polyline is drawn.
+     */
+    private void flushPlot()
+    {
+        if ( !polyline.isEmpty() )
+            plotPathSize += polyline.appendTo( plotPath, gridRect );
+        if ( plotPathSize > 0 )
+        {
+            gtx.draw( plotPath );
+            plotPath.reset();
+            plotPathSize = 0;
+        }
+    }
+    
+    /**
+     * Gets the bounds of a given area of the grid
+     * in user coordinates.
+     * 
+     * @param area  the given area, in pixel coordinates
+     * 
+     * @return  the bounds of the given area in user coordinates
+     */
+    private Rectangle2D getUserBounds( Rectangle2D area )
+    {
+        double      minXco  = (area.getMinX() - xOffset) / gridUnit;
+        double      maxXco  = (area.getMaxX() - xOffset) / gridUnit;
+        double      minYco  = (yOffset - area.getMaxY()) / gridUnit;
+        double      maxYco  = (yOffset - area.getMinY()) / gridUnit;
+        Rectangle2D rect    = 
+            new Rectangle2D.Double( 
+                minXco, 
+                minYco, 
+                maxXco - minXco, 
+                maxYco - minYco
+            );
+        return rect;
     }
     
     private void paintMargins()
@@ -729,4 +1648,79 @@ public class CartesianPlane
         gtx.setColor( marginLeftBGColor );
         gtx.fill( rect );
     }
+    
+    /**
+     * Translates mouse gestures into navigation operations.
+     * Dragging with the left mouse button
+     * pans the plane;
+     * the plane is rendered in full
+     * when the button is released.
+     * Rotating the mouse wheel
+     * zooms the plane about the mouse pointer;
+     * the plane is rendered in full
+     * when the wheel has been idle
+     * for zoomSettleDelay milliseconds.
+     * 
+     * @author Jack Straub
+     */
+    private class Navigator extends MouseAdapter
+    {
+        /** The last position of the mouse during a drag; null if none. */
+        private Point   dragFrom    = null;
+        /** The cursor to restore at the end of a drag. */
+        private Cursor  saveCursor  = null;
+        
+        @Override
+        public void mousePressed( MouseEvent evt )
+        {
+            Point   point   = evt.getPoint();
+            if ( SwingUtilities.isLeftMouseButton( evt ) 
+                && gridRect != null
+                && gridRect.contains( point ) )
+            {
+                commitZoom();
+                dragFrom = point;
+                saveCursor = getCursor();
+                setCursor( Cursor.getPredefinedCursor( Cursor.MOVE_CURSOR ) );
+            }
+        }
+        
+        @Override
+        public void mouseDragged( MouseEvent evt )
+        {
+            if ( dragFrom != null )
+            {
+                Point   dragTo  = evt.getPoint();
+                pan( dragTo.x - dragFrom.x, dragTo.y - dragFrom.y );
+                dragFrom = dragTo;
+            }
+        }
+        
+        @Override
+        public void mouseReleased( MouseEvent evt )
+        {
+            if ( dragFrom != null )
+            {
+                dragFrom = null;
+                setCursor( saveCursor );
+                settle();
+            }
+        }
+        
+        @Override
+        public void mouseWheelMoved( MouseWheelEvent evt )
+        {
+            if ( gridRect != null && dragFrom == null )
+            {
+                Point2D anchor  = evt.getPoint();
+                if ( !gridRect.contains( anchor ) )
+                    anchor = new Point2D.Double( 
+                        gridRect.getCenterX(), 
+                        gridRect.getCenterY()
+                    );
+                double  notches = evt.getPreciseWheelRotation();
+                zoom( Math.pow( wheelZoomFactor, -notches ), anchor );
+            }
+        }
+    }
 }
@@ -9,9 +9,9 @@ import java.awt.Stroke;
 import java.awt.font.FontRenderContext;
 import java.awt.font.TextLayout;
 import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
 import java.awt.geom.Rectangle2D;
 import java.util.Iterator;
-import java.util.stream.StreamSupport;
 
 import javax.swing.JComponent;
 
@@ -97,6 +97,20 @@ public class GraphManager
     /**  Graphics context; updated every time refresh() is invoked. */
     private Graphics2D          gtx;
     
+    /** 
+     * Font used to draw labels; 
+     * recreated only when the font properties change.
+     */
+    private Font                labelFont   = null;
+    /** Cache of laid-out labels, reused between repaints. */
+    private final LabelCache    labelCache  = new LabelCache();
+    /** 
+     * Path used to draw a category of lines 
+     * in a single operation;
+     * reused between repaints.
+     */
+    private final Path2D        linePath    = new Path2D.Float();
+    
     /**
      * Constructor.
      * Initializes this object with the given Profile
@@ -162,6 +176,43 @@ public class GraphManager
         refresh( graphics );
     }
     
+    /**
+     * Redraw the sample graph,
+     * updating the GraphicsContext,
+     * the bounding rectangle
+     * and the grid unit
+     * for this GraphManager object.
+     * The given grid unit
+     * replaces the grid unit obtained from the Profile;
+     * this allows the graph to be drawn
+     * at a scale other than the one configured in the Profile,
+     * for example after the user zooms the Cartesian plane.
+     * 
+     * @param graphics  graphics context for redrawing the sample graph
+     * @param rect        
+     *      the bounding rectangle to apply to
+     *      future operations
+     * @param gridUnit  
+     *      the grid unit (pixels per unit) to apply to
+     *      future operations
+     */
+    public void refresh( Graphics2D graphics, Rectangle2D rect, float gridUnit )
+    {
+        refresh( graphics, rect );
+        this.gridUnit = gridUnit;
+    }
+    
+    /**
+     * Gets the grid unit (pixels per unit)
+     * established by the most recent refresh operation.
+     * 
+     * @return  the grid unit established by the most recent refresh
+     */
+    public float getGridUnit()
+    {
+        return gridUnit;
+    }
+    
     /**
      * Update the graphics context used 
      * to draw in the client window.
@@ -303,9 +354,9 @@ public class GraphManager
                 );
             gtx.setStroke( stroke );
             gtx.setColor( color );
-            StreamSupport
-                .stream( lineGen.spliterator(), false )
-                .forEach( gtx::draw );
+            linePath.reset();
+            lineGen.appendTo( linePath );
+            gtx.draw( linePath );
         }
     }
     
@@ -323,11 +374,7 @@ public class GraphManager
         
         float   ticMajorMPU = ticMajor.getSpacing();
         float   ticMajorLen = ticMajor.getLength();
-        String  fontName    = mainWindow.getFontName();
-        int     fontSize    = (int)mainWindow.getFontSize();
-        int     fontStyle   = mainWindow.getFontStyle();
-        Font    labelFont   = 
-            new Font( fontName, fontStyle, fontSize );
+        Font    labelFont   = getLabelFont();
         gtx.setFont( labelFont );
 
         Color   fontColor   = mainWindow.getFGColor();
@@ -344,18 +391,20 @@ public class GraphManager
                 ticMajorLen,
                 orientation
             );
-        for ( Line2D line : lineGen )
+        Iterator<Line2D>    iter    = lineGen.sharedIterator();
+        while ( iter.hasNext() )
         {
+            Line2D      line    = iter.next();
             float       xco2    = (float)line.getX2();
             float       yco1    = (float)line.getY1();
             float       yco2    = (float)line.getY2();
             float       delta   = orientation == LineGenerator.HORIZONTAL ?
                 (originYco - yco1) : (xco2 - originXco); 
             float       unit    = delta / gridUnit;
-            String      label   = String.format( "%3.2f", unit );
-            TextLayout  layout  = 
-                new TextLayout( label, labelFont, frc );
-            Rectangle2D bounds  = layout.getBounds();
+            LabelCache.Label    label   = 
+                labelCache.get( unit, labelFont, frc );
+            TextLayout  layout  = label.getLayout();
+            Rectangle2D bounds  = label.getBounds();
             float       xco     = 0;
             float       yco     = 0;
             if ( orientation == LineGenerator.HORIZONTAL )
@@ -376,6 +425,27 @@ public class GraphManager
        }
     }
     
+    /**
+     * Gets the font to use to draw labels.
+     * The font is only instantiated
+     * if the font properties have changed
+     * since the last time this method was called.
+     * 
+     * @return  the font to use to draw labels
+     */
+    private Font getLabelFont()
+    {
+        String  fontName    = mainWindow.getFontName();
+        int     fontSize    = (int)mainWindow.getFontSize();
+        int     fontStyle   = mainWindow.getFontStyle();
+        if ( labelFont == null
+            || !labelFont.getName().equals( fontName )
+            || labelFont.getSize() != fontSize
+            || labelFont.getStyle() != fontStyle )
+            labelFont = new Font( fontName, fontStyle, fontSize );
+        return labelFont;
+    }
+    
     /**
      * Instantiates a Stroke from the given width.
      * This method ensures that a Stroke
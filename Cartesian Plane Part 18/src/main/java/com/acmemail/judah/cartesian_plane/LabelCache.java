@@ -0,0 +1,277 @@
+package com.acmemail.judah.cartesian_plane;
+
+import java.awt.Font;
+import java.awt.font.FontRenderContext;
+import java.awt.font.TextLayout;
+import java.awt.geom.Rectangle2D;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Caches the laid-out text of the labels
+ * drawn on the major tic marks of a graph.
+ * <p>
+ * Labels are numeric values
+ * displayed with two decimal places.
+ * A label is identified by its value,
+ * expressed as a sign
+ * and a whole number of hundredths,
+ * together with the Font and FontRenderContext
+ * used to lay it out.
+ * The magnitude of the value is rounded
+ * half away from zero,
+ * as it is when the value is formatted directly,
+ * so that labels on opposite sides of an axis
+ * are symmetric.
+ * The first time a label is requested
+ * its text is formatted
+ * and a TextLayout is constructed;
+ * on subsequent requests
+ * the cached TextLayout and bounds are returned.
+ * Neither formatting nor layout
+ * is therefore performed on every repaint.
+ * </p>
+ * <p>
+ * The cache is bounded;
+ * when it is full the least recently used label is discarded.
+ * This accommodates operations such as panning and zooming,
+ * where the set of visible labels shifts gradually.
+ * </p>
+ *
+ * @author Jack Straub
+ *
+ * @see GraphManager#drawText()
+ */
+public class LabelCache
+{
+    /** Default maximum number of labels to cache. */
+    public static final int     DEF_CAPACITY    = 512;
+
+    /** Format used to convert a label value to text. */
+    private static final String labelFormat     = "%3.2f";
+
+    /** Map of label keys to cached labels, in access order. */
+    private final Map<Key,Label>    cache;
+
+    /**
+     * Default constructor.
+     * Creates a cache with the default capacity.
+     */
+    public LabelCache()
+    {
+        this( DEF_CAPACITY );
+    }
+
+    /**
+     * Constructor.
+     * Creates a cache with a given capacity.
+     *
+     * @param capacity  the given capacity
+     *
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    public LabelCache( int capacity )
+    {
+        if ( capacity < 1 )
+        {
+            String  message = "Invalid capacity: " + capacity;
+            throw new IllegalArgumentException( message );
+        }
+        cache = new LinkedHashMap<>( 16, .75f, true ) {
+            private static final long serialVersionUID = 1L;
+            @Override
+            protected boolean removeEldestEntry( Map.Entry<Key,Label> eldest )
+            {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Gets the label for a given value,
+     * laid out with a given Font and FontRenderContext.
+     * The magnitude of the value
+     * is rounded to the nearest hundredth,
+     * with ties rounded away from zero;
+     * the sign of the value is retained
+     * even if its magnitude rounds to zero.
+     * The resulting text is the same as the text produced
+     * by formatting the value directly.
+     *
+     * @param value the given value
+     * @param font  the given Font
+     * @param frc   the given FontRenderContext
+     *
+     * @return  the label for the given value
+     */
+    public Label get( float value, Font font, FontRenderContext frc )
+    {
+        // Note: rounding the signed value would round ties
+        // toward positive infinity (-0.125 to -0.12, rather than -0.13).
+        boolean negative    = Math.copySign( 1f, value ) < 0;
+        long    hundredths  = Math.round( Math.abs( value ) * 100.0 );
+        Key     key         = new Key( negative, hundredths, font, frc );
+        Label   label       = cache.get( key );
+        if ( label == null )
+        {
+            label = new Label( negative, hundredths, font, frc );
+            cache.put( key, label );
+        }
+        return label;
+    }
+
+    /**
+     * Gets the number of labels in the cache.
+     *
+     * @return  the number of labels in the cache
+     */
+    public int size()
+    {
+        return cache.size();
+    }
+
+    /**
+     * Discards all labels in the cache.
+     */
+    public void clear()
+    {
+        cache.clear();
+    }
+
+    /**
+     * Encapsulates a laid-out label:
+     * its text, TextLayout and bounds.
+     *
+     * @author Jack Straub
+     */
+    public static class Label
+    {
+        /** The text of the label. */
+        private final String        text;
+        /** The laid-out text of the label. */
+        private final TextLayout    layout;
+        /** The bounds of the laid-out text. */
+        private final Rectangle2D   bounds;
+
+        /**
+         * Constructor.
+         * Formats and lays out a label
+         * for a given value.
+         *
+         * @param negative      true if the given value is negative
+         * @param hundredths
+         *      the magnitude of the given value, in hundredths
+         * @param font          the font in which to lay out the label
+         * @param frc           the FontRenderContext to use for layout
+         */
+        private Label(
+            boolean negative,
+            long hundredths,
+            Font font,
+            FontRenderContext frc
+        )
+        {
+            double  magnitude   = hundredths / 100.0;
+            double  value       = negative ? -magnitude : magnitude;
+            text = String.format( labelFormat, value );
+            layout = new TextLayout( text, font, frc );
+            bounds = layout.getBounds();
+        }
+
+        /**
+         * Gets the text of this label.
+         *
+         * @return  the text of this label
+         */
+        public String getText()
+        {
+            return text;
+        }
+
+        /**
+         * Gets the laid-out text of this label.
+         *
+         * @return  the laid-out text of this label
+         */
+        public TextLayout getLayout()
+        {
+            return layout;
+        }
+
+        /**
+         * Gets the bounds of the laid-out text of this label.
+         * The returned object must not be modified.
+         *
+         * @return  the bounds of the laid-out text of this label
+         */
+        public Rectangle2D getBounds()
+        {
+            return bounds;
+        }
+    }
+
+    /**
+     * Identifies a label
+     * by its value, Font and FontRenderContext.
+     *
+     * @author Jack Straub
+     */
+    private static class Key
+    {
+        private final boolean           negative;
+        private final long              hundredths;
+        private final Font              font;
+        private final FontRenderContext frc;
+
+        /**
+         * Constructor.
+         * Fully initializes this key.
+         *
+         * @param negative      true if the value of the label is negative
+         * @param hundredths
+         *      the magnitude of the value of the label, in hundredths
+         * @param font          the Font of the label
+         * @param frc           the FontRenderContext of the label
+         */
+        public Key(
+            boolean negative,
+            long hundredths,
+            Font font,
+            FontRenderContext frc
+        )
+        {
+            this.negative = negative;
+            this.hundredths = hundredths;
+            this.font = font;
+            this.frc = frc;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            int hash    = Objects.hash( negative, hundredths, font, frc );
+            return hash;
+        }
+
+        @Override
+        public boolean equals( Object other )
+        {
+            boolean result  = false;
+            if ( this == other )
+                result = true;
+            else if ( !(other instanceof Key) )
+                result = false;
+            else
+            {
+                Key that    = (Key)other;
+                result =
+                    negative == that.negative
+                    && hundredths == that.hundredths
+                    && font.equals( that.font )
+                    && frc.equals( that.frc );
+            }
+            return result;
+        }
+    }
+}
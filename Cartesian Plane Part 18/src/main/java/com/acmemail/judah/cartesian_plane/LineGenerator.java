@@ -1,12 +1,11 @@
 package com.acmemail.judah.cartesian_plane;
 
 import java.awt.geom.Line2D;
-import java.awt.geom.Point2D;
+import java.awt.geom.Path2D;
 import java.awt.geom.Rectangle2D;
-import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
  * An instance of this class
@@ -110,6 +109,34 @@ import java.util.List;
  * from left to right.
  * </p>
  * <p>
+ * Lines are not stored;
+ * the coordinates of each line
+ * are computed arithmetically, on demand,
+ * from its index.
+ * Constructing a LineGenerator is therefore cheap,
+ * and three methods of traversing the lines
+ * are provided, in increasing order of efficiency:
+ * </p>
+ * <ul>
+ * <li>
+ *      {@link #iterator()} returns a new Line2D object
+ *      for each line;
+ *      the caller may retain the objects.
+ * </li>
+ * <li>
+ *      {@link #sharedIterator()} returns the same,
+ *      mutable Line2D object for each line,
+ *      updating its coordinates on each call to next();
+ *      traversal allocates no memory
+ *      beyond the iterator itself.
+ * </li>
+ * <li>
+ *      {@link #appendTo(Path2D)} adds every line
+ *      to a given Path2D,
+ *      which the caller can draw in a single operation.
+ * </li>
+ * </ul>
+ * <p>
  * Following is a code sample
  * that was used to generate the lines
  * in the figure at the right.
@@ -175,12 +202,24 @@ public class LineGenerator implements Iterable<Line2D>
     /** Orientation, set in constructor. */
     private final int           orientation;
     
-    /** List containing the axial lines. */
-    private final List<Line2D>  axes        = new LinkedList<>();
-    /** List containing the non-axial horizontal lines. */
-    private final List<Line2D>  horLines    = new LinkedList<>();
-    /** List containing the non-axial vertical lines. */
-    private final List<Line2D>  vertLines   = new LinkedList<>();
+    /** Distance between consecutive lines, in pixels. */
+    private final float         spacing;
+    /** Number of non-axial horizontal lines above the x-axis. */
+    private final int           horAbove;
+    /** Number of non-axial horizontal lines below the x-axis. */
+    private final int           horBelow;
+    /** Number of non-axial vertical lines left of the y-axis. */
+    private final int           vertLeft;
+    /** Number of non-axial vertical lines right of the y-axis. */
+    private final int           vertRight;
+    /** X-coordinate of the left end of a horizontal line. */
+    private final float         horXco1;
+    /** X-coordinate of the right end of a horizontal line. */
+    private final float         horXco2;
+    /** Y-coordinate of the top of a vertical line. */
+    private final float         vertYco1;
+    /** Y-coordinate of the bottom of a vertical line. */
+    private final float         vertYco2;
     
     /** 
      * X-coordinate of the origin of the encapsulated grid. Equivalent
@@ -298,9 +337,16 @@ public class LineGenerator implements Iterable<Line2D>
         rightLimit = (float)rect.getMaxX();
         topLimit = (float)rect.getMinY();
         bottomLimit = (float)rect.getMaxY();
-        computeHorizontals();
-        computeVerticals();
-        computeAxes();
+        
+        spacing = gpu / lpu;
+        horAbove = getLineCount( originYco, topLimit );
+        horBelow = getLineCount( originYco, bottomLimit );
+        vertLeft = getLineCount( originXco, leftLimit );
+        vertRight = getLineCount( originXco, rightLimit );
+        horXco1 = originXco - horLength / 2;
+        horXco2 = originXco + horLength / 2;
+        vertYco1 = originYco - vertLength / 2;
+        vertYco2 = originYco + vertLength / 2;
     }
     
     /**
@@ -338,16 +384,70 @@ public class LineGenerator implements Iterable<Line2D>
     @Override
     public Iterator<Line2D> iterator()
     {
-        List<Line2D>    allLines    = new ArrayList<>();
-        if ( (orientation & HORIZONTAL) != 0 )
-            allLines.addAll( horLines );
-        if ( (orientation & VERTICAL) != 0 )
-            allLines.addAll( vertLines );
-            
-        Iterator<Line2D>    iter    = allLines.iterator();
+        Iterator<Line2D>    iter    = new LineIterator( null );
         return iter;
     }
     
+    /**
+     * Returns an iterator
+     * to traverse the non-axial lines
+     * of a grid drawn in the encapsulated rectangle,
+     * without allocating a new object for each line.
+     * The iterator returns the same Line2D object
+     * from every call to next(),
+     * updating its coordinates each time;
+     * the caller must not retain the object,
+     * or modify it,
+     * between calls to next().
+     * The lines are traversed
+     * in the same order as {@link #iterator()}.
+     * 
+     * @return 
+     *      an iterator to traverse
+     *      the non-axial lines of the encapsulated grid
+     *      using a single, shared Line2D object
+     */
+    public Iterator<Line2D> sharedIterator()
+    {
+        Iterator<Line2D>    iter    = 
+            new LineIterator( new Line2D.Float() );
+        return iter;
+    }
+    
+    /**
+     * Appends the non-axial lines
+     * of a grid drawn in the encapsulated rectangle
+     * to a given path.
+     * Each line constitutes a separate subpath.
+     * The lines are appended
+     * in the same order as they are traversed by {@link #iterator()}.
+     * 
+     * @param path  the given path
+     * 
+     * @return  the number of lines appended to the path
+     */
+    public int appendTo( Path2D path )
+    {
+        int count   = getLineCount();
+        int first   = getFirstIndex();
+        for ( int inx = first ; inx < first + count ; ++inx )
+        {
+            if ( inx < getHorCount() )
+            {
+                float   yco     = getHorYco( inx );
+                path.moveTo( horXco1, yco );
+                path.lineTo( horXco2, yco );
+            }
+            else
+            {
+                float   xco     = getVertXco( inx - getHorCount() );
+                path.moveTo( xco, vertYco1 );
+                path.lineTo( xco, vertYco2 );
+            }
+        }
+        return count;
+    }
+    
     /**
      * Returns an iterator
      * that traverses the x- and y-axes
@@ -358,6 +458,11 @@ public class LineGenerator implements Iterable<Line2D>
      */
     public Iterator<Line2D> axesIterator()
     {
+        Line2D          xAxis   = 
+            new Line2D.Float( leftLimit, originYco, rightLimit, originYco );
+        Line2D          yAxis   = 
+            new Line2D.Float( originXco, topLimit, originXco, bottomLimit );
+        List<Line2D>    axes    = List.of( xAxis, yAxis );
         return axes.iterator();
     }
     
@@ -372,7 +477,7 @@ public class LineGenerator implements Iterable<Line2D>
      */
     public float getHorLineCount()
     {
-        return horLines.size();
+        return getHorCount();
     }
 
     /**
@@ -386,93 +491,214 @@ public class LineGenerator implements Iterable<Line2D>
      */
     public float getVertLineCount()
     {
-        return vertLines.size();
+        return vertLeft + vertRight;
     }
 
     /**
-     * Computes the non-axial horizontal lines
-     * in the encapsulated grid.
-     * Added to the horizontal line list
-     * in ascending order of the y-coordinates.
+     * Calculates the number of lines
+     * that fit, at the encapsulated spacing,
+     * between an axis and a given edge of the grid,
+     * excluding the axis itself
+     * and any line that would fall exactly on the edge.
+     * 
+     * @param origin    the coordinate of the axis
+     * @param limit     the coordinate of the edge
+     * 
+     * @return  the number of lines that fit between the axis and the edge
      */
-    private void computeHorizontals()
+    private int getLineCount( float origin, float limit )
     {
-        float   spacing = gpu / lpu;
-        float   xco1    = originXco - horLength / 2;
-        float   xco2    = originXco + horLength / 2;
-
-        for ( 
-            float yco = originYco - spacing ; 
-            yco > topLimit ; 
-            yco -= spacing
-        )
+        int     count       = 0;
+        float   distance    = Math.abs( limit - origin );
+        if ( spacing > 0 && distance > 0 )
         {
-            Point2D left    = new Point2D.Double( xco1, yco );
-            Point2D right   = new Point2D.Double( xco2, yco );
-            Line2D  line    = new Line2D.Double( left, right );
-            horLines.add( 0, line );
-        }
-
-        for ( 
-            float yco = originYco + spacing ; 
-            yco < bottomLimit ; 
-            yco += spacing
-        )
-        {
-            Point2D left    = new Point2D.Double( xco1, yco );
-            Point2D right   = new Point2D.Double( xco2, yco );
-            Line2D  line    = new Line2D.Double( left, right );
-            horLines.add( line );
+            float   direction   = Math.signum( limit - origin );
+            
+            // Estimate the count, then correct for rounding
+            // in either direction.
+            count = (int)(distance / spacing);
+            while ( count > 0 && !isInside( origin, limit, direction, count ) )
+                --count;
+            while ( isInside( origin, limit, direction, count + 1 ) )
+                ++count;
         }
+        return count;
     }
     
     /**
-     * Computes the non-axial vertical lines
-     * in the encapsulated grid.
-     * Added to the vertical line list
-     * in ascending order of the x-coordinates.
+     * Determines whether the line
+     * at a given distance from an axis,
+     * measured as a multiple of the encapsulated spacing,
+     * falls strictly inside the edge of the grid.
+     * The position of the line is calculated
+     * exactly as it is when the line is generated.
+     * 
+     * @param origin    the coordinate of the axis
+     * @param limit     the coordinate of the edge
+     * @param direction 
+     *      the direction from the axis to the edge, 1 or -1
+     * @param multiple  the given distance
+     * 
+     * @return  true if the line falls strictly inside the edge of the grid
      */
-    private void computeVerticals()
+    private boolean 
+    isInside( float origin, float limit, float direction, int multiple )
     {
-        float   spacing = gpu / lpu;
-        float   yco1    = originYco - vertLength / 2;
-        float   yco2    = originYco + vertLength / 2;
-
-        for ( 
-            float xco = originXco - spacing ;
-            xco > leftLimit ; 
-            xco -= spacing
-        )
-        {
-            Point2D top     = new Point2D.Double( xco, yco1 );
-            Point2D bottom  = new Point2D.Double( xco, yco2 );
-            Line2D  line    = new Line2D.Double( top, bottom );
-            vertLines.add( 0, line );
-        }
-
-        for ( 
-            float xco = originXco + spacing ; 
-            xco < rightLimit ; 
-            xco += spacing
-        )
-        {
-            Point2D top     = new Point2D.Double( xco, yco1 );
-            Point2D bottom  = new Point2D.Double( xco, yco2 );
-            Line2D  line    = new Line2D.Double( top, bottom );
-            vertLines.add( line );
-        }
+        float   position    = 
+            direction < 0 ?
+            origin - multiple * spacing :
+            origin + multiple * spacing;
+        boolean result      =
+            direction < 0 ? position > limit : position < limit;
+        return result;
+    }
+    
+    /**
+     * Gets the number of non-axial horizontal lines.
+     * 
+     * @return  the number of non-axial horizontal lines
+     */
+    private int getHorCount()
+    {
+        return horAbove + horBelow;
+    }
+    
+    /**
+     * Gets the index of the first line
+     * to be traversed by an iterator,
+     * taking into account the encapsulated orientation.
+     * Lines are indexed 
+     * with the horizontal lines first,
+     * from top to bottom,
+     * followed by the vertical lines,
+     * from left to right.
+     * 
+     * @return  the index of the first line to be traversed
+     */
+    private int getFirstIndex()
+    {
+        int first   = (orientation & HORIZONTAL) != 0 ? 0 : getHorCount();
+        return first;
+    }
+    
+    /**
+     * Gets the number of lines
+     * to be traversed by an iterator,
+     * taking into account the encapsulated orientation.
+     * 
+     * @return  the number of lines to be traversed
+     */
+    private int getLineCount()
+    {
+        int count   = 0;
+        if ( (orientation & HORIZONTAL) != 0 )
+            count += getHorCount();
+        if ( (orientation & VERTICAL) != 0 )
+            count += vertLeft + vertRight;
+        return count;
+    }
+    
+    /**
+     * Gets the y-coordinate of the horizontal line
+     * with the given index.
+     * Index 0 identifies the top-most line.
+     * 
+     * @param index the given index
+     * 
+     * @return  the y-coordinate of the horizontal line
+     */
+    private float getHorYco( int index )
+    {
+        float   yco     = 
+            index < horAbove ?
+            originYco - (horAbove - index) * spacing :
+            originYco + (index - horAbove + 1) * spacing;
+        return yco;
     }
     
     /**
-     * Computes the axes of the encapsulated grid.
+     * Gets the x-coordinate of the vertical line
+     * with the given index.
+     * Index 0 identifies the left-most line.
+     * 
+     * @param index the given index
+     * 
+     * @return  the x-coordinate of the vertical line
      */
-    private void computeAxes()
+    private float getVertXco( int index )
     {
-        Point2D hPoint1 = new Point2D.Double( leftLimit, originYco );
-        Point2D hPoint2 = new Point2D.Double( rightLimit, originYco );
-        Point2D vPoint1 = new Point2D.Double( originXco, topLimit );
-        Point2D vPoint2 = new Point2D.Double( originXco, bottomLimit );
-        axes.add( new Line2D.Double( hPoint1, hPoint2 ) );
-        axes.add( new Line2D.Double( vPoint1, vPoint2 ) );
+        float   xco     = 
+            index < vertLeft ?
+            originXco - (vertLeft - index) * spacing :
+            originXco + (index - vertLeft + 1) * spacing;
+        return xco;
+    }
+    
+    /**
+     * Iterator to traverse the non-axial lines
+     * of the encapsulated grid,
+     * computing the coordinates of each line
+     * from its index.
+     * 
+     * @author Jack Straub
+     * 
+     * @see LineGenerator#iterator()
+     * @see LineGenerator#sharedIterator()
+     */
+    private class LineIterator implements Iterator<Line2D>
+    {
+        /** 
+         * The Line2D object to return from next();
+         * if null, a new object is allocated for each line.
+         */
+        private final Line2D    shared;
+        /** Index of the line following the last line to traverse. */
+        private final int       end;
+        /** Index of the next line to traverse. */
+        private int             next;
+        
+        /**
+         * Constructor.
+         * Determines whether the iterator
+         * returns a shared Line2D object
+         * or allocates a new object for each line.
+         * 
+         * @param shared    
+         *      the shared Line2D object; 
+         *      null to allocate a new object for each line
+         */
+        public LineIterator( Line2D shared )
+        {
+            this.shared = shared;
+            next = getFirstIndex();
+            end = next + getLineCount();
+        }
+        
+        @Override
+        public boolean hasNext()
+        {
+            return next < end;
+        }
+        
+        @Override
+        public Line2D next()
+        {
+            if ( next >= end )
+                throw new NoSuchElementException();
+            Line2D  line    = shared != null ? shared : new Line2D.Double();
+            int     horCount    = getHorCount();
+            if ( next < horCount )
+            {
+                float   yco     = getHorYco( next );
+                line.setLine( horXco1, yco, horXco2, yco );
+            }
+            else
+            {
+                float   xco     = getVertXco( next - horCount );
+                line.setLine( xco, vertYco1, xco, vertYco2 );
+            }
+            ++next;
+            return line;
+        }
     }
 }
@@ -1,10 +1,11 @@
 package com.acmemail.judah.cartesian_plane;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
+import java.util.Arrays;
 import java.util.Map;
-import java.util.stream.Stream;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.swing.SwingUtilities;
 
 /**
  * This class maintains lists
@@ -13,6 +14,42 @@ import java.util.stream.Stream;
  * A client may register a listener
  * for all notifications,
  * or for notifications for a specific property.
+ * <p>
+ * Listeners are stored in copy-on-write arrays:
+ * registering or removing a listener
+ * replaces the affected array,
+ * and propagating a notification
+ * merely traverses the current arrays.
+ * Listeners may therefore be registered and removed
+ * from any thread,
+ * and propagating a notification
+ * requires no locking
+ * and (apart from the event itself)
+ * no allocation.
+ * </p>
+ * <p>
+ * Notifications for a given property
+ * may optionally be <em>coalesced</em>
+ * (see {@linkplain #setCoalesced(String, boolean)}).
+ * Notifications for a coalesced property
+ * are delivered asynchronously
+ * on the event dispatch thread;
+ * any number of notifications for the property
+ * that are propagated
+ * before delivery takes place
+ * result in a single delivery
+ * of the most recent notification.
+ * This is appropriate for notifications
+ * for which only the latest occurrence is relevant.
+ * By default notifications for
+ * {@linkplain CPConstants#REDRAW_NP} are coalesced,
+ * so that a burst of redraw requests,
+ * from whatever source,
+ * results in a single redraw;
+ * notifications for all other properties
+ * are delivered synchronously.
+ * </p>
+ * 
  * @author Jack Straub
  */
 public enum NotificationManager
@@ -20,12 +57,47 @@ public enum NotificationManager
     /** The single instance associated with this class. */
     INSTANCE;
     
-    /** List of NotificationListeners. */
-    private final List<NotificationListener>  notificationListeners = 
-        new ArrayList<>();
-    /** map of property to list of notification listeners. */
-    private final Map<String, List<NotificationListener>> 
-        notificationPropertyMap = new HashMap<>();
+    /** Array of listeners for a property with no listeners. */
+    private static final NotificationListener[] NO_LISTENERS    =
+        new NotificationListener[0];
+    
+    /**
+     * Array of NotificationListeners for all notifications.
+     * The array is never modified;
+     * to add or remove a listener
+     * the array is replaced.
+     */
+    private volatile NotificationListener[] notificationListeners   =
+        new NotificationListener[0];
+    /**
+     * map of property to array of notification listeners.
+     * The arrays are never modified;
+     * to add or remove a listener
+     * the array is replaced.
+     */
+    private final Map<String, NotificationListener[]>
+        notificationPropertyMap = new ConcurrentHashMap<>();
+    /** Properties for which notifications are coalesced. */
+    private final Set<String>   coalescedProperties =
+        ConcurrentHashMap.newKeySet();
+    /**
+     * Map of coalesced property
+     * to the most recent notification for the property
+     * that has not yet been delivered.
+     */
+    private final Map<String, NotificationEvent>    pendingEvents   =
+        new ConcurrentHashMap<>();
+    
+    /**
+     * Constructor.
+     * Establishes the default configuration:
+     * notifications for {@linkplain CPConstants#REDRAW_NP}
+     * are coalesced.
+     */
+    private NotificationManager()
+    {
+        coalescedProperties.add( CPConstants.REDRAW_NP );
+    }
     
     /**
      * Add a given NotificationListener to the list of NotificationListeners.
@@ -35,9 +107,10 @@ public enum NotificationManager
      * 
      * @see #addNotificationListener(String, NotificationListener)
      */
-    public void addNotificationListener( NotificationListener listener )
+    public synchronized void
+    addNotificationListener( NotificationListener listener )
     {
-        notificationListeners.add( listener );
+        notificationListeners = append( notificationListeners, listener );
     }
     /**
      * Add a given NotificationListener/property pair to the list 
@@ -53,14 +126,10 @@ public enum NotificationManager
     public void 
     addNotificationListener( String property, NotificationListener listener )
     {
-        List<NotificationListener>  listenerList    =
-            notificationPropertyMap.get( property );
-        if ( listenerList == null )
-        {
-            listenerList = new ArrayList<>();
-            notificationPropertyMap.put( property, listenerList );
-        }
-        listenerList.add( listener );
+        notificationPropertyMap.compute(
+            property,
+            (p, a) -> append( a == null ? NO_LISTENERS : a, listener )
+        );
     }
     
     /**
@@ -75,9 +144,10 @@ public enum NotificationManager
      * 
      * @param listener  the given NotificationListener
      */
-    public void removeNotificationListener( NotificationListener listener )
+    public synchronized void
+    removeNotificationListener( NotificationListener listener )
     {
-        notificationListeners.remove( listener );
+        notificationListeners = remove( notificationListeners, listener );
     }
     
     /**
@@ -98,11 +168,57 @@ public enum NotificationManager
         NotificationListener listener 
     )
     {
-        notificationListeners.remove( listener );
-        List<NotificationListener>  list    = 
-            notificationPropertyMap.get( property );
-        if ( list != null )
-            list.remove( listener );
+        removeNotificationListener( listener );
+        notificationPropertyMap.computeIfPresent(
+            property,
+            (p, a) -> nullIfEmpty( remove( a, listener ) )
+        );
+    }
+    
+    /**
+     * Establishes whether notifications
+     * for a given property are coalesced.
+     * When notifications for a property are coalesced
+     * they are delivered asynchronously
+     * on the event dispatch thread,
+     * and bursts of notifications
+     * propagated before delivery takes place
+     * are delivered as a single notification:
+     * the most recently propagated.
+     * By default notifications are not coalesced,
+     * and are delivered synchronously
+     * on the thread that propagates them;
+     * the exception is {@linkplain CPConstants#REDRAW_NP},
+     * which is coalesced by default.
+     * 
+     * @param property  the given property
+     * @param coalesced
+     *      true if notifications for the given property
+     *      are to be coalesced
+     * 
+     * @see #isCoalesced(String)
+     */
+    public void setCoalesced( String property, boolean coalesced )
+    {
+        if ( coalesced )
+            coalescedProperties.add( property );
+        else
+            coalescedProperties.remove( property );
+    }
+    
+    /**
+     * Indicates whether notifications
+     * for a given property are coalesced.
+     * 
+     * @param property  the given property
+     * 
+     * @return  true if notifications for the given property are coalesced
+     * 
+     * @see #setCoalesced(String, boolean)
+     */
+    public boolean isCoalesced( String property )
+    {
+        return coalescedProperties.contains( property );
     }
     
     /**
@@ -156,19 +272,129 @@ public enum NotificationManager
     /**
      * Propagates a given NotificationEvent
      * to all NotificationListeners.
+     * If notifications for the event's property
+     * are coalesced
+     * the event is delivered
+     * asynchronously,
+     * unless it is superseded
+     * by a later event for the same property
+     * before delivery takes place.
      * 
      * @param event the given NotificationEvent
+     * 
+     * @see #setCoalesced(String, boolean)
      */
     public void propagateNotification( NotificationEvent event )
     {
-        List<NotificationListener>  perPropertyList =
-            notificationPropertyMap.getOrDefault( 
-                event.getProperty(), 
-                new ArrayList<>()
-        );
-        Stream.concat( 
-            perPropertyList.stream(), 
-            notificationListeners.stream()
-        ).forEach( l -> l.accept( event ) );
+        String  property    = event.getProperty();
+        if ( !coalescedProperties.contains( property ) )
+            deliver( event );
+        else if ( pendingEvents.put( property, event ) == null )
+            SwingUtilities.invokeLater( () -> deliverPending( property ) );
+    }
+    
+    /**
+     * Delivers the pending event, if any,
+     * for a given coalesced property.
+     * 
+     * @param property  the given property
+     */
+    private void deliverPending( String property )
+    {
+        NotificationEvent   event   = pendingEvents.remove( property );
+        if ( event != null )
+            deliver( event );
+    }
+    
+    /**
+     * Delivers a given NotificationEvent
+     * to all NotificationListeners for the event's property,
+     * followed by all NotificationListeners
+     * for all notifications.
+     * 
+     * @param event the given NotificationEvent
+     */
+    private void deliver( NotificationEvent event )
+    {
+        NotificationListener[]  perProperty =
+            notificationPropertyMap.getOrDefault(
+                event.getProperty(),
+                NO_LISTENERS
+            );
+        NotificationListener[]  all         = notificationListeners;
+        for ( NotificationListener listener : perProperty )
+            listener.accept( event );
+        for ( NotificationListener listener : all )
+            listener.accept( event );
+    }
+    
+    /**
+     * Returns a copy of a given array of listeners
+     * with a given listener appended.
+     * 
+     * @param listeners the given array
+     * @param listener  the given listener
+     * 
+     * @return  the new array
+     */
+    private static NotificationListener[]
+    append( NotificationListener[] listeners, NotificationListener listener )
+    {
+        int                     len     = listeners.length;
+        NotificationListener[]  result  = Arrays.copyOf( listeners, len + 1 );
+        result[len] = listener;
+        return result;
+    }
+    
+    /**
+     * Returns a copy of a given array of listeners
+     * with the first instance of a given listener removed.
+     * If the listener is not in the array
+     * the array is returned unchanged.
+     * 
+     * @param listeners the given array
+     * @param listener  the given listener
+     * 
+     * @return  the new array
+     */
+    private static NotificationListener[]
+    remove( NotificationListener[] listeners, NotificationListener listener )
+    {
+        int     len     = listeners.length;
+        int     found   = -1;
+        for ( int inx = 0 ; found < 0 && inx < len ; ++inx )
+            if ( listeners[inx].equals( listener ) )
+                found = inx;
+    
+        NotificationListener[]  result  = listeners;
+        if ( found >= 0 )
+        {
+            result = new NotificationListener[len - 1];
+            System.arraycopy( listeners, 0, result, 0, found );
+            System.arraycopy(
+                listeners, found + 1,
+                result, found,
+                len - found - 1
+            );
+        }
+        return result;
+    }
+    
+    /**
+     * Returns a given array of listeners,
+     * or null if the array is empty.
+     * Used to remove a property from the map
+     * when its last listener is removed.
+     * 
+     * @param listeners the given array
+     * 
+     * @return  the given array, or null if the array is empty
+     */
+    private static NotificationListener[]
+    nullIfEmpty( NotificationListener[] listeners )
+    {
+        NotificationListener[]  result  =
+            listeners.length == 0 ? null : listeners;
+        return result;
     }
 }
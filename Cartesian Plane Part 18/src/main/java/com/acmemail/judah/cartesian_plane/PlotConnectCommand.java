@@ -0,0 +1,39 @@
+package com.acmemail.judah.cartesian_plane;
+
+/**
+ * Command to determine whether
+ * the points subsequently plotted in the Cartesian plane
+ * are drawn individually,
+ * using the current plot shape,
+ * or connected to form a polyline.
+ * 
+ * @author Jack Straub
+ *
+ * @see CartesianPlane#setPlotConnected(boolean)
+ */
+public class PlotConnectCommand implements PlotCommand
+{
+    private final CartesianPlane    plane;
+    private final boolean           connected;
+    
+    /**
+     * Constructor.
+     * Determines whether points plotted 
+     * in the Cartesian plane
+     * are to be connected.
+     * 
+     * @param plane     the Cartesian plane in which to set the mode
+     * @param connected true if points are to be connected
+     */
+    public PlotConnectCommand( CartesianPlane plane, boolean connected )
+    {
+        this.plane = plane;
+        this.connected = connected;
+    }
+    
+    @Override
+    public void execute()
+    {
+        plane.setPlotConnected( connected );
+    }
+}
@@ -0,0 +1,1192 @@
+package com.acmemail.judah.cartesian_plane;
+
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import com.acmemail.judah.cartesian_plane.input.Command;
+import com.acmemail.judah.cartesian_plane.input.Equation;
+import com.acmemail.judah.cartesian_plane.input.PointBuffer;
+
+/**
+ * An object of this class
+ * caches the geometry of a plot
+ * generated from an equation.
+ * The geometry consists of the coordinates of each point
+ * in the plot, expressed in user coordinates
+ * (as opposed to pixel coordinates),
+ * stored in primitive arrays.
+ * <p>
+ * The cache is keyed by the identity of the equation,
+ * the type of plot,
+ * the equation's expressions, variables, parameter names,
+ * and iteration range.
+ * The equation is only re-evaluated
+ * when one of those elements changes;
+ * a simple repaint of the Cartesian plane
+ * (for example, after resizing the window,
+ * or changing a margin color)
+ * only has to map the cached coordinates
+ * to pixel coordinates.
+ * </p>
+ * <p>
+ * In <em>adaptive</em> mode
+ * the plot is generated by adaptive sampling
+ * (see {@linkplain Equation#adaptivePlot})
+ * rather than by stepping through the iteration range.
+ * Since adaptive sampling depends on
+ * the grid unit and visible bounds of the Cartesian plane,
+ * in this mode the cache is also keyed
+ * by the grid unit and the visible bounds.
+ * </p>
+ * <p>
+ * If the visible bounds of the Cartesian plane are known
+ * (see {@linkplain #setViewport(double, Rectangle2D)})
+ * evaluation and drawing are restricted
+ * to the visible portion of the plot:
+ * </p>
+ * <ul>
+ * <li>
+ *      For a YPLOT, the iteration range
+ *      is intersected with the visible x-range before evaluation;
+ *      the cache is therefore keyed by the visible bounds.
+ * </li>
+ * <li>
+ *      For all plots, points that lie outside the visible bounds,
+ *      and are not the endpoint of a segment
+ *      that crosses the visible bounds,
+ *      are culled after evaluation.
+ *      Each run of culled points is replaced by a single break.
+ *      Culling does not require the equation to be re-evaluated,
+ *      so panning a parametric or polar plot
+ *      only repeats the culling step.
+ * </li>
+ * </ul>
+ * <p>
+ * In both cases the visible bounds
+ * are extended by a small margin,
+ * so that points lying just outside the visible bounds,
+ * which may be partially visible, are retained.
+ * </p>
+ * <p>
+ * A plot may be evaluated on a background thread
+ * by way of a <em>snapshot</em>
+ * (see {@linkplain #snapshot()}):
+ * a PlotGeometry object
+ * that encapsulates a copy of the equation,
+ * and may therefore be refreshed on another thread
+ * while the original equation continues to be edited.
+ * The original object records the state of the equation
+ * at the time of the snapshot,
+ * so that it can determine
+ * whether a new snapshot is required
+ * (see {@linkplain #isSnapshotStale()}).
+ * Once a snapshot has been evaluated
+ * it can be culled to a different viewport
+ * without further evaluation
+ * (see {@linkplain #restrict(Rectangle2D)}),
+ * provided that it covers the viewport
+ * (see {@linkplain #covers(Rectangle2D)});
+ * the portion of the plot in a viewport
+ * that is not covered
+ * can be evaluated separately
+ * (see {@linkplain #forBounds(Rectangle2D)}).
+ * </p>
+ *
+ * @author Jack Straub
+ *
+ * @see CartesianPlane#setPlotEquation(Equation, Command)
+ * @see PlotRenderer
+ */
+public class PlotGeometry
+{
+    /** 
+     * The margin added to each side of the visible bounds
+     * when restricting the plot to the visible bounds,
+     * expressed as a fraction of the width or height of the bounds.
+     */
+    private static final double viewMargin  = .05;
+    /**
+     * The number of consecutive points
+     * summarized by each bounding box in chunkBounds.
+     */
+    private static final int    chunkSize   = 256;
+    /**
+     * The minimum factor by which a coarse version of a plot
+     * must reduce the number of points evaluated
+     * in order to be worthwhile.
+     * 
+     * @see #coarsen(int)
+     */
+    private static final int    minStride   = 4;
+    
+    /** The equation that generates the plot. */
+    private final Equation  equation;
+    /** The type of plot; one of YPLOT, XYPLOT, RPLOT or TPLOT. */
+    private final Command   plotType;
+
+    /**
+     * The state of the equation at the time
+     * the coordinates were last calculated;
+     * null if the coordinates have never been calculated.
+     */
+    private Key         key         = null;
+    /**
+     * The state of the equation at the time
+     * of the last snapshot;
+     * null if no snapshot has been taken.
+     * 
+     * @see #snapshot()
+     */
+    private Key         snapshotKey = null;
+    /** 
+     * The visible bounds, including margins, 
+     * at the time the coordinates were last culled;
+     * null if the coordinates were not culled.
+     */
+    private Rectangle2D cullBounds  = null;
+    /** The coordinates of the plot, in user coordinates. */
+    private final PointBuffer   buffer  = new PointBuffer( 0 );
+    /** The coordinates of the plot that survived culling. */
+    private final PointBuffer   visible = new PointBuffer( 0 );
+    /**
+     * Bounding boxes of consecutive runs of chunkSize points
+     * in the evaluated coordinates,
+     * each extended to include the neighbors of its run;
+     * four values per run: 
+     * minimum x, minimum y, maximum x and maximum y.
+     * Recalculated after each evaluation.
+     * Allows a run of points that can't be visible
+     * to be culled with a single test.
+     */
+    private double[]            chunkBounds = new double[0];
+    /** 
+     * The coordinates to be drawn;
+     * either buffer or visible,
+     * depending on whether the coordinates were culled.
+     */
+    private PointBuffer         points  = buffer;
+    /** 
+     * The values of the parameter used to generate
+     * a parametric or polar plot.
+     */
+    private double[]    params      = new double[0];
+    /** True if the plot is to be generated by adaptive sampling. */
+    private boolean     adaptive    = false;
+    /** The grid unit to use for adaptive sampling. */
+    private double      gridUnit    = 1;
+    /** 
+     * The visible bounds of the Cartesian plane,
+     * in user coordinates;
+     * may be null.
+     */
+    private Rectangle2D bounds      = null;
+
+    /**
+     * Constructor.
+     * Establishes the equation
+     * that generates the plot,
+     * and the type of plot to generate.
+     * The coordinates of the plot
+     * are not calculated until the first call
+     * to {@linkplain #refresh()}.
+     *
+     * @param equation  the equation that generates the plot
+     * @param plotType  the type of plot to generate
+     *
+     * @throws IllegalArgumentException
+     *      if plotType is not YPLOT, XYPLOT, RPLOT or TPLOT
+     */
+    public PlotGeometry( Equation equation, Command plotType )
+    {
+        if ( !isPlotCommand( plotType ) )
+        {
+            String  message = "Invalid plot type: " + plotType;
+            throw new IllegalArgumentException( message );
+        }
+        this.equation = Objects.requireNonNull( equation );
+        this.plotType = plotType;
+    }
+
+    /**
+     * Generates the stream of points
+     * associated with a given equation
+     * and type of plot.
+     *
+     * @param equation  the given equation
+     * @param plotType  the given type of plot
+     *
+     * @return  the stream of points associated with the given plot
+     *
+     * @throws IllegalArgumentException
+     *      if plotType is not YPLOT, XYPLOT, RPLOT or TPLOT
+     * @throws com.acmemail.judah.cartesian_plane.input.ValidationException
+     *      if the equation is invalid
+     */
+    public static Stream<Point2D> plot( Equation equation, Command plotType )
+    {
+        Stream<Point2D> stream  = null;
+        switch ( plotType )
+        {
+        case YPLOT:
+            stream = equation.yPlot();
+            break;
+        case XYPLOT:
+            stream = equation.xyPlot();
+            break;
+        case RPLOT:
+            stream = equation.rPlot();
+            break;
+        case TPLOT:
+            stream = equation.tPlot();
+            break;
+        default:
+            String  message = "Invalid plot type: " + plotType;
+            throw new IllegalArgumentException( message );
+        }
+        return stream;
+    }
+
+    /**
+     * Determines whether a given command
+     * is one of the plot commands,
+     * YPLOT, XYPLOT, RPLOT or TPLOT.
+     *
+     * @param command   the given command
+     *
+     * @return  true if the given command is a plot command
+     */
+    public static boolean isPlotCommand( Command command )
+    {
+        boolean result  =
+            command == Command.YPLOT
+            || command == Command.XYPLOT
+            || command == Command.RPLOT
+            || command == Command.TPLOT;
+        return result;
+    }
+
+    /**
+     * Gets the equation that generates this plot.
+     *
+     * @return  the equation that generates this plot
+     */
+    public Equation getEquation()
+    {
+        return equation;
+    }
+
+    /**
+     * Gets the type of this plot.
+     *
+     * @return  the type of this plot
+     */
+    public Command getPlotType()
+    {
+        return plotType;
+    }
+
+    /**
+     * Sets the adaptive sampling mode
+     * for this plot.
+     * 
+     * @param adaptive  true to generate the plot by adaptive sampling
+     * 
+     * @see Equation#adaptivePlot
+     */
+    public void setAdaptive( boolean adaptive )
+    {
+        this.adaptive = adaptive;
+    }
+    
+    /**
+     * Indicates whether this plot
+     * is generated by adaptive sampling.
+     * 
+     * @return  true if this plot is generated by adaptive sampling
+     */
+    public boolean isAdaptive()
+    {
+        return adaptive;
+    }
+    
+    /**
+     * Sets the grid unit and visible bounds
+     * of the Cartesian plane
+     * in which this plot is displayed.
+     * The grid unit is only used
+     * in adaptive sampling mode.
+     * If the bounds are non-null
+     * evaluation and drawing are restricted
+     * to the visible portion of the plot.
+     * 
+     * @param gridUnit  the grid unit, in pixels per unit
+     * @param bounds    
+     *      the visible bounds of the Cartesian plane,
+     *      in user coordinates;
+     *      may be null
+     *      
+     * @see #setAdaptive(boolean)
+     */
+    public void setViewport( double gridUnit, Rectangle2D bounds )
+    {
+        this.gridUnit = gridUnit;
+        this.bounds = bounds;
+    }
+    
+    /**
+     * Ensures that the cached coordinates
+     * reflect the current state of the encapsulated equation.
+     * If the equation has changed
+     * since the coordinates were last calculated
+     * the coordinates are recalculated.
+     * If the coordinates were recalculated,
+     * or the visible bounds have changed,
+     * the coordinates are culled 
+     * to the visible bounds.
+     * Otherwise the operation is ignored.
+     *
+     * @return  true if the coordinates were recalculated or culled
+     *
+     * @throws com.acmemail.judah.cartesian_plane.input.ValidationException
+     *      if the equation is invalid
+     */
+    public boolean refresh()
+    {
+        boolean stale   = key == null || !key.matches( this );
+        if ( stale )
+        {
+            evaluate();
+            computeChunkBounds();
+            // Note that the key is calculated after evaluation;
+            // some equation implementations update their state
+            // as a side-effect of generating a plot.
+            key = new Key( this );
+        }
+        
+        Rectangle2D viewBounds  = getViewBounds();
+        boolean     recull      = 
+            stale || !Objects.equals( viewBounds, cullBounds );
+        if ( recull )
+        {
+            cull( viewBounds );
+            cullBounds = viewBounds;
+        }
+        return recull;
+    }
+
+    /**
+     * Forces the coordinates to be recalculated
+     * the next time {@linkplain #refresh()} is called,
+     * and forces {@linkplain #isSnapshotStale()}
+     * to return true.
+     */
+    public void invalidate()
+    {
+        key = null;
+        cullBounds = null;
+        snapshotKey = null;
+    }
+    
+    /**
+     * Creates a snapshot of this plot.
+     * The snapshot is a new PlotGeometry object
+     * that encapsulates a copy of this object's equation
+     * (see {@linkplain Equation#copy()}),
+     * with the same plot type, sampling mode and viewport.
+     * The snapshot does not share any state with this object;
+     * it may be refreshed on another thread
+     * while this object's equation is being edited.
+     * The state of this object's equation is recorded,
+     * so that {@linkplain #isSnapshotStale()}
+     * returns false until it changes.
+     * 
+     * @return  a snapshot of this plot
+     */
+    public PlotGeometry snapshot()
+    {
+        PlotGeometry    snapshot    = 
+            new PlotGeometry( equation.copy(), plotType );
+        snapshot.adaptive = adaptive;
+        snapshot.gridUnit = gridUnit;
+        if ( bounds != null )
+            snapshot.bounds = (Rectangle2D)bounds.clone();
+        snapshotKey = new Key( this );
+        return snapshot;
+    }
+    
+    /**
+     * Creates a coarse snapshot of this plot,
+     * which evaluates no more than about a given number of points.
+     * The coarse snapshot is generated
+     * by stepping through the iteration range
+     * (whether or not this plot is generated by adaptive sampling)
+     * using a multiple of the range increment,
+     * so that, for a plot that is not generated by adaptive sampling,
+     * its points are a subset of the points
+     * of the full-resolution plot.
+     * If this plot is not generated by adaptive sampling,
+     * and a coarse snapshot would not reduce
+     * the number of points evaluated
+     * by a factor of at least minStride,
+     * null is returned.
+     * <p>
+     * This method does not affect the value returned by
+     * {@linkplain #isSnapshotStale()}.
+     * </p>
+     * 
+     * @param maxSize   the given number of points
+     * 
+     * @return  a coarse snapshot of this plot, or null
+     * 
+     * @see #snapshot()
+     */
+    public PlotGeometry coarsen( int maxSize )
+    {
+        Rectangle2D viewBounds  = getViewBounds();
+        int         size        = equation.getRangeSize();
+        if ( plotType == Command.YPLOT && viewBounds != null )
+            size = equation.getRangeSize(
+                viewBounds.getMinX(), 
+                viewBounds.getMaxX()
+            );
+        int         stride      = Math.max( 1, size / maxSize );
+        
+        PlotGeometry    coarse  = null;
+        if ( adaptive || stride >= minStride )
+        {
+            Key saveKey = snapshotKey;
+            coarse = snapshot();
+            snapshotKey = saveKey;
+            double  step    = equation.getRangeStep() * stride;
+            coarse.adaptive = false;
+            coarse.equation.setRangeStep( 
+                new BigDecimal( step ).toPlainString()
+            );
+        }
+        return coarse;
+    }
+    
+    /**
+     * Determines whether
+     * the state of the encapsulated equation,
+     * the sampling mode
+     * or, where relevant, the viewport,
+     * has changed since the last snapshot
+     * of this plot was taken.
+     * If no snapshot has been taken
+     * true is returned.
+     * A change to the viewport
+     * that only requires the coordinates to be culled
+     * does not make the snapshot stale;
+     * see {@linkplain #restrict(Rectangle2D)}.
+     * 
+     * @return  true if a new snapshot is required
+     * 
+     * @see #snapshot()
+     */
+    public boolean isSnapshotStale()
+    {
+        boolean result  = 
+            snapshotKey == null || !snapshotKey.matches( this );
+        return result;
+    }
+    
+    /**
+     * Culls the cached coordinates
+     * to given visible bounds
+     * without re-evaluating the equation.
+     * The visible bounds are extended by the view margin,
+     * as they are by {@linkplain #refresh()}.
+     * If the given bounds are null
+     * all coordinates are retained.
+     * If the coordinates have never been calculated,
+     * or are already culled to the given bounds,
+     * the operation is ignored.
+     * <p>
+     * This allows a plot that has been evaluated
+     * for one viewport
+     * to be drawn in a different viewport,
+     * for example a strip of the Cartesian plane
+     * exposed by a pan.
+     * Note that a YPLOT, 
+     * or a plot generated by adaptive sampling,
+     * is only evaluated for the viewport in effect
+     * when {@linkplain #refresh()} was called,
+     * and may not cover the given bounds;
+     * see {@linkplain #covers(Rectangle2D)}.
+     * </p>
+     * 
+     * @param visibleBounds 
+     *      the given visible bounds, in user coordinates;
+     *      may be null
+     * 
+     * @return  true if the coordinates were culled
+     */
+    public boolean restrict( Rectangle2D visibleBounds )
+    {
+        Rectangle2D viewBounds  = getViewBounds( visibleBounds );
+        boolean     recull      = 
+            key != null && !Objects.equals( viewBounds, cullBounds );
+        if ( recull )
+        {
+            cull( viewBounds );
+            cullBounds = viewBounds;
+        }
+        return recull;
+    }
+
+    /**
+     * Determines whether the evaluated coordinates of this plot
+     * cover given visible bounds,
+     * that is, whether culling them to the given bounds
+     * (see {@linkplain #restrict(Rectangle2D)})
+     * yields the same plot
+     * as evaluating the equation for the given bounds.
+     * A plot whose visible bounds are not known
+     * covers any bounds.
+     * Otherwise:
+     * <ul>
+     * <li>
+     *      A plot generated by adaptive sampling
+     *      covers the given bounds 
+     *      if they lie within its visible bounds,
+     *      extended by the view margin;
+     *      outside those bounds the plot
+     *      has not been refined.
+     * </li>
+     * <li>
+     *      A YPLOT covers the given bounds
+     *      if their x-range lies within 
+     *      the x-range of its visible bounds,
+     *      extended by the view margin.
+     * </li>
+     * <li>
+     *      Any other plot covers any bounds.
+     * </li>
+     * </ul>
+     * 
+     * @param visibleBounds 
+     *      the given visible bounds, in user coordinates;
+     *      null if unbounded
+     * 
+     * @return  true if this plot covers the given bounds
+     * 
+     * @see #forBounds(Rectangle2D)
+     */
+    public boolean covers( Rectangle2D visibleBounds )
+    {
+        Rectangle2D viewBounds  = getViewBounds();
+        boolean     result      = true;
+        if ( viewBounds != null )
+        {
+            if ( visibleBounds == null )
+                result = !adaptive && plotType != Command.YPLOT;
+            else if ( adaptive )
+                result = viewBounds.contains( visibleBounds );
+            else if ( plotType == Command.YPLOT )
+                result = 
+                    viewBounds.getMinX() <= visibleBounds.getMinX()
+                    && visibleBounds.getMaxX() <= viewBounds.getMaxX();
+        }
+        return result;
+    }
+    
+    /**
+     * Creates a plot of this object's equation,
+     * with the same plot type, sampling mode and grid unit,
+     * for given visible bounds.
+     * Where this plot does not cover the given bounds
+     * (see {@linkplain #covers(Rectangle2D)})
+     * this allows the portion of the plot
+     * within a small area,
+     * such as a strip of the Cartesian plane
+     * exposed by a pan,
+     * to be evaluated cheaply.
+     * The new plot encapsulates this object's equation,
+     * not a copy;
+     * it must not be refreshed
+     * while the equation is being modified,
+     * or while this object is being refreshed.
+     * 
+     * @param visibleBounds 
+     *      the given visible bounds, in user coordinates;
+     *      may be null
+     * 
+     * @return  a plot of this object's equation for the given bounds
+     */
+    public PlotGeometry forBounds( Rectangle2D visibleBounds )
+    {
+        PlotGeometry    result  = new PlotGeometry( equation, plotType );
+        result.adaptive = adaptive;
+        result.gridUnit = gridUnit;
+        if ( visibleBounds != null )
+            result.bounds = (Rectangle2D)visibleBounds.clone();
+        return result;
+    }
+
+    /**
+     * Gets the number of points in the plot.
+     *
+     * @return  the number of points in the plot
+     */
+    public int size()
+    {
+        return points.size();
+    }
+
+    /**
+     * Gets the x-coordinate of the point at the given index,
+     * in user coordinates.
+     *
+     * @param index the given index
+     *
+     * @return  the x-coordinate of the point at the given index
+     */
+    public double getXco( int index )
+    {
+        return points.getXco( index );
+    }
+
+    /**
+     * Gets the y-coordinate of the point at the given index,
+     * in user coordinates.
+     *
+     * @param index the given index
+     *
+     * @return  the y-coordinate of the point at the given index
+     */
+    public double getYco( int index )
+    {
+        return points.getYco( index );
+    }
+
+    /**
+     * Determines whether the point at the given index
+     * is a break.
+     * A break indicates a discontinuity in the plot,
+     * or a point that could not be evaluated;
+     * it should not be drawn.
+     *
+     * @param index the given index
+     *
+     * @return  true if the point at the given index is a break
+     * 
+     * @see PointBuffer
+     */
+    public boolean isBreak( int index )
+    {
+        return points.isBreak( index );
+    }
+
+    /**
+     * Evaluates the encapsulated equation,
+     * storing the resulting coordinates
+     * in the coordinate arrays.
+     * Evaluation is performed
+     * by adaptive sampling,
+     * or using the equation's batch evaluation methods;
+     * the arrays are reused if they are large enough.
+     * 
+     * @see Equation#adaptivePlot
+     * @see Equation#evaluateY(double[], double[], int)
+     */
+    private void evaluate()
+    {
+        if ( adaptive )
+            equation.adaptivePlot( plotType, gridUnit, bounds, buffer );
+        else
+            evaluateRange();
+    }
+    
+    /**
+     * Evaluates the encapsulated equation
+     * at each point in its iteration range,
+     * storing the resulting coordinates
+     * in the coordinate arrays.
+     */
+    private void evaluateRange()
+    {
+        int         capacity    = 
+            plotType == Command.YPLOT ? 0 : equation.getRangeSize();
+        buffer.ensureCapacity( capacity );
+        double[]    xcos        = buffer.getXcos();
+        double[]    ycos        = buffer.getYcos();
+        int         size        = 0;
+        switch ( plotType )
+        {
+        case YPLOT:
+            size = evaluateYRange();
+            break;
+        case XYPLOT:
+            size = equation.getRangeValues( getParams( capacity ) );
+            equation.evaluateXY( params, xcos, ycos, size );
+            break;
+        case RPLOT:
+            size = equation.getRangeValues( getParams( capacity ) );
+            equation.evaluateR( params, xcos, ycos, size );
+            break;
+        case TPLOT:
+            size = equation.getRangeValues( getParams( capacity ) );
+            equation.evaluateT( params, xcos, ycos, size );
+            break;
+        default:
+            // Prevented by constructor
+            size = 0;
+            break;
+        }
+        buffer.setSize( size );
+    }
+    
+    /**
+     * Evaluates a YPLOT
+     * over the portion of the iteration range
+     * that lies within the visible bounds, if known,
+     * or the entire iteration range, otherwise.
+     * The portion of the range evaluated
+     * is extended by one range increment on either side,
+     * so that a segment that crosses the visible bounds
+     * is evaluated
+     * even if neither of its endpoints lies within the bounds;
+     * this matters when the visible bounds are narrow
+     * (see {@linkplain #forBounds(Rectangle2D)}).
+     * 
+     * @return  the number of points evaluated
+     */
+    private int evaluateYRange()
+    {
+        Rectangle2D viewBounds  = getViewBounds();
+        double      from        = Double.NEGATIVE_INFINITY;
+        double      to          = Double.POSITIVE_INFINITY;
+        if ( viewBounds != null )
+        {
+            double  step    = equation.getRangeStep();
+            from = viewBounds.getMinX() - step;
+            to = viewBounds.getMaxX() + step;
+        }
+        int         size        = equation.getRangeSize( from, to );
+        buffer.ensureCapacity( size );
+        double[]    xcos        = buffer.getXcos();
+        equation.getRangeValues( xcos, from, to );
+        equation.evaluateY( xcos, buffer.getYcos(), size );
+        return size;
+    }
+    
+    /**
+     * Calculates the bounding box
+     * of each run of chunkSize points
+     * in the evaluated coordinates.
+     * Each bounding box includes
+     * the points immediately before and after its run,
+     * so that it also bounds the segments
+     * connecting the run to its neighbors.
+     * Points that are not finite are ignored;
+     * they are never visible,
+     * and neither is any segment that ends in one.
+     * 
+     * @see #cull(Rectangle2D)
+     */
+    private void computeChunkBounds()
+    {
+        int size        = buffer.size();
+        int numChunks   = (size + chunkSize - 1) / chunkSize;
+        if ( chunkBounds.length < 4 * numChunks )
+            chunkBounds = new double[4 * numChunks];
+        for ( int chunk = 0 ; chunk < numChunks ; ++chunk )
+        {
+            int     from    = Math.max( 0, chunk * chunkSize - 1 );
+            int     to      = Math.min( size, (chunk + 1) * chunkSize + 1 );
+            double  minXco  = Double.POSITIVE_INFINITY;
+            double  minYco  = Double.POSITIVE_INFINITY;
+            double  maxXco  = Double.NEGATIVE_INFINITY;
+            double  maxYco  = Double.NEGATIVE_INFINITY;
+            for ( int inx = from ; inx < to ; ++inx )
+            {
+                double  xco = buffer.getXco( inx );
+                double  yco = buffer.getYco( inx );
+                if ( Double.isFinite( xco ) && Double.isFinite( yco ) )
+                {
+                    minXco = Math.min( minXco, xco );
+                    minYco = Math.min( minYco, yco );
+                    maxXco = Math.max( maxXco, xco );
+                    maxYco = Math.max( maxYco, yco );
+                }
+            }
+            int     base    = 4 * chunk;
+            chunkBounds[base] = minXco;
+            chunkBounds[base + 1] = minYco;
+            chunkBounds[base + 2] = maxXco;
+            chunkBounds[base + 3] = maxYco;
+        }
+    }
+    
+    /**
+     * Determines whether the bounding box
+     * of a given run of points
+     * intersects given bounds.
+     * Boxes that merely touch the bounds
+     * are considered to intersect them.
+     * 
+     * @param viewBounds    the given bounds
+     * @param chunk         the index of the given run
+     * 
+     * @return  true if the bounding box intersects the given bounds
+     * 
+     * @see #computeChunkBounds()
+     */
+    private boolean intersects( Rectangle2D viewBounds, int chunk )
+    {
+        int     base    = 4 * chunk;
+        boolean result  =
+            chunkBounds[base] <= viewBounds.getMaxX()
+            && chunkBounds[base + 2] >= viewBounds.getMinX()
+            && chunkBounds[base + 1] <= viewBounds.getMaxY()
+            && chunkBounds[base + 3] >= viewBounds.getMinY();
+        return result;
+    }
+    
+    /**
+     * Culls the evaluated coordinates
+     * to given bounds.
+     * A point is retained
+     * if it lies within the given bounds,
+     * or if either of the segments connecting it
+     * to its neighbors crosses the bounds.
+     * Each run of culled points
+     * is replaced by a single break.
+     * If the given bounds are null
+     * all points are retained.
+     * <p>
+     * Points are examined in runs of chunkSize;
+     * a run whose bounding box
+     * does not intersect the given bounds
+     * is culled without examining its points,
+     * so that the cost of culling is proportional
+     * to the number of points near the given bounds,
+     * rather than to the number of points in the plot.
+     * </p>
+     * 
+     * @param viewBounds    the given bounds; may be null
+     * 
+     * @see #computeChunkBounds()
+     */
+    private void cull( Rectangle2D viewBounds )
+    {
+        if ( viewBounds == null )
+            points = buffer;
+        else
+        {
+            int size        = buffer.size();
+            int numChunks   = (size + chunkSize - 1) / chunkSize;
+            visible.clear();
+            visible.ensureCapacity( size );
+            for ( int chunk = 0 ; chunk < numChunks ; ++chunk )
+            {
+                int from    = chunk * chunkSize;
+                int to      = Math.min( size, from + chunkSize );
+                if ( !intersects( viewBounds, chunk ) )
+                    visible.addBreak();
+                else
+                    for ( int inx = from ; inx < to ; ++inx )
+                    {
+                        if ( isVisible( viewBounds, inx ) )
+                            visible.add( 
+                                buffer.getXco( inx ), 
+                                buffer.getYco( inx )
+                            );
+                        else
+                            visible.addBreak();
+                    }
+            }
+            int last    = visible.size() - 1;
+            if ( last >= 0 && visible.isBreak( last ) )
+                visible.setSize( last );
+            points = visible;
+        }
+    }
+    
+    /**
+     * Determines whether the evaluated point 
+     * at a given index
+     * is to be retained after culling to given bounds.
+     * 
+     * @param viewBounds    the given bounds
+     * @param index         the given index
+     * 
+     * @return  true if the point is to be retained
+     * 
+     * @see #cull(Rectangle2D)
+     */
+    private boolean isVisible( Rectangle2D viewBounds, int index )
+    {
+        double  xco     = buffer.getXco( index );
+        double  yco     = buffer.getYco( index );
+        int     last    = buffer.size() - 1;
+        boolean result  = 
+            viewBounds.contains( xco, yco )
+            || (index > 0 && crosses( viewBounds, index - 1, index ))
+            || (index < last && crosses( viewBounds, index, index + 1 ));
+        return result;
+    }
+    
+    /**
+     * Determines whether the segment connecting
+     * the evaluated points at two given indices
+     * crosses given bounds.
+     * A segment with a non-finite endpoint
+     * (including a break)
+     * never crosses the bounds.
+     * 
+     * @param viewBounds    the given bounds
+     * @param from          the index of the first endpoint
+     * @param to            the index of the second endpoint
+     * 
+     * @return  true if the segment crosses the given bounds
+     */
+    private boolean crosses( Rectangle2D viewBounds, int from, int to )
+    {
+        double  xco1    = buffer.getXco( from );
+        double  yco1    = buffer.getYco( from );
+        double  xco2    = buffer.getXco( to );
+        double  yco2    = buffer.getYco( to );
+        boolean result  =
+            Double.isFinite( xco1 ) && Double.isFinite( yco1 )
+            && Double.isFinite( xco2 ) && Double.isFinite( yco2 )
+            && viewBounds.intersectsLine( xco1, yco1, xco2, yco2 );
+        return result;
+    }
+    
+    /**
+     * Gets the visible bounds of the Cartesian plane,
+     * extended by the view margin.
+     * 
+     * @return
+     *      the visible bounds of the Cartesian plane,
+     *      extended by the view margin,
+     *      or null if the visible bounds are not known
+     */
+    private Rectangle2D getViewBounds()
+    {
+        return getViewBounds( bounds );
+    }
+    
+    /**
+     * Extends given visible bounds
+     * by the view margin.
+     * 
+     * @param visibleBounds the given visible bounds; may be null
+     * 
+     * @return
+     *      the given visible bounds,
+     *      extended by the view margin,
+     *      or null if the given bounds are null
+     */
+    private static Rectangle2D getViewBounds( Rectangle2D visibleBounds )
+    {
+        Rectangle2D viewBounds  = null;
+        if ( visibleBounds != null )
+        {
+            double  xMargin = visibleBounds.getWidth() * viewMargin;
+            double  yMargin = visibleBounds.getHeight() * viewMargin;
+            viewBounds = new Rectangle2D.Double(
+                visibleBounds.getX() - xMargin,
+                visibleBounds.getY() - yMargin,
+                visibleBounds.getWidth() + 2 * xMargin,
+                visibleBounds.getHeight() + 2 * yMargin
+            );
+        }
+        return viewBounds;
+    }
+    
+    /**
+     * Gets the array used to store the parameter values
+     * for a parametric or polar plot,
+     * expanding it to a given capacity, if necessary.
+     * 
+     * @param capacity  the given capacity
+     * 
+     * @return  the array used to store the parameter values
+     */
+    private double[] getParams( int capacity )
+    {
+        if ( params.length < capacity )
+            params = new double[capacity];
+        return params;
+    }
+
+    /**
+     * Encapsulates the elements of an equation
+     * that determine the geometry of a plot.
+     * Two keys are equal
+     * if they refer to the same equation,
+     * and all the elements of the equation
+     * that contribute to the plot are equal.
+     * In adaptive sampling mode
+     * the grid unit and visible bounds
+     * must also be equal;
+     * for a YPLOT
+     * the visible bounds must also be equal.
+     * <p>
+     * A key also records the modification count
+     * of its equation
+     * (see {@linkplain Equation#getModificationCount()}).
+     * If the equation counts modifications,
+     * {@linkplain #matches(PlotGeometry)}
+     * uses the count to determine
+     * whether the equation has changed,
+     * so that the state of the equation
+     * does not have to be copied
+     * every time the plot is drawn.
+     * </p>
+     *
+     * @author Jack Straub
+     */
+    private static class Key
+    {
+        private final Equation              equation;
+        private final Command               plotType;
+        private final String                xExpr;
+        private final String                yExpr;
+        private final String                rExpr;
+        private final String                tExpr;
+        private final String                param;
+        private final String                radius;
+        private final String                theta;
+        private final double                rangeStart;
+        private final double                rangeEnd;
+        private final double                rangeStep;
+        private final Map<String,Double>    vars;
+        private final boolean               adaptive;
+        private final double                gridUnit;
+        private final Rectangle2D           bounds;
+        private final long                  modCount;
+
+        /**
+         * Constructor.
+         * Captures the current state
+         * of the equation encapsulated
+         * in a given PlotGeometry object.
+         *
+         * @param geometry  the given PlotGeometry object
+         */
+        public Key( PlotGeometry geometry )
+        {
+            equation = geometry.equation;
+            plotType = geometry.plotType;
+            xExpr = equation.getXExpression();
+            yExpr = equation.getYExpression();
+            rExpr = equation.getRExpression();
+            tExpr = equation.getTExpression();
+            param = equation.getParamName();
+            radius = equation.getRadiusName();
+            theta = equation.getThetaName();
+            rangeStart = equation.getRangeStart();
+            rangeEnd = equation.getRangeEnd();
+            rangeStep = equation.getRangeStep();
+            vars = Map.copyOf( equation.getVars() );
+            modCount = equation.getModificationCount();
+            adaptive = geometry.adaptive;
+            gridUnit = adaptive ? geometry.gridUnit : 0;
+            if ( geometry.bounds != null
+                && (adaptive || plotType == Command.YPLOT) )
+                bounds = (Rectangle2D)geometry.bounds.clone();
+            else
+                bounds = null;
+        }
+        
+        /**
+         * Determines whether this key
+         * describes the current state
+         * of a given PlotGeometry object.
+         * If the encapsulated equation counts modifications,
+         * and has not been modified
+         * since this key was created,
+         * only the plot type, sampling mode, grid unit
+         * and visible bounds are compared,
+         * and no new key is allocated.
+         * Otherwise this key is compared
+         * to a new key
+         * created from the given object.
+         * 
+         * @param geometry  the given PlotGeometry object
+         * 
+         * @return  
+         *      true if this key describes 
+         *      the current state of the given object
+         */
+        public boolean matches( PlotGeometry geometry )
+        {
+            boolean result  = false;
+            if ( modCount < 0 
+                || equation != geometry.equation
+                || modCount != equation.getModificationCount() )
+                result = equals( new Key( geometry ) );
+            else
+            {
+                boolean     geoAdaptive = geometry.adaptive;
+                double      geoUnit     = geoAdaptive ? geometry.gridUnit : 0;
+                Rectangle2D geoBounds   = null;
+                if ( geoAdaptive || geometry.plotType == Command.YPLOT )
+                    geoBounds = geometry.bounds;
+                result =
+                    plotType == geometry.plotType
+                    && adaptive == geoAdaptive
+                    && Double.compare( gridUnit, geoUnit ) == 0
+                    && Objects.equals( bounds, geoBounds );
+            }
+            return result;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            int hash    = Objects.hash(
+                System.identityHashCode( equation ),
+                plotType,
+                xExpr,
+                yExpr,
+                rExpr,
+                tExpr,
+                rangeStart,
+                rangeEnd,
+                rangeStep
+            );
+            return hash;
+        }
+
+        @Override
+        public boolean equals( Object other )
+        {
+            boolean result  = false;
+            if ( this == other )
+                result = true;
+            else if ( !(other instanceof Key) )
+                result = false;
+            else
+            {
+                Key that    = (Key)other;
+                result =
+                    equation == that.equation
+                    && plotType == that.plotType
+                    && Double.compare( rangeStart, that.rangeStart ) == 0
+                    && Double.compare( rangeEnd, that.rangeEnd ) == 0
+                    && Double.compare( rangeStep, that.rangeStep ) == 0
+                    && Objects.equals( xExpr, that.xExpr )
+                    && Objects.equals( yExpr, that.yExpr )
+                    && Objects.equals( rExpr, that.rExpr )
+                    && Objects.equals( tExpr, that.tExpr )
+                    && Objects.equals( param, that.param )
+                    && Objects.equals( radius, that.radius )
+                    && Objects.equals( theta, that.theta )
+                    && vars.equals( that.vars )
+                    && adaptive == that.adaptive
+                    && Double.compare( gridUnit, that.gridUnit ) == 0
+                    && Objects.equals( bounds, that.bounds );
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,498 @@
+package com.acmemail.judah.cartesian_plane;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.swing.SwingUtilities;
+
+import com.acmemail.judah.cartesian_plane.input.Command;
+import com.acmemail.judah.cartesian_plane.input.Equation;
+
+/**
+ * An object of this class
+ * evaluates the plot of an equation
+ * on a background thread,
+ * so that evaluating a heavy equation
+ * does not block the event dispatch thread.
+ * <p>
+ * Each time the plot is to be drawn
+ * the client calls {@linkplain #update(boolean, double, Rectangle2D)}
+ * with the current sampling mode and viewport.
+ * If the equation, the sampling mode, or (where relevant) the viewport
+ * has changed since the plot was last evaluated,
+ * a snapshot of the plot is taken
+ * (see {@linkplain PlotGeometry#snapshot()})
+ * and evaluated on a worker thread.
+ * Results are published progressively:
+ * if the plot is large enough
+ * a coarse version is evaluated and published first
+ * (see {@linkplain PlotGeometry#coarsen(int)}),
+ * followed by the full-resolution plot.
+ * Each result is published on the event dispatch thread,
+ * after which the client's publisher is invoked;
+ * the client then obtains the result
+ * from {@linkplain #getPlot()}
+ * and draws it.
+ * Published results are never modified
+ * by the worker thread.
+ * </p>
+ * <p>
+ * While the Cartesian plane is panned
+ * the plot is not re-evaluated;
+ * instead each area exposed by the pan
+ * that the published result doesn't cover
+ * is evaluated on the worker thread
+ * (see {@linkplain #getPlot(Rectangle2D)}).
+ * Each such evaluation is published as a patch
+ * (see {@linkplain #getPatches()}),
+ * which is drawn in addition to the published result
+ * until the next evaluation of the plot is published.
+ * </p>
+ * <p>
+ * An evaluation in progress is cancelled
+ * when a new evaluation is started,
+ * when the plot is changed
+ * (see {@linkplain #setPlot(Equation, Command)}),
+ * or when the client calls {@linkplain #cancel()}.
+ * Results of a cancelled evaluation are never published.
+ * A single batch evaluation can't be interrupted;
+ * cancellation takes effect
+ * at the end of the current pass.
+ * </p>
+ * <p>
+ * Since a plot command may be issued
+ * from a thread other than the event dispatch thread
+ * (for example, by a command-line interpreter)
+ * {@linkplain #setPlot(Equation, Command)}
+ * and {@linkplain #cancel()}
+ * may be invoked on any thread;
+ * if necessary their effect is deferred
+ * to the event dispatch thread.
+ * All other methods of this class
+ * must be invoked on the event dispatch thread.
+ * </p>
+ * 
+ * @author Jack Straub
+ * 
+ * @see PlotGeometry
+ * @see CartesianPlane
+ */
+public class PlotRenderer
+{
+    /**
+     * The approximate number of points
+     * in the coarse version of a plot.
+     */
+    private static final int    coarseSize      = 2048;
+    /**
+     * The time, in seconds,
+     * for which an idle worker thread is retained.
+     */
+    private static final long   keepAliveTime   = 30;
+    /** Used to generate unique names for worker threads. */
+    private static final AtomicInteger  threadCount = new AtomicInteger();
+
+    /**
+     * Invoked on the event dispatch thread
+     * each time a result is published.
+     */
+    private final Runnable              publisher;
+    /** Executes evaluations, one at a time. */
+    private final ThreadPoolExecutor    executor;
+
+    /** The plot to evaluate; null if none. */
+    private PlotGeometry    source      = null;
+    /** The most recently published result; null if none. */
+    private PlotGeometry    plot        = null;
+    /** The evaluation in progress; null if none. */
+    private Future<?>       job         = null;
+    /**
+     * Plots evaluated for areas 
+     * not covered by the most recently published result;
+     * discarded when the next result is published.
+     */
+    private final List<PlotGeometry>    patches     = new ArrayList<>();
+    /** Evaluations of patches pending or in progress. */
+    private final List<Future<?>>       patchJobs   = new ArrayList<>();
+    /**
+     * Identifies the current evaluation.
+     * Incremented each time an evaluation is started or cancelled;
+     * an evaluation that finds the generation has changed
+     * has been cancelled.
+     * Only modified on the event dispatch thread.
+     */
+    private volatile int    generation  = 0;
+
+    /**
+     * Constructor.
+     * Establishes the publisher
+     * to invoke each time a result is published.
+     * The publisher is invoked on the event dispatch thread.
+     * 
+     * @param publisher the publisher
+     */
+    public PlotRenderer( Runnable publisher )
+    {
+        this.publisher = publisher;
+        ThreadFactory   factory = r -> {
+            String  name    = "PlotRenderer-" + threadCount.incrementAndGet();
+            Thread  thread  = new Thread( r, name );
+            thread.setDaemon( true );
+            return thread;
+        };
+        executor = new ThreadPoolExecutor(
+            1,
+            1,
+            keepAliveTime,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            factory
+        );
+        executor.allowCoreThreadTimeOut( true );
+    }
+
+    /**
+     * Sets the equation to plot,
+     * and the type of plot to generate.
+     * Any evaluation in progress is cancelled,
+     * and the most recently published result
+     * is discarded.
+     * Setting the equation to null
+     * removes the plot.
+     * The plot is not evaluated
+     * until the next call to
+     * {@linkplain #update(boolean, double, Rectangle2D)}.
+     * 
+     * @param equation  the equation to plot; may be null
+     * @param plotType
+     *      the type of plot to generate:
+     *      YPLOT, XYPLOT, RPLOT or TPLOT
+     * 
+     * @throws IllegalArgumentException
+     *      if equation is not null and plotType is not a plot command
+     */
+    public void setPlot( Equation equation, Command plotType )
+    {
+        PlotGeometry    newSource   = 
+            equation == null ? null : new PlotGeometry( equation, plotType );
+        onEDT( () -> {
+            stop();
+            source = newSource;
+            plot = null;
+            patches.clear();
+        });
+    }
+
+    /**
+     * Ensures that the plot is evaluated
+     * for the current state of its equation
+     * and a given sampling mode and viewport.
+     * If the plot has changed
+     * since its evaluation was last started,
+     * any evaluation in progress is cancelled
+     * and a new evaluation is started.
+     * Otherwise the operation is ignored.
+     * 
+     * @param adaptive  true if the plot is generated by adaptive sampling
+     * @param gridUnit  the grid unit, in pixels per unit
+     * @param bounds
+     *      the visible bounds of the Cartesian plane,
+     *      in user coordinates;
+     *      may be null
+     * 
+     * @see PlotGeometry#setViewport(double, Rectangle2D)
+     */
+    public void update( boolean adaptive, double gridUnit, Rectangle2D bounds )
+    {
+        if ( source != null )
+        {
+            source.setAdaptive( adaptive );
+            source.setViewport( gridUnit, bounds );
+            if ( source.isSnapshotStale() )
+            {
+                stop();
+                PlotGeometry    coarse      = source.coarsen( coarseSize );
+                PlotGeometry    snapshot    = source.snapshot();
+                int             gen         = generation;
+                job = executor.submit( () -> render( coarse, snapshot, gen ) );
+            }
+        }
+    }
+
+    /**
+     * Cancels the evaluation in progress, if any,
+     * and any pending evaluations of patches.
+     * The most recently published result,
+     * and the patches published for it,
+     * are retained.
+     * The next call to
+     * {@linkplain #update(boolean, double, Rectangle2D)}
+     * starts a new evaluation.
+     */
+    public void cancel()
+    {
+        onEDT( () -> {
+            stop();
+            if ( source != null )
+                source.invalidate();
+        });
+    }
+
+    /**
+     * Indicates whether an evaluation is in progress.
+     * An evaluation is in progress
+     * from the time it is started
+     * until its full-resolution result is published,
+     * or it is cancelled.
+     * 
+     * @return  true if an evaluation is in progress
+     */
+    public boolean isRendering()
+    {
+        return job != null;
+    }
+
+    /**
+     * Gets the most recently published result.
+     * The result has been evaluated,
+     * and may be drawn;
+     * it may be a coarse version of the plot,
+     * and may have been evaluated
+     * for an earlier state of the equation or viewport.
+     * If no result has been published
+     * since the plot was set,
+     * null is returned.
+     * 
+     * @return  the most recently published result, or null
+     * 
+     * @see PlotGeometry#restrict(Rectangle2D)
+     */
+    public PlotGeometry getPlot()
+    {
+        return plot;
+    }
+
+    /**
+     * Gets the most recently published result,
+     * to be drawn within given visible bounds.
+     * If the result doesn't cover the given bounds
+     * (see {@linkplain PlotGeometry#covers(Rectangle2D)})
+     * the equation of the result
+     * is evaluated for the given bounds
+     * on the worker thread,
+     * and, unless the evaluation is cancelled
+     * or fails,
+     * published as a patch
+     * (see {@linkplain #getPatches()}).
+     * Until then the given bounds contain
+     * only the portion of the result, if any,
+     * that lies within them.
+     * This is intended for small areas,
+     * such as the strips of the Cartesian plane
+     * exposed by a pan.
+     * The evaluation of a patch
+     * does not constitute an evaluation in progress
+     * (see {@linkplain #isRendering()}).
+     * If no result has been published
+     * since the plot was set,
+     * null is returned.
+     * 
+     * @param visibleBounds 
+     *      the given visible bounds, in user coordinates;
+     *      may be null
+     * 
+     * @return  the most recently published result, or null
+     * 
+     * @see PlotGeometry#forBounds(Rectangle2D)
+     */
+    public PlotGeometry getPlot( Rectangle2D visibleBounds )
+    {
+        if ( plot != null && !plot.covers( visibleBounds ) )
+        {
+            PlotGeometry    patch   = plot.forBounds( visibleBounds );
+            int             gen     = generation;
+            Runnable        task    = () -> renderPatch( patch, gen );
+            patchJobs.removeIf( Future::isDone );
+            patchJobs.add( executor.submit( task ) );
+        }
+        return plot;
+    }
+
+    /**
+     * Gets the patches published
+     * for the most recently published result,
+     * in the order in which they were published.
+     * Each patch is a plot of the same equation
+     * evaluated for an area 
+     * not covered by the published result;
+     * it is drawn in addition to the published result.
+     * 
+     * @return  the patches published for the most recent result
+     * 
+     * @see #getPlot(Rectangle2D)
+     */
+    public List<PlotGeometry> getPatches()
+    {
+        return Collections.unmodifiableList( patches );
+    }
+
+    /**
+     * Cancels the evaluation in progress, if any,
+     * and any pending evaluations of patches.
+     * A pending evaluation that has not yet started
+     * is removed from the queue;
+     * an evaluation that has started
+     * stops at the end of its current pass,
+     * and does not publish its results.
+     */
+    private void stop()
+    {
+        ++generation;
+        if ( job != null )
+        {
+            job.cancel( false );
+            job = null;
+        }
+        patchJobs.forEach( j -> j.cancel( false ) );
+        patchJobs.clear();
+    }
+
+    /**
+     * Executes a given task on the event dispatch thread.
+     * If invoked on the event dispatch thread
+     * the task is executed immediately,
+     * otherwise it is executed asynchronously.
+     * 
+     * @param task  the given task
+     */
+    private static void onEDT( Runnable task )
+    {
+        if ( SwingUtilities.isEventDispatchThread() )
+            task.run();
+        else
+            SwingUtilities.invokeLater( task );
+    }
+
+    /**
+     * Evaluates a plot and publishes the results.
+     * If a coarse version of the plot is given
+     * it is evaluated and published first;
+     * if the coarse version can't be evaluated
+     * nothing is published for it,
+     * but the full-resolution version
+     * is still evaluated.
+     * If the full-resolution version can't be evaluated
+     * an empty result (null) is published.
+     * Either way the full-resolution result
+     * is always published,
+     * so the evaluation is complete
+     * (see {@linkplain #isRendering()}).
+     * Executed on the worker thread.
+     * 
+     * @param coarse    the coarse version of the plot; may be null
+     * @param snapshot  the full-resolution version of the plot
+     * @param gen       the generation of the evaluation
+     */
+    private void
+    render( PlotGeometry coarse, PlotGeometry snapshot, int gen )
+    {
+        if ( coarse != null && gen == generation )
+        {
+            PlotGeometry    result  = evaluate( coarse );
+            if ( result != null )
+                publish( result, gen, false );
+        }
+        if ( gen == generation )
+            publish( evaluate( snapshot ), gen, true );
+    }
+    
+    /**
+     * Evaluates a patch and publishes the result.
+     * If the patch can't be evaluated
+     * nothing is published.
+     * Executed on the worker thread.
+     * 
+     * @param patch the patch
+     * @param gen   the generation of the published result
+     *              for which the patch is evaluated
+     */
+    private void renderPatch( PlotGeometry patch, int gen )
+    {
+        if ( gen == generation && evaluate( patch ) != null )
+        {
+            SwingUtilities.invokeLater( () -> {
+                if ( gen == generation )
+                {
+                    patches.add( patch );
+                    publisher.run();
+                }
+            });
+        }
+    }
+    
+    /**
+     * Evaluates a given plot.
+     * If the plot can't be evaluated,
+     * because its equation is invalid
+     * (ValidationException)
+     * or because the evaluation fails
+     * (for example, an ArithmeticException
+     * caused by division by zero)
+     * null is returned.
+     * 
+     * @param geometry  the given plot
+     * 
+     * @return  the given plot, or null if it can't be evaluated
+     */
+    private static PlotGeometry evaluate( PlotGeometry geometry )
+    {
+        PlotGeometry    result  = geometry;
+        try
+        {
+            geometry.refresh();
+        }
+        catch ( RuntimeException exc )
+        {
+            result = null;
+        }
+        return result;
+    }
+
+    /**
+     * Publishes a given result
+     * of an evaluation of a given generation
+     * on the event dispatch thread,
+     * and invokes the publisher.
+     * If the evaluation has been cancelled
+     * by the time the event dispatch thread
+     * processes the result
+     * the result is discarded;
+     * otherwise the patches published
+     * for the previous result are discarded.
+     * 
+     * @param result    the given result; may be null
+     * @param gen       the given generation
+     * @param last      true if this is the last result of the evaluation
+     */
+    private void publish( PlotGeometry result, int gen, boolean last )
+    {
+        SwingUtilities.invokeLater( () -> {
+            if ( gen == generation )
+            {
+                plot = result;
+                patches.clear();
+                if ( last )
+                    job = null;
+                publisher.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,328 @@
+package com.acmemail.judah.cartesian_plane;
+
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+
+import com.acmemail.judah.cartesian_plane.input.PointBuffer;
+
+/**
+ * Accumulates a sequence of points,
+ * expressed in pixel coordinates,
+ * and converts them to a polyline
+ * in which successive points are connected
+ * by straight line segments.
+ * <p>
+ * The polyline is broken
+ * (i.e. consecutive points are not connected)
+ * at:
+ * </p>
+ * <ul>
+ * <li>
+ *      Breaks explicitly added via {@linkplain #addBreak()};
+ * </li>
+ * <li>
+ *      Points with a non-finite coordinate
+ *      (NaN or infinity);
+ *      and
+ * </li>
+ * <li>
+ *      Apparent discontinuities;
+ *      a segment is judged to span a discontinuity
+ *      if it crosses the entire height of the visible bounds
+ *      in the opposite direction
+ *      to the segments on either side of it,
+ *      as happens, for example,
+ *      at the poles of tan(x).
+ * </li>
+ * </ul>
+ * <p>
+ * Before the polyline is emitted
+ * each unbroken run of points
+ * is simplified by the Douglas-Peucker algorithm,
+ * which discards every point
+ * that lies within a given tolerance
+ * of the segment joining the points that are retained.
+ * Since the coordinates are in pixels,
+ * a tolerance of about half a pixel
+ * reduces a densely sampled curve
+ * to roughly the number of vertices
+ * that the pixel grid can show,
+ * without visibly changing the curve.
+ * </p>
+ *
+ * @author Jack Straub
+ *
+ * @see CartesianPlane#setPlotConnected(boolean)
+ */
+public class PolylineBuilder
+{
+    /** Default simplification tolerance, in pixels. */
+    public static final double  DEF_TOLERANCE   = .5;
+
+    /** The accumulated points, in pixel coordinates. */
+    private final PointBuffer   buffer      = new PointBuffer();
+    /** The square of the simplification tolerance. */
+    private final double        toleranceSq;
+
+    /**
+     * Indicates which points in the current run
+     * are retained by simplification;
+     * reused between runs.
+     */
+    private boolean[]           keep        = new boolean[0];
+    /**
+     * Stack of intervals waiting to be processed
+     * by the Douglas-Peucker algorithm;
+     * reused between runs.
+     */
+    private int[]               stack       = new int[0];
+
+    /**
+     * Default constructor.
+     * Creates a PolylineBuilder
+     * with the default simplification tolerance.
+     */
+    public PolylineBuilder()
+    {
+        this( DEF_TOLERANCE );
+    }
+
+    /**
+     * Constructor.
+     * Creates a PolylineBuilder
+     * with a given simplification tolerance.
+     * A tolerance of 0
+     * discards only those points
+     * that lie exactly on the segment
+     * joining their neighbors.
+     *
+     * @param tolerance the given tolerance, in pixels
+     *
+     * @throws IllegalArgumentException if tolerance is negative
+     */
+    public PolylineBuilder( double tolerance )
+    {
+        if ( !(tolerance >= 0) )
+        {
+            String  message = "Invalid tolerance: " + tolerance;
+            throw new IllegalArgumentException( message );
+        }
+        toleranceSq = tolerance * tolerance;
+    }
+
+    /**
+     * Adds a point to the end of the polyline.
+     * A point with a non-finite coordinate
+     * is converted to a break.
+     *
+     * @param xco   the x-coordinate of the point, in pixels
+     * @param yco   the y-coordinate of the point, in pixels
+     */
+    public void add( double xco, double yco )
+    {
+        if ( Double.isFinite( xco ) && Double.isFinite( yco ) )
+            buffer.add( xco, yco );
+        else
+            buffer.addBreak();
+    }
+
+    /**
+     * Adds a break to the end of the polyline.
+     */
+    public void addBreak()
+    {
+        buffer.addBreak();
+    }
+
+    /**
+     * Indicates whether any points
+     * have been added to the polyline
+     * since it was last emitted or cleared.
+     *
+     * @return  true if the polyline contains no points
+     */
+    public boolean isEmpty()
+    {
+        return buffer.size() == 0;
+    }
+
+    /**
+     * Discards all points in the polyline.
+     */
+    public void clear()
+    {
+        buffer.clear();
+    }
+
+    /**
+     * Appends the simplified polyline to a given path,
+     * and clears the polyline.
+     * Each unbroken run of points
+     * begins a new subpath.
+     * A run that consists of a single point
+     * is emitted as a zero-length segment,
+     * which is drawn as a single pixel.
+     *
+     * @param path      the given path
+     * @param bounds
+     *      the visible bounds, in pixel coordinates,
+     *      used to detect discontinuities;
+     *      may be null,
+     *      in which case discontinuities are not detected
+     *
+     * @return  the number of vertices appended to the path
+     */
+    public int appendTo( Path2D path, Rectangle2D bounds )
+    {
+        int count   = 0;
+        int size    = buffer.size();
+        int start   = 0;
+        for ( int inx = 1 ; inx <= size ; ++inx )
+        {
+            if ( inx == size
+                || buffer.isBreak( inx )
+                || isDiscontinuous( inx - 1, bounds ) )
+            {
+                // Points [start, inx) constitute a run. Note that
+                // a run may begin with a break, but never ends with one.
+                if ( buffer.isBreak( start ) )
+                    ++start;
+                if ( start < inx )
+                    count += appendRun( path, start, inx - 1 );
+                start = inx;
+            }
+        }
+        buffer.clear();
+        return count;
+    }
+
+    /**
+     * Determines whether the segment
+     * beginning at the point with the given index
+     * spans a discontinuity.
+     *
+     * @param index     the index of the start of the segment
+     * @param bounds    the visible bounds; may be null
+     *
+     * @return  true if the segment spans a discontinuity
+     */
+    private boolean isDiscontinuous( int index, Rectangle2D bounds )
+    {
+        boolean result  = false;
+        int     size    = buffer.size();
+        if ( bounds != null
+            && index > 0
+            && index + 2 < size
+            && !buffer.isBreak( index - 1 )
+            && !buffer.isBreak( index )
+            && !buffer.isBreak( index + 1 )
+            && !buffer.isBreak( index + 2 )
+        )
+        {
+            double  minYco  = bounds.getMinY();
+            double  maxYco  = bounds.getMaxY();
+            double  yco1    = buffer.getYco( index );
+            double  yco2    = buffer.getYco( index + 1 );
+            double  rise    = yco2 - yco1;
+            double  prev    = yco1 - buffer.getYco( index - 1 );
+            double  next    = buffer.getYco( index + 2 ) - yco2;
+            boolean spans   =
+                (yco1 <= minYco && yco2 >= maxYco)
+                || (yco1 >= maxYco && yco2 <= minYco);
+            result = spans && rise * prev < 0 && rise * next < 0;
+        }
+        return result;
+    }
+
+    /**
+     * Simplifies a run of points
+     * and appends the result to a given path
+     * as a new subpath.
+     *
+     * @param path  the given path
+     * @param first the index of the first point in the run
+     * @param last  the index of the last point in the run
+     *
+     * @return  the number of vertices appended to the path
+     */
+    private int appendRun( Path2D path, int first, int last )
+    {
+        simplify( first, last );
+        int count   = 0;
+        path.moveTo( buffer.getXco( first ), buffer.getYco( first ) );
+        for ( int inx = first + 1 ; inx <= last ; ++inx )
+        {
+            if ( keep[inx] )
+            {
+                path.lineTo( buffer.getXco( inx ), buffer.getYco( inx ) );
+                ++count;
+            }
+        }
+        if ( count == 0 )
+            path.lineTo( buffer.getXco( first ), buffer.getYco( first ) );
+        return count + 1;
+    }
+
+    /**
+     * Applies the Douglas-Peucker algorithm
+     * to a run of points,
+     * marking the points to be retained
+     * in the keep array.
+     * The algorithm is implemented iteratively
+     * so that very long runs
+     * cannot overflow the call stack.
+     *
+     * @param first the index of the first point in the run
+     * @param last  the index of the last point in the run
+     */
+    private void simplify( int first, int last )
+    {
+        int size    = buffer.size();
+        if ( keep.length < size )
+        {
+            keep = new boolean[size];
+            stack = new int[2 * size];
+        }
+        for ( int inx = first ; inx <= last ; ++inx )
+            keep[inx] = false;
+        keep[first] = true;
+        keep[last] = true;
+
+        int top = 0;
+        stack[top++] = first;
+        stack[top++] = last;
+        while ( top > 0 )
+        {
+            int     to          = stack[--top];
+            int     from        = stack[--top];
+            double  fromXco     = buffer.getXco( from );
+            double  fromYco     = buffer.getYco( from );
+            double  toXco       = buffer.getXco( to );
+            double  toYco       = buffer.getYco( to );
+            double  maxDistSq   = -1;
+            int     maxInx      = -1;
+            for ( int inx = from + 1 ; inx < to ; ++inx )
+            {
+                double  distSq  = Line2D.ptSegDistSq(
+                    fromXco, fromYco,
+                    toXco, toYco,
+                    buffer.getXco( inx ), buffer.getYco( inx )
+                );
+                if ( distSq > maxDistSq )
+                {
+                    maxDistSq = distSq;
+                    maxInx = inx;
+                }
+            }
+            if ( maxDistSq > toleranceSq )
+            {
+                keep[maxInx] = true;
+                stack[top++] = from;
+                stack[top++] = maxInx;
+                stack[top++] = maxInx;
+                stack[top++] = to;
+            }
+        }
+    }
+}
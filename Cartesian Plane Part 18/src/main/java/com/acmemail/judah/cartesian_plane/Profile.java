@@ -185,8 +185,8 @@ public class Profile
      */
     public Profile()
     {
-        gridUnit = pMgr.asFloat( CPConstants.GRID_UNIT_PN );
-        name = pMgr.asString( CPConstants.PROFILE_NAME_PN );
+        gridUnit = pMgr.asFloat( Property.GRID_UNIT );
+        name = pMgr.asString( Property.PROFILE_NAME );
         // mainWindow is initialized in its declaration
         linePropertyClasses.stream()
             .forEach( this::putClass );
@@ -199,8 +199,8 @@ public class Profile
      */
     public void reset()
     {
-        gridUnit = pMgr.asFloat( CPConstants.GRID_UNIT_PN );
-        name = pMgr.asString( CPConstants.PROFILE_NAME_PN );
+        gridUnit = pMgr.asFloat( Property.GRID_UNIT );
+        name = pMgr.asString( Property.PROFILE_NAME );
         mainWindow.reset();
         linePropertySetMap.values().forEach( s -> s.reset() );
     }
@@ -208,13 +208,26 @@ public class Profile
     /**
      * Update the property manager with
      * the current values of all properties.
+     * The properties are updated in a single batch,
+     * so that listeners are notified
+     * once the update is complete.
+     * 
+     * @see PropertyManager#beginBatch()
      */
     public void apply()
     {
-        pMgr.setProperty( CPConstants.GRID_UNIT_PN, gridUnit );
-        pMgr.setProperty( CPConstants.PROFILE_NAME_PN, name );
-        mainWindow.apply();
-        linePropertySetMap.values().forEach( s -> s.apply() );
+        pMgr.beginBatch();
+        try
+        {
+            pMgr.setProperty( CPConstants.GRID_UNIT_PN, gridUnit );
+            pMgr.setProperty( CPConstants.PROFILE_NAME_PN, name );
+            mainWindow.apply();
+            linePropertySetMap.values().forEach( s -> s.apply() );
+        }
+        finally
+        {
+            pMgr.commit();
+        }
     }
     
     /**
@@ -0,0 +1,234 @@
+package com.acmemail.judah.cartesian_plane;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Enumerates the properties
+ * managed by the {@linkplain PropertyManager}.
+ * There is one constant
+ * for each pair of <em>_PN</em> (property name)
+ * and <em>_DV</em> (default value) fields
+ * declared in {@linkplain CPConstants};
+ * the name of the constant
+ * is the name of the fields
+ * without the <em>_PN</em>/<em>_DV</em> suffix.
+ * When a property is added to CPConstants
+ * a constant must be added here
+ * (a unit test verifies
+ * that the two remain consistent).
+ * <p>
+ * The ordinal of each constant
+ * serves as an index
+ * into the table of property values
+ * maintained by the PropertyManager;
+ * the value of a property
+ * can be obtained via a Property
+ * without a hash table lookup.
+ * </p>
+ * 
+ * @author Jack Straub
+ * 
+ * @see PropertyManager
+ * @see CPConstants
+ */
+public enum Property
+{
+    /** See {@linkplain CPConstants#GRID_UNIT_PN}. */
+    GRID_UNIT( CPConstants.GRID_UNIT_PN, CPConstants.GRID_UNIT_DV ),
+    /** See {@linkplain CPConstants#MW_WIDTH_PN}. */
+    MW_WIDTH( CPConstants.MW_WIDTH_PN, CPConstants.MW_WIDTH_DV ),
+    /** See {@linkplain CPConstants#MW_HEIGHT_PN}. */
+    MW_HEIGHT( CPConstants.MW_HEIGHT_PN, CPConstants.MW_HEIGHT_DV ),
+    /** See {@linkplain CPConstants#MW_BG_COLOR_PN}. */
+    MW_BG_COLOR( CPConstants.MW_BG_COLOR_PN, CPConstants.MW_BG_COLOR_DV ),
+    /** See {@linkplain CPConstants#MW_FONT_COLOR_PN}. */
+    MW_FONT_COLOR( CPConstants.MW_FONT_COLOR_PN, CPConstants.MW_FONT_COLOR_DV ),
+    /** See {@linkplain CPConstants#MW_FONT_NAME_PN}. */
+    MW_FONT_NAME( CPConstants.MW_FONT_NAME_PN, CPConstants.MW_FONT_NAME_DV ),
+    /** See {@linkplain CPConstants#MW_FONT_SIZE_PN}. */
+    MW_FONT_SIZE( CPConstants.MW_FONT_SIZE_PN, CPConstants.MW_FONT_SIZE_DV ),
+    /** See {@linkplain CPConstants#MW_FONT_STYLE_PN}. */
+    MW_FONT_STYLE( CPConstants.MW_FONT_STYLE_PN, CPConstants.MW_FONT_STYLE_DV ),
+    /** See {@linkplain CPConstants#MW_FONT_DRAW_PN}. */
+    MW_FONT_DRAW( CPConstants.MW_FONT_DRAW_PN, CPConstants.MW_FONT_DRAW_DV ),
+    /** See {@linkplain CPConstants#MARGIN_TOP_WIDTH_PN}. */
+    MARGIN_TOP_WIDTH( CPConstants.MARGIN_TOP_WIDTH_PN, CPConstants.MARGIN_TOP_WIDTH_DV ),
+    /** See {@linkplain CPConstants#MARGIN_TOP_BG_COLOR_PN}. */
+    MARGIN_TOP_BG_COLOR( CPConstants.MARGIN_TOP_BG_COLOR_PN, CPConstants.MARGIN_TOP_BG_COLOR_DV ),
+    /** See {@linkplain CPConstants#MARGIN_TOP_FONT_COLOR_PN}. */
+    MARGIN_TOP_FONT_COLOR( CPConstants.MARGIN_TOP_FONT_COLOR_PN, CPConstants.MARGIN_TOP_FONT_COLOR_DV ),
+    /** See {@linkplain CPConstants#MARGIN_TOP_FONT_NAME_PN}. */
+    MARGIN_TOP_FONT_NAME( CPConstants.MARGIN_TOP_FONT_NAME_PN, CPConstants.MARGIN_TOP_FONT_NAME_DV ),
+    /** See {@linkplain CPConstants#MARGIN_TOP_FONT_SIZE_PN}. */
+    MARGIN_TOP_FONT_SIZE( CPConstants.MARGIN_TOP_FONT_SIZE_PN, CPConstants.MARGIN_TOP_FONT_SIZE_DV ),
+    /** See {@linkplain CPConstants#MARGIN_TOP_FONT_DRAW_PN}. */
+    MARGIN_TOP_FONT_DRAW( CPConstants.MARGIN_TOP_FONT_DRAW_PN, CPConstants.MARGIN_TOP_FONT_DRAW_DV ),
+    /** See {@linkplain CPConstants#MARGIN_TOP_FONT_STYLE_PN}. */
+    MARGIN_TOP_FONT_STYLE( CPConstants.MARGIN_TOP_FONT_STYLE_PN, CPConstants.MARGIN_TOP_FONT_STYLE_DV ),
+    /** See {@linkplain CPConstants#MARGIN_RIGHT_WIDTH_PN}. */
+    MARGIN_RIGHT_WIDTH( CPConstants.MARGIN_RIGHT_WIDTH_PN, CPConstants.MARGIN_RIGHT_WIDTH_DV ),
+    /** See {@linkplain CPConstants#MARGIN_RIGHT_BG_COLOR_PN}. */
+    MARGIN_RIGHT_BG_COLOR( CPConstants.MARGIN_RIGHT_BG_COLOR_PN, CPConstants.MARGIN_RIGHT_BG_COLOR_DV ),
+    /** See {@linkplain CPConstants#MARGIN_RIGHT_FONT_COLOR_PN}. */
+    MARGIN_RIGHT_FONT_COLOR( CPConstants.MARGIN_RIGHT_FONT_COLOR_PN, CPConstants.MARGIN_RIGHT_FONT_COLOR_DV ),
+    /** See {@linkplain CPConstants#MARGIN_RIGHT_FONT_NAME_PN}. */
+    MARGIN_RIGHT_FONT_NAME( CPConstants.MARGIN_RIGHT_FONT_NAME_PN, CPConstants.MARGIN_RIGHT_FONT_NAME_DV ),
+    /** See {@linkplain CPConstants#MARGIN_RIGHT_FONT_SIZE_PN}. */
+    MARGIN_RIGHT_FONT_SIZE( CPConstants.MARGIN_RIGHT_FONT_SIZE_PN, CPConstants.MARGIN_RIGHT_FONT_SIZE_DV ),
+    /** See {@linkplain CPConstants#MARGIN_RIGHT_FONT_STYLE_PN}. */
+    MARGIN_RIGHT_FONT_STYLE( CPConstants.MARGIN_RIGHT_FONT_STYLE_PN, CPConstants.MARGIN_RIGHT_FONT_STYLE_DV ),
+    /** See {@linkplain CPConstants#MARGIN_RIGHT_FONT_DRAW_PN}. */
+    MARGIN_RIGHT_FONT_DRAW( CPConstants.MARGIN_RIGHT_FONT_DRAW_PN, CPConstants.MARGIN_RIGHT_FONT_DRAW_DV ),
+    /** See {@linkplain CPConstants#MARGIN_BOTTOM_WIDTH_PN}. */
+    MARGIN_BOTTOM_WIDTH( CPConstants.MARGIN_BOTTOM_WIDTH_PN, CPConstants.MARGIN_BOTTOM_WIDTH_DV ),
+    /** See {@linkplain CPConstants#MARGIN_BOTTOM_BG_COLOR_PN}. */
+    MARGIN_BOTTOM_BG_COLOR( CPConstants.MARGIN_BOTTOM_BG_COLOR_PN, CPConstants.MARGIN_BOTTOM_BG_COLOR_DV ),
+    /** See {@linkplain CPConstants#MARGIN_BOTTOM_FONT_COLOR_PN}. */
+    MARGIN_BOTTOM_FONT_COLOR( CPConstants.MARGIN_BOTTOM_FONT_COLOR_PN, CPConstants.MARGIN_BOTTOM_FONT_COLOR_DV ),
+    /** See {@linkplain CPConstants#MARGIN_BOTTOM_FONT_NAME_PN}. */
+    MARGIN_BOTTOM_FONT_NAME( CPConstants.MARGIN_BOTTOM_FONT_NAME_PN, CPConstants.MARGIN_BOTTOM_FONT_NAME_DV ),
+    /** See {@linkplain CPConstants#MARGIN_BOTTOM_FONT_SIZE_PN}. */
+    MARGIN_BOTTOM_FONT_SIZE( CPConstants.MARGIN_BOTTOM_FONT_SIZE_PN, CPConstants.MARGIN_BOTTOM_FONT_SIZE_DV ),
+    /** See {@linkplain CPConstants#MARGIN_BOTTOM_FONT_STYLE_PN}. */
+    MARGIN_BOTTOM_FONT_STYLE( CPConstants.MARGIN_BOTTOM_FONT_STYLE_PN, CPConstants.MARGIN_BOTTOM_FONT_STYLE_DV ),
+    /** See {@linkplain CPConstants#MARGIN_BOTTOM_FONT_DRAW_PN}. */
+    MARGIN_BOTTOM_FONT_DRAW( CPConstants.MARGIN_BOTTOM_FONT_DRAW_PN, CPConstants.MARGIN_BOTTOM_FONT_DRAW_DV ),
+    /** See {@linkplain CPConstants#MARGIN_LEFT_WIDTH_PN}. */
+    MARGIN_LEFT_WIDTH( CPConstants.MARGIN_LEFT_WIDTH_PN, CPConstants.MARGIN_LEFT_WIDTH_DV ),
+    /** See {@linkplain CPConstants#MARGIN_LEFT_BG_COLOR_PN}. */
+    MARGIN_LEFT_BG_COLOR( CPConstants.MARGIN_LEFT_BG_COLOR_PN, CPConstants.MARGIN_LEFT_BG_COLOR_DV ),
+    /** See {@linkplain CPConstants#MARGIN_LEFT_FONT_COLOR_PN}. */
+    MARGIN_LEFT_FONT_COLOR( CPConstants.MARGIN_LEFT_FONT_COLOR_PN, CPConstants.MARGIN_LEFT_FONT_COLOR_DV ),
+    /** See {@linkplain CPConstants#MARGIN_LEFT_FONT_NAME_PN}. */
+    MARGIN_LEFT_FONT_NAME( CPConstants.MARGIN_LEFT_FONT_NAME_PN, CPConstants.MARGIN_LEFT_FONT_NAME_DV ),
+    /** See {@linkplain CPConstants#MARGIN_LEFT_FONT_SIZE_PN}. */
+    MARGIN_LEFT_FONT_SIZE( CPConstants.MARGIN_LEFT_FONT_SIZE_PN, CPConstants.MARGIN_LEFT_FONT_SIZE_DV ),
+    /** See {@linkplain CPConstants#MARGIN_LEFT_FONT_STYLE_PN}. */
+    MARGIN_LEFT_FONT_STYLE( CPConstants.MARGIN_LEFT_FONT_STYLE_PN, CPConstants.MARGIN_LEFT_FONT_STYLE_DV ),
+    /** See {@linkplain CPConstants#MARGIN_LEFT_FONT_DRAW_PN}. */
+    MARGIN_LEFT_FONT_DRAW( CPConstants.MARGIN_LEFT_FONT_DRAW_PN, CPConstants.MARGIN_LEFT_FONT_DRAW_DV ),
+    /** See {@linkplain CPConstants#TIC_MINOR_COLOR_PN}. */
+    TIC_MINOR_COLOR( CPConstants.TIC_MINOR_COLOR_PN, CPConstants.TIC_MINOR_COLOR_DV ),
+    /** See {@linkplain CPConstants#TIC_MINOR_WEIGHT_PN}. */
+    TIC_MINOR_WEIGHT( CPConstants.TIC_MINOR_WEIGHT_PN, CPConstants.TIC_MINOR_WEIGHT_DV ),
+    /** See {@linkplain CPConstants#TIC_MINOR_LEN_PN}. */
+    TIC_MINOR_LEN( CPConstants.TIC_MINOR_LEN_PN, CPConstants.TIC_MINOR_LEN_DV ),
+    /** See {@linkplain CPConstants#TIC_MINOR_MPU_PN}. */
+    TIC_MINOR_MPU( CPConstants.TIC_MINOR_MPU_PN, CPConstants.TIC_MINOR_MPU_DV ),
+    /** See {@linkplain CPConstants#TIC_MINOR_DRAW_PN}. */
+    TIC_MINOR_DRAW( CPConstants.TIC_MINOR_DRAW_PN, CPConstants.TIC_MINOR_DRAW_DV ),
+    /** See {@linkplain CPConstants#TIC_MAJOR_COLOR_PN}. */
+    TIC_MAJOR_COLOR( CPConstants.TIC_MAJOR_COLOR_PN, CPConstants.TIC_MAJOR_COLOR_DV ),
+    /** See {@linkplain CPConstants#TIC_MAJOR_WEIGHT_PN}. */
+    TIC_MAJOR_WEIGHT( CPConstants.TIC_MAJOR_WEIGHT_PN, CPConstants.TIC_MAJOR_WEIGHT_DV ),
+    /** See {@linkplain CPConstants#TIC_MAJOR_LEN_PN}. */
+    TIC_MAJOR_LEN( CPConstants.TIC_MAJOR_LEN_PN, CPConstants.TIC_MAJOR_LEN_DV ),
+    /** See {@linkplain CPConstants#TIC_MAJOR_MPU_PN}. */
+    TIC_MAJOR_MPU( CPConstants.TIC_MAJOR_MPU_PN, CPConstants.TIC_MAJOR_MPU_DV ),
+    /** See {@linkplain CPConstants#TIC_MAJOR_DRAW_PN}. */
+    TIC_MAJOR_DRAW( CPConstants.TIC_MAJOR_DRAW_PN, CPConstants.TIC_MAJOR_DRAW_DV ),
+    /** See {@linkplain CPConstants#GRID_LINE_WEIGHT_PN}. */
+    GRID_LINE_WEIGHT( CPConstants.GRID_LINE_WEIGHT_PN, CPConstants.GRID_LINE_WEIGHT_DV ),
+    /** See {@linkplain CPConstants#GRID_LINE_LPU_PN}. */
+    GRID_LINE_LPU( CPConstants.GRID_LINE_LPU_PN, CPConstants.GRID_LINE_LPU_DV ),
+    /** See {@linkplain CPConstants#GRID_LINE_COLOR_PN}. */
+    GRID_LINE_COLOR( CPConstants.GRID_LINE_COLOR_PN, CPConstants.GRID_LINE_COLOR_DV ),
+    /** See {@linkplain CPConstants#GRID_LINE_DRAW_PN}. */
+    GRID_LINE_DRAW( CPConstants.GRID_LINE_DRAW_PN, CPConstants.GRID_LINE_DRAW_DV ),
+    /** See {@linkplain CPConstants#AXIS_COLOR_PN}. */
+    AXIS_COLOR( CPConstants.AXIS_COLOR_PN, CPConstants.AXIS_COLOR_DV ),
+    /** See {@linkplain CPConstants#AXIS_WEIGHT_PN}. */
+    AXIS_WEIGHT( CPConstants.AXIS_WEIGHT_PN, CPConstants.AXIS_WEIGHT_DV ),
+    /** See {@linkplain CPConstants#LABEL_FONT_COLOR_PN}. */
+    LABEL_FONT_COLOR( CPConstants.LABEL_FONT_COLOR_PN, CPConstants.LABEL_FONT_COLOR_DV ),
+    /** See {@linkplain CPConstants#LABEL_FONT_NAME_PN}. */
+    LABEL_FONT_NAME( CPConstants.LABEL_FONT_NAME_PN, CPConstants.LABEL_FONT_NAME_DV ),
+    /** See {@linkplain CPConstants#LABEL_FONT_STYLE_PN}. */
+    LABEL_FONT_STYLE( CPConstants.LABEL_FONT_STYLE_PN, CPConstants.LABEL_FONT_STYLE_DV ),
+    /** See {@linkplain CPConstants#LABEL_FONT_SIZE_PN}. */
+    LABEL_FONT_SIZE( CPConstants.LABEL_FONT_SIZE_PN, CPConstants.LABEL_FONT_SIZE_DV ),
+    /** See {@linkplain CPConstants#LABEL_DRAW_PN}. */
+    LABEL_DRAW( CPConstants.LABEL_DRAW_PN, CPConstants.LABEL_DRAW_DV ),
+    /** See {@linkplain CPConstants#USER_PROPERTIES_PN}. */
+    USER_PROPERTIES( CPConstants.USER_PROPERTIES_PN, CPConstants.USER_PROPERTIES_DV ),
+    /** See {@linkplain CPConstants#PLOT_COLOR_PN}. */
+    PLOT_COLOR( CPConstants.PLOT_COLOR_PN, CPConstants.PLOT_COLOR_DV ),
+    /** See {@linkplain CPConstants#PLOT_ADAPTIVE_PN}. */
+    PLOT_ADAPTIVE( CPConstants.PLOT_ADAPTIVE_PN, CPConstants.PLOT_ADAPTIVE_DV ),
+    /** See {@linkplain CPConstants#PLOT_CONNECTED_PN}. */
+    PLOT_CONNECTED( CPConstants.PLOT_CONNECTED_PN, CPConstants.PLOT_CONNECTED_DV ),
+    /** See {@linkplain CPConstants#PROFILE_NAME_PN}. */
+    PROFILE_NAME( CPConstants.PROFILE_NAME_PN, CPConstants.PROFILE_NAME_DV ),
+    /** See {@linkplain CPConstants#VP_DPRECISION_PN}. */
+    VP_DPRECISION( CPConstants.VP_DPRECISION_PN, CPConstants.VP_DPRECISION_DV ),
+    /** See {@linkplain CPConstants#DM_OPEN_EQUATION_PN}. */
+    DM_OPEN_EQUATION( CPConstants.DM_OPEN_EQUATION_PN, CPConstants.DM_OPEN_EQUATION_DV ),
+    /** See {@linkplain CPConstants#DM_MODIFIED_PN}. */
+    DM_MODIFIED( CPConstants.DM_MODIFIED_PN, CPConstants.DM_MODIFIED_DV ),
+    /** See {@linkplain CPConstants#DM_OPEN_FILE_PN}. */
+    DM_OPEN_FILE( CPConstants.DM_OPEN_FILE_PN, CPConstants.DM_OPEN_FILE_DV );
+    
+    /** Map of property names to constants. */
+    private static final Map<String,Property>   nameMap = new HashMap<>();
+    static
+    {
+        for ( Property property : values() )
+            nameMap.put( property.propName, property );
+    }
+    
+    /** The name of the property. */
+    private final String    propName;
+    /** The default value of the property. */
+    private final String    defaultValue;
+    
+    /**
+     * Constructor.
+     * Establishes the name and default value 
+     * of the property.
+     * 
+     * @param propName      the name of the property
+     * @param defaultValue  the default value of the property
+     */
+    private Property( String propName, String defaultValue )
+    {
+        this.propName = propName;
+        this.defaultValue = defaultValue;
+    }
+    
+    /**
+     * Gets the name of this property.
+     * 
+     * @return  the name of this property
+     */
+    public String getName()
+    {
+        return propName;
+    }
+    
+    /**
+     * Gets the default value of this property.
+     * 
+     * @return  the default value of this property
+     */
+    public String getDefaultValue()
+    {
+        return defaultValue;
+    }
+    
+    /**
+     * Gets the constant
+     * corresponding to a given property name.
+     * 
+     * @param propName  the given property name
+     * 
+     * @return  
+     *      the constant corresponding to the given property name,
+     *      or null if none
+     */
+    public static Property fromName( String propName )
+    {
+        Property    property    = nameMap.get( propName );
+        return property;
+    }
+}
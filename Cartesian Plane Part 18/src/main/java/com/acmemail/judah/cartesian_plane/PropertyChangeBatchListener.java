@@ -0,0 +1,48 @@
+package com.acmemail.judah.cartesian_plane;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.List;
+
+/**
+ * A PropertyChangeListener
+ * that can process the changes made
+ * during a {@linkplain PropertyManager} batch
+ * as a single unit.
+ * When a batch is committed,
+ * a listener of this type
+ * that is registered for changes to all properties
+ * receives the complete set of changes
+ * via {@linkplain #propertyChangeBatch(List)},
+ * instead of receiving one call
+ * to {@linkplain #propertyChange(PropertyChangeEvent)}
+ * for each property that changed.
+ * Outside of a batch,
+ * and for listeners registered
+ * for changes to a specific property,
+ * events continue to be delivered
+ * individually.
+ *
+ * @author Jack Straub
+ *
+ * @see PropertyManager#beginBatch()
+ * @see PropertyManager#commit()
+ */
+public interface PropertyChangeBatchListener extends PropertyChangeListener
+{
+    /**
+     * Processes the changes made during a batch.
+     * There is one event for each property
+     * whose value changed during the batch;
+     * the old value of the event
+     * is the value of the property
+     * before the batch began,
+     * and the new value
+     * is the value of the property
+     * when the batch was committed.
+     * The list is never empty.
+     *
+     * @param events    the changes made during the batch; unmodifiable
+     */
+    void propertyChangeBatch( List<PropertyChangeEvent> events );
+}
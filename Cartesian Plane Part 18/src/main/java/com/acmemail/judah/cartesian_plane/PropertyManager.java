@@ -2,15 +2,22 @@ package com.acmemail.judah.cartesian_plane;
 
 import java.awt.Color;
 import java.awt.Font;
+import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeListenerProxy;
 import java.beans.PropertyChangeSupport;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
+import java.util.function.Function;
 
 /**
  * Manage the properties for this application.
@@ -25,8 +32,21 @@ import java.util.Properties;
  * </p>
  * The name of a property
  * and its corresponding value
- * are stored in a Properties object
- * as String pairs.
+ * are stored as String pairs.
+ * When a value is stored
+ * it is also converted
+ * to each of the types
+ * supported by this class
+ * (float, int, boolean, Color and font style)
+ * to which it can be converted;
+ * the <em>asX</em> methods
+ * return the converted values
+ * without parsing the stored String.
+ * The properties enumerated by {@linkplain Property}
+ * are stored in a table indexed by ordinal,
+ * and may be accessed 
+ * via, for example, {@linkplain #asFloat(Property)}
+ * without a hash table lookup.
  * <p id="initialValues">
  * <b>Establishing the Initial Values of Properties</b>
  * </p>
@@ -91,6 +111,19 @@ import java.util.Properties;
  * to listen for changes to a specific property.
  * </li>
  * </ul> 
+ * <p>
+ * A sequence of changes
+ * can be combined into a batch
+ * by bracketing them with
+ * {@linkplain #beginBatch()} and {@linkplain #commit()}.
+ * Notification of changes made during a batch
+ * is deferred until the batch is committed,
+ * and multiple changes to the same property
+ * are coalesced into one.
+ * Listeners that implement {@linkplain PropertyChangeBatchListener}
+ * receive all the changes in a batch
+ * in a single notification.
+ * </p>
  * 
  * @author Jack Straub
  * 
@@ -118,8 +151,33 @@ public enum PropertyManager
      */
     private final Properties            appProperties   = new Properties();
     
-    /** Map of property names to property values. */
-    private final Map<String,String>    propertyMap     = new HashMap<>();
+    /** Values of the properties enumerated by Property, by ordinal. */
+    private final Slot[]                slots           = 
+        new Slot[Property.values().length];
+    /** 
+     * Map of property names to property values
+     * for properties not enumerated by Property.
+     */
+    private final Map<String,Slot>      otherSlots      = new HashMap<>();
+    
+    /** 
+     * Number of batches in progress;
+     * batches may be nested.
+     * 
+     * @see #beginBatch()
+     */
+    private int                         batchDepth      = 0;
+    /**
+     * Changes made during the current batch,
+     * in the order in which properties were first changed.
+     * The key is the name of a property;
+     * the value is a pair of Strings
+     * giving the value of the property
+     * before the batch began
+     * and its most recent value.
+     */
+    private final Map<String,String[]>  batchChanges    = 
+        new LinkedHashMap<>();
     
     /** 
      * List of property listeners; this object must be instantiated
@@ -150,57 +208,14 @@ public enum PropertyManager
         getUserProperties();
         
         // Get all property names and their default values.
-        for ( Field pnField : CPConstants.class.getFields() )
+        for ( Property property : Property.values() )
         {
-            String  fieldName   = pnField.getName();
-            if ( fieldName.endsWith( "_PN" ) )
-            {
-                // derive the name of the associated DV field...
-                // ... get the name of the PN field
-                int     pNameLen    = fieldName.length();
-                // ... get the start of the PN field name (without the _PN)
-                String  pNamePrefix = fieldName.substring( 0, pNameLen - 3 );
-                // ... construct the name of the DV field
-                String  dvName      = pNamePrefix + "_DV";
-                
-                String  propName    = "";
-                String  propDefault = "";
-                try
-                {
-                    // Get the field that describes the default value
-                    // must be inside a try block because getField
-                    // throws a checked exception.
-                    Field   dvField = CPConstants.class.getField( dvName );
-                    
-                    // Because we are interrogating a class field
-                    // (declared static) we don't need to pass an
-                    // object to the Field.get method.
-                    // Must be inside a try block because get
-                    // throws a checked exception.
-                    propName = (String)pnField.get( null );
-                    propDefault = (String)dvField.get( null );
-                }
-                catch ( NoSuchFieldException exc )
-                {
-                    // This exception indicates a programming error.
-                    String  msg = dvName + ": field not found";
-                    System.err.println( msg );
-                    exc.printStackTrace();
-                    System.exit( 1 );
-                }
-                catch ( IllegalAccessException exc )
-                {
-                    // this is a wholly unexpected error;
-                    // print an error and exit.
-                    exc.printStackTrace();
-                    System.exit( 1 );
-                }
-                
-                // Interrogate command line, environment, and
-                // ini files for a value overriding the default.
-                String  finalVal    = getProperty( propName, propDefault );
-                propertyMap.put( propName, finalVal );
-            }
+            // Interrogate command line, environment, and
+            // ini files for a value overriding the default.
+            String  propName    = property.getName();
+            String  propDefault = property.getDefaultValue();
+            String  finalVal    = getProperty( propName, propDefault );
+            slots[property.ordinal()] = new Slot( finalVal );
         }
     }
     
@@ -259,6 +274,76 @@ public enum PropertyManager
         changeSupport.removePropertyChangeListener( property, listener );
     }
     
+    /**
+     * Begins a batch of property changes.
+     * Until the batch is committed
+     * property values are updated immediately,
+     * but listeners are not notified.
+     * Batches may be nested;
+     * notification occurs when the outermost batch
+     * is committed.
+     * Every call to this method
+     * must be paired with a call to {@linkplain #commit()},
+     * normally in a <em>finally</em> block.
+     * <p>
+     * Batches are not thread-safe;
+     * a batch should be begun and committed
+     * on the same thread
+     * (normally the event dispatch thread)
+     * as all other property changes.
+     * </p>
+     * 
+     * @see #commit()
+     * @see PropertyChangeBatchListener
+     */
+    public void beginBatch()
+    {
+        ++batchDepth;
+    }
+    
+    /**
+     * Commits a batch of property changes.
+     * If this is the outermost batch
+     * listeners are notified
+     * of every property 
+     * whose value has changed
+     * since the batch began.
+     * Listeners for a specific property
+     * are notified via a single event
+     * for that property.
+     * Listeners for all properties
+     * that implement {@linkplain PropertyChangeBatchListener}
+     * receive all changes
+     * in a single call to
+     * {@linkplain PropertyChangeBatchListener#propertyChangeBatch(List)};
+     * other listeners for all properties
+     * receive one event for each change.
+     * 
+     * @throws IllegalStateException    if no batch is in progress
+     * 
+     * @see #beginBatch()
+     */
+    public void commit()
+    {
+        if ( batchDepth == 0 )
+            throw new IllegalStateException( "no batch in progress" );
+        if ( --batchDepth == 0 )
+            fireBatch();
+    }
+    
+    /**
+     * Indicates whether a batch of property changes
+     * is in progress.
+     * 
+     * @return  true if a batch of property changes is in progress
+     * 
+     * @see #beginBatch()
+     */
+    public boolean isBatchInProgress()
+    {
+        return batchDepth > 0;
+    }
+    
     /**
      * Gets the value associated with a given property name
      * and returns it as an Integer.
@@ -272,10 +357,25 @@ public enum PropertyManager
      */
     public Integer asInt( String propName )
     {
-        Integer iVal    = null;
-        String  sVal    = propertyMap.get( propName );
-        if ( sVal != null )
-            iVal = Integer.parseInt( sVal );
+        Slot    slot    = getSlot( propName );
+        Integer iVal    = slot == null ? null : slot.asInt();
+        return iVal;
+    }
+    
+    /**
+     * Gets the value of a given property
+     * and returns it as an Integer.
+     * 
+     * @param property  the given property
+     * 
+     * @return the converted Integer
+     * 
+     * @throws  NumberFormatException if the value of the property
+     *          cannot be converted to an Integer
+     */
+    public Integer asInt( Property property )
+    {
+        Integer iVal    = slots[property.ordinal()].asInt();
         return iVal;
     }
     
@@ -312,10 +412,25 @@ public enum PropertyManager
      */
     public Float asFloat( String propName )
     {
-        Float   fVal    = null;
-        String  sVal    = propertyMap.get( propName );
-        if ( sVal != null )
-            fVal = Float.parseFloat( sVal );
+        Slot    slot    = getSlot( propName );
+        Float   fVal    = slot == null ? null : slot.asFloat();
+        return fVal;
+    }
+    
+    /**
+     * Gets the value of a given property
+     * and returns it as a Float.
+     * 
+     * @param property  the given property
+     * 
+     * @return the converted Float
+     * 
+     * @throws  NumberFormatException if the value of the property
+     *          cannot be converted to a Float
+     */
+    public Float asFloat( Property property )
+    {
+        Float   fVal    = slots[property.ordinal()].asFloat();
         return fVal;
     }
     
@@ -349,10 +464,22 @@ public enum PropertyManager
      */
     public Boolean asBoolean( String propName )
     {
-        Boolean bVal    = null;
-        String  sVal    = propertyMap.get( propName );
-        if ( sVal != null )
-            bVal = Boolean.parseBoolean( sVal );
+        Slot    slot    = getSlot( propName );
+        Boolean bVal    = slot == null ? null : slot.bVal;
+        return bVal;
+    }
+    
+    /**
+     * Gets the value of a given property
+     * and returns it as a Boolean.
+     * 
+     * @param property  the given property
+     * 
+     * @return the converted Boolean
+     */
+    public Boolean asBoolean( Property property )
+    {
+        Boolean bVal    = slots[property.ordinal()].bVal;
         return bVal;
     }
     
@@ -405,7 +532,22 @@ public enum PropertyManager
      */
     public String asString( String propName )
     {
-        String  sVal    = propertyMap.get( propName );
+        Slot    slot    = getSlot( propName );
+        String  sVal    = slot == null ? null : slot.sVal;
+        return sVal;
+    }
+    
+    /**
+     * Gets the value of a given property
+     * and returns it as a String.
+     * 
+     * @param property  the given property
+     * 
+     * @return the property value
+     */
+    public String asString( Property property )
+    {
+        String  sVal    = slots[property.ordinal()].sVal;
         return sVal;
     }
 
@@ -422,13 +564,25 @@ public enum PropertyManager
      */
     public Color asColor( String propName )
     {
-        Color   cVal    = null;
-        String  sVal    = propertyMap.get( propName );
-        if ( sVal != null )
-        {
-            int     iVal    = Integer.decode( sVal );
-            cVal    = new Color( iVal );
-        }
+        Slot    slot    = getSlot( propName );
+        Color   cVal    = slot == null ? null : slot.asColor();
+        return cVal;
+    }
+    
+    /**
+     * Gets the value of a given property
+     * and returns it as a Color.
+     * 
+     * @param property  the given property
+     * 
+     * @return the converted Color
+     * 
+     * @throws  NumberFormatException if the value of the property
+     *          cannot be converted to a Color
+     */
+    public Color asColor( Property property )
+    {
+        Color   cVal    = slots[property.ordinal()].asColor();
         return cVal;
     }
     
@@ -472,16 +626,24 @@ public enum PropertyManager
      */
     public Integer asFontStyle( String propName )
     {
-        int     iVal    = Font.PLAIN;
-        String  sVal    = propertyMap.get( propName );
-        if ( sVal != null )
-        {
-            String  csVal   = sVal.toUpperCase();
-            if ( csVal.contains( "BOLD" ) )
-                iVal |= Font.BOLD;
-            if ( csVal.contains( "ITALIC" ) )
-                iVal |= Font.ITALIC;
-        }
+        Slot    slot    = getSlot( propName );
+        int     iVal    = slot == null ? Font.PLAIN : slot.fontStyle;
+        return iVal;
+    }
+    
+    /**
+     * Convert the value of a given property
+     * to a font style return the result.
+     * 
+     * @param property  the given property
+     * 
+     * @return the converted font style
+     * 
+     * @see #asFontStyle(String)
+     */
+    public Integer asFontStyle( Property property )
+    {
+        int     iVal    = slots[property.ordinal()].fontStyle;
         return iVal;
     }
 
@@ -607,9 +769,259 @@ public enum PropertyManager
      */
     private Object propagatePropertyChange( String propName, String newVal )
     {
-        Object  oldVal  = propertyMap.put( propName, newVal );
-        changeSupport.firePropertyChange( propName, oldVal, newVal );
+        Property    property    = Property.fromName( propName );
+        Slot        newSlot     = new Slot( newVal );
+        Slot        oldSlot     = null;
+        if ( property != null )
+        {
+            oldSlot = slots[property.ordinal()];
+            slots[property.ordinal()] = newSlot;
+        }
+        else
+            oldSlot = otherSlots.put( propName, newSlot );
+        
+        String  oldVal  = oldSlot == null ? null : oldSlot.sVal;
+        if ( batchDepth > 0 )
+            batchChanges.computeIfAbsent( 
+                propName, 
+                k -> new String[] { oldVal, null }
+            )[1] = newVal;
+        else
+            changeSupport.firePropertyChange( propName, oldVal, newVal );
         
         return oldVal;
     }
+    
+    /**
+     * Notifies listeners
+     * of the changes made during a batch,
+     * and discards the record of the changes.
+     * 
+     * @see #commit()
+     */
+    private void fireBatch()
+    {
+        List<PropertyChangeEvent>   events  = new ArrayList<>();
+        for ( Map.Entry<String,String[]> entry : batchChanges.entrySet() )
+        {
+            String[]    vals    = entry.getValue();
+            if ( !Objects.equals( vals[0], vals[1] ) )
+                events.add( 
+                    new PropertyChangeEvent( 
+                        this, 
+                        entry.getKey(), 
+                        vals[0], 
+                        vals[1]
+                    )
+                );
+        }
+        batchChanges.clear();
+        events = Collections.unmodifiableList( events );
+        
+        PropertyChangeListener[]    listeners   = 
+            changeSupport.getPropertyChangeListeners();
+        for ( PropertyChangeListener listener : listeners )
+        {
+            if ( listener instanceof PropertyChangeListenerProxy )
+            {
+                PropertyChangeListenerProxy proxy   = 
+                    (PropertyChangeListenerProxy)listener;
+                String                      name    = 
+                    proxy.getPropertyName();
+                events.stream()
+                    .filter( e -> name.equals( e.getPropertyName() ) )
+                    .forEach( proxy::propertyChange );
+            }
+            else if ( listener instanceof PropertyChangeBatchListener )
+            {
+                if ( !events.isEmpty() )
+                    ((PropertyChangeBatchListener)listener)
+                        .propertyChangeBatch( events );
+            }
+            else
+                events.forEach( listener::propertyChange );
+        }
+    }
+    
+    /**
+     * Gets the slot containing the value
+     * of a given property.
+     * 
+     * @param propName  the name of the given property
+     * 
+     * @return  the slot containing the value of the given property,
+     *          or null if the property can't be found
+     */
+    private Slot getSlot( String propName )
+    {
+        Property    property    = Property.fromName( propName );
+        Slot        slot        = null;
+        if ( property != null )
+            slot = slots[property.ordinal()];
+        else
+            slot = otherSlots.get( propName );
+        return slot;
+    }
+    
+    /**
+     * Immutable container for the value of a property.
+     * The value is stored as a String,
+     * and as each of the types
+     * to which it can be converted.
+     * Conversions to float, int and Color
+     * are attempted only if the String
+     * begins with a character that can begin a number;
+     * if a conversion fails
+     * the converted value is null,
+     * and the conversion is repeated
+     * when the value is requested
+     * so that the caller receives 
+     * the appropriate exception.
+     * 
+     * @author Jack Straub
+     */
+    private static class Slot
+    {
+        /** The value of the property. */
+        private final String    sVal;
+        /** The value converted to a Float; null if not convertible. */
+        private final Float     fVal;
+        /** The value converted to an Integer; null if not convertible. */
+        private final Integer   iVal;
+        /** The value converted to a Color; null if not convertible. */
+        private final Color     cVal;
+        /** The value converted to a Boolean. */
+        private final Boolean   bVal;
+        /** The value converted to a font style. */
+        private final int       fontStyle;
+        
+        /**
+         * Constructor.
+         * Stores the given value
+         * and converts it to each supported type.
+         * 
+         * @param sVal  the given value
+         */
+        public Slot( String sVal )
+        {
+            this.sVal = sVal;
+            boolean numeric = isNumeric( sVal );
+            fVal = numeric ? parse( sVal, Float::valueOf ) : null;
+            iVal = numeric ? parse( sVal, Integer::valueOf ) : null;
+            Integer rgb     = numeric ? parse( sVal, Integer::decode ) : null;
+            cVal = rgb == null ? null : new Color( rgb );
+            bVal = sVal == null ? null : Boolean.parseBoolean( sVal );
+            
+            int     style   = Font.PLAIN;
+            if ( sVal != null )
+            {
+                String  csVal   = sVal.toUpperCase();
+                if ( csVal.contains( "BOLD" ) )
+                    style |= Font.BOLD;
+                if ( csVal.contains( "ITALIC" ) )
+                    style |= Font.ITALIC;
+            }
+            fontStyle = style;
+        }
+        
+        /**
+         * Gets the value of this slot as a Float.
+         * 
+         * @return  the value of this slot as a Float,
+         *          or null if the value is null
+         * 
+         * @throws  NumberFormatException 
+         *          if the value cannot be converted to a Float
+         */
+        public Float asFloat()
+        {
+            Float   result  = fVal;
+            if ( result == null && sVal != null )
+                result = Float.valueOf( sVal );
+            return result;
+        }
+        
+        /**
+         * Gets the value of this slot as an Integer.
+         * 
+         * @return  the value of this slot as an Integer,
+         *          or null if the value is null
+         * 
+         * @throws  NumberFormatException 
+         *          if the value cannot be converted to an Integer
+         */
+        public Integer asInt()
+        {
+            Integer result  = iVal;
+            if ( result == null && sVal != null )
+                result = Integer.valueOf( sVal );
+            return result;
+        }
+        
+        /**
+         * Gets the value of this slot as a Color.
+         * 
+         * @return  the value of this slot as a Color,
+         *          or null if the value is null
+         * 
+         * @throws  NumberFormatException 
+         *          if the value cannot be converted to a Color
+         */
+        public Color asColor()
+        {
+            Color   result  = cVal;
+            if ( result == null && sVal != null )
+                result = new Color( Integer.decode( sVal ) );
+            return result;
+        }
+        
+        /**
+         * Determines whether a given String
+         * begins with a character 
+         * that can begin a number:
+         * a digit, a sign or a decimal point.
+         * 
+         * @param sVal  the given String; may be null
+         * 
+         * @return  true if the given String may be numeric
+         */
+        private static boolean isNumeric( String sVal )
+        {
+            boolean result  = false;
+            if ( sVal != null && !sVal.isEmpty() )
+            {
+                char    first   = sVal.charAt( 0 );
+                result = Character.isDigit( first ) 
+                    || first == '-' 
+                    || first == '+' 
+                    || first == '.';
+            }
+            return result;
+        }
+        
+        /**
+         * Converts a String using a given parser.
+         * If the String cannot be converted
+         * null is returned.
+         * 
+         * @param <T>       the type of the converted value
+         * @param sVal      the String to convert
+         * @param parser    the given parser
+         * 
+         * @return  the converted value, or null if the conversion fails
+         */
+        private static <T> T parse( String sVal, Function<String,T> parser )
+        {
+            T   result  = null;
+            try
+            {
+                result = parser.apply( sVal );
+            }
+            catch ( NumberFormatException exc )
+            {
+                result = null;
+            }
+            return result;
+        }
+    }
 }
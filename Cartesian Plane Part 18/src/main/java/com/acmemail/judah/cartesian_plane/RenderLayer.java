@@ -0,0 +1,353 @@
+package com.acmemail.judah.cartesian_plane;
+
+import java.awt.AlphaComposite;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Caches one layer of a rendered component
+ * in an off-screen image.
+ * A component that draws several independent layers
+ * (for example, a static grid and a user plot)
+ * can keep each in its own RenderLayer,
+ * re-rendering a layer only when it is invalidated,
+ * and otherwise simply compositing the cached images.
+ * <p>
+ * The image is allocated at device resolution.
+ * On a HiDPI display,
+ * where the graphics context
+ * of the target component is scaled,
+ * the image is scaled by the same factor,
+ * and the graphics context used to render the layer
+ * is scaled so that the layer
+ * can be drawn in component coordinates.
+ * When the layer is drawn
+ * each image pixel therefore maps
+ * to exactly one device pixel.
+ * </p>
+ * <p>
+ * A layer is invalid until it is first rendered;
+ * thereafter it remains valid
+ * until {@linkplain #invalidate()} is called,
+ * or until the size or scale
+ * of the target component changes.
+ * </p>
+ *
+ * @author Jack Straub
+ */
+public class RenderLayer
+{
+    /** True if the layer is to have a transparent background. */
+    private final boolean   transparent;
+
+    /** The cached image; null if none has been allocated. */
+    private BufferedImage   image       = null;
+    /** The width of the layer, in component coordinates. */
+    private int             width       = 0;
+    /** The height of the layer, in component coordinates. */
+    private int             height      = 0;
+    /** The horizontal scale factor of the target device. */
+    private double          scaleX      = 1;
+    /** The vertical scale factor of the target device. */
+    private double          scaleY      = 1;
+    /** True if the cached image is up to date. */
+    private boolean         valid       = false;
+
+    /**
+     * Constructor.
+     * Determines whether the layer
+     * has a transparent background.
+     * An opaque layer is suitable
+     * as the bottom layer of a component;
+     * layers drawn on top of it
+     * must be transparent.
+     *
+     * @param transparent   true if the layer is to be transparent
+     */
+    public RenderLayer( boolean transparent )
+    {
+        this.transparent = transparent;
+    }
+
+    /**
+     * Marks this layer as out of date.
+     * The layer must be rendered again
+     * before it can be drawn.
+     */
+    public void invalidate()
+    {
+        valid = false;
+    }
+
+    /**
+     * Determines whether this layer is up to date
+     * with respect to a given target graphics context
+     * and component size.
+     *
+     * @param target    the given graphics context
+     * @param width     the width of the component
+     * @param height    the height of the component
+     *
+     * @return  true if this layer can be drawn without re-rendering
+     */
+    public boolean isValid( Graphics2D target, int width, int height )
+    {
+        AffineTransform transform   = target.getTransform();
+        boolean         result      =
+            valid
+            && image != null
+            && this.width == width
+            && this.height == height
+            && scaleX == getScale( transform.getScaleX() )
+            && scaleY == getScale( transform.getScaleY() );
+        return result;
+    }
+
+    /**
+     * Prepares this layer to be rendered
+     * for a given target graphics context
+     * and component size.
+     * The image is reallocated if necessary,
+     * and cleared:
+     * a transparent layer is cleared to transparent,
+     * an opaque layer is left for the caller to fill.
+     * The returned graphics context
+     * is scaled to match the target device,
+     * and inherits the target's rendering hints.
+     * On return the layer is marked valid;
+     * the caller is responsible
+     * for disposing the returned graphics context.
+     *
+     * @param config
+     *      the graphics configuration of the target component,
+     *      used to allocate a compatible image;
+     *      may be null
+     * @param target    the given graphics context
+     * @param width     the width of the component
+     * @param height    the height of the component
+     *
+     * @return  a graphics context with which to render the layer
+     */
+    public Graphics2D begin(
+        GraphicsConfiguration config,
+        Graphics2D target,
+        int width,
+        int height
+    )
+    {
+        AffineTransform transform   = target.getTransform();
+        double          newScaleX   = getScale( transform.getScaleX() );
+        double          newScaleY   = getScale( transform.getScaleY() );
+        int             imageWidth  =
+            Math.max( 1, (int)Math.ceil( width * newScaleX ) );
+        int             imageHeight =
+            Math.max( 1, (int)Math.ceil( height * newScaleY ) );
+        if ( image == null
+            || image.getWidth() != imageWidth
+            || image.getHeight() != imageHeight )
+            image = createImage( config, imageWidth, imageHeight );
+
+        Graphics2D      gtx         = image.createGraphics();
+        if ( transparent )
+        {
+            Composite   composite   = gtx.getComposite();
+            gtx.setComposite( AlphaComposite.Clear );
+            gtx.fillRect( 0, 0, imageWidth, imageHeight );
+            gtx.setComposite( composite );
+        }
+        gtx.setRenderingHints( target.getRenderingHints() );
+        gtx.scale( newScaleX, newScaleY );
+
+        this.width = width;
+        this.height = height;
+        scaleX = newScaleX;
+        scaleY = newScaleY;
+        valid = true;
+        return gtx;
+    }
+
+    /**
+     * Obtains a graphics context
+     * for updating the cached image of this layer
+     * without discarding its current contents.
+     * The graphics context is configured
+     * as described for 
+     * {@linkplain #begin(GraphicsConfiguration, Graphics2D, int, int)},
+     * but the image is not cleared.
+     * The caller is responsible
+     * for disposing the graphics context.
+     *
+     * @param target
+     *      the graphics context in which the layer
+     *      will eventually be drawn
+     *
+     * @return  
+     *      a graphics context for drawing in the cached image
+     *      of this layer
+     *
+     * @throws IllegalStateException
+     *      if the layer has never been rendered
+     */
+    public Graphics2D edit( Graphics2D target )
+    {
+        if ( image == null )
+            throw new IllegalStateException( "layer not rendered" );
+        Graphics2D  gtx = image.createGraphics();
+        gtx.setRenderingHints( target.getRenderingHints() );
+        gtx.scale( scaleX, scaleY );
+        return gtx;
+    }
+
+    /**
+     * Shifts the contents of a given area of this layer
+     * by a given distance.
+     * Distances are expressed in component coordinates,
+     * and rounded to the nearest device pixel.
+     * Contents shifted outside the given area are discarded;
+     * the strips of the area exposed by the shift
+     * are cleared in a transparent layer,
+     * and left unchanged in an opaque layer.
+     * Either way the caller is expected
+     * to redraw the exposed strips.
+     * If the layer has never been rendered
+     * the operation is ignored.
+     *
+     * @param area  the given area, in component coordinates
+     * @param dx    the horizontal distance to shift
+     * @param dy    the vertical distance to shift
+     *
+     * @return
+     *      the distance actually shifted,
+     *      in component coordinates,
+     *      after rounding to the nearest device pixel
+     *
+     * @see #edit(Graphics2D)
+     */
+    public Point2D scroll( Rectangle2D area, double dx, double dy )
+    {
+        Point2D shift   = new Point2D.Double( 0, 0 );
+        if ( image != null )
+        {
+            int         minX    = (int)Math.floor( area.getMinX() * scaleX );
+            int         minY    = (int)Math.floor( area.getMinY() * scaleY );
+            int         maxX    = (int)Math.ceil( area.getMaxX() * scaleX );
+            int         maxY    = (int)Math.ceil( area.getMaxY() * scaleY );
+            int         devDX   = (int)Math.round( dx * scaleX );
+            int         devDY   = (int)Math.round( dy * scaleY );
+
+            // The part of the area that remains inside the area
+            // after the shift, before it is shifted.
+            int         srcX    = devDX > 0 ? minX : minX - devDX;
+            int         srcY    = devDY > 0 ? minY : minY - devDY;
+            int         srcW    = maxX - minX - Math.abs( devDX );
+            int         srcH    = maxY - minY - Math.abs( devDY );
+            Graphics2D  gtx     = image.createGraphics();
+            gtx.clipRect( minX, minY, maxX - minX, maxY - minY );
+            // Replace, don't blend; otherwise the old contents
+            // of a transparent layer show through the new.
+            gtx.setComposite( AlphaComposite.Src );
+            if ( srcW > 0 && srcH > 0 )
+                gtx.copyArea( srcX, srcY, srcW, srcH, devDX, devDY );
+            if ( transparent )
+            {
+                gtx.setComposite( AlphaComposite.Clear );
+                if ( devDX > 0 )
+                    gtx.fillRect( minX, minY, devDX, maxY - minY );
+                else if ( devDX < 0 )
+                    gtx.fillRect( maxX + devDX, minY, -devDX, maxY - minY );
+                if ( devDY > 0 )
+                    gtx.fillRect( minX, minY, maxX - minX, devDY );
+                else if ( devDY < 0 )
+                    gtx.fillRect( minX, maxY + devDY, maxX - minX, -devDY );
+            }
+            gtx.dispose();
+            shift.setLocation( devDX / scaleX, devDY / scaleY );
+        }
+        return shift;
+    }
+
+    /**
+     * Draws this layer
+     * in a given graphics context.
+     * If the layer has never been rendered
+     * the operation is ignored.
+     *
+     * @param target    the given graphics context
+     */
+    public void draw( Graphics2D target )
+    {
+        if ( image != null )
+            target.drawImage( image, 0, 0, width, height, null );
+    }
+
+    /**
+     * Gets the image that caches this layer.
+     * Intended for testing.
+     *
+     * @return  the image that caches this layer; may be null
+     */
+    BufferedImage getImage()
+    {
+        return image;
+    }
+
+    /**
+     * Allocates an image of the given size
+     * with the appropriate transparency.
+     * If a graphics configuration is available
+     * the image is made compatible with it,
+     * so that it can be drawn as quickly as possible.
+     *
+     * @param config    the graphics configuration; may be null
+     * @param width     the width of the image
+     * @param height    the height of the image
+     *
+     * @return  the allocated image
+     */
+    private BufferedImage createImage(
+        GraphicsConfiguration config,
+        int width,
+        int height
+    )
+    {
+        BufferedImage   result  = null;
+        if ( config != null )
+        {
+            int transparency    =
+                transparent ? Transparency.TRANSLUCENT : Transparency.OPAQUE;
+            result = 
+                config.createCompatibleImage( width, height, transparency );
+        }
+        else
+        {
+            int type    =
+                transparent ?
+                BufferedImage.TYPE_INT_ARGB_PRE : BufferedImage.TYPE_INT_RGB;
+            result = new BufferedImage( width, height, type );
+        }
+        return result;
+    }
+
+    /**
+     * Normalizes a scale factor
+     * obtained from a graphics transform.
+     * A factor that is not positive
+     * (e.g. a flipped or degenerate transform)
+     * is replaced by 1.
+     *
+     * @param scale the scale factor
+     *
+     * @return  the normalized scale factor
+     */
+    private static double getScale( double scale )
+    {
+        double  result  = scale > 0 ? scale : 1;
+        return result;
+    }
+}
@@ -9,7 +9,6 @@ import javax.swing.JOptionPane;
 import com.acmemail.judah.cartesian_plane.CPConstants;
 import com.acmemail.judah.cartesian_plane.CartesianPlane;
 import com.acmemail.judah.cartesian_plane.NotificationManager;
-import com.acmemail.judah.cartesian_plane.PlotPointCommand;
 import com.acmemail.judah.cartesian_plane.input.Command;
 import com.acmemail.judah.cartesian_plane.input.Equation;
 import com.acmemail.judah.cartesian_plane.input.EquationMap;
@@ -148,10 +147,7 @@ public class CommandExecutor
      */
     private void plotY()
     {
-        plane.setStreamSupplier( () ->
-            inputParser.getEquation().yPlot()
-            .map( p -> PlotPointCommand.of( p, plane) )
-        );
+        plane.setPlotEquation( inputParser.getEquation(), Command.YPLOT );
         NotificationManager.INSTANCE
             .propagateNotification( CPConstants.REDRAW_NP );
     }
@@ -162,10 +158,7 @@ public class CommandExecutor
      */
     private void plotR()
     {
-        plane.setStreamSupplier( () ->
-            inputParser.getEquation().rPlot()
-            .map( p -> PlotPointCommand.of( p, plane) )
-        );
+        plane.setPlotEquation( inputParser.getEquation(), Command.RPLOT );
         NotificationManager.INSTANCE
             .propagateNotification( CPConstants.REDRAW_NP );
     }
@@ -176,10 +169,7 @@ public class CommandExecutor
      */
     private void plotT()
     {
-        plane.setStreamSupplier( () ->
-            inputParser.getEquation().tPlot()
-            .map( p -> PlotPointCommand.of( p, plane) )
-        );
+        plane.setPlotEquation( inputParser.getEquation(), Command.TPLOT );
         NotificationManager.INSTANCE
             .propagateNotification( CPConstants.REDRAW_NP );
     }
@@ -189,10 +179,7 @@ public class CommandExecutor
      */
     private void plotXY()
     {
-        plane.setStreamSupplier( () ->
-            inputParser.getEquation().xyPlot()
-            .map( p -> PlotPointCommand.of( p, plane) )
-        );
+        plane.setPlotEquation( inputParser.getEquation(), Command.XYPLOT );
         NotificationManager.INSTANCE
             .propagateNotification( CPConstants.REDRAW_NP );
     }
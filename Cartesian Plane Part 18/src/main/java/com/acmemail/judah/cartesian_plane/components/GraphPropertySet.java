@@ -4,6 +4,7 @@ import java.awt.Color;
 import java.awt.Font;
 import java.util.Objects;
 
+import com.acmemail.judah.cartesian_plane.Property;
 import com.acmemail.judah.cartesian_plane.PropertyManager;
 
 /**
@@ -52,6 +53,16 @@ public abstract class GraphPropertySet
     private final String        fontStyleProperty;
     private final String        fontDrawProperty;
     
+    // The above properties, resolved once so that reset()
+    // can obtain their values without a hash table lookup.
+    private final Property      widthProp;
+    private final Property      bgColorProp;
+    private final Property      fgColorProp;
+    private final Property      fontNameProp;
+    private final Property      fontSizeProp;
+    private final Property      fontStyleProp;
+    private final Property      fontDrawProp;
+    
     private float   width;
     private Color   bgColor;
     private Color   fgColor;
@@ -92,6 +103,13 @@ public abstract class GraphPropertySet
         this.fontSizeProperty = fontSizeProperty;
         this.fontStyleProperty = fontStyleProperty;
         this.fontDrawProperty = fontDrawProperty;
+        widthProp = Property.fromName( widthProperty );
+        bgColorProp = Property.fromName( bgColorProperty );
+        fgColorProp = Property.fromName( fgColorProperty );
+        fontNameProp = Property.fromName( fontNameProperty );
+        fontSizeProp = Property.fromName( fontSizeProperty );
+        fontStyleProp = Property.fromName( fontStyleProperty );
+        fontDrawProp = Property.fromName( fontDrawProperty );
         reset();
     }
     
@@ -107,13 +125,13 @@ public abstract class GraphPropertySet
      */
     public void reset()
     {
-        width = pMgr.asFloat( widthProperty );
-        bgColor = pMgr.asColor( bgColorProperty );
-        fgColor = pMgr.asColor( fgColorProperty );
-        fontName = pMgr.asString( fontNameProperty );
-        fontSize = pMgr.asFloat( fontSizeProperty );
-        fontStyle = pMgr.asString( fontStyleProperty );
-        fontDraw = pMgr.asBoolean( fontDrawProperty );
+        width = pMgr.asFloat( widthProp );
+        bgColor = pMgr.asColor( bgColorProp );
+        fgColor = pMgr.asColor( fgColorProp );
+        fontName = pMgr.asString( fontNameProp );
+        fontSize = pMgr.asFloat( fontSizeProp );
+        fontStyle = pMgr.asString( fontStyleProp );
+        fontDraw = pMgr.asBoolean( fontDrawProp );
     }
     
     /**
@@ -4,6 +4,7 @@ import java.awt.Color;
 import java.util.Objects;
 import java.util.Optional;
 
+import com.acmemail.judah.cartesian_plane.Property;
 import com.acmemail.judah.cartesian_plane.PropertyManager;
 
 /**
@@ -94,6 +95,15 @@ public abstract class LinePropertySet
     private final String        lengthProperty;
     private final String        spacingProperty;
     private final String        colorProperty;
+    
+    // The above properties, resolved once so that reset()
+    // can obtain their values without a hash table lookup;
+    // null if a property is not supported.
+    private final Property      drawProp;
+    private final Property      strokeProp;
+    private final Property      lengthProp;
+    private final Property      spacingProp;
+    private final Property      colorProp;
 
     private Optional<Boolean>  draw;
     private Optional<Float>    stroke;
@@ -138,6 +148,11 @@ public abstract class LinePropertySet
         this.lengthProperty = lengthProperty;
         this.spacingProperty = spacingProperty;
         this.colorProperty = colorProperty;
+        drawProp = Property.fromName( drawProperty );
+        strokeProp = Property.fromName( strokeProperty );
+        lengthProp = Property.fromName( lengthProperty );
+        spacingProp = Property.fromName( spacingProperty );
+        colorProp = Property.fromName( colorProperty );
         
         reset();
     }
@@ -174,11 +189,11 @@ public abstract class LinePropertySet
      */
     public void reset()
     {
-        draw = asBoolean( drawProperty );
-        stroke = asFloat( strokeProperty );
-        length = asFloat( lengthProperty );
-        spacing = asFloat( spacingProperty );
-        color = asColor( colorProperty );
+        draw = asBoolean( drawProp );
+        stroke = asFloat( strokeProp );
+        length = asFloat( lengthProp );
+        spacing = asFloat( spacingProp );
+        color = asColor( colorProp );
     }
     
     /**
@@ -421,7 +436,8 @@ public abstract class LinePropertySet
      * Convenience routine to get
      * a float property value
      * from the property manager.
-     * If the property manager
+     * If the property is not null
+     * and the property manager
      * successfully finds a value
      * for the property
      * it is wrapped in an Optional
@@ -430,16 +446,17 @@ public abstract class LinePropertySet
      * an empty Optional
      * is returned.
      * 
-     * @param propertyName  the name of the property to retrieve
+     * @param property  the property to retrieve; may be null
      * 
      * @return
      *     if found, the value of the given property
      *     wrapped in an Optional;
      *     otherwise an empty Optional.
      */
-    private Optional<Float> asFloat( String propertyName )
+    private Optional<Float> asFloat( Property property )
     {
-        Float           val         = pMgr.asFloat( propertyName );
+        Float           val         =
+            property == null ? null : pMgr.asFloat( property );
         Optional<Float> optional    = Optional.ofNullable( val );
         return optional;
     }
@@ -448,7 +465,8 @@ public abstract class LinePropertySet
      * Convenience routine to get
      * a Color property value
      * from the property manager.
-     * If the property manager
+     * If the property is not null
+     * and the property manager
      * successfully finds a value
      * for the property
      * it is wrapped in an Optional
@@ -457,16 +475,17 @@ public abstract class LinePropertySet
      * an empty Optional
      * is returned.
      * 
-     * @param propertyName  the name of the property to retrieve
+     * @param property  the property to retrieve; may be null
      * 
      * @return
      *     if found, the value of the given property
      *     wrapped in an Optional;
      *     otherwise an empty Optional.
      */
-    private Optional<Color> asColor( String propertyName )
+    private Optional<Color> asColor( Property property )
     {
-        Color           val         = pMgr.asColor( propertyName );
+        Color           val         =
+            property == null ? null : pMgr.asColor( property );
         Optional<Color> optional    = Optional.ofNullable( val );
         return optional;
     }
@@ -475,7 +494,8 @@ public abstract class LinePropertySet
      * Convenience routine to get
      * a Boolean property value
      * from the property manager.
-     * If the property manager
+     * If the property is not null
+     * and the property manager
      * successfully finds a value
      * for the property
      * it is wrapped in an Optional
@@ -484,16 +504,17 @@ public abstract class LinePropertySet
      * an empty Optional
      * is returned.
      * 
-     * @param propertyName  the name of the property to retrieve
+     * @param property  the property to retrieve; may be null
      * 
      * @return
      *     if found, the value of the given property
      *     wrapped in an Optional;
      *     otherwise an empty Optional.
      */
-    private Optional<Boolean> asBoolean( String propertyName )
+    private Optional<Boolean> asBoolean( Property property )
     {
-        Boolean             val         = pMgr.asBoolean( propertyName );
+        Boolean             val         =
+            property == null ? null : pMgr.asBoolean( property );
         Optional<Boolean>   optional    = Optional.ofNullable( val );
         return optional;
     }
@@ -32,7 +32,6 @@ import javax.swing.text.DefaultFormatter;
 import com.acmemail.judah.cartesian_plane.CPConstants;
 import com.acmemail.judah.cartesian_plane.CartesianPlane;
 import com.acmemail.judah.cartesian_plane.NotificationManager;
-import com.acmemail.judah.cartesian_plane.PlotPointCommand;
 import com.acmemail.judah.cartesian_plane.PropertyManager;
 import com.acmemail.judah.cartesian_plane.graphics_utils.ComponentException;
 import com.acmemail.judah.cartesian_plane.input.Command;
@@ -192,8 +191,7 @@ public class PlotPanel extends JPanel
         });
         if ( newState )
         {
-            String  strPlot = equation.getPlot().toUpperCase();
-            Command cmdPlot = Command.valueOf( strPlot );
+            Command cmdPlot = Command.toCommand( equation.getPlot() );
             plots.setSelectedItem( cmdPlot );
             // The above initialization incorrectly sets the MODIFIED
             // state of the currently open equation to true, so set
@@ -319,21 +317,18 @@ public class PlotPanel extends JPanel
         ExprFormatter   fmt         = exprMap.get( command );
         // The point stream that we get here is solely for the purpose
         // a validating the expression taken from the associated text
-        // field; we can't use it as the stream we supply to the
-        // Cartesian plane. The command that we pass to the Cartesian
-        // plane (setStreamSuppler(...) below) may be executed multiple
-        // times (for example, every time the Cartesian plane graphic is 
-        // resized) and, since a stream can only be traversed once, it
-        // must call plotter.get() in order to get a fresh stream each
-        // time.
+        // field. The Cartesian plane caches the geometry of the plot
+        // (see setPlotEquation(...) below) and only re-evaluates the
+        // equation when the equation changes, so the plot does not
+        // have to be recalculated every time the Cartesian plane
+        // graphic is repainted (for example, when it is resized).
+        // The plot is evaluated on a background thread; any
+        // evaluation of a previous plot is cancelled.
         Stream<Point2D> pointStream = fmt.plotter.get();
 
         if ( pointStream != null && cartPlane != null )
         {
-            cartPlane.setStreamSupplier( () ->
-                fmt.plotter.get()
-                .map( p -> PlotPointCommand.of( p, cartPlane ) )
-            );
+            cartPlane.setPlotEquation( getEquation(), command );
             NotificationManager.INSTANCE
                 .propagateNotification( CPConstants.REDRAW_NP );
         }
@@ -546,6 +541,11 @@ public class PlotPanel extends JPanel
             // Set the font style to committed.
             textField.setFont( committedFont );
             
+            // Any plot being evaluated in the background
+            // is now obsolete.
+            if ( cartPlane != null )
+                cartPlane.cancelPlot();
+            
             // Declare that a the data in the currently open equation
             // has been modified.
             markModified();
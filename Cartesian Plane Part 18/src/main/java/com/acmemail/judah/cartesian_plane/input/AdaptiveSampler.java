@@ -0,0 +1,626 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+
+/**
+ * Generates the points of a plot
+ * by adaptively sampling an equation
+ * over its iteration range.
+ * Rather than stepping through the range
+ * by a fixed increment,
+ * the range is initially divided
+ * into a small number of uniform intervals,
+ * and then intervals are recursively bisected
+ * wherever the curve is not yet adequately resolved
+ * in screen space.
+ * An interval is bisected if:
+ * <ul>
+ *     <li>
+ *         the midpoint of its parent interval
+ *         deviates from the chord of the parent interval
+ *         by more than a given tolerance
+ *         (the curve is bending); or
+ *     </li>
+ *     <li>
+ *         the distance between its endpoints
+ *         is greater than a given maximum gap.
+ *     </li>
+ * </ul>
+ * The maximum gap is a coarse safety bound,
+ * tens of pixels wide;
+ * it ensures that a long chord,
+ * which might conceal a feature of the curve,
+ * is bisected,
+ * and that the two sides of a jump
+ * are recognized as a discontinuity.
+ * The resolution of the plot
+ * is otherwise governed by the deviation tolerance,
+ * so that a flat curve requires few evaluations.
+ * All distances are measured in pixels,
+ * as determined by the grid unit
+ * (pixels per unit) of the Cartesian plane.
+ * Where the curve is flat and compact
+ * intervals are not bisected,
+ * so the number of evaluations
+ * is proportional to the visual complexity of the curve
+ * rather than to the width of the iteration range.
+ * <p>
+ * An interval that still requires bisection
+ * after the maximum recursion depth has been reached
+ * spans a discontinuity,
+ * for example a pole of <em>tan(x)</em>;
+ * a <em>break</em> is inserted into the output
+ * at that point
+ * (see {@linkplain PointBuffer}),
+ * so that the two sides of the discontinuity
+ * are not connected.
+ * Points that evaluate to infinity or NaN
+ * are likewise replaced by breaks.
+ * </p>
+ * <p>
+ * Optionally, the sampler can be given
+ * the bounds of the visible portion of the Cartesian plane,
+ * in user coordinates.
+ * An interval that lies entirely outside the bounds
+ * (as approximated by the chords connecting
+ * its endpoints and midpoint)
+ * is not bisected further.
+ * Without this, the portions of a curve
+ * that approach an asymptote
+ * would be resolved to pixel accuracy
+ * far outside the visible area.
+ * </p>
+ * <p>
+ * Intervals are bisected breadth-first,
+ * so that the midpoints of all the intervals
+ * at a given depth
+ * can be evaluated with a single call
+ * to the equation's batch evaluation methods,
+ * for example {@linkplain Equation#evaluateY(double[], double[], int)}.
+ * </p>
+ *
+ * @author Jack Straub
+ *
+ * @see Equation#adaptivePlot(Command, double, Rectangle2D, PointBuffer)
+ */
+public class AdaptiveSampler
+{
+    /** Default deviation tolerance, in pixels. */
+    public static final double  DEF_TOLERANCE   = .5;
+    /** Default maximum gap between consecutive points, in pixels. */
+    public static final double  DEF_MAX_GAP     = 32;
+
+    /** Number of uniform intervals in the initial sample. */
+    private static final int    initIntervals   = 16;
+    /** Depth to which all intervals are unconditionally bisected. */
+    private static final int    minDepth        = 1;
+    /** Maximum depth to which an interval may be bisected. */
+    private static final int    maxDepth        = 18;
+    /** Maximum number of samples in a single plot. */
+    private static final int    maxSamples      = 1 << 20;
+
+    /** The equation to sample. */
+    private final Equation  equation;
+    /** The type of plot to generate. */
+    private final Command   plotType;
+    /** The grid unit, in pixels per unit. */
+    private final double    gridUnit;
+    /** The deviation tolerance, in pixels. */
+    private final double    tolerance;
+    /** The maximum gap between consecutive points, in pixels. */
+    private final double    maxGap;
+    /** 
+     * The visible portion of the Cartesian plane,
+     * in user coordinates; null if unbounded.
+     */
+    private Rectangle2D     bounds  = null;
+
+    /**
+     * Parameter values of all samples.
+     * For a <em>y=f(x)</em> plot the parameter is <em>x</em>.
+     */
+    private double[]    tVals   = new double[0];
+    /** The x-coordinates of all samples. */
+    private double[]    xVals   = new double[0];
+    /** The y-coordinates of all samples. */
+    private double[]    yVals   = new double[0];
+    /**
+     * Index of the next sample in parameter order;
+     * -1 for the last sample.
+     * Samples are stored in the order in which they are generated,
+     * and linked in parameter order.
+     */
+    private int[]       next    = new int[0];
+    /** The number of samples. */
+    private int         count   = 0;
+    /** The number of times the equation was evaluated. */
+    private int         evalCount   = 0;
+
+    /**
+     * Constructor.
+     * Establishes the equation to sample,
+     * the type of plot to generate,
+     * and the grid unit of the Cartesian plane
+     * in which the plot is to be displayed.
+     * Default values are used
+     * for the deviation tolerance
+     * and maximum gap.
+     *
+     * @param equation  the equation to sample
+     * @param plotType  the type of plot: YPLOT, XYPLOT, RPLOT or TPLOT
+     * @param gridUnit  the grid unit, in pixels per unit
+     *
+     * @throws IllegalArgumentException
+     *      if plotType is not a plot command,
+     *      or gridUnit is not positive
+     *
+     * @see #DEF_TOLERANCE
+     * @see #DEF_MAX_GAP
+     */
+    public AdaptiveSampler( 
+        Equation equation, 
+        Command plotType, 
+        double gridUnit
+    )
+    {
+        this( equation, plotType, gridUnit, DEF_TOLERANCE, DEF_MAX_GAP );
+    }
+
+    /**
+     * Constructor.
+     * Establishes the equation to sample,
+     * the type of plot to generate,
+     * the grid unit of the Cartesian plane
+     * in which the plot is to be displayed,
+     * the deviation tolerance
+     * and the maximum gap.
+     *
+     * @param equation  the equation to sample
+     * @param plotType  the type of plot: YPLOT, XYPLOT, RPLOT or TPLOT
+     * @param gridUnit  the grid unit, in pixels per unit
+     * @param tolerance the deviation tolerance, in pixels
+     * @param maxGap
+     *      the maximum gap between consecutive points, in pixels
+     *
+     * @throws IllegalArgumentException
+     *      if plotType is not a plot command,
+     *      or gridUnit, tolerance or maxGap is not positive
+     */
+    public AdaptiveSampler(
+        Equation equation,
+        Command plotType,
+        double gridUnit,
+        double tolerance,
+        double maxGap
+    )
+    {
+        switch ( plotType )
+        {
+        case YPLOT:
+        case XYPLOT:
+        case RPLOT:
+        case TPLOT:
+            break;
+        default:
+            String  message = "Invalid plot type: " + plotType;
+            throw new IllegalArgumentException( message );
+        }
+        if ( !(gridUnit > 0 && tolerance > 0 && maxGap > 0) )
+        {
+            String  message =
+                "Grid unit, tolerance and maximum gap must be positive";
+            throw new IllegalArgumentException( message );
+        }
+        this.equation = equation;
+        this.plotType = plotType;
+        this.gridUnit = gridUnit;
+        this.tolerance = tolerance;
+        this.maxGap = maxGap;
+    }
+
+    /**
+     * Sets the bounds of the visible portion
+     * of the Cartesian plane, in user coordinates.
+     * Intervals that lie outside the bounds
+     * are not refined.
+     * If null, the plot is refined without regard
+     * to the visible portion of the Cartesian plane.
+     * 
+     * @param bounds    
+     *      the bounds of the visible portion of the Cartesian plane;
+     *      may be null
+     */
+    public void setBounds( Rectangle2D bounds )
+    {
+        this.bounds = bounds;
+    }
+
+    /**
+     * Samples the encapsulated equation,
+     * storing the resulting points
+     * in a given PointBuffer.
+     * The buffer is cleared
+     * before any points are added.
+     *
+     * @param buffer    the given PointBuffer
+     *
+     * @throws ValidationException if the equation is invalid
+     */
+    public void sample( PointBuffer buffer )
+    {
+        buffer.clear();
+        count = 0;
+        evalCount = 0;
+
+        double  start   = equation.getRangeStart();
+        double  end     = equation.getRangeEnd();
+        if ( start == end )
+        {
+            evaluateInitial( start, end, 0 );
+            emit( buffer );
+        }
+        else if ( start < end )
+        {
+            evaluateInitial( start, end, initIntervals );
+            refine();
+            emit( buffer );
+        }
+        else
+            ; // empty range; nothing to plot
+    }
+
+    /**
+     * Gets the number of times the equation was evaluated
+     * during the most recent call to {@linkplain #sample(PointBuffer)}.
+     *
+     * @return  the number of times the equation was evaluated
+     */
+    public int getEvaluationCount()
+    {
+        return evalCount;
+    }
+
+    /**
+     * Evaluates the equation
+     * at the endpoints of a given number of uniform intervals
+     * spanning a given range.
+     *
+     * @param start     the start of the given range
+     * @param end       the end of the given range
+     * @param intervals the given number of intervals
+     */
+    private void evaluateInitial( double start, double end, int intervals )
+    {
+        int         num     = intervals + 1;
+        double[]    params  = new double[num];
+        double      width   = end - start;
+        for ( int inx = 0 ; inx < intervals ; ++inx )
+            params[inx] = start + width * inx / intervals;
+        params[intervals] = end;
+
+        ensureCapacity( num );
+        evaluate( params, num, 0 );
+        for ( int inx = 0 ; inx < num ; ++inx )
+            next[inx] = inx + 1;
+        next[num - 1] = -1;
+        count = num;
+    }
+
+    /**
+     * Bisects intervals, breadth-first,
+     * until all intervals are resolved
+     * or the maximum depth is reached.
+     */
+    private void refine()
+    {
+        // Each pending interval is identified
+        // by the index of its first sample;
+        // its second sample is next[first].
+        int[]   pending     = new int[count - 1];
+        int     numPending  = count - 1;
+        for ( int inx = 0 ; inx < numPending ; ++inx )
+            pending[inx] = inx;
+        double[]    params  = new double[numPending];
+
+        for ( int depth = 1 ; depth <= maxDepth && numPending > 0 ; ++depth )
+        {
+            if ( count + numPending > maxSamples )
+            {
+                // Abandon refinement, but don't connect
+                // the two sides of any discontinuity
+                // that has not yet been resolved.
+                for ( int inx = 0 ; inx < numPending ; ++inx )
+                {
+                    int first   = pending[inx];
+                    if ( isDiscontinuous( first, next[first] ) )
+                        insertBreak( first );
+                }
+                break;
+            }
+
+            // Evaluate the midpoints of all pending intervals
+            if ( params.length < numPending )
+                params = new double[numPending];
+            for ( int inx = 0 ; inx < numPending ; ++inx )
+            {
+                int first   = pending[inx];
+                params[inx] = (tVals[first] + tVals[next[first]]) / 2;
+            }
+            ensureCapacity( count + 2 * numPending );
+            int firstMid    = count;
+            evaluate( params, numPending, firstMid );
+            count += numPending;
+
+            // Link the midpoints, and decide which of the resulting
+            // intervals require further bisection.
+            int[]   newPending  = new int[2 * numPending];
+            int     numNew      = 0;
+            for ( int inx = 0 ; inx < numPending ; ++inx )
+            {
+                int     left    = pending[inx];
+                int     mid     = firstMid + inx;
+                int     right   = next[left];
+                next[left] = mid;
+                next[mid] = right;
+
+                boolean leftOff     = isOffscreen( left, mid );
+                boolean rightOff    = isOffscreen( mid, right );
+                boolean bend        =
+                    depth < minDepth
+                    || (deviation( left, mid, right ) > tolerance
+                        && !(leftOff && rightOff 
+                            && isOffscreen( left, right ))
+                    );
+                boolean leftOK      = 
+                    !bend && (leftOff || gap( left, mid ) <= maxGap);
+                boolean rightOK     = 
+                    !bend && (rightOff || gap( mid, right ) <= maxGap);
+                if ( depth < maxDepth )
+                {
+                    if ( !leftOK )
+                        newPending[numNew++] = left;
+                    if ( !rightOK )
+                        newPending[numNew++] = mid;
+                }
+                else
+                {
+                    if ( isDiscontinuous( left, mid ) )
+                        insertBreak( left );
+                    if ( isDiscontinuous( mid, right ) )
+                        insertBreak( mid );
+                }
+            }
+            pending = newPending;
+            numPending = numNew;
+        }
+    }
+
+    /**
+     * Evaluates the equation
+     * for a given array of parameter values,
+     * storing the results in the sample arrays
+     * beginning at a given index.
+     *
+     * @param params    the given array of parameter values
+     * @param num       the number of parameter values to evaluate
+     * @param offset    the given index
+     */
+    private void evaluate( double[] params, int num, int offset )
+    {
+        double[]    xcos    = new double[num];
+        double[]    ycos    = new double[num];
+        switch ( plotType )
+        {
+        case YPLOT:
+            System.arraycopy( params, 0, xcos, 0, num );
+            equation.evaluateY( params, ycos, num );
+            break;
+        case XYPLOT:
+            equation.evaluateXY( params, xcos, ycos, num );
+            break;
+        case RPLOT:
+            equation.evaluateR( params, xcos, ycos, num );
+            break;
+        case TPLOT:
+            equation.evaluateT( params, xcos, ycos, num );
+            break;
+        default:
+            // Prevented by constructor
+            break;
+        }
+        System.arraycopy( params, 0, tVals, offset, num );
+        System.arraycopy( xcos, 0, xVals, offset, num );
+        System.arraycopy( ycos, 0, yVals, offset, num );
+        evalCount += num;
+    }
+
+    /**
+     * Calculates the distance, in pixels,
+     * between the samples at two given indices.
+     * If exactly one of the samples is not finite
+     * the distance is infinite;
+     * if both are not finite the distance is 0.
+     *
+     * @param from  index of the first sample
+     * @param to    index of the second sample
+     *
+     * @return  the distance between the two samples, in pixels
+     */
+    private double gap( int from, int to )
+    {
+        boolean fromFinite  = isFinite( from );
+        boolean toFinite    = isFinite( to );
+        double  dist        = 0;
+        if ( fromFinite && toFinite )
+        {
+            double  xDiff   = xVals[to] - xVals[from];
+            double  yDiff   = yVals[to] - yVals[from];
+            dist = Math.hypot( xDiff, yDiff ) * gridUnit;
+        }
+        else if ( fromFinite != toFinite )
+            dist = Double.POSITIVE_INFINITY;
+        return dist;
+    }
+
+    /**
+     * Calculates the distance, in pixels,
+     * between the sample at a given index
+     * and the chord connecting two other samples.
+     * If any sample is not finite
+     * the deviation is 0;
+     * this case is handled by {@linkplain #gap(int, int)}.
+     *
+     * @param left  index of the first endpoint of the chord
+     * @param mid   index of the given sample
+     * @param right index of the second endpoint of the chord
+     *
+     * @return  the distance from the given sample to the chord
+     */
+    private double deviation( int left, int mid, int right )
+    {
+        double  dist    = 0;
+        if ( isFinite( left ) && isFinite( mid ) && isFinite( right ) )
+        {
+            double  chordX  = xVals[right] - xVals[left];
+            double  chordY  = yVals[right] - yVals[left];
+            double  midX    = xVals[mid] - xVals[left];
+            double  midY    = yVals[mid] - yVals[left];
+            double  len     = Math.hypot( chordX, chordY );
+            if ( len == 0 )
+                dist = Math.hypot( midX, midY );
+            else
+                dist = Math.abs( chordX * midY - chordY * midX ) / len;
+            dist *= gridUnit;
+        }
+        return dist;
+    }
+
+    /**
+     * Determines whether the chord connecting
+     * the samples at two given indices
+     * lies entirely outside the bounds
+     * of the visible portion of the Cartesian plane.
+     * If bounds have not been set,
+     * or either sample is not finite,
+     * false is returned.
+     *
+     * @param from  index of the first sample
+     * @param to    index of the second sample
+     *
+     * @return  true if the chord connecting the samples is not visible
+     * 
+     * @see #setBounds(Rectangle2D)
+     */
+    private boolean isOffscreen( int from, int to )
+    {
+        boolean result  = false;
+        if ( bounds != null && isFinite( from ) && isFinite( to ) )
+        {
+            result = !bounds.intersectsLine(
+                xVals[from], yVals[from], xVals[to], yVals[to]
+            );
+        }
+        return result;
+    }
+
+    /**
+     * Determines whether the interval
+     * beginning with the sample at a given index
+     * spans a discontinuity.
+     * This method is only meaningful
+     * after the maximum bisection depth
+     * has been reached,
+     * or refinement has been abandoned
+     * because the maximum number of samples
+     * has been reached;
+     * an interval that is still too long at that point
+     * is assumed to span a discontinuity.
+     *
+     * @param from  index of the first sample in the interval
+     * @param to    index of the second sample in the interval
+     *
+     * @return  true if the interval spans a discontinuity
+     */
+    private boolean isDiscontinuous( int from, int to )
+    {
+        boolean result  =
+            isFinite( from ) 
+            && isFinite( to ) 
+            && !isOffscreen( from, to )
+            && gap( from, to ) > maxGap;
+        return result;
+    }
+
+    /**
+     * Determines whether the sample at a given index
+     * has finite coordinates.
+     *
+     * @param index the given index
+     *
+     * @return  true if the sample has finite coordinates
+     */
+    private boolean isFinite( int index )
+    {
+        boolean result  =
+            Double.isFinite( xVals[index] ) && Double.isFinite( yVals[index] );
+        return result;
+    }
+
+    /**
+     * Inserts a break
+     * following the sample at a given index.
+     *
+     * @param index the given index
+     */
+    private void insertBreak( int index )
+    {
+        ensureCapacity( count + 1 );
+        int brk = count++;
+        tVals[brk] = tVals[index];
+        xVals[brk] = Double.NaN;
+        yVals[brk] = Double.NaN;
+        next[brk] = next[index];
+        next[index] = brk;
+    }
+
+    /**
+     * Copies all samples, in parameter order,
+     * to a given PointBuffer.
+     * Samples that are not finite are converted to breaks.
+     *
+     * @param buffer    the given PointBuffer
+     */
+    private void emit( PointBuffer buffer )
+    {
+        buffer.ensureCapacity( count );
+        for ( int inx = 0 ; inx >= 0 && inx < count ; inx = next[inx] )
+        {
+            if ( isFinite( inx ) )
+                buffer.add( xVals[inx], yVals[inx] );
+            else
+                buffer.addBreak();
+        }
+        int last    = buffer.size() - 1;
+        if ( last >= 0 && buffer.isBreak( last ) )
+            buffer.setSize( last );
+    }
+
+    /**
+     * Ensures that the sample arrays
+     * can hold at least the given number of samples.
+     *
+     * @param capacity  the given number of samples
+     */
+    private void ensureCapacity( int capacity )
+    {
+        if ( capacity > tVals.length )
+        {
+            int newLen  = Math.max( capacity, 2 * tVals.length );
+            tVals = Arrays.copyOf( tVals, newLen );
+            xVals = Arrays.copyOf( xVals, newLen );
+            yVals = Arrays.copyOf( yVals, newLen );
+            next = Arrays.copyOf( next, newLen );
+        }
+    }
+}
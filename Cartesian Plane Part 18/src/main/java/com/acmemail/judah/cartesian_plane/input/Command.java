@@ -124,7 +124,7 @@ public enum Command
     /**
      * Compares the value of a given string
      * to the names of the enumerated constants
-     * and returns the first matching constant.
+     * and returns the matching constant.
      * The comparison is case-insensitive.
      * If the given string is empty NONE is returned.
      * If no match is found INVALID is returned.
@@ -132,18 +132,52 @@ public enum Command
      * @param from  the given string
      * 
      * @return  
-     *      the first command whose name
+     *      the command whose name
      *      matches the given string
+     *      
+     * @see #toCommand(CharSequence, int, int)
      */
     public static Command toCommand( String from )
     {
-        String  upperFrom   = from.toUpperCase();
-        Command cmd         = NONE;
-        if ( !upperFrom.isEmpty() )
-            cmd = Arrays.stream( values() )
-                .filter( e -> upperFrom.equals( e.name() ) )
-                .findFirst()
-                .orElse( INVALID );
+        Command cmd = toCommand( from, 0, from.length() );
+        return cmd;
+    }
+    
+    /**
+     * Compares a given range of a character sequence
+     * to the names of the enumerated constants
+     * and returns the matching constant.
+     * The comparison is case-insensitive.
+     * If the given range is empty NONE is returned.
+     * If no match is found INVALID is returned.
+     * <p>
+     * The matching constant is located
+     * via a perfect hash table
+     * computed the first time it is needed,
+     * so no Strings are created,
+     * and at most one name is compared to the given range.
+     * </p>
+     * 
+     * @param seq   the given character sequence
+     * @param start the start of the range, inclusive
+     * @param end   the end of the range, exclusive
+     * 
+     * @return
+     *      the command whose name
+     *      matches the given range
+     */
+    public static Command toCommand( CharSequence seq, int start, int end )
+    {
+        Command cmd = NONE;
+        if ( end > start )
+        {
+            int     inx         = hash( seq, start, end ) & Lookup.mask;
+            Command candidate   = Lookup.table[inx];
+            if ( candidate != null && matches( candidate, seq, start, end ) )
+                cmd = candidate;
+            else
+                cmd = INVALID;
+        }
         return cmd;
     }
     
@@ -172,4 +206,122 @@ public enum Command
             );
         return bldr.toString();
     }
-}
\ No newline at end of file
+    
+    /**
+     * Computes the hash code of a range of a character sequence
+     * for use with the perfect hash table
+     * that maps names to commands.
+     * The hash code depends on
+     * the length of the range,
+     * and its first and last characters,
+     * disregarding case.
+     * 
+     * @param seq   the given character sequence
+     * @param start the start of the range, inclusive
+     * @param end   the end of the range, exclusive
+     * 
+     * @return  the hash code of the given range
+     */
+    private static int hash( CharSequence seq, int start, int end )
+    {
+        int first   = Character.toUpperCase( seq.charAt( start ) );
+        int last    = Character.toUpperCase( seq.charAt( end - 1 ) );
+        int hash    = ((end - start) * 31 + first) * 31 + last;
+        return hash ^ (hash >>> 4);
+    }
+    
+    /**
+     * Determines whether the name of a given command
+     * matches a range of a character sequence,
+     * disregarding case.
+     * 
+     * @param cmd   the given command
+     * @param seq   the given character sequence
+     * @param start the start of the range, inclusive
+     * @param end   the end of the range, exclusive
+     * 
+     * @return  true if the name of the command matches the given range
+     */
+    private static boolean 
+    matches( Command cmd, CharSequence seq, int start, int end )
+    {
+        String  name    = cmd.name();
+        int     len     = name.length();
+        boolean result  = len == end - start;
+        for ( int inx = 0 ; result && inx < len ; ++inx )
+        {
+            char    next    = seq.charAt( start + inx );
+            result = Character.toUpperCase( next ) == name.charAt( inx );
+        }
+        return result;
+    }
+    
+    /**
+     * Perfect hash table mapping command names to commands.
+     * The table is encapsulated in a nested class
+     * because the enum constants 
+     * cannot be referenced
+     * from the static initializer of the enum itself
+     * before they are constructed;
+     * the nested class is initialized
+     * the first time the table is used.
+     * 
+     * @author Jack Straub
+     * 
+     * @see Command#toCommand(CharSequence, int, int)
+     */
+    private static class Lookup
+    {
+        /** Upper bound on the size of the hash table. */
+        private static final int        MAX_SIZE    = 4096;
+        /** 
+         * The hash table.
+         * The size of the table is the smallest power of 2
+         * for which no two command names collide.
+         */
+        private static final Command[]  table       = buildTable();
+        /** Mask to convert a hash code to an index into the table. */
+        private static final int        mask        = table.length - 1;
+        
+        /**
+         * Builds the perfect hash table.
+         * Starting with a table 
+         * at least as large as the number of commands,
+         * the size of the table is doubled
+         * until the hash codes
+         * of all the command names
+         * map to distinct entries.
+         * 
+         * @return  the perfect hash table
+         * 
+         * @throws IllegalStateException
+         *      if a perfect hash table of reasonable size
+         *      cannot be constructed
+         */
+        private static Command[] buildTable()
+        {
+            Command[]   values  = values();
+            Command[]   result  = null;
+            int         size    = Integer.highestOneBit( values.length ) * 2;
+            while ( result == null )
+            {
+                if ( size > MAX_SIZE )
+                    throw new IllegalStateException( "no perfect hash" );
+                Command[]   test    = new Command[size];
+                boolean     perfect = true;
+                for ( int inx = 0 ; perfect && inx < values.length ; ++inx )
+                {
+                    String  name    = values[inx].name();
+                    int     hash    = hash( name, 0, name.length() );
+                    int     hInx    = hash & (size - 1);
+                    perfect = test[hInx] == null;
+                    test[hInx] = values[inx];
+                }
+                if ( perfect )
+                    result = test;
+                size *= 2;
+            }
+            return result;
+        }
+    }
+}
@@ -2,9 +2,22 @@ package com.acmemail.judah.cartesian_plane.input;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
+import java.util.Locale;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * An instance of this class is responsible
@@ -25,6 +38,19 @@ import java.util.stream.Stream;
  * <li>"x=argument" is a shortcut for XEQUALS argument</li>
  * <li>"y=argument" is a shortcut for YEQUALS argument</li>
  * </ul>
+ * <p>
+ * Command lines may be read from a BufferedReader
+ * or directly from a sequence of characters,
+ * such as a CharBuffer
+ * holding the decoded content of a file
+ * (see {@linkplain #open(Path)}).
+ * In the latter case
+ * lines are scanned in place:
+ * no Strings are created
+ * for comments, blank lines or command names,
+ * and only the arguments of commands
+ * are copied out of the sequence.
+ * </p>
  * 
  * @author Jack Straub
  */
@@ -43,8 +69,45 @@ public class CommandReader
         new Shortcut( "T=", Command.TEQUALS ),
     };
     
-    /** Source of the command line input. */
+    /** 
+     * Shortcuts indexed by the first character of their short names;
+     * an entry is null if no shortcut begins with the character.
+     */
+    private static final Shortcut[] shortcutTable   = new Shortcut[128];
+    static
+    {
+        for ( Shortcut shortcut : shortcuts )
+            shortcutTable[shortcut.shortStr.charAt( 0 )] = shortcut;
+    }
+    
+    /** 
+     * Files larger than this (in bytes)
+     * are memory-mapped by {@linkplain #open(Path)};
+     * smaller files are read.
+     */
+    private static final long       mapThreshold    = 64 * 1024;
+    
+    /** 
+     * Lower case names of all commands, indexed by ordinal;
+     * reused when a command is spelled in lower case.
+     */
+    private static final String[]   lowerNames      =
+        Arrays.stream( Command.values() )
+            .map( c -> c.name().toLowerCase( Locale.ROOT ) )
+            .toArray( String[]::new );
+    
+    /** 
+     * Source of the command line input;
+     * null if command lines are read from a character sequence.
+     */
     private final BufferedReader    reader;
+    /** 
+     * Character sequence containing the command lines;
+     * null if command lines are read from a BufferedReader.
+     */
+    private final CharSequence      text;
+    /** Position in text of the next line to read. */
+    private int                     textPos         = 0;
     
     /**
      * Constructor.
@@ -55,6 +118,83 @@ public class CommandReader
     public CommandReader( BufferedReader reader )
     {
         this.reader = reader;
+        this.text = null;
+    }
+    
+    /**
+     * Constructor.
+     * Establishes a character sequence
+     * as the source of the command lines.
+     * Lines are terminated by 
+     * a line feed, a carriage return
+     * or a carriage return followed by a line feed.
+     * The sequence must not be modified
+     * while this CommandReader is in use.
+     * 
+     * @param text  the source of the command lines
+     */
+    public CommandReader( CharSequence text )
+    {
+        this.reader = null;
+        this.text = text;
+    }
+    
+    /**
+     * Creates a CommandReader
+     * that reads command lines
+     * from a given file.
+     * The content of the file is decoded,
+     * using the platform's default character set,
+     * into a CharBuffer
+     * which is then scanned in place.
+     * Large files are memory-mapped,
+     * so that the content of the file
+     * is copied only once,
+     * directly into the CharBuffer;
+     * small files are cheaper to read than to map.
+     * Malformed input is replaced
+     * rather than reported.
+     * <p>
+     * The entire file is decoded before any command is read.
+     * To read only the first few commands of a file,
+     * which may not even be a text file,
+     * read them incrementally from a BufferedReader
+     * (see {@linkplain #CommandReader(BufferedReader)}).
+     * </p>
+     * 
+     * @param file  the given file
+     * 
+     * @return  a CommandReader that reads command lines from the given file
+     * 
+     * @throws IOException  
+     *      if an I/O error occurs,
+     *      or the file is too large to be decoded into a CharBuffer
+     */
+    public static CommandReader open( Path file ) throws IOException
+    {
+        CharsetDecoder  decoder = Charset.defaultCharset().newDecoder()
+            .onMalformedInput( CodingErrorAction.REPLACE )
+            .onUnmappableCharacter( CodingErrorAction.REPLACE );
+        CharBuffer      chars   = null;
+        try ( FileChannel channel = 
+            FileChannel.open( file, StandardOpenOption.READ ) )
+        {
+            long        size    = channel.size();
+            ByteBuffer  bytes   = null;
+            if ( size > Integer.MAX_VALUE )
+                throw new IOException( "File too large: " + size + " bytes" );
+            if ( size > mapThreshold )
+                bytes = channel.map( FileChannel.MapMode.READ_ONLY, 0, size );
+            else
+            {
+                bytes = ByteBuffer.allocate( (int)size );
+                while ( bytes.hasRemaining() && channel.read( bytes ) >= 0 )
+                    ;
+                bytes.flip();
+            }
+            chars = decoder.decode( bytes );
+        }
+        return new CommandReader( chars );
     }
     
     /**
@@ -84,6 +224,14 @@ public class CommandReader
     public ParsedCommand nextCommand( String prompt ) throws IOException
     {
         ParsedCommand   parsedCommand   = null;
+        if ( text != null )
+        {
+            if ( prompt != null )
+                System.out.print( prompt );
+            parsedCommand = nextTextCommand();
+            if ( parsedCommand == null )
+                parsedCommand = new ParsedCommand( Command.NONE, "", "" );
+        }
         while ( parsedCommand == null )
         {
             if ( prompt != null )
@@ -113,12 +261,15 @@ public class CommandReader
      */
     public Stream<ParsedCommand> stream()
     {
-        Stream<ParsedCommand>   pcStream    =
-            reader.lines()
-            .map( String::trim )
-            .filter( Predicate.not( String::isEmpty ) )
-            .filter( s -> !s.startsWith( "#" ) )
-            .map( CommandReader::parseCommand );
+        Stream<ParsedCommand>   pcStream    = null;
+        if ( text != null )
+            pcStream = StreamSupport.stream( new TextSpliterator(), false );
+        else
+            pcStream = reader.lines()
+                .map( String::trim )
+                .filter( Predicate.not( String::isEmpty ) )
+                .filter( s -> !s.startsWith( "#" ) )
+                .map( CommandReader::parseCommand );
         
         return pcStream;
     }
@@ -127,6 +278,9 @@ public class CommandReader
      * Converts a given string to a ParsedCommand.
      * The input string is assumed to be 
      * non-null, non-empty and trimmed.
+     * Equivalent to 
+     * {@linkplain #parseCommand(CharSequence, int, int)}
+     * applied to the entire string.
      * 
      * @param   line    the given string
      * 
@@ -134,61 +288,191 @@ public class CommandReader
      */
     public static ParsedCommand parseCommand( String line )
     {
-        ParsedCommand   parsedCommand   = processShortcuts( line );
-        if ( parsedCommand == null )
-        {
-            int     split   = line.indexOf( ' ' );
-            String  cmdStr  = line;
-            String  argStr  = "";
-            // If necessary, divide input string into command and argument
-            // (everything after the command, excluding trimmings)
-            if ( split > 0 )
-            {
-                cmdStr = line.substring( 0, split );
-                argStr = line.substring( split + 1 ).trim();
-            }
-            Command command = Command.toCommand( cmdStr );
-            parsedCommand = new ParsedCommand( command, cmdStr, argStr );
-        }
-        
+        ParsedCommand   parsedCommand   = 
+            parseCommand( line, 0, line.length() );
         return parsedCommand;
     }
     
     /**
-     * Examines the start of a line of input
-     * for the short form of a command.
-     * If found, a ParsedCommand object is returned
-     * describing the referenced command and argument;
-     * the argument is trimmed.
-     * If not found, null is returned.
+     * Converts a given range of a character sequence
+     * to a ParsedCommand.
+     * The range is assumed to be 
+     * non-empty and trimmed.
+     * Shortcuts are located
+     * via a table indexed by their first character,
+     * and command names via 
+     * {@linkplain Command#toCommand(CharSequence, int, int)},
+     * so the cost of parsing a line
+     * does not depend on the number of commands.
+     * The only Strings created
+     * are the argument
+     * and, if the command name is not spelled
+     * in all upper case or all lower case,
+     * the command string.
      * 
-     * @param line  line of input to examine
+     * @param seq   the given character sequence
+     * @param start the start of the range, inclusive
+     * @param end   the end of the range, exclusive
      * 
-     * @return 
-     *      ParsedCommand describing the referenced command,
-     *      or null if none
+     * @return  a ParsedCommand derived from the given range
      */
-    private static ParsedCommand processShortcuts( String line )
+    public static ParsedCommand 
+    parseCommand( CharSequence seq, int start, int end )
     {
         ParsedCommand   parsedCommand   = null;
-        Shortcut        shortcut        =
-            Arrays.stream( shortcuts )
-                .filter( s -> line.startsWith( s.shortStr ) )
-                .findFirst()
-                    .orElse( null );
+        Shortcut        shortcut        = null;
+        if ( end - start > 1 && seq.charAt( start + 1 ) == '=' )
+        {
+            char    first   = seq.charAt( start );
+            if ( first < shortcutTable.length )
+                shortcut = shortcutTable[first];
+        }
         
         if ( shortcut != null )
         {
-            int     shortStrLen = shortcut.shortStr.length();
-            String  arg         = 
-                line.substring( shortStrLen ).trim();
+            String  arg = trimmedString( seq, start + 2, end );
             parsedCommand = 
                 new ParsedCommand( shortcut.cmd, shortcut.shortStr, arg );
         }
+        else
+        {
+            // If necessary, divide input into command and argument
+            // (everything after the command, excluding trimmings)
+            int     split   = Math.min( start + 1, end );
+            while ( split < end && seq.charAt( split ) != ' ' )
+                ++split;
+            String  argStr  = "";
+            if ( split < end )
+                argStr = trimmedString( seq, split + 1, end );
+            Command command = Command.toCommand( seq, start, split );
+            String  cmdStr  = commandString( command, seq, start, split );
+            parsedCommand = new ParsedCommand( command, cmdStr, argStr );
+        }
         
         return parsedCommand;
     }
     
+    /**
+     * Scans the text for the next line
+     * that is not blank and not a comment,
+     * and converts it to a ParsedCommand.
+     * Returns null if the end of the text is reached.
+     * 
+     * @return  
+     *      a ParsedCommand representing the next line of the text,
+     *      or null if none
+     */
+    private ParsedCommand nextTextCommand()
+    {
+        ParsedCommand   parsedCommand   = null;
+        int             len             = text.length();
+        while ( parsedCommand == null && textPos < len )
+        {
+            int     start   = textPos;
+            int     end     = start;
+            char    next    = 0;
+            while ( end < len 
+                && (next = text.charAt( end )) != '\n' 
+                && next != '\r' 
+            )
+                ++end;
+            
+            textPos = end;
+            if ( textPos < len && text.charAt( textPos ) == '\r' )
+                ++textPos;
+            if ( textPos < len && text.charAt( textPos ) == '\n' )
+                ++textPos;
+            
+            while ( start < end && text.charAt( start ) <= ' ' )
+                ++start;
+            while ( end > start && text.charAt( end - 1 ) <= ' ' )
+                --end;
+            if ( start < end && text.charAt( start ) != '#' )
+                parsedCommand = parseCommand( text, start, end );
+        }
+        return parsedCommand;
+    }
+    
+    /**
+     * Returns the String equivalent
+     * of a given range of a character sequence
+     * after discarding leading and trailing spaces
+     * (as defined by {@linkplain String#trim()}).
+     * 
+     * @param seq   the given character sequence
+     * @param start the start of the range, inclusive
+     * @param end   the end of the range, exclusive
+     * 
+     * @return  the trimmed String equivalent of the given range
+     */
+    private static String trimmedString( CharSequence seq, int start, int end )
+    {
+        while ( start < end && seq.charAt( start ) <= ' ' )
+            ++start;
+        while ( end > start && seq.charAt( end - 1 ) <= ' ' )
+            --end;
+        String  result  = "";
+        if ( start < end )
+            result = seq.subSequence( start, end ).toString();
+        return result;
+    }
+    
+    /**
+     * Returns the String equivalent
+     * of the command name
+     * in a given range of a character sequence.
+     * If the range spells the name of the given command
+     * in all upper case or all lower case
+     * a shared String is returned;
+     * otherwise a new String is created.
+     * 
+     * @param command   the command identified by the given range
+     * @param seq       the given character sequence
+     * @param start     the start of the range, inclusive
+     * @param end       the end of the range, exclusive
+     * 
+     * @return  the String equivalent of the given range
+     */
+    private static String 
+    commandString( Command command, CharSequence seq, int start, int end )
+    {
+        String  result  = null;
+        if ( command != Command.INVALID )
+        {
+            String  upper   = command.name();
+            String  lower   = lowerNames[command.ordinal()];
+            if ( regionEquals( upper, seq, start, end ) )
+                result = upper;
+            else if ( regionEquals( lower, seq, start, end ) )
+                result = lower;
+        }
+        if ( result == null )
+            result = seq.subSequence( start, end ).toString();
+        return result;
+    }
+    
+    /**
+     * Determines whether a given range of a character sequence
+     * is equal to a given string.
+     * The comparison is case-sensitive.
+     * 
+     * @param str   the given string
+     * @param seq   the given character sequence
+     * @param start the start of the range, inclusive
+     * @param end   the end of the range, exclusive
+     * 
+     * @return  true if the given range is equal to the given string
+     */
+    private static boolean 
+    regionEquals( String str, CharSequence seq, int start, int end )
+    {
+        int     len     = str.length();
+        boolean result  = len == end - start;
+        for ( int inx = 0 ; result && inx < len ; ++inx )
+            result = str.charAt( inx ) == seq.charAt( start + inx );
+        return result;
+    }
+    
     /**
      * Describes a String/Command pair,
      * where the String is 
@@ -217,4 +501,32 @@ public class CommandReader
             this.cmd = cmd;
         }
     }
+    
+    /**
+     * Spliterator that supplies ParsedCommands
+     * by scanning the text of the encapsulating CommandReader.
+     * 
+     * @author Jack Straub
+     */
+    private class TextSpliterator 
+        extends Spliterators.AbstractSpliterator<ParsedCommand>
+    {
+        /**
+         * Constructor.
+         * Establishes the characteristics of this Spliterator.
+         */
+        public TextSpliterator()
+        {
+            super( Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL );
+        }
+        
+        @Override
+        public boolean tryAdvance( Consumer<? super ParsedCommand> action )
+        {
+            ParsedCommand   next    = nextTextCommand();
+            if ( next != null )
+                action.accept( next );
+            return next != null;
+        }
+    }
 }
@@ -0,0 +1,188 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Implementation of the Equation interface
+ * that evaluates expressions
+ * using bytecode generated at run time.
+ * Expressions are written
+ * using the same syntax as {@linkplain Exp4jEquation},
+ * and support the same set of functions and default variables;
+ * the difference is that,
+ * when a plot is generated,
+ * each expression is compiled by {@linkplain Exp4jCompiler}
+ * into a class
+ * that evaluates the expression directly,
+ * rather than by interpreting its parse tree.
+ * <p>
+ * Compiling an expression
+ * is more expensive than preparing it for interpretation,
+ * so this implementation is most advantageous
+ * when a large number of points is to be plotted.
+ * To avoid repeating the expense
+ * each time a plot is generated,
+ * an equation retains the evaluators it has compiled;
+ * an evaluator is reused
+ * as long as the expression,
+ * the name of the iteration variable
+ * and the values of all other variables
+ * are unchanged.
+ * Only the most recently used evaluators are retained
+ * (see {@linkplain #MAX_COMPILED}),
+ * so that evaluators compiled
+ * for earlier revisions of an expression,
+ * and the classes that implement them,
+ * can be discarded.
+ * </p>
+ *
+ * @author Jack Straub
+ *
+ * @see Exp4jEquation
+ * @see Exp4jCompiler
+ */
+public class CompiledEquation extends Exp4jEquation
+{
+    /**
+     * The maximum number of evaluators retained by an equation.
+     * A plot requires at most two evaluators
+     * (the x- and y-expressions of a parametric plot);
+     * this allows the evaluators of every type of plot
+     * to be retained at once.
+     */
+    public static final int MAX_COMPILED    = 8;
+    
+    /** 
+     * Evaluators compiled by this equation,
+     * keyed by iteration variable name and expression,
+     * in access order.
+     */
+    private final Map<String,Compiled>  compiled    = 
+        new LinkedHashMap<>( 16, .75f, true ) {
+            private static final long serialVersionUID = 1L;
+            @Override
+            protected boolean 
+            removeEldestEntry( Map.Entry<String,Compiled> eldest )
+            {
+                return size() > MAX_COMPILED;
+            }
+        };
+    
+    /**
+     * Default constructor.
+     *
+     * @see Exp4jEquation#Exp4jEquation()
+     */
+    public CompiledEquation()
+    {
+        super();
+    }
+
+    /**
+     * Constructor.
+     * Establishes the expression
+     * associated with the equation <em>y=f(x)</em>.
+     *
+     * @param expr  the expression associated with the equation
+     *
+     * @see Exp4jEquation#Exp4jEquation(String)
+     */
+    public CompiledEquation( String expr )
+    {
+        super( expr );
+    }
+
+    /**
+     * Constructor.
+     * Establishes the set of variables
+     * and the expression <em>y=f(x)</em>
+     * associated with this Equation.
+     *
+     * @param vars  the associated set of variables
+     * @param expr  the associated expression
+     *
+     * @see Exp4jEquation#Exp4jEquation(Map, String)
+     */
+    public CompiledEquation( Map<String,Double> vars, String expr )
+    {
+        super( vars, expr );
+    }
+
+    /**
+     * Returns a newly initialized Equation.
+     *
+     * @return  a newly initialized Equation
+     */
+    @Override
+    public Equation newEquation()
+    {
+        return new CompiledEquation();
+    }
+
+    /**
+     * Compiles a given expression
+     * as a function of a single variable.
+     * If the expression has recently been compiled
+     * for the same variable,
+     * and the values of the remaining variables
+     * have not changed,
+     * the previously compiled evaluator is returned.
+     * The returned evaluator is immutable,
+     * and may be shared between threads.
+     *
+     * @see Exp4jCompiler
+     */
+    @Override
+    public DoubleUnaryOperator
+    prepareEvaluator( String exprStr, String varName )
+    {
+        Map<String,Double>  vars    = getVars();
+        String              key     = varName + ":" + exprStr;
+        DoubleUnaryOperator result  = null;
+        synchronized ( compiled )
+        {
+            Compiled    prev    = compiled.get( key );
+            if ( prev != null && prev.vars.equals( vars ) )
+                result = prev.evaluator;
+        }
+        if ( result == null )
+        {
+            result = Exp4jCompiler.compile( exprStr, vars, varName );
+            synchronized ( compiled )
+            {
+                compiled.put( key, new Compiled( vars, result ) );
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Associates a compiled evaluator
+     * with the variable values
+     * that were bound when it was compiled.
+     *
+     * @author Jack Straub
+     */
+    private static class Compiled
+    {
+        /** Variable values bound to the evaluator; immutable. */
+        private final Map<String,Double>    vars;
+        /** The compiled evaluator. */
+        private final DoubleUnaryOperator   evaluator;
+        
+        /**
+         * Constructor.
+         * Fully initializes this object.
+         * 
+         * @param vars      the bound variable values; must be immutable
+         * @param evaluator the compiled evaluator
+         */
+        public Compiled( Map<String,Double> vars, DoubleUnaryOperator evaluator )
+        {
+            this.vars = vars;
+            this.evaluator = evaluator;
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package com.acmemail.judah.cartesian_plane.input;
 
 import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.math.BigDecimal;
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.function.DoubleSupplier;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 /**
@@ -53,6 +58,93 @@ public interface Equation
      */
     Equation newEquation();
     
+    /**
+     * Returns a copy of this equation.
+     * The copy is obtained from {@linkplain #newEquation()},
+     * and is initialized with this equation's
+     * name, variables, parameter names, expressions,
+     * iteration range, precision and plot type.
+     * Subsequent changes to either equation
+     * do not affect the other,
+     * so the copy may be evaluated
+     * on another thread
+     * while this equation continues to be edited.
+     * <p>
+     * Each bound of the iteration range
+     * is copied as an expression
+     * if the expression yields the same value in the copy
+     * as it does in this equation;
+     * otherwise it is copied as a decimal constant.
+     * </p>
+     * 
+     * @return  a copy of this equation
+     */
+    default Equation copy()
+    {
+        Equation    copy    = newEquation();
+        copy.setName( getName() );
+        copy.getVars().keySet().forEach( copy::removeVar );
+        getVars().forEach( copy::setVar );
+        copy.setParamName( getParamName() );
+        copy.setRadiusName( getRadiusName() );
+        copy.setThetaName( getThetaName() );
+        copy.setXExpression( getXExpression() );
+        copy.setYExpression( getYExpression() );
+        copy.setTExpression( getTExpression() );
+        copy.setRExpression( getRExpression() );
+        copyRange(
+            getRangeStartExpr(),
+            getRangeStart(),
+            copy::setRangeStart,
+            copy::getRangeStart
+        );
+        copyRange(
+            getRangeEndExpr(),
+            getRangeEnd(),
+            copy::setRangeEnd,
+            copy::getRangeEnd
+        );
+        copyRange(
+            getRangeStepExpr(),
+            getRangeStep(),
+            copy::setRangeStep,
+            copy::getRangeStep
+        );
+        copy.setPrecision( getPrecision() );
+        copy.setPlot( getPlot() );
+        return copy;
+    }
+    
+    /**
+     * Copies one bound of an iteration range
+     * to another equation.
+     * The bound is first copied as a given expression;
+     * if the value of the expression in the other equation
+     * is not a given value,
+     * and the given value is finite,
+     * the bound is copied as the decimal representation
+     * of the given value.
+     * 
+     * @param expr      the given expression
+     * @param value     the given value
+     * @param setter    sets the bound in the other equation
+     * @param getter    gets the bound from the other equation
+     * 
+     * @see #copy()
+     */
+    private static void copyRange(
+        String expr,
+        double value,
+        Function<String,Result> setter,
+        DoubleSupplier getter
+    )
+    {
+        setter.apply( expr );
+        if ( Double.compare( getter.getAsDouble(), value ) != 0
+            && Double.isFinite( value ) )
+            setter.apply( new BigDecimal( value ).toPlainString() );
+    }
+    
     /**
      * Sets the value of a variable to a given value.
      * 
@@ -95,6 +187,29 @@ public interface Equation
      * @return an unmodifiable map describing all declared variables
      */
     Map<String,Double> getVars();
+    
+    /**
+     * Gets the number of modifications
+     * that have been made to this equation.
+     * The count is incremented
+     * each time a variable, an expression,
+     * a parameter name or a bound of the iteration range
+     * is successfully set or removed.
+     * Comparing counts allows a client
+     * to detect that an equation has changed
+     * without copying its state.
+     * An implementation that does not count modifications
+     * returns -1;
+     * this is the default.
+     * 
+     * @return  
+     *      the number of modifications made to this equation,
+     *      or -1 if modifications are not counted
+     */
+    default long getModificationCount()
+    {
+        return -1;
+    }
 
     /**
      * Parses the expression used to derive
@@ -233,6 +348,374 @@ public interface Equation
      * @throws ValidationException if the equation is invalid
      */
     Stream<Point2D> tPlot();
+    
+    /**
+     * Evaluates the y-expression
+     * of an equation of the form <em>y=f(x)</em>
+     * for each of the first <em>count</em> values
+     * in a given array of x-coordinates,
+     * storing the results
+     * in the corresponding elements
+     * of a given array of y-coordinates.
+     * The expression is prepared once per call;
+     * no objects are allocated per point
+     * beyond those required by the underlying
+     * expression evaluator.
+     * 
+     * @param xcos  the given array of x-coordinates
+     * @param ycos  the array to receive the y-coordinates
+     * @param count the number of points to evaluate
+     * 
+     * @throws ValidationException if the equation is invalid
+     * 
+     * @see #yPlot()
+     */
+    void evaluateY( double[] xcos, double[] ycos, int count );
+    
+    /**
+     * Evaluates the y-expression
+     * of an equation of the form <em>y=f(x)</em>
+     * for each value in a given array of x-coordinates.
+     * Equivalent to
+     * <code>evaluateY( xcos, ycos, xcos.length )</code>.
+     * 
+     * @param xcos  the given array of x-coordinates
+     * @param ycos  the array to receive the y-coordinates
+     * 
+     * @throws ValidationException if the equation is invalid
+     * 
+     * @see #evaluateY(double[], double[], int)
+     */
+    default void evaluateY( double[] xcos, double[] ycos )
+    {
+        evaluateY( xcos, ycos, xcos.length );
+    }
+    
+    /**
+     * Evaluates the x- and y-expressions
+     * of a parametric equation
+     * for each of the first <em>count</em> values
+     * in a given array of parameter values,
+     * storing the results
+     * in the corresponding elements
+     * of the given arrays of x- and y-coordinates.
+     * 
+     * @param params    the given array of parameter values
+     * @param xcos      the array to receive the x-coordinates
+     * @param ycos      the array to receive the y-coordinates
+     * @param count     the number of points to evaluate
+     * 
+     * @throws ValidationException if the equation is invalid
+     * 
+     * @see #xyPlot()
+     */
+    void evaluateXY( double[] params, double[] xcos, double[] ycos, int count );
+    
+    /**
+     * Evaluates the x- and y-expressions
+     * of a parametric equation
+     * for each value in a given array of parameter values.
+     * Equivalent to
+     * <code>evaluateXY( params, xcos, ycos, params.length )</code>.
+     * 
+     * @param params    the given array of parameter values
+     * @param xcos      the array to receive the x-coordinates
+     * @param ycos      the array to receive the y-coordinates
+     * 
+     * @throws ValidationException if the equation is invalid
+     * 
+     * @see #evaluateXY(double[], double[], double[], int)
+     */
+    default void evaluateXY( double[] params, double[] xcos, double[] ycos )
+    {
+        evaluateXY( params, xcos, ycos, params.length );
+    }
+    
+    /**
+     * Evaluates the r-expression
+     * of a polar equation of the form <em>r=f(t)</em>
+     * for each of the first <em>count</em> values
+     * in a given array of angles,
+     * converting the resulting polar coordinates
+     * to Cartesian coordinates
+     * and storing them
+     * in the corresponding elements
+     * of the given arrays of x- and y-coordinates.
+     * 
+     * @param thetas    the given array of angles
+     * @param xcos      the array to receive the x-coordinates
+     * @param ycos      the array to receive the y-coordinates
+     * @param count     the number of points to evaluate
+     * 
+     * @throws ValidationException if the equation is invalid
+     * 
+     * @see #rPlot()
+     */
+    void evaluateR( double[] thetas, double[] xcos, double[] ycos, int count );
+    
+    /**
+     * Evaluates the r-expression
+     * of a polar equation of the form <em>r=f(t)</em>
+     * for each value in a given array of angles.
+     * Equivalent to
+     * <code>evaluateR( thetas, xcos, ycos, thetas.length )</code>.
+     * 
+     * @param thetas    the given array of angles
+     * @param xcos      the array to receive the x-coordinates
+     * @param ycos      the array to receive the y-coordinates
+     * 
+     * @throws ValidationException if the equation is invalid
+     * 
+     * @see #evaluateR(double[], double[], double[], int)
+     */
+    default void evaluateR( double[] thetas, double[] xcos, double[] ycos )
+    {
+        evaluateR( thetas, xcos, ycos, thetas.length );
+    }
+    
+    /**
+     * Evaluates the t-expression
+     * of a polar equation of the form <em>t=f(r)</em>
+     * for each of the first <em>count</em> values
+     * in a given array of radii,
+     * converting the resulting polar coordinates
+     * to Cartesian coordinates
+     * and storing them
+     * in the corresponding elements
+     * of the given arrays of x- and y-coordinates.
+     * 
+     * @param radii     the given array of radii
+     * @param xcos      the array to receive the x-coordinates
+     * @param ycos      the array to receive the y-coordinates
+     * @param count     the number of points to evaluate
+     * 
+     * @throws ValidationException if the equation is invalid
+     * 
+     * @see #tPlot()
+     */
+    void evaluateT( double[] radii, double[] xcos, double[] ycos, int count );
+    
+    /**
+     * Evaluates the t-expression
+     * of a polar equation of the form <em>t=f(r)</em>
+     * for each value in a given array of radii.
+     * Equivalent to
+     * <code>evaluateT( radii, xcos, ycos, radii.length )</code>.
+     * 
+     * @param radii     the given array of radii
+     * @param xcos      the array to receive the x-coordinates
+     * @param ycos      the array to receive the y-coordinates
+     * 
+     * @throws ValidationException if the equation is invalid
+     * 
+     * @see #evaluateT(double[], double[], double[], int)
+     */
+    default void evaluateT( double[] radii, double[] xcos, double[] ycos )
+    {
+        evaluateT( radii, xcos, ycos, radii.length );
+    }
+    
+    /**
+     * Generates a plot of this equation
+     * using adaptive sampling.
+     * Rather than stepping through the iteration range
+     * by the range increment,
+     * the range is sampled
+     * more densely where the curve bends
+     * and more sparsely where it is flat,
+     * so that, when displayed with the given grid unit,
+     * the line segments connecting the resulting points
+     * deviate from the curve
+     * by no more than about half a pixel.
+     * The range increment is ignored.
+     * Discontinuities are marked with breaks;
+     * see {@linkplain PointBuffer}.
+     * 
+     * @param plotType  
+     *      the type of plot to generate:
+     *      YPLOT, XYPLOT, RPLOT or TPLOT
+     * @param gridUnit  
+     *      the grid unit of the Cartesian plane 
+     *      in which the plot is to be displayed,
+     *      in pixels per unit
+     * @param bounds
+     *      the visible portion of the Cartesian plane,
+     *      in user coordinates;
+     *      may be null
+     * @param buffer    the buffer to receive the plot
+     * 
+     * @throws ValidationException if the equation is invalid
+     * @throws IllegalArgumentException
+     *      if plotType is not a plot command,
+     *      or gridUnit is not positive
+     * 
+     * @see AdaptiveSampler
+     */
+    default void adaptivePlot( 
+        Command plotType, 
+        double gridUnit, 
+        Rectangle2D bounds,
+        PointBuffer buffer
+    )
+    {
+        AdaptiveSampler sampler = 
+            new AdaptiveSampler( this, plotType, gridUnit );
+        sampler.setBounds( bounds );
+        sampler.sample( buffer );
+    }
+    
+    /**
+     * Gets the number of values
+     * in the encapsulated iteration range.
+     * The values are generated
+     * by starting at the beginning of the range
+     * and repeatedly adding the range increment
+     * for as long as the result 
+     * does not exceed the end of the range.
+     * If the range increment is not positive
+     * 0 is returned.
+     * 
+     * @return  the number of values in the encapsulated iteration range
+     * 
+     * @see #getRangeValues(double[])
+     */
+    default int getRangeSize()
+    {
+        int size    = 
+            getRangeSize( Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY );
+        return size;
+    }
+    
+    /**
+     * Gets the number of values
+     * in the encapsulated iteration range
+     * that lie within a given interval.
+     * The values are those 
+     * that would be stored by
+     * {@linkplain #getRangeValues(double[], double, double)}.
+     * If the range increment is not positive
+     * 0 is returned.
+     * 
+     * @param from  the lower bound of the given interval
+     * @param to    the upper bound of the given interval
+     * 
+     * @return  
+     *      the number of values in the encapsulated iteration range
+     *      that lie within the given interval
+     */
+    default int getRangeSize( double from, double to )
+    {
+        int     size    = 0;
+        double  end     = Math.min( getRangeEnd(), to );
+        double  step    = getRangeStep();
+        if ( step > 0 )
+        {
+            double  next    = getRangeFirst( from );
+            for ( ; next <= end && size < Integer.MAX_VALUE ; next += step )
+                ++size;
+        }
+        return size;
+    }
+    
+    /**
+     * Stores the values in the encapsulated iteration range
+     * in a given array,
+     * stopping when the range is exhausted
+     * or the array is full.
+     * The values are exactly those
+     * traversed by the plot methods,
+     * for example {@linkplain #yPlot()}.
+     * 
+     * @param values    the given array
+     * 
+     * @return  the number of values stored
+     * 
+     * @see #getRangeSize()
+     */
+    default int getRangeValues( double[] values )
+    {
+        int size    = 
+            getRangeValues( 
+                values, 
+                Double.NEGATIVE_INFINITY, 
+                Double.POSITIVE_INFINITY
+            );
+        return size;
+    }
+    
+    /**
+     * Stores the values in the encapsulated iteration range
+     * that lie within a given interval
+     * in a given array,
+     * stopping when the interval is exhausted
+     * or the array is full.
+     * The values are generated
+     * by starting at the beginning of the range
+     * and repeatedly adding the range increment,
+     * exactly as they are by the plot methods,
+     * and only those values
+     * that are not less than the lower bound of the interval
+     * are stored.
+     * Consequently the stored values are bit-for-bit identical
+     * to those traversed by the plot methods,
+     * though the portion of the range
+     * below the interval must still be traversed
+     * (but not evaluated).
+     * This allows a caller
+     * to evaluate only the visible portion of a plot.
+     * 
+     * @param values    the given array
+     * @param from      the lower bound of the given interval
+     * @param to        the upper bound of the given interval
+     * 
+     * @return  the number of values stored
+     * 
+     * @see #getRangeSize(double, double)
+     */
+    default int getRangeValues( double[] values, double from, double to )
+    {
+        int     size    = 0;
+        double  end     = Math.min( getRangeEnd(), to );
+        double  step    = getRangeStep();
+        if ( step > 0 )
+        {
+            double  next    = getRangeFirst( from );
+            for ( ; next <= end && size < values.length ; next += step )
+                values[size++] = next;
+        }
+        return size;
+    }
+    
+    /**
+     * Gets the first value in the encapsulated iteration range
+     * that is not less than a given lower bound.
+     * The value is found by accumulating the range increment
+     * from the start of the range,
+     * as it is by the plot methods,
+     * rather than by calculating
+     * the number of increments required,
+     * which may produce a slightly different value.
+     * If all values in the range
+     * are less than the given lower bound,
+     * the first value that exceeds the end of the range
+     * is returned.
+     * The range increment is assumed to be positive.
+     * 
+     * @param from  the given lower bound
+     * 
+     * @return  
+     *      the first value in the encapsulated iteration range
+     *      that is not less than the given lower bound
+     */
+    private double getRangeFirst( double from )
+    {
+        double  end     = getRangeEnd();
+        double  step    = getRangeStep();
+        double  first   = getRangeStart();
+        while ( first < from && first <= end )
+            first += step;
+        return first;
+    }
 
     /**
      * Gets the name of the parameter
@@ -480,6 +963,51 @@ public interface Equation
      */
     Optional<Double> evaluate( String exprStr );
     
+    /**
+     * Prepares a given expression
+     * for repeated evaluation
+     * as a function of a single variable,
+     * the <em>iteration variable</em>
+     * (typically <em>x</em>,
+     * or the parameter, radius or angle name
+     * of this equation).
+     * All other variables are bound
+     * to their current values;
+     * subsequent changes to the variables of this equation
+     * do not affect the returned evaluator.
+     * Implementations are encouraged
+     * to simplify the expression
+     * as far as possible before returning;
+     * for example,
+     * by replacing constant subexpressions
+     * with their values.
+     * <p>
+     * This is the preparation step
+     * performed by the plot methods
+     * (for example {@linkplain #yPlot()})
+     * before iterating over their range.
+     * Clients that evaluate an expression
+     * many times with the same variable values
+     * (for example, a workflow that plots the same equation
+     * at many parameter settings)
+     * can use it to avoid repeatedly
+     * looking up variable values.
+     * </p>
+     * <p>
+     * The returned evaluator is not guaranteed to be thread-safe.
+     * </p>
+     * 
+     * @param exprStr   the given expression
+     * @param varName   the name of the iteration variable
+     * 
+     * @return  an evaluator for the given expression
+     * 
+     * @throws ValidationException
+     *      if the expression is invalid,
+     *      or refers to an undeclared variable
+     */
+    DoubleUnaryOperator prepareEvaluator( String exprStr, String varName );
+    
     /**
      * Determine if a given character is alphabetic:
      * _, or [a-z] or [A-Z].
@@ -0,0 +1,315 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lightweight description of an equation
+ * stored in an equation file.
+ * A descriptor records
+ * the name of the equation,
+ * the location of the file
+ * and the commands
+ * (non-blank, non-comment lines)
+ * read from the file.
+ * The Equation itself is not constructed
+ * until it is first requested,
+ * via {@linkplain #getEquation()};
+ * thereafter it is retained
+ * until {@linkplain #release()} is invoked.
+ * An equation that has been modified since it was constructed
+ * can be protected from being discarded
+ * by invoking {@linkplain #releaseIfUnmodified()}
+ * instead of {@linkplain #release()}.
+ * <p>
+ * Constructing an Equation
+ * requires the validation of its expressions,
+ * which is far more expensive than
+ * reading the file in which it is stored;
+ * in a large library
+ * only a few equations will ever be used.
+ * </p>
+ * <p>
+ * Instances of this class are thread-safe.
+ * </p>
+ *
+ * @author Jack Straub
+ *
+ * @see EquationMap
+ */
+public class EquationDescriptor
+{
+    /** The name of the equation. */
+    private final String        name;
+    /** The file from which the equation was read; may be null. */
+    private final Path          source;
+    /** The commands that configure the equation; unmodifiable. */
+    private final List<String>  commands;
+
+    /** The materialized equation; null if not yet materialized. */
+    private Equation            equation    = null;
+    /** 
+     * The modification count of the materialized equation
+     * at the time it was constructed.
+     * 
+     * @see Equation#getModificationCount()
+     */
+    private long                baseCount   = 0;
+
+    /**
+     * Constructor.
+     * Fully initializes this descriptor.
+     *
+     * @param name      the name of the equation
+     * @param source
+     *      the file from which the equation was read;
+     *      may be null
+     * @param commands  the commands that configure the equation
+     */
+    public EquationDescriptor(
+        String name,
+        Path source,
+        List<String> commands
+    )
+    {
+        this.name = name;
+        this.source = source;
+        this.commands = List.copyOf( commands );
+    }
+
+    /**
+     * Reads an equation descriptor from a given file.
+     * Blank lines and comments are discarded;
+     * each remaining line is recorded
+     * as a command string,
+     * followed by a single space and an argument
+     * if the argument is not empty.
+     * The file is scanned in place
+     * (see {@linkplain CommandReader#open(Path)}).
+     * The name of the equation
+     * is the argument of the last EQUATION command in the file.
+     * If the file does not contain
+     * an EQUATION command with a non-empty name
+     * null is returned.
+     * <p>
+     * If <em>strict</em> is true
+     * the first command in the file
+     * must be an EQUATION command with a non-empty name
+     * (see {@linkplain EquationMap#isEquationFile(java.io.File)});
+     * if it is not
+     * null is returned.
+     * The first command is read incrementally
+     * before the file is scanned,
+     * so that only the beginning of a file
+     * that is not an equation file,
+     * such as an image or an archive,
+     * is ever read.
+     * </p>
+     *
+     * @param file      the given file
+     * @param strict
+     *      true if the first command in the file
+     *      must be a named EQUATION command
+     *
+     * @return  a descriptor of the equation stored in the given file,
+     *          or null if none
+     *
+     * @throws IOException  if an I/O error occurs
+     */
+    public static EquationDescriptor read( Path file, boolean strict )
+        throws IOException
+    {
+        List<String>    commands    = new ArrayList<>();
+        String          name        = null;
+        boolean         proceed     = !strict || hasEquationHeader( file );
+        CommandReader   reader      = 
+            proceed ? CommandReader.open( file ) : null;
+        ParsedCommand   command     = null;
+        while ( proceed 
+            && (command = reader.nextCommand( null )).getCommand() 
+                != Command.NONE
+        )
+        {
+            if ( command.getCommand() == Command.EQUATION )
+                name = command.getArgString();
+            commands.add( toLine( command ) );
+        }
+
+        EquationDescriptor  result  = null;
+        if ( proceed && name != null && !name.isEmpty() )
+            result = new EquationDescriptor( name, file, commands );
+        return result;
+    }
+
+    /**
+     * Indicates whether the first command in a given file
+     * is an EQUATION command with a non-empty name.
+     * The file is decoded incrementally,
+     * using the platform's default character set,
+     * and only as far as the end of the first command;
+     * malformed input is replaced
+     * rather than reported.
+     * 
+     * @param file  the given file
+     * 
+     * @return  
+     *      true if the first command in the given file
+     *      is a named EQUATION command
+     * 
+     * @throws IOException  if an I/O error occurs
+     */
+    private static boolean hasEquationHeader( Path file ) throws IOException
+    {
+        boolean result  = false;
+        try ( 
+            InputStream inStream = Files.newInputStream( file );
+            Reader reader = 
+                new InputStreamReader( inStream, Charset.defaultCharset() );
+            BufferedReader bufReader = new BufferedReader( reader );
+        )
+        {
+            CommandReader   cmdReader   = new CommandReader( bufReader );
+            ParsedCommand   command     = cmdReader.nextCommand( null );
+            result = 
+                command.getCommand() == Command.EQUATION
+                && !command.getArgString().isEmpty();
+        }
+        return result;
+    }
+
+    /**
+     * Converts a parsed command
+     * to the equivalent command line.
+     * 
+     * @param command   the parsed command
+     * 
+     * @return  the command line equivalent to the given command
+     */
+    private static String toLine( ParsedCommand command )
+    {
+        String  cmdStr  = command.getCommandString();
+        String  argStr  = command.getArgString();
+        String  result  = argStr.isEmpty() ? cmdStr : cmdStr + " " + argStr;
+        return result;
+    }
+
+    /**
+     * Gets the name of the equation.
+     *
+     * @return  the name of the equation
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Gets the file from which the equation was read.
+     *
+     * @return  the file from which the equation was read;
+     *          may be null
+     */
+    public Path getSource()
+    {
+        return source;
+    }
+
+    /**
+     * Gets the commands that configure the equation.
+     *
+     * @return  an unmodifiable list of
+     *          the commands that configure the equation
+     */
+    public List<String> getCommands()
+    {
+        return commands;
+    }
+
+    /**
+     * Gets the described equation,
+     * constructing it if necessary.
+     * Once constructed
+     * the same Equation is returned
+     * by every call to this method
+     * until {@linkplain #release()} is invoked.
+     *
+     * @return  the described equation
+     */
+    public synchronized Equation getEquation()
+    {
+        if ( equation == null )
+        {
+            InputParser parser  = new InputParser();
+            commands.stream()
+                .map( CommandReader::parseCommand )
+                .forEach( parser::parseInput );
+            equation = parser.getEquation();
+            baseCount = equation.getModificationCount();
+        }
+        return equation;
+    }
+
+    /**
+     * Indicates whether the described equation
+     * has been constructed.
+     *
+     * @return  true if the described equation has been constructed
+     */
+    public synchronized boolean isMaterialized()
+    {
+        return equation != null;
+    }
+
+    /**
+     * Discards the constructed equation, if any.
+     * The next call to {@linkplain #getEquation()}
+     * will construct a new Equation;
+     * changes made to the discarded Equation
+     * are lost.
+     */
+    public synchronized void release()
+    {
+        equation = null;
+    }
+
+    /**
+     * Discards the constructed equation, if any,
+     * provided that it has not been modified
+     * since it was constructed.
+     * An equation is considered to have been modified
+     * if its modification count has changed
+     * or, if the equation does not count modifications,
+     * unconditionally
+     * (see {@linkplain Equation#getModificationCount()}).
+     * A modified equation is retained,
+     * so that changes made to it
+     * (for example by setting a variable)
+     * are not lost.
+     *
+     * @return  true if the constructed equation was discarded
+     *
+     * @see #release()
+     */
+    public synchronized boolean releaseIfUnmodified()
+    {
+        boolean released    = false;
+        if ( equation != null )
+        {
+            long    count   = equation.getModificationCount();
+            if ( count >= 0 && count == baseCount )
+            {
+                equation = null;
+                released = true;
+            }
+        }
+        return released;
+    }
+}
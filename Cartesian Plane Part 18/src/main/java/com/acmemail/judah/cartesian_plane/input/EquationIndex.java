@@ -0,0 +1,500 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent index of an equation library.
+ * The index is stored in a single binary file
+ * in the root directory of the library
+ * (see {@linkplain #INDEX_NAME}).
+ * For every file in the library
+ * it records the file's modification time and size
+ * and, if the file is an equation file,
+ * the {@linkplain EquationDescriptor} read from it.
+ * When a library is reloaded
+ * the descriptor of an unchanged source file
+ * is obtained from the index
+ * without opening the source file;
+ * only new and modified files are reread.
+ * Files that are known not to be equation files
+ * are likewise not reopened.
+ * <p>
+ * An index is used by {@linkplain EquationLoader}
+ * as follows:
+ * </p>
+ * <ol>
+ * <li>
+ *      the index file is read,
+ *      via {@linkplain #read()};
+ * </li>
+ * <li>
+ *      for every file in the library,
+ *      if {@linkplain #isCurrent(Path, BasicFileAttributes)}
+ *      returns true
+ *      the descriptor is obtained from
+ *      {@linkplain #getDescriptor(Path)},
+ *      otherwise the file is read
+ *      and the result recorded by
+ *      {@linkplain #put(Path, BasicFileAttributes, EquationDescriptor)};
+ *      and
+ * </li>
+ * <li>
+ *      the updated index is written,
+ *      via {@linkplain #write()};
+ *      entries for files that no longer exist are discarded.
+ * </li>
+ * </ol>
+ * <p>
+ * The methods used in step 2 are thread-safe.
+ * If the index file is missing,
+ * or was written by an incompatible version of this class,
+ * it is ignored
+ * and every file is reread;
+ * the same applies if the index file is unreadable or corrupt,
+ * in which case an error message is printed.
+ * </p>
+ * <p>
+ * The format of the index file is:
+ * </p>
+ * <pre>
+ *     int     magic number
+ *     int     format version
+ *     int     number of entries
+ *     entries:
+ *         string  path of file, relative to the library root
+ *         long    modification time (milliseconds)
+ *         long    size (bytes)
+ *         int     length of descriptor data (0 if not an equation file)
+ *         byte[]  descriptor data
+ * </pre>
+ * <p>
+ * Descriptor data consists of
+ * the name of the equation,
+ * the number of commands
+ * and the text of each command.
+ * Strings are stored as a length
+ * followed by UTF-8 encoded bytes.
+ * </p>
+ *
+ * @author Jack Straub
+ *
+ * @see EquationLoader
+ * @see EquationMap
+ */
+public class EquationIndex
+{
+    /** Name of the index file in the library root directory. */
+    public static final String  INDEX_NAME  = ".equations.idx";
+
+    /** Identifies an index file ("EQIX"). */
+    private static final int    magic       = 0x45514958;
+    /** Version of the index file format. */
+    private static final int    version     = 2;
+
+    /** Root directory of the library. */
+    private final Path              root;
+    /** Path to the index file. */
+    private final Path              indexPath;
+    /** Map of relative file paths to index entries. */
+    private final Map<String,Entry> entries = new ConcurrentHashMap<>();
+    /** Relative paths of files found during the current load. */
+    private final Set<String>       seen    = ConcurrentHashMap.newKeySet();
+    /** True if the index has changed since it was read. */
+    private volatile boolean        dirty   = false;
+
+    /**
+     * Constructor.
+     * Establishes the root directory
+     * of the library to be indexed.
+     * The index file is not read until
+     * {@linkplain #read()} is invoked.
+     *
+     * @param root  the root directory of the library
+     */
+    public EquationIndex( Path root )
+    {
+        this.root = root;
+        indexPath = root.resolve( INDEX_NAME );
+    }
+
+    /**
+     * Gets the path to the index file.
+     *
+     * @return  the path to the index file
+     */
+    public Path getPath()
+    {
+        return indexPath;
+    }
+
+    /**
+     * Gets the number of entries in this index.
+     *
+     * @return  the number of entries in this index
+     */
+    public int size()
+    {
+        return entries.size();
+    }
+
+    /**
+     * Reads the index file,
+     * replacing the contents of this index.
+     * If the index file does not exist,
+     * or cannot be interpreted,
+     * this index is left empty.
+     *
+     * @return  true if the index file was successfully read
+     */
+    public boolean read()
+    {
+        entries.clear();
+        seen.clear();
+        dirty = false;
+        boolean result  = false;
+        try
+        {
+            byte[]      bytes   = Files.readAllBytes( indexPath );
+            ByteBuffer  buffer  = ByteBuffer.wrap( bytes );
+            if ( buffer.getInt() == magic && buffer.getInt() == version )
+            {
+                int count   = buffer.getInt();
+                for ( int inx = 0 ; inx < count ; ++inx )
+                {
+                    String  path    = getString( buffer );
+                    long    mtime   = buffer.getLong();
+                    long    size    = buffer.getLong();
+                    byte[]  data    = getBytes( buffer );
+                    entries.put( path, new Entry( mtime, size, data ) );
+                }
+                result = true;
+            }
+        }
+        catch ( NoSuchFileException exc )
+        {
+            // No index yet; every file will be parsed.
+        }
+        catch ( IOException | BufferUnderflowException exc )
+        {
+            String  fmt = "Discarding equation index \"%s\": %s%n";
+            System.err.printf( fmt, indexPath, exc );
+        }
+        if ( !result )
+            entries.clear();
+        return result;
+    }
+
+    /**
+     * Writes this index to the index file,
+     * if it has changed since it was read.
+     * Entries for files that were not found
+     * during the current load are discarded.
+     * The index file is replaced atomically,
+     * so a concurrent reader
+     * sees either the old or the new index.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public void write() throws IOException
+    {
+        if ( entries.keySet().retainAll( seen ) )
+            dirty = true;
+        if ( dirty )
+        {
+            Path    temp    =
+                Files.createTempFile( root, INDEX_NAME, ".tmp" );
+            try (
+                OutputStream outStream = Files.newOutputStream( temp );
+                DataOutputStream dataStream =
+                    new DataOutputStream(
+                        new BufferedOutputStream( outStream )
+                    );
+            )
+            {
+                dataStream.writeInt( magic );
+                dataStream.writeInt( version );
+                dataStream.writeInt( entries.size() );
+                for ( Map.Entry<String,Entry> mapEntry : entries.entrySet() )
+                {
+                    Entry   entry   = mapEntry.getValue();
+                    putString( dataStream, mapEntry.getKey() );
+                    dataStream.writeLong( entry.mtime );
+                    dataStream.writeLong( entry.size );
+                    dataStream.writeInt( entry.data.length );
+                    dataStream.write( entry.data );
+                }
+            }
+            catch ( IOException exc )
+            {
+                Files.deleteIfExists( temp );
+                throw exc;
+            }
+            Files.move(
+                temp,
+                indexPath,
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE
+            );
+            dirty = false;
+        }
+    }
+
+    /**
+     * Indicates whether a given file
+     * is the index file itself,
+     * or a temporary file created while writing it.
+     * Such files are not part of the library.
+     *
+     * @param file  the given file
+     *
+     * @return  true if the given file belongs to the index
+     */
+    public boolean isIndexFile( Path file )
+    {
+        Path    name    = file.getFileName();
+        boolean result  =
+            file.getParent().equals( root )
+            && name.toString().startsWith( INDEX_NAME );
+        return result;
+    }
+
+    /**
+     * Indicates whether the index entry for a given file
+     * is up to date,
+     * that is, whether its recorded modification time and size
+     * match the file's current attributes.
+     * The file is recorded as present in the library.
+     *
+     * @param file  the given file
+     * @param attrs the current attributes of the given file
+     *
+     * @return  true if the index entry for the given file is up to date
+     */
+    public boolean isCurrent( Path file, BasicFileAttributes attrs )
+    {
+        String  key     = toKey( file );
+        Entry   entry   = entries.get( key );
+        seen.add( key );
+        boolean result  =
+            entry != null
+            && entry.mtime == attrs.lastModifiedTime().toMillis()
+            && entry.size == attrs.size();
+        return result;
+    }
+
+    /**
+     * Gets the equation descriptor
+     * recorded in the index for a given file.
+     * If the given file is not an equation file,
+     * or is not in the index,
+     * null is returned.
+     *
+     * @param file  the given file
+     *
+     * @return
+     *      the descriptor recorded for the given file,
+     *      or null if none
+     */
+    public EquationDescriptor getDescriptor( Path file )
+    {
+        Entry               entry   = entries.get( toKey( file ) );
+        EquationDescriptor  result  = null;
+        if ( entry != null && entry.data.length > 0 )
+            result = toDescriptor( file, ByteBuffer.wrap( entry.data ) );
+        return result;
+    }
+
+    /**
+     * Records the result of reading a given file.
+     *
+     * @param file          the given file
+     * @param attrs         the attributes of the given file
+     * @param descriptor
+     *      the descriptor read from the file,
+     *      or null if the file is not an equation file
+     */
+    public void put(
+        Path file,
+        BasicFileAttributes attrs,
+        EquationDescriptor descriptor
+    )
+    {
+        String  key     = toKey( file );
+        long    mtime   = attrs.lastModifiedTime().toMillis();
+        byte[]  data    =
+            descriptor == null ? new byte[0] : toBytes( descriptor );
+        entries.put( key, new Entry( mtime, attrs.size(), data ) );
+        seen.add( key );
+        dirty = true;
+    }
+
+    /**
+     * Converts the path to a file in the library
+     * to the key used to identify it in the index.
+     *
+     * @param file  the path to the file
+     *
+     * @return  the key used to identify the file in the index
+     */
+    private String toKey( Path file )
+    {
+        String  key = root.relativize( file ).toString();
+        return key;
+    }
+
+    /**
+     * Serializes a given equation descriptor.
+     * The source of the descriptor is not serialized;
+     * it is implied by the index entry.
+     *
+     * @param descriptor    the given descriptor
+     *
+     * @return  the serialized descriptor
+     */
+    private static byte[] toBytes( EquationDescriptor descriptor )
+    {
+        ByteArrayOutputStream   byteStream  = new ByteArrayOutputStream();
+        try ( DataOutputStream dataStream = new DataOutputStream( byteStream ) )
+        {
+            List<String>    commands    = descriptor.getCommands();
+            putString( dataStream, descriptor.getName() );
+            dataStream.writeInt( commands.size() );
+            for ( String command : commands )
+                putString( dataStream, command );
+        }
+        catch ( IOException exc )
+        {
+            // ByteArrayOutputStream does not throw IOException
+            throw new IllegalStateException( exc );
+        }
+        return byteStream.toByteArray();
+    }
+
+    /**
+     * Reconstructs an equation descriptor
+     * from its serialized form.
+     *
+     * @param file      the file described by the descriptor
+     * @param buffer    buffer containing the serialized descriptor
+     *
+     * @return  the reconstructed descriptor
+     */
+    private static EquationDescriptor toDescriptor( Path file, ByteBuffer buffer )
+    {
+        String          name        = getString( buffer );
+        int             numCommands = buffer.getInt();
+        List<String>    commands    = new ArrayList<>( numCommands );
+        for ( int inx = 0 ; inx < numCommands ; ++inx )
+            commands.add( getString( buffer ) );
+        EquationDescriptor  descriptor  =
+            new EquationDescriptor( name, file, commands );
+        return descriptor;
+    }
+
+    /**
+     * Writes a string to a given stream
+     * as a length followed by UTF-8 encoded bytes.
+     *
+     * @param dataStream    the given stream
+     * @param str           the string to write
+     *
+     * @throws IOException  if an I/O error occurs
+     */
+    private static void putString( DataOutputStream dataStream, String str )
+        throws IOException
+    {
+        byte[]  bytes   = str.getBytes( StandardCharsets.UTF_8 );
+        dataStream.writeInt( bytes.length );
+        dataStream.write( bytes );
+    }
+
+    /**
+     * Reads a string from a given buffer
+     * as written by {@linkplain #putString(DataOutputStream, String)}.
+     *
+     * @param buffer    the given buffer
+     *
+     * @return  the string read
+     *
+     * @throws BufferUnderflowException if the buffer is too short
+     */
+    private static String getString( ByteBuffer buffer )
+    {
+        byte[]  bytes   = getBytes( buffer );
+        String  str     = new String( bytes, StandardCharsets.UTF_8 );
+        return str;
+    }
+
+    /**
+     * Reads an array of bytes from a given buffer,
+     * preceded by its length.
+     * The length is validated
+     * before the array is allocated,
+     * so that a corrupt length
+     * can't cause an excessive allocation.
+     *
+     * @param buffer    the given buffer
+     *
+     * @return  the array read
+     *
+     * @throws BufferUnderflowException 
+     *      if the length is negative,
+     *      or the buffer is too short
+     */
+    private static byte[] getBytes( ByteBuffer buffer )
+    {
+        int     length  = buffer.getInt();
+        if ( length < 0 || length > buffer.remaining() )
+            throw new BufferUnderflowException();
+        byte[]  bytes   = new byte[length];
+        buffer.get( bytes );
+        return bytes;
+    }
+
+    /**
+     * Entry in the index.
+     *
+     * @author Jack Straub
+     */
+    private static class Entry
+    {
+        /** Modification time of the indexed file, in milliseconds. */
+        private final long      mtime;
+        /** Size of the indexed file, in bytes. */
+        private final long      size;
+        /** Serialized equation; empty if not an equation file. */
+        private final byte[]    data;
+
+        /**
+         * Constructor.
+         * Fully initializes this entry.
+         *
+         * @param mtime modification time of the indexed file
+         * @param size  size of the indexed file
+         * @param data  serialized equation
+         */
+        public Entry( long mtime, long size, byte[] data )
+        {
+            this.mtime = mtime;
+            this.size = size;
+            this.data = data;
+        }
+    }
+}
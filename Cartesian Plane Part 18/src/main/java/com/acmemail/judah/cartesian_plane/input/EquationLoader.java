@@ -0,0 +1,478 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads a library of equation files
+ * into a map of equation names to equation descriptors,
+ * using a bounded pool of worker threads.
+ * <p>
+ * A single thread walks the directory tree;
+ * each regular file found
+ * is handed to a worker thread,
+ * which opens the file once,
+ * determines from its first command
+ * whether it is an equation file
+ * (see {@linkplain EquationMap#isEquationFile(java.io.File)})
+ * and, if so,
+ * reads the remainder of the file
+ * and adds an {@linkplain EquationDescriptor} to the map.
+ * Equations are not constructed by the loader;
+ * see {@linkplain EquationDescriptor#getEquation()}.
+ * Descriptors are published to the map
+ * as soon as they are read,
+ * so the map must be safe for concurrent update;
+ * typically it will be a ConcurrentHashMap.
+ * </p>
+ * <p>
+ * The work queue is bounded,
+ * so the directory walk never gets more than a few files
+ * ahead of the workers;
+ * when the queue is full
+ * the walking thread parses the next file itself.
+ * </p>
+ * <p>
+ * Progress may be monitored
+ * by registering a {@linkplain ProgressListener},
+ * which is invoked
+ * after each file is examined.
+ * The listener is invoked on a worker thread;
+ * a Swing client must transfer any GUI updates
+ * to the event dispatch thread.
+ * An operation in progress
+ * may be stopped by invoking {@linkplain #cancel()};
+ * equations already loaded
+ * remain in the map.
+ * </p>
+ * <p>
+ * If an {@linkplain EquationIndex} is provided
+ * the index is read before the directory walk begins.
+ * A file whose index entry is up to date
+ * is not opened;
+ * its descriptor, if any,
+ * is obtained from the index.
+ * All other files are read
+ * and the results recorded in the index,
+ * which is written when the walk is complete.
+ * </p>
+ * <p>
+ * An EquationLoader may be started only once.
+ * </p>
+ *
+ * @author Jack Straub
+ *
+ * @see EquationMap
+ */
+public class EquationLoader
+{
+    /**
+     * Default number of worker threads.
+     * Loading is dominated by I/O latency,
+     * particularly on network storage,
+     * so the default exceeds the number of processors.
+     */
+    public static final int DEF_THREADS =
+        Math.max( 4, 2 * Runtime.getRuntime().availableProcessors() );
+
+    /** Capacity of the work queue, per worker thread. */
+    private static final int    queueFactor = 16;
+
+    /** Used to assign unique names to worker threads. */
+    private static final AtomicInteger  threadCount = new AtomicInteger();
+
+    /** Map to which equation descriptors are added. */
+    private final Map<String,EquationDescriptor>    equationMap;
+    /** Executes the task of loading a single file. */
+    private final ThreadPoolExecutor        executor;
+    /** Completed when all files have been examined, or on cancellation. */
+    private final CompletableFuture<Void>   done        =
+        new CompletableFuture<>();
+    /** Number of files examined so far. */
+    private final AtomicInteger             fileCount   = new AtomicInteger();
+    /** Number of equations loaded so far. */
+    private final AtomicInteger             eqCount     = new AtomicInteger();
+
+    /** Index of the library being loaded; may be null. */
+    private EquationIndex               index       = null;
+    /** Listener to notify of progress; may be null. */
+    private volatile ProgressListener   listener    = null;
+    /** True if this operation has been cancelled. */
+    private volatile boolean            cancelled   = false;
+    /** True if this loader has been started. */
+    private boolean                     started     = false;
+
+    /**
+     * Constructor.
+     * Establishes the map to which equation descriptors are added.
+     * The default number of worker threads is used.
+     *
+     * @param equationMap
+     *      the map to which equation descriptors are added;
+     *      must support concurrent update
+     */
+    public EquationLoader( Map<String,EquationDescriptor> equationMap )
+    {
+        this( equationMap, DEF_THREADS );
+    }
+
+    /**
+     * Constructor.
+     * Establishes the map to which equation descriptors are added,
+     * and the number of worker threads.
+     *
+     * @param equationMap
+     *      the map to which equation descriptors are added;
+     *      must support concurrent update
+     * @param nThreads      the number of worker threads
+     *
+     * @throws IllegalArgumentException if nThreads is not positive
+     */
+    public EquationLoader( 
+        Map<String,EquationDescriptor> equationMap, 
+        int nThreads 
+    )
+    {
+        if ( nThreads < 1 )
+        {
+            String  message = "Invalid thread count: " + nThreads;
+            throw new IllegalArgumentException( message );
+        }
+        this.equationMap = equationMap;
+        ThreadFactory   factory = r -> {
+            String  name    = "EquationLoader-" + threadCount.incrementAndGet();
+            Thread  thread  = new Thread( r, name );
+            thread.setDaemon( true );
+            return thread;
+        };
+        executor = new ThreadPoolExecutor(
+            nThreads,
+            nThreads,
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>( nThreads * queueFactor ),
+            factory,
+            new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+    }
+
+    /**
+     * Sets the listener to be notified
+     * each time a file is examined.
+     *
+     * @param listener  the listener to be notified; may be null
+     */
+    public void setProgressListener( ProgressListener listener )
+    {
+        this.listener = listener;
+    }
+
+    /**
+     * Sets the index to use
+     * to avoid reparsing unchanged files.
+     * Must be invoked before this loader is started.
+     *
+     * @param index
+     *      index of the library to be loaded; may be null
+     *
+     * @throws IllegalStateException if this loader has already been started
+     */
+    public synchronized void setIndex( EquationIndex index )
+    {
+        if ( started )
+            throw new IllegalStateException( "Loader already started" );
+        this.index = index;
+    }
+
+    /**
+     * Begins loading equation files
+     * from a given directory, and its subdirectories,
+     * in the background.
+     * This method returns immediately.
+     * If the given path is not a directory
+     * the operation completes immediately
+     * without loading any equations.
+     *
+     * @param dir   the given directory
+     *
+     * @throws IllegalStateException if this loader has already been started
+     */
+    public synchronized void start( Path dir )
+    {
+        if ( started )
+            throw new IllegalStateException( "Loader already started" );
+        started = true;
+        Thread  walker  = new Thread( () -> walk( dir ), "EquationLoader" );
+        walker.setDaemon( true );
+        walker.start();
+    }
+
+    /**
+     * Stops loading equation files.
+     * Files that are being parsed when this method is invoked
+     * will be completed;
+     * no further files will be examined.
+     */
+    public void cancel()
+    {
+        cancelled = true;
+        executor.shutdownNow();
+        done.complete( null );
+    }
+
+    /**
+     * Indicates whether this operation has been cancelled.
+     *
+     * @return  true if this operation has been cancelled
+     */
+    public boolean isCancelled()
+    {
+        return cancelled;
+    }
+
+    /**
+     * Indicates whether this operation is complete,
+     * either because all files have been examined,
+     * or because it was cancelled.
+     *
+     * @return  true if this operation is complete
+     */
+    public boolean isDone()
+    {
+        return done.isDone();
+    }
+
+    /**
+     * Gets a future that is completed
+     * when this operation is complete.
+     *
+     * @return  a future that is completed
+     *          when this operation is complete
+     *
+     * @see #isDone()
+     */
+    public CompletableFuture<Void> getCompletion()
+    {
+        return done;
+    }
+
+    /**
+     * Waits for this operation to complete.
+     *
+     * @throws InterruptedException if the calling thread is interrupted
+     */
+    public void await() throws InterruptedException
+    {
+        try
+        {
+            done.get();
+        }
+        catch ( ExecutionException exc )
+        {
+            // done is never completed exceptionally
+            throw new IllegalStateException( exc );
+        }
+    }
+
+    /**
+     * Gets the number of files examined so far.
+     *
+     * @return  the number of files examined so far
+     */
+    public int getFileCount()
+    {
+        return fileCount.get();
+    }
+
+    /**
+     * Gets the number of equations loaded so far.
+     *
+     * @return  the number of equations loaded so far
+     */
+    public int getEquationCount()
+    {
+        return eqCount.get();
+    }
+
+    /**
+     * Walks the directory tree rooted at a given directory,
+     * dispatching each regular file to a worker thread.
+     * Directories that cannot be read are skipped.
+     * When the walk is complete
+     * waits for the workers to finish,
+     * updates the index, if any,
+     * then marks this operation complete.
+     *
+     * @param dir   the given directory
+     */
+    private void walk( Path dir )
+    {
+        try
+        {
+            if ( Files.isDirectory( dir ) )
+            {
+                if ( index != null )
+                    index.read();
+                Files.walkFileTree( dir, new Visitor() );
+            }
+            executor.shutdown();
+            executor.awaitTermination( Long.MAX_VALUE, TimeUnit.DAYS );
+            if ( index != null && !cancelled && Files.isDirectory( dir ) )
+                writeIndex();
+        }
+        catch ( IOException exc )
+        {
+            String  fmt = "Error reading directory \"%s\": %s%n";
+            System.err.printf( fmt, dir, exc.getMessage() );
+            executor.shutdown();
+        }
+        catch ( InterruptedException exc )
+        {
+            executor.shutdownNow();
+        }
+        finally
+        {
+            done.complete( null );
+        }
+    }
+
+    /**
+     * Writes the index,
+     * printing an error message if the operation fails.
+     * The library may be on read-only storage,
+     * so failure is not fatal.
+     */
+    private void writeIndex()
+    {
+        try
+        {
+            index.write();
+        }
+        catch ( IOException exc )
+        {
+            String  fmt = "Error writing equation index \"%s\": %s%n";
+            System.err.printf( fmt, index.getPath(), exc.getMessage() );
+        }
+    }
+
+    /**
+     * Examines a given file
+     * and, if it is an equation file,
+     * adds its descriptor to the map.
+     * If the file's entry in the index is up to date
+     * the descriptor is obtained from the index;
+     * otherwise the file is read
+     * and the result recorded in the index.
+     * If the file cannot be read,
+     * for whatever reason,
+     * an error message is printed,
+     * otherwise if it is not an equation file
+     * it is silently ignored.
+     * Either way the file is counted,
+     * and the progress listener, if any, is notified.
+     *
+     * @param file  the given file
+     * @param attrs the attributes of the given file
+     */
+    private void load( Path file, BasicFileAttributes attrs )
+    {
+        if ( !cancelled )
+        {
+            try
+            {
+                EquationDescriptor  descriptor  = null;
+                if ( index != null && index.isCurrent( file, attrs ) )
+                    descriptor = index.getDescriptor( file );
+                else
+                {
+                    descriptor = EquationDescriptor.read( file, true );
+                    if ( index != null )
+                        index.put( file, attrs, descriptor );
+                }
+                if ( descriptor != null )
+                {
+                    equationMap.put( descriptor.getName(), descriptor );
+                    eqCount.incrementAndGet();
+                }
+            }
+            catch ( IOException | RuntimeException exc )
+            {
+                // For example, an IllegalArgumentException
+                // if the file is too large to map,
+                // or a decoding failure.
+                String  fmt = "Error reading file \"%s\": %s%n";
+                System.err.printf( fmt, file.getFileName(), exc.getMessage() );
+            }
+            int                 files   = fileCount.incrementAndGet();
+            ProgressListener    notify  = listener;
+            if ( notify != null )
+                notify.progress( files, eqCount.get() );
+        }
+    }
+
+    /**
+     * Listener to be notified
+     * of the progress of an EquationLoader.
+     *
+     * @author Jack Straub
+     *
+     * @see EquationLoader#setProgressListener(ProgressListener)
+     */
+    @FunctionalInterface
+    public interface ProgressListener
+    {
+        /**
+         * Invoked each time a file has been examined.
+         *
+         * @param fileCount     the number of files examined so far
+         * @param equationCount the number of equations loaded so far
+         */
+        void progress( int fileCount, int equationCount );
+    }
+
+    /**
+     * Visitor for walking the directory tree.
+     * Dispatches regular files to the executor,
+     * skips the index file
+     * and directories that cannot be read,
+     * and stops the walk if the operation is cancelled.
+     *
+     * @author Jack Straub
+     */
+    private class Visitor extends SimpleFileVisitor<Path>
+    {
+        @Override
+        public FileVisitResult
+        visitFile( Path file, BasicFileAttributes attrs )
+        {
+            FileVisitResult result  = FileVisitResult.CONTINUE;
+            if ( cancelled )
+                result = FileVisitResult.TERMINATE;
+            else if ( index != null && index.isIndexFile( file ) )
+                ;
+            else if ( attrs.isRegularFile() )
+                executor.execute( () -> load( file, attrs ) );
+            return result;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed( Path file, IOException exc )
+        {
+            FileVisitResult result  =
+                cancelled ? FileVisitResult.TERMINATE : FileVisitResult.CONTINUE;
+            return result;
+        }
+    }
+}
@@ -4,11 +4,16 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.swing.JFileChooser;
 
@@ -31,6 +36,45 @@ import com.acmemail.judah.cartesian_plane.components.ItemSelectionDialog;
  * <em>parseEquationFile( File file )</em>
  * and passing the name of a text file
  * that contains equation configuration data.
+ * <p>
+ * Directories are searched
+ * using an {@linkplain EquationLoader},
+ * which examines files in parallel.
+ * To load a large library of equations
+ * without blocking the calling thread
+ * use <em>loadEquationFiles( File dir, ProgressListener listener )</em>,
+ * which adds equations to the map
+ * as they are loaded.
+ * A persistent {@linkplain EquationIndex}
+ * is maintained in the root directory of the search,
+ * so that only new and modified files
+ * need to be parsed when the directory is reloaded.
+ * </p>
+ * <p>
+ * The map holds an {@linkplain EquationDescriptor}
+ * for each equation,
+ * recording its name, source file and commands.
+ * An Equation is constructed
+ * only when it is first requested,
+ * via <em>getEquation( String name )</em>;
+ * listing the names of the equations
+ * does not require any equation to be constructed.
+ * By default a constructed Equation is retained
+ * for as long as it remains in the map.
+ * To bound memory use
+ * invoke <em>setMaterializedLimit( int limit )</em>;
+ * when the limit is exceeded,
+ * the least recently requested Equation is discarded,
+ * and will be reconstructed from its commands
+ * if it is requested again.
+ * An Equation that has been modified
+ * since it was constructed,
+ * for example by setting a variable
+ * or an expression,
+ * is never discarded,
+ * so that the modifications are not lost;
+ * see {@linkplain EquationDescriptor#releaseIfUnmodified()}.
+ * </p>
  * 
  * @author Jack Straub
  */
@@ -39,8 +83,42 @@ public class EquationMap
     /** File-chooser to allow operator to select files. */
     private static final JFileChooser   chooser;
     
-    /** Map of names to Equation objects. */
-    private static final Map<String,Equation>   equationMap = new HashMap<>();
+    /** 
+     * Map of names to equation descriptors.
+     * May be updated concurrently by an EquationLoader.
+     */
+    private static final Map<String,EquationDescriptor> equationMap = 
+        new ConcurrentHashMap<>();
+    
+    /**
+     * Descriptors whose equations have been materialized,
+     * in order of access.
+     * Used only if the number of materialized equations is limited.
+     */
+    private static final Map<EquationDescriptor,Boolean>    materialized    =
+        new LinkedHashMap<>( 16, .75f, true ) {
+            private static final long serialVersionUID = 1L;
+            @Override
+            protected boolean 
+            removeEldestEntry( Map.Entry<EquationDescriptor,Boolean> eldest )
+            {
+                boolean remove  = 
+                    materializedLimit > 0 && size() > materializedLimit;
+                if ( remove )
+                    eldest.getKey().releaseIfUnmodified();
+                return remove;
+            }
+        };
+    
+    /** Unmodifiable view of the equation map; see getEquationMap. */
+    private static final Map<String,Equation>   equationView    =
+        new EquationView();
+    
+    /** 
+     * Maximum number of materialized equations to retain;
+     * 0 if unlimited.
+     */
+    private static volatile int materializedLimit   = 0;
     
     static
     {
@@ -67,6 +145,66 @@ public class EquationMap
     public static void init()
     {
         equationMap.clear();
+        synchronized ( materialized )
+        {
+            materialized.clear();
+        }
+    }
+    
+    /**
+     * Sets the maximum number of materialized equations
+     * to retain.
+     * If the limit is exceeded
+     * the least recently requested equations
+     * are discarded;
+     * a discarded equation is reconstructed
+     * from its source file
+     * the next time it is requested
+     * (see {@linkplain #getEquation(String)}).
+     * Equations that have been modified
+     * since they were constructed
+     * are never discarded,
+     * and don't count toward the limit;
+     * see {@linkplain EquationDescriptor#releaseIfUnmodified()}.
+     * A limit of 0 means no limit.
+     * 
+     * @param limit the maximum number of equations to retain,
+     *              or 0 for no limit
+     *              
+     * @throws IllegalArgumentException if limit is negative
+     */
+    public static void setMaterializedLimit( int limit )
+    {
+        if ( limit < 0 )
+        {
+            String  message = "Invalid limit: " + limit;
+            throw new IllegalArgumentException( message );
+        }
+        materializedLimit = limit;
+        synchronized ( materialized )
+        {
+            Iterator<EquationDescriptor>    iter    = 
+                materialized.keySet().iterator();
+            while ( limit > 0 && materialized.size() > limit )
+            {
+                iter.next().releaseIfUnmodified();
+                iter.remove();
+            }
+            if ( limit == 0 )
+                materialized.clear();
+        }
+    }
+    
+    /**
+     * Gets the maximum number of materialized equations
+     * to retain.
+     * 
+     * @return  the maximum number of materialized equations to retain,
+     *          or 0 if there is no limit
+     */
+    public static int getMaterializedLimit()
+    {
+        return materializedLimit;
     }
     
     /**
@@ -106,47 +244,90 @@ public class EquationMap
      * If a file cannot be examined
      * an error message is printed,
      * otherwise it is silently ignored.
+     * <p>
+     * Files are examined in parallel;
+     * this method returns when all files
+     * have been examined.
+     * </p>
      * 
      * @param dir   the given file
      * 
      * @see #parseEquationFiles()
+     * @see #loadEquationFiles(File, EquationLoader.ProgressListener)
      */
     public static void parseEquationFiles( File dir )
     {
-        File[]  fileList    = dir.listFiles();
-        if ( fileList != null )
+        EquationLoader  loader  = loadEquationFiles( dir, null );
+        try
         {
-            for ( File file : fileList )
-            {
-                if ( file.isDirectory() )
-                    parseEquationFiles( file );
-                else if ( isEquationFile( file ) )
-                    parseEquationFile( file );
-                else
-                    ;
-            }
+            loader.await();
+        }
+        catch ( InterruptedException exc )
+        {
+            loader.cancel();
+            Thread.currentThread().interrupt();
         }
     }
     
+    /**
+     * Begins loading equation files
+     * from a given directory, and its subdirectories,
+     * in the background.
+     * Equations are added to the map
+     * as they are loaded.
+     * The index of the given directory
+     * is consulted and updated;
+     * see {@linkplain EquationIndex}.
+     * The returned EquationLoader
+     * may be used to monitor,
+     * wait for, or cancel the operation.
+     * 
+     * @param dir       the given directory
+     * @param listener  
+     *      listener to be notified of progress;
+     *      may be null
+     *      
+     * @return  the EquationLoader performing the operation
+     * 
+     * @see EquationLoader
+     */
+    public static EquationLoader loadEquationFiles( 
+        File dir, 
+        EquationLoader.ProgressListener listener
+    )
+    {
+        EquationLoader  loader  = new EquationLoader( equationMap );
+        loader.setIndex( new EquationIndex( dir.toPath() ) );
+        loader.setProgressListener( listener );
+        loader.start( dir.toPath() );
+        return loader;
+    }
+    
     /**
      * Extracts from a file
      * a named equation,
-     * and stores the equation
+     * and stores a descriptor of the equation
      * in the equation map.
-     * If the file cannot be read,
-     * or if it does not contain a named equation,
+     * If the file does not contain a named equation,
      * it is silently ignored.
+     * If the file cannot be read
+     * an error message is printed.
      * 
      * @param file  the given file
      */
     public static void parseEquationFile( File file )
     {
-        Equation    equation    = FileManager.open( file );
-        if ( equation != null )
+        try
+        {
+            EquationDescriptor  descriptor  =
+                EquationDescriptor.read( file.toPath(), false );
+            if ( descriptor != null )
+                equationMap.put( descriptor.getName(), descriptor );
+        }
+        catch ( IOException exc )
         {
-            String  name    = equation.getName();
-            if ( name != null && !name.isEmpty() )
-                equationMap.put( name, equation );
+            String  fmt = "Error reading file \"%s\": %s%n";
+            System.err.printf( fmt, file.getName(), exc.getMessage() );
         }
     }
     
@@ -201,6 +382,18 @@ public class EquationMap
      * returns the associated equation.
      * If there is no such equation
      * null is returned.
+     * <p>
+     * If the number of materialized equations is limited
+     * (see {@linkplain #setMaterializedLimit(int)})
+     * an equation that has not been requested recently
+     * may have been discarded,
+     * in which case it is reconstructed from its source file,
+     * and a different Equation object is returned.
+     * An equation that has been modified
+     * is never discarded,
+     * so modifications made to a previously returned equation
+     * are never lost.
+     * </p>
      * 
      * @param name  the name of the target equation
      * 
@@ -211,7 +404,19 @@ public class EquationMap
      */
     public static Equation getEquation( String name )
     {
-        Equation    equation    = equationMap.get( name );
+        EquationDescriptor  descriptor  = equationMap.get( name );
+        Equation            equation    = null;
+        if ( descriptor != null )
+        {
+            equation = descriptor.getEquation();
+            if ( materializedLimit > 0 )
+            {
+                synchronized ( materialized )
+                {
+                    materialized.put( descriptor, Boolean.TRUE );
+                }
+            }
+        }
         return equation;
     }
     
@@ -238,7 +443,7 @@ public class EquationMap
         if ( status >= 0 )
         {
             String  name    = names[status];
-            equation = equationMap.get( name );
+            equation = getEquation( name );
         }
         return equation;
     }
@@ -246,14 +451,106 @@ public class EquationMap
     /**
      * Returns an <em>unmodifiable</em> map
      * of equation names to equations.
+     * The map is a view of the equation map;
+     * an equation is constructed
+     * only when it is retrieved from the map
+     * (see {@linkplain #getEquation(String)}).
+     * Operations that only require the names of the equations,
+     * such as <em>size</em>, <em>containsKey</em>
+     * and iterating over <em>keySet</em>,
+     * do not construct any equations.
      * 
      * @return  an unmodifiable map
      *          of equation names to equations
      */
     public static Map<String,Equation> getEquationMap()
     {
-        Map<String,Equation>    map = 
+        return equationView;
+    }
+    
+    /**
+     * Returns an <em>unmodifiable</em> map
+     * of equation names to equation descriptors.
+     * 
+     * @return  an unmodifiable map
+     *          of equation names to equation descriptors
+     */
+    public static Map<String,EquationDescriptor> getDescriptorMap()
+    {
+        Map<String,EquationDescriptor>  map = 
             Collections.unmodifiableMap( equationMap );
         return map;
     }
+    
+    /**
+     * Unmodifiable view of the equation map
+     * as a map of names to equations.
+     * Equations are materialized on retrieval.
+     * 
+     * @author Jack Straub
+     */
+    private static class EquationView extends AbstractMap<String,Equation>
+    {
+        @Override
+        public int size()
+        {
+            return equationMap.size();
+        }
+        
+        @Override
+        public boolean containsKey( Object key )
+        {
+            return equationMap.containsKey( key );
+        }
+        
+        @Override
+        public Equation get( Object key )
+        {
+            Equation    equation    = null;
+            if ( key instanceof String )
+                equation = getEquation( (String)key );
+            return equation;
+        }
+        
+        @Override
+        public Set<String> keySet()
+        {
+            return Collections.unmodifiableSet( equationMap.keySet() );
+        }
+        
+        @Override
+        public Set<Map.Entry<String,Equation>> entrySet()
+        {
+            return new AbstractSet<>() {
+                @Override
+                public int size()
+                {
+                    return equationMap.size();
+                }
+                
+                @Override
+                public Iterator<Map.Entry<String,Equation>> iterator()
+                {
+                    Iterator<String>    iter    = 
+                        equationMap.keySet().iterator();
+                    return new Iterator<>() {
+                        @Override
+                        public boolean hasNext()
+                        {
+                            return iter.hasNext();
+                        }
+                        
+                        @Override
+                        public Map.Entry<String,Equation> next()
+                        {
+                            String  name    = iter.next();
+                            return new SimpleImmutableEntry<>(
+                                name, getEquation( name )
+                            );
+                        }
+                    };
+                }
+            };
+        }
+    }
 }
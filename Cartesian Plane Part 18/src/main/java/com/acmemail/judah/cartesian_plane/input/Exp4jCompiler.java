@@ -0,0 +1,503 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import static org.objectweb.asm.Opcodes.AALOAD;
+import static org.objectweb.asm.Opcodes.ACC_FINAL;
+import static org.objectweb.asm.Opcodes.ACC_PRIVATE;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ACC_SUPER;
+import static org.objectweb.asm.Opcodes.ALOAD;
+import static org.objectweb.asm.Opcodes.DADD;
+import static org.objectweb.asm.Opcodes.DASTORE;
+import static org.objectweb.asm.Opcodes.DCONST_0;
+import static org.objectweb.asm.Opcodes.DCONST_1;
+import static org.objectweb.asm.Opcodes.DLOAD;
+import static org.objectweb.asm.Opcodes.DMUL;
+import static org.objectweb.asm.Opcodes.DNEG;
+import static org.objectweb.asm.Opcodes.DRETURN;
+import static org.objectweb.asm.Opcodes.DSUB;
+import static org.objectweb.asm.Opcodes.DUP;
+import static org.objectweb.asm.Opcodes.GETFIELD;
+import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
+import static org.objectweb.asm.Opcodes.INVOKESTATIC;
+import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
+import static org.objectweb.asm.Opcodes.NEWARRAY;
+import static org.objectweb.asm.Opcodes.PUTFIELD;
+import static org.objectweb.asm.Opcodes.RETURN;
+import static org.objectweb.asm.Opcodes.T_DOUBLE;
+import static org.objectweb.asm.Opcodes.V17;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.DoubleUnaryOperator;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import com.acmemail.judah.cartesian_plane.input.Exp4jEvaluator.Term;
+
+import net.objecthunter.exp4j.function.Function;
+import net.objecthunter.exp4j.function.Functions;
+import net.objecthunter.exp4j.operator.Operator;
+
+/**
+ * Compiles an exp4j expression
+ * into a hidden class
+ * that implements DoubleUnaryOperator,
+ * as a function of a single iteration variable.
+ * <p>
+ * The expression is first parsed,
+ * with variables bound and constants folded,
+ * by {@linkplain Exp4jEvaluator#parse(String, Map, String)}.
+ * The resulting tree of terms
+ * is then translated directly to bytecode
+ * in the <em>applyAsDouble</em> method
+ * of a new class:
+ * </p>
+ * <ul>
+ * <li>
+ *      constants are loaded from the constant pool;
+ * </li>
+ * <li>
+ *      the built-in arithmetic operators
+ *      are translated to the corresponding bytecode instructions
+ *      (<em>dadd, dsub,</em> etc.);
+ * </li>
+ * <li>
+ *      built-in functions that are implemented by a single method
+ *      in java.lang.Math
+ *      (<em>sin, sqrt, pow,</em> etc.)
+ *      are translated to a call to that method;
+ *      and
+ * </li>
+ * <li>
+ *      all other operators and functions,
+ *      including those in {@linkplain Exp4jFunctions},
+ *      are invoked via their exp4j objects.
+ * </li>
+ * </ul>
+ * <p>
+ * The class is defined as a hidden class
+ * (see {@linkplain MethodHandles.Lookup#defineHiddenClass}),
+ * so it can be unloaded
+ * as soon as the evaluator is no longer referenced.
+ * Since the evaluator contains no interpretive overhead,
+ * the JIT can compile it,
+ * and inline it into a sampling loop,
+ * as it would any hand-written method.
+ * </p>
+ * <p>
+ * Operations are performed
+ * in exactly the order in which exp4j performs them,
+ * and with the same exceptions,
+ * so the results are identical
+ * to those obtained by evaluating the original expression.
+ * A compiled evaluator is immutable,
+ * and may be shared between threads.
+ * </p>
+ *
+ * @author Jack Straub
+ *
+ * @see CompiledEquation
+ */
+public class Exp4jCompiler
+{
+    /** Internal name of the generated class. */
+    private static final String     className       =
+        Type.getInternalName( Exp4jCompiler.class ) + "$Compiled";
+    /** Internal name of the exp4j Function class. */
+    private static final String     functionName    =
+        Type.getInternalName( Function.class );
+    /** Internal name of the exp4j Operator class. */
+    private static final String     operatorName    =
+        Type.getInternalName( Operator.class );
+    /** Descriptor of the generated class's function array field. */
+    private static final String     functionsDesc   =
+        Type.getDescriptor( Function[].class );
+    /** Descriptor of the generated class's operator array field. */
+    private static final String     operatorsDesc   =
+        Type.getDescriptor( Operator[].class );
+    /** Descriptor of the apply methods of Function and Operator. */
+    private static final String     applyDesc       = "([D)D";
+    /** Name of the generated class's function array field. */
+    private static final String     functionsField  = "functions";
+    /** Name of the generated class's operator array field. */
+    private static final String     operatorsField  = "operators";
+
+    /**
+     * Names of the exp4j built-in functions
+     * that are implemented by a single call
+     * to the method of the same name
+     * in java.lang.Math.
+     */
+    private static final Set<String>    mathFunctions   = Set.of(
+        "sin", "cos", "tan", "asin", "acos", "atan",
+        "sinh", "cosh", "tanh", "log", "log10", "log1p",
+        "abs", "cbrt", "floor", "ceil", "sqrt", "exp", "expm1", "pow"
+    );
+
+    /** Functions to be invoked via their exp4j objects. */
+    private final List<Function>    functions   = new ArrayList<>();
+    /** Operators to be invoked via their exp4j objects. */
+    private final List<Operator>    operators   = new ArrayList<>();
+
+    /**
+     * Private constructor.
+     * Instances are created only by
+     * {@linkplain #compile(String, Map, String)}.
+     */
+    private Exp4jCompiler()
+    {
+    }
+
+    /**
+     * Compiles a given expression
+     * as a function of a given iteration variable,
+     * binding all other variables
+     * to their values in a given map.
+     *
+     * @param exprStr   the given expression
+     * @param vars      the given map
+     * @param varName   the name of the iteration variable
+     *
+     * @return  a compiled evaluator for the given expression
+     *
+     * @throws ValidationException
+     *      if the expression is invalid,
+     *      or refers to a variable
+     *      that is not in the given map
+     * @throws IllegalStateException
+     *      if the generated class cannot be defined
+     */
+    public static DoubleUnaryOperator
+    compile( String exprStr, Map<String,Double> vars, String varName )
+    {
+        Term                term    =
+            Exp4jEvaluator.parse( exprStr, vars, varName );
+        DoubleUnaryOperator result  = null;
+        if ( term.isConstant() || term.isVariable() )
+            result = term.toOperator();
+        else
+            result = new Exp4jCompiler().define( term );
+        return result;
+    }
+
+    /**
+     * Divides one number by another,
+     * throwing the same exception as exp4j
+     * if the divisor is zero.
+     * Invoked by generated code.
+     *
+     * @param dividend  the dividend
+     * @param divisor   the divisor
+     *
+     * @return  the quotient
+     *
+     * @throws ArithmeticException if the divisor is 0
+     */
+    static double divide( double dividend, double divisor )
+    {
+        if ( divisor == 0 )
+            throw new ArithmeticException( "Division by zero!" );
+        return dividend / divisor;
+    }
+
+    /**
+     * Generates, defines and instantiates
+     * a class that evaluates a given term.
+     *
+     * @param term  the given term
+     *
+     * @return  an instance of the generated class
+     *
+     * @throws IllegalStateException
+     *      if the generated class cannot be defined
+     */
+    private DoubleUnaryOperator define( Term term )
+    {
+        byte[]              bytes   = generate( term );
+        DoubleUnaryOperator result  = null;
+        try
+        {
+            MethodHandles.Lookup    lookup  =
+                MethodHandles.lookup().defineHiddenClass( bytes, true );
+            MethodType              type    =
+                MethodType.methodType(
+                    void.class, Function[].class, Operator[].class
+                );
+            MethodHandle            ctor    =
+                lookup.findConstructor( lookup.lookupClass(), type );
+            result = (DoubleUnaryOperator)ctor.invoke(
+                functions.toArray( new Function[0] ),
+                operators.toArray( new Operator[0] )
+            );
+        }
+        catch ( Throwable thr )
+        {
+            String  message = "Failed to define compiled expression";
+            throw new IllegalStateException( message, thr );
+        }
+        return result;
+    }
+
+    /**
+     * Generates the bytecode for a class
+     * that evaluates a given term.
+     * As a side effect,
+     * the functions and operators
+     * that must be invoked via their exp4j objects
+     * are accumulated;
+     * the generated constructor
+     * accepts them as arrays.
+     *
+     * @param term  the given term
+     *
+     * @return  the bytecode of the generated class
+     */
+    private byte[] generate( Term term )
+    {
+        ClassWriter     writer  =
+            new ClassWriter( ClassWriter.COMPUTE_MAXS );
+        writer.visit(
+            V17,
+            ACC_PUBLIC | ACC_FINAL | ACC_SUPER,
+            className,
+            null,
+            "java/lang/Object",
+            new String[] { Type.getInternalName( DoubleUnaryOperator.class ) }
+        );
+        writer.visitField(
+            ACC_PRIVATE | ACC_FINAL, functionsField, functionsDesc, null, null
+        ).visitEnd();
+        writer.visitField(
+            ACC_PRIVATE | ACC_FINAL, operatorsField, operatorsDesc, null, null
+        ).visitEnd();
+
+        MethodVisitor   ctor    = writer.visitMethod(
+            ACC_PUBLIC,
+            "<init>",
+            "(" + functionsDesc + operatorsDesc + ")V",
+            null,
+            null
+        );
+        ctor.visitCode();
+        ctor.visitVarInsn( ALOAD, 0 );
+        ctor.visitMethodInsn(
+            INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false
+        );
+        ctor.visitVarInsn( ALOAD, 0 );
+        ctor.visitVarInsn( ALOAD, 1 );
+        ctor.visitFieldInsn( PUTFIELD, className, functionsField, functionsDesc );
+        ctor.visitVarInsn( ALOAD, 0 );
+        ctor.visitVarInsn( ALOAD, 2 );
+        ctor.visitFieldInsn( PUTFIELD, className, operatorsField, operatorsDesc );
+        ctor.visitInsn( RETURN );
+        ctor.visitMaxs( 0, 0 );
+        ctor.visitEnd();
+
+        MethodVisitor   apply   = writer.visitMethod(
+            ACC_PUBLIC, "applyAsDouble", "(D)D", null, null
+        );
+        apply.visitCode();
+        emit( apply, term );
+        apply.visitInsn( DRETURN );
+        apply.visitMaxs( 0, 0 );
+        apply.visitEnd();
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    /**
+     * Emits the instructions
+     * that push the value of a given term
+     * onto the operand stack.
+     *
+     * @param mvr   visitor for the method being generated
+     * @param term  the given term
+     */
+    private void emit( MethodVisitor mvr, Term term )
+    {
+        if ( term.isVariable() )
+            mvr.visitVarInsn( DLOAD, 1 );
+        else if ( term.isConstant() )
+            emitConstant( mvr, term.getValue() );
+        else if ( term.getOperator() != null )
+            emitOperator( mvr, term.getOperator(), term.getOperands() );
+        else
+            emitFunction( mvr, term.getFunction(), term.getOperands() );
+    }
+
+    /**
+     * Emits the instruction
+     * that pushes a given constant
+     * onto the operand stack.
+     *
+     * @param mvr   visitor for the method being generated
+     * @param value the given constant
+     */
+    private static void emitConstant( MethodVisitor mvr, double value )
+    {
+        // Compare bit patterns; 0.0 and -0.0 are not interchangeable
+        long    bits    = Double.doubleToRawLongBits( value );
+        if ( bits == Double.doubleToRawLongBits( 0 ) )
+            mvr.visitInsn( DCONST_0 );
+        else if ( bits == Double.doubleToRawLongBits( 1 ) )
+            mvr.visitInsn( DCONST_1 );
+        else
+            mvr.visitLdcInsn( value );
+    }
+
+    /**
+     * Emits the instructions
+     * that apply a given operator
+     * to a given set of operands,
+     * leaving the result on the operand stack.
+     *
+     * @param mvr       visitor for the method being generated
+     * @param oper      the given operator
+     * @param operands  the given set of operands
+     */
+    private void
+    emitOperator( MethodVisitor mvr, Operator oper, Term[] operands )
+    {
+        if ( oper == Exp4jEvaluator.addOp )
+            emitBinary( mvr, operands, DADD );
+        else if ( oper == Exp4jEvaluator.subtractOp )
+            emitBinary( mvr, operands, DSUB );
+        else if ( oper == Exp4jEvaluator.multiplyOp )
+            emitBinary( mvr, operands, DMUL );
+        else if ( oper == Exp4jEvaluator.divideOp )
+        {
+            emit( mvr, operands[0] );
+            emit( mvr, operands[1] );
+            mvr.visitMethodInsn(
+                INVOKESTATIC,
+                Type.getInternalName( Exp4jCompiler.class ),
+                "divide",
+                "(DD)D",
+                false
+            );
+        }
+        else if ( oper == Exp4jEvaluator.powerOp )
+        {
+            emit( mvr, operands[0] );
+            emit( mvr, operands[1] );
+            mvr.visitMethodInsn(
+                INVOKESTATIC, "java/lang/Math", "pow", "(DD)D", false
+            );
+        }
+        else if ( oper == Exp4jEvaluator.minusOp )
+        {
+            emit( mvr, operands[0] );
+            mvr.visitInsn( DNEG );
+        }
+        else if ( oper == Exp4jEvaluator.plusOp )
+            emit( mvr, operands[0] );
+        else
+        {
+            int index   = operators.size();
+            operators.add( oper );
+            emitGeneric( mvr, operatorsField, operatorsDesc, index, operands );
+            mvr.visitMethodInsn(
+                INVOKEVIRTUAL, operatorName, "apply", applyDesc, false
+            );
+        }
+    }
+
+    /**
+     * Emits the instructions
+     * that apply a given function
+     * to a given set of arguments,
+     * leaving the result on the operand stack.
+     *
+     * @param mvr   visitor for the method being generated
+     * @param func  the given function
+     * @param args  the given set of arguments
+     */
+    private void emitFunction( MethodVisitor mvr, Function func, Term[] args )
+    {
+        String  name    = func.getName();
+        if ( mathFunctions.contains( name )
+            && func == Functions.getBuiltinFunction( name ) )
+        {
+            StringBuilder   desc    = new StringBuilder( "(" );
+            for ( Term arg : args )
+            {
+                emit( mvr, arg );
+                desc.append( 'D' );
+            }
+            desc.append( ")D" );
+            mvr.visitMethodInsn(
+                INVOKESTATIC, "java/lang/Math", name, desc.toString(), false
+            );
+        }
+        else
+        {
+            int index   = functions.size();
+            functions.add( func );
+            emitGeneric( mvr, functionsField, functionsDesc, index, args );
+            mvr.visitMethodInsn(
+                INVOKEVIRTUAL, functionName, "apply", applyDesc, false
+            );
+        }
+    }
+
+    /**
+     * Emits the instructions
+     * that evaluate two operands
+     * and combine them with a given instruction.
+     *
+     * @param mvr       visitor for the method being generated
+     * @param operands  the operands
+     * @param opcode    the given instruction
+     */
+    private void emitBinary( MethodVisitor mvr, Term[] operands, int opcode )
+    {
+        emit( mvr, operands[0] );
+        emit( mvr, operands[1] );
+        mvr.visitInsn( opcode );
+    }
+
+    /**
+     * Emits the instructions
+     * that push an exp4j object
+     * (a Function or Operator)
+     * followed by an array containing
+     * the values of its operands,
+     * in preparation for invoking its <em>apply</em> method.
+     *
+     * @param mvr       visitor for the method being generated
+     * @param field     the field containing the array of exp4j objects
+     * @param desc      the descriptor of the field
+     * @param index     the index of the exp4j object in the array
+     * @param operands  the operands
+     */
+    private void emitGeneric(
+        MethodVisitor mvr,
+        String field,
+        String desc,
+        int index,
+        Term[] operands
+    )
+    {
+        mvr.visitVarInsn( ALOAD, 0 );
+        mvr.visitFieldInsn( GETFIELD, className, field, desc );
+        mvr.visitLdcInsn( index );
+        mvr.visitInsn( AALOAD );
+        mvr.visitLdcInsn( operands.length );
+        mvr.visitIntInsn( NEWARRAY, T_DOUBLE );
+        for ( int inx = 0 ; inx < operands.length ; ++inx )
+        {
+            mvr.visitInsn( DUP );
+            mvr.visitLdcInsn( inx );
+            emit( mvr, operands[inx] );
+            mvr.visitInsn( DASTORE );
+        }
+    }
+}
@@ -5,8 +5,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.function.Consumer;
 import java.util.function.DoubleConsumer;
+import java.util.function.DoubleUnaryOperator;
 import java.util.stream.DoubleStream;
 import java.util.stream.Stream;
 
@@ -61,10 +65,20 @@ public class Exp4jEquation implements Equation
     private String                      param       = "t";
     private String                      radius      = "r";
     private String                      theta       = "t";
-    private Expression                  xExpr       = null;
-    private Expression                  yExpr       = null;
-    private Expression                  tExpr       = null;
-    private Expression                  rExpr       = null;
+    private boolean                     parallel    = false;
+    /** 
+     * The number of modifications made to this equation.
+     * 
+     * @see #getModificationCount()
+     */
+    private long                        modCount    = 0;
+    
+    /** 
+     * Cache of compiled expressions,
+     * shared by all Exp4jEquation instances.
+     */
+    private static final ExpressionCache<Compiled>  exprCache   =
+        new ExpressionCache<>( Compiled::new );
     
     /**
      * Default constructor.
@@ -146,6 +160,25 @@ public class Exp4jEquation implements Equation
         return new Exp4jEquation();
     }
     
+    /**
+     * Returns a copy of this equation.
+     * In addition to the state copied by
+     * {@linkplain Equation#copy()}
+     * the parallel evaluation mode is copied.
+     * 
+     * @return  a copy of this equation
+     * 
+     * @see #setParallel(boolean)
+     */
+    @Override
+    public Equation copy()
+    {
+        Equation    copy    = Equation.super.copy();
+        if ( copy instanceof Exp4jEquation )
+            ((Exp4jEquation)copy).setParallel( parallel );
+        return copy;
+    }
+    
     /**
      * Sets the value of a variable to a given value.
      * 
@@ -156,6 +189,7 @@ public class Exp4jEquation implements Equation
     public void setVar( String name, double val )
     {
         vars.put( name, val );
+        ++modCount;
     }
     
     /**
@@ -170,6 +204,7 @@ public class Exp4jEquation implements Equation
     public void removeVar( String name )
     {
         vars.remove( name );
+        ++modCount;
     }
     
     /**
@@ -199,6 +234,12 @@ public class Exp4jEquation implements Equation
         return varsRet;
     }
     
+    @Override
+    public long getModificationCount()
+    {
+        return modCount;
+    }
+    
     /**
      * Parses the expression used to derive
      * the x-coordinate of a point 
@@ -214,27 +255,36 @@ public class Exp4jEquation implements Equation
     @Override
     public Result setXExpression( String exprStr )
     {
-        Result    result  = validateExpr( exprStr, e -> xExpr = e );
+        Result    result  = validateExpr( exprStr );
         if ( result.isSuccess() )
+        {
             this.xExprStr = exprStr;
+            ++modCount;
+        }
         return result;
     }
     
     @Override
     public Result setTExpression( String exprStr )
     {
-        Result    result  = validateExpr( exprStr, e -> tExpr = e );
+        Result    result  = validateExpr( exprStr );
         if ( result.isSuccess() )
+        {
             this.tExprStr = exprStr;
+            ++modCount;
+        }
         return result;
     }
     
     @Override
     public Result setRExpression( String exprStr )
     {
-        Result    result  = validateExpr( exprStr, e -> rExpr = e );
+        Result    result  = validateExpr( exprStr );
         if ( result.isSuccess() )
+        {
             this.rExprStr = exprStr;
+            ++modCount;
+        }
         return result;
     }
     
@@ -253,30 +303,20 @@ public class Exp4jEquation implements Equation
     @Override
     public Result setYExpression( String exprStr )
     {
-        Result    result  = validateExpr( exprStr, e -> yExpr = e );
+        Result    result  = validateExpr( exprStr );
         if ( result.isSuccess() )
+        {
             this.yExprStr = exprStr;
+            ++modCount;
+        }
         return result;
     }
     
     @Override
     public boolean isValidExpression( String exprStr )
     {
-        ValidationResult    exp4jResult = ValidationResult.SUCCESS;
-        try
-        {
-            Expression expr = new ExpressionBuilder( exprStr )
-                .variables( vars.keySet() )
-                .functions( Exp4jFunctions.getFunctions() )
-                .build();
-            exp4jResult = expr.validate( false );
-        }
-        catch ( Exception exc )
-        {
-            List<String>    errors  = List.of( exc.getMessage() );
-            exp4jResult = new ValidationResult( false, errors );
-        }
-        boolean             status          = exp4jResult.isValid();
+        Compiled    compiled    = exprCache.get( exprStr, vars.keySet() );
+        boolean     status      = compiled.isValid();
         return status;
     }
     
@@ -293,17 +333,12 @@ public class Exp4jEquation implements Equation
     public Stream<Point2D> yPlot()
     {
         plot = "YPlot";
-        yExpr.setVariables( vars );
-        ValidationResult    result    = yExpr.validate( true );
-        if ( result != ValidationResult.SUCCESS )
-        {
-            String  message = "Unexpected expression validation failure.";
-            throw new ValidationException( message );
-        }
-        Stream<Point2D> stream  =
-            DoubleStream.iterate( rStart, x -> x <= rEnd, x -> x += rStep )
-                .peek( d -> yExpr.setVariable( "x", d ) )
-                .mapToObj( d -> new Point2D.Double( d, yExpr.evaluate() ) );
+        DoubleUnaryOperator yFunc   = prepare( yExprStr, "x", "y" );
+        Stream<Point2D>     stream  =
+            rangeStream()
+                .mapToObj( x -> 
+                    new Point2D.Double( x, yFunc.applyAsDouble( x ) )
+                );
         return stream;
     }
     
@@ -320,29 +355,14 @@ public class Exp4jEquation implements Equation
     public Stream<Point2D> xyPlot()
     {
         plot = "XYPlot";
-        xExpr.setVariables( vars );
-        ValidationResult    result    = xExpr.validate( true );
-        if ( !result.isValid() )
-        {
-            String  message = "Unexpected x-expression validation failure.";
-            throw new ValidationException( message );
-        }
-        yExpr.setVariables( vars );
-        result = yExpr.validate( true );
-        if ( !result.isValid() )
-        {
-            String  message = "Unexpected y-expression validation failure.";
-            throw new ValidationException( message );
-        }
-        
-        Stream<Point2D> stream  =
-            DoubleStream.iterate( rStart, t -> t <= rEnd, t -> t += rStep )
-                .peek( t -> xExpr.setVariable( param, t ) )
-                .peek( t -> yExpr.setVariable( param, t ) )
+        DoubleUnaryOperator xFunc   = prepare( xExprStr, param, "x" );
+        DoubleUnaryOperator yFunc   = prepare( yExprStr, param, "y" );
+        Stream<Point2D>     stream  =
+            rangeStream()
                 .mapToObj( t -> 
                     new Point2D.Double( 
-                        xExpr.evaluate(), 
-                        yExpr.evaluate() 
+                        xFunc.applyAsDouble( t ), 
+                        yFunc.applyAsDouble( t ) 
             ));
         return stream;
     }
@@ -351,19 +371,10 @@ public class Exp4jEquation implements Equation
     public Stream<Point2D> rPlot()
     {
         plot = "RPlot";
-        rExpr.setVariables( vars );
-        ValidationResult    result    = rExpr.validate( true );
-        if ( !result.isValid() )
-        {
-            String  message = "Unexpected r-expression validation failure.";
-            throw new ValidationException( message );
-        }
-
-        Stream<Point2D> stream  =
-            DoubleStream.iterate( rStart, t -> t <= rEnd, t -> t += rStep )
-                .peek( t -> rExpr.setVariable( theta, t ) )
-                .mapToObj( t -> Polar.of( rExpr.evaluate(), t ) )
-                .map( Polar::toPoint );
+        DoubleUnaryOperator rFunc   = prepare( rExprStr, theta, "r" );
+        Stream<Point2D>     stream  =
+            rangeStream()
+                .mapToObj( t -> toPoint( rFunc.applyAsDouble( t ), t ) );
         return stream;
     }
     
@@ -371,22 +382,116 @@ public class Exp4jEquation implements Equation
     public Stream<Point2D> tPlot()
     {
         plot = "TPlot";
-        tExpr.setVariables( vars );
-        ValidationResult    result    = tExpr.validate( true );
-        if ( !result.isValid() )
-        {
-            String  message = "Unexpected t-expression validation failure.";
-            throw new ValidationException( message );
-        }
-
-        Stream<Point2D> stream  =
-            DoubleStream.iterate( rStart, r -> r <= rEnd, r -> r += rStep )
-                .peek( r -> tExpr.setVariable( radius, r ) )
-                .mapToObj( r -> Polar.of( r, tExpr.evaluate() ) )
-                .map( Polar::toPoint );
+        DoubleUnaryOperator tFunc   = prepare( tExprStr, radius, "t" );
+        Stream<Point2D>     stream  =
+            rangeStream()
+                .mapToObj( r -> toPoint( r, tFunc.applyAsDouble( r ) ) );
         return stream;
     }
     
+    @Override
+    public void evaluateY( double[] xcos, double[] ycos, int count )
+    {
+        DoubleUnaryOperator yFunc       = prepare( yExprStr, "x", "y" );
+        ChunkEvaluator      evaluator   = (from, to) -> {
+            for ( int inx = from ; inx < to ; ++inx )
+                ycos[inx] = yFunc.applyAsDouble( xcos[inx] );
+        };
+        evaluate( evaluator, count );
+    }
+    
+    @Override
+    public void 
+    evaluateXY( double[] params, double[] xcos, double[] ycos, int count )
+    {
+        DoubleUnaryOperator xFunc       = prepare( xExprStr, param, "x" );
+        DoubleUnaryOperator yFunc       = prepare( yExprStr, param, "y" );
+        ChunkEvaluator      evaluator   = (from, to) -> {
+            for ( int inx = from ; inx < to ; ++inx )
+            {
+                double  tVal    = params[inx];
+                xcos[inx] = xFunc.applyAsDouble( tVal );
+                ycos[inx] = yFunc.applyAsDouble( tVal );
+            }
+        };
+        evaluate( evaluator, count );
+    }
+    
+    @Override
+    public void 
+    evaluateR( double[] thetas, double[] xcos, double[] ycos, int count )
+    {
+        DoubleUnaryOperator rFunc       = prepare( rExprStr, theta, "r" );
+        ChunkEvaluator      evaluator   = (from, to) -> {
+            for ( int inx = from ; inx < to ; ++inx )
+            {
+                double  tVal    = thetas[inx];
+                double  rVal    = rFunc.applyAsDouble( tVal );
+                xcos[inx] = rVal * Math.cos( tVal );
+                ycos[inx] = rVal * Math.sin( tVal );
+            }
+        };
+        evaluate( evaluator, count );
+    }
+    
+    @Override
+    public void 
+    evaluateT( double[] radii, double[] xcos, double[] ycos, int count )
+    {
+        DoubleUnaryOperator tFunc       = prepare( tExprStr, radius, "t" );
+        ChunkEvaluator      evaluator   = (from, to) -> {
+            for ( int inx = from ; inx < to ; ++inx )
+            {
+                double  rVal    = radii[inx];
+                double  tVal    = tFunc.applyAsDouble( rVal );
+                xcos[inx] = rVal * Math.cos( tVal );
+                ycos[inx] = rVal * Math.sin( tVal );
+            }
+        };
+        evaluate( evaluator, count );
+    }
+    
+    /**
+     * Sets the parallel evaluation mode
+     * of this equation.
+     * When parallel evaluation is enabled
+     * the batch evaluation methods,
+     * for example {@linkplain #evaluateY(double[], double[], int)},
+     * divide the iteration range into chunks
+     * which are evaluated concurrently
+     * in the common ForkJoin pool.
+     * All chunks share the same immutable evaluators
+     * (see {@linkplain Exp4jEvaluator}),
+     * so the results are identical
+     * to those obtained from serial evaluation,
+     * and are stored in the same order.
+     * Parallel evaluation is disabled by default.
+     * <p>
+     * Note that the Stream-based plot methods,
+     * for example {@linkplain #yPlot()},
+     * are always evaluated serially.
+     * </p>
+     * 
+     * @param parallel  true to enable parallel evaluation
+     */
+    public void setParallel( boolean parallel )
+    {
+        this.parallel = parallel;
+    }
+    
+    /**
+     * Indicates whether parallel evaluation
+     * is enabled for this equation.
+     * 
+     * @return  true if parallel evaluation is enabled
+     * 
+     * @see #setParallel(boolean)
+     */
+    public boolean isParallel()
+    {
+        return parallel;
+    }
+    
     /**
      * Gets the currently set x-expression.
      * 
@@ -431,6 +536,7 @@ public class Exp4jEquation implements Equation
     public void setParamName( String param )
     {
         this.param = param;
+        ++modCount;
     }
     
     @Override
@@ -442,6 +548,7 @@ public class Exp4jEquation implements Equation
     public void setRadiusName( String radius )
     {
         this.radius = radius;
+        ++modCount;
     }
     
     @Override
@@ -454,6 +561,7 @@ public class Exp4jEquation implements Equation
     public void setThetaName( String theta )
     {
         this.theta = theta;
+        ++modCount;
     }
     
     /**
@@ -617,11 +725,10 @@ public class Exp4jEquation implements Equation
         Optional<Double>    result  = Optional.empty();
         try
         {
-            Expression  expr    =
-                new ExpressionBuilder( exprStr )
-                    .variables( vars.keySet() )
-                    .functions( Exp4jFunctions.getFunctions() )
-                    .build();
+            Compiled    compiled    = exprCache.get( exprStr, vars.keySet() );
+            if ( !compiled.isValid() )
+                throw new ValidationException();
+            Expression  expr        = compiled.newExpression();
             expr.setVariables( vars );
             ValidationResult    exp4jResult = expr.validate( true );
             if ( !exp4jResult.isValid() )
@@ -639,6 +746,24 @@ public class Exp4jEquation implements Equation
         return result;
     }
     
+    /**
+     * Prepares a given expression
+     * for evaluation
+     * as a function of a single variable.
+     * The returned evaluator is immutable,
+     * and may be shared between threads.
+     * 
+     * @see Exp4jEvaluator
+     */
+    @Override
+    public DoubleUnaryOperator 
+    prepareEvaluator( String exprStr, String varName )
+    {
+        DoubleUnaryOperator result  = 
+            Exp4jEvaluator.prepare( exprStr, vars, varName );
+        return result;
+    }
+    
     /**
      * Validates an expression and, if valid,
      * records the expression and it value.
@@ -662,6 +787,7 @@ public class Exp4jEquation implements Equation
         {
             valSetter.accept( dVal.get() );
             strSetter.accept( str );
+            ++modCount;
             result = new Result( true );
         }
         else
@@ -674,8 +800,11 @@ public class Exp4jEquation implements Equation
     }
         
     /**
-     * Generate and validate an exp4j Expression
-     * from a given string.
+     * Validate an exp4j Expression
+     * generated from a given string.
+     * The compiled expression is obtained
+     * from the expression cache;
+     * see {@linkplain Compiled}.
      * Validation takes place
      * by attempting to build an expression
      * using ExpressionBuilder.
@@ -690,47 +819,116 @@ public class Exp4jEquation implements Equation
      * obtained from the <em>validate</em> method
      * is returned.
      * If no error is detected,
-     * the generated Expression 
-     * is stored at the given destination
-     * and Result.SUCCESS is returned.
+     * Result.SUCCESS is returned.
      * 
      * @param exprStr       source string for generated expression
-     * @param destination   destination for generated expression
      * 
      * @return  Result object describing the result of the operation
      */
-    private Result 
-    validateExpr( String exprStr, Consumer<Expression> destination )
+    private Result validateExpr( String exprStr )
     {
-        Result    result  = null;
+        Compiled    compiled    = exprCache.get( exprStr, vars.keySet() );
+        Result      result      = 
+            new Result( compiled.isValid(), compiled.getErrors() );
+        return result;
+    }
+    
+    /**
+     * Prepares a given expression for evaluation
+     * as a function of a given variable,
+     * binding all other variables to their current values.
+     * 
+     * @param exprStr   the given expression
+     * @param varName   the name of the given variable
+     * @param name  
+     *      the name of the expression (x, y, r or t),
+     *      for use in formulating an error message
+     * 
+     * @return  an evaluator for the given expression
+     * 
+     * @throws ValidationException if the expression is invalid
+     * 
+     * @see #prepareEvaluator(String, String)
+     */
+    private DoubleUnaryOperator 
+    prepare( String exprStr, String varName, String name )
+    {
+        DoubleUnaryOperator result  = null;
         try
         {
-            Expression expr = new ExpressionBuilder( exprStr )
-                .variables( vars.keySet() )
-                .functions( Exp4jFunctions.getFunctions() )
-                .build();
-            ValidationResult    expr4jResult = expr.validate( false );
-            if ( expr4jResult.isValid() )
-                destination.accept( expr );
-            
-            result = new Result( 
-                expr4jResult.isValid(), 
-                expr4jResult.getErrors()
-            );
+            result = prepareEvaluator( exprStr, varName );
         }
-        catch ( Exception exc )
+        catch ( ValidationException exc )
         {
-            List<String>    list    =
-                List.of( 
-                    "Unexpected exception",
-                    exc.getClass().getName(),
-                    exc.getMessage()
-                );
-            result = new Result( false, list );
+            String  message = 
+                "Unexpected " + name + "-expression validation failure: "
+                + exc.getMessage();
+            throw new ValidationException( message );
         }
         return result;
     }
     
+    /**
+     * Evaluates a batch of points
+     * using a given ChunkEvaluator.
+     * If parallel evaluation is disabled,
+     * or the batch is too small to benefit from parallelism,
+     * the ChunkEvaluator is invoked once
+     * for the entire batch.
+     * Otherwise the batch is divided into chunks
+     * which are evaluated in the common ForkJoin pool.
+     * 
+     * @param evaluator the given ChunkEvaluator
+     * @param count     the number of points in the batch
+     *      
+     * @see #setParallel(boolean)
+     * @see RangeTask
+     */
+    private void evaluate( ChunkEvaluator evaluator, int count )
+    {
+        if ( parallel && count > RangeTask.minChunkSize )
+        {
+            RangeTask   task    = new RangeTask( evaluator, 0, count );
+            ForkJoinPool.commonPool().invoke( task );
+        }
+        else
+            evaluator.evaluate( 0, count );
+    }
+    
+    /**
+     * Converts a given radius and angle
+     * to Cartesian coordinates.
+     * 
+     * @param radius    the given radius
+     * @param theta     the given angle
+     * 
+     * @return  Point2D object equivalent to the given polar coordinates
+     * 
+     * @see Polar#toPoint()
+     */
+    private static Point2D toPoint( double radius, double theta )
+    {
+        double  xco     = radius * Math.cos( theta );
+        double  yco     = radius * Math.sin( theta );
+        Point2D point   = new Point2D.Double( xco, yco );
+        return point;
+    }
+    
+    /**
+     * Generates a stream of the values
+     * in the encapsulated iteration range.
+     * 
+     * @return  a stream of the values in the encapsulated iteration range
+     * 
+     * @see Equation#getRangeValues(double[])
+     */
+    private DoubleStream rangeStream()
+    {
+        DoubleStream    stream  =
+            DoubleStream.iterate( rStart, d -> d <= rEnd, d -> d + rStep );
+        return stream;
+    }
+    
     /**
      * Initializes the variable map
      * to the default values; see {@linkplain Exp4jEquation}.
@@ -747,4 +945,183 @@ public class Exp4jEquation implements Equation
         vars.put( "r",  0. );
         vars.put( "t",  0. );
     }
+    
+    /**
+     * Encapsulates the result of compiling an expression
+     * with a given set of variable names.
+     * If compilation succeeds
+     * the compiled Expression is retained as a prototype;
+     * since the prototype may be shared between threads,
+     * it is never evaluated directly.
+     * Instead, each client obtains its own copy,
+     * with its own set of variable values,
+     * via {@linkplain #newExpression()}.
+     * 
+     * @author Jack Straub
+     * 
+     * @see ExpressionCache
+     */
+    private static class Compiled
+    {
+        /** The compiled expression; null if compilation failed. */
+        private final Expression    prototype;
+        /** Errors detected during compilation. */
+        private final List<String>  errors;
+        
+        /**
+         * Constructor.
+         * Compiles a given expression
+         * with a given set of variable names,
+         * and validates the result.
+         * Note that ExpressionBuilder can throw
+         * an undocumented exception
+         * in the face of an invalid expression;
+         * in this case the expression is considered invalid,
+         * and the exception is described in the error list.
+         * 
+         * @param exprStr   the given expression
+         * @param varNames  the given set of variable names
+         */
+        public Compiled( String exprStr, Set<String> varNames )
+        {
+            Expression      expr    = null;
+            List<String>    list    = null;
+            try
+            {
+                expr = new ExpressionBuilder( exprStr )
+                    .variables( varNames )
+                    .functions( Exp4jFunctions.getFunctions() )
+                    .build();
+                ValidationResult    exp4jResult = expr.validate( false );
+                if ( !exp4jResult.isValid() )
+                    expr = null;
+                list = exp4jResult.getErrors();
+            }
+            catch ( Exception exc )
+            {
+                expr = null;
+                list =
+                    List.of( 
+                        "Unexpected exception",
+                        exc.getClass().getName(),
+                        String.valueOf( exc.getMessage() )
+                    );
+            }
+            prototype = expr;
+            errors = list == null ? List.of() : List.copyOf( list );
+        }
+        
+        /**
+         * Indicates whether the expression
+         * compiled successfully.
+         * 
+         * @return  true if the expression compiled successfully
+         */
+        public boolean isValid()
+        {
+            return prototype != null;
+        }
+        
+        /**
+         * Gets the errors detected
+         * during compilation.
+         * 
+         * @return  the errors detected during compilation
+         */
+        public List<String> getErrors()
+        {
+            return errors;
+        }
+        
+        /**
+         * Obtains a copy of the compiled expression
+         * which may be evaluated
+         * independently of any other copy.
+         * The caller must first verify
+         * that the expression is valid.
+         * 
+         * @return  a copy of the compiled expression
+         */
+        public Expression newExpression()
+        {
+            Expression  expr    = new Expression( prototype );
+            return expr;
+        }
+    }
+    
+    /**
+     * Evaluates a contiguous chunk of a batch of points,
+     * <em>[from, to)</em>.
+     * 
+     * @author Jack Straub
+     * 
+     * @see Exp4jEquation#evaluate(ChunkEvaluator, int)
+     */
+    @FunctionalInterface
+    private interface ChunkEvaluator
+    {
+        /**
+         * Evaluates the chunk of points <em>[from, to)</em>.
+         * 
+         * @param from  index of the first point to evaluate
+         * @param to    index following the last point to evaluate
+         */
+        void evaluate( int from, int to );
+    }
+    
+    /**
+     * ForkJoin task for evaluating a batch of points
+     * in parallel.
+     * The batch is recursively split in half
+     * until the chunks are no larger than 
+     * {@linkplain #minChunkSize}.
+     * The evaluators prepared by {@linkplain Exp4jEvaluator}
+     * are immutable,
+     * so all chunks can safely share them.
+     * 
+     * @author Jack Straub
+     */
+    @SuppressWarnings("serial")
+    private static class RangeTask extends RecursiveAction
+    {
+        /** 
+         * The largest chunk that will be evaluated
+         * without further subdivision.
+         */
+        private static final int    minChunkSize    = 512;
+        
+        private final ChunkEvaluator    evaluator;
+        private final int               from;
+        private final int               to;
+        
+        /**
+         * Constructor.
+         * Establishes the ChunkEvaluator
+         * and the range of points to evaluate.
+         * 
+         * @param evaluator the ChunkEvaluator
+         * @param from      index of the first point to evaluate
+         * @param to        index following the last point to evaluate
+         */
+        public RangeTask( ChunkEvaluator evaluator, int from, int to )
+        {
+            this.evaluator = evaluator;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected void compute()
+        {
+            if ( to - from <= minChunkSize )
+                evaluator.evaluate( from, to );
+            else
+            {
+                int         mid     = (from + to) >>> 1;
+                RangeTask   left    = new RangeTask( evaluator, from, mid );
+                RangeTask   right   = new RangeTask( evaluator, mid, to );
+                invokeAll( left, right );
+            }
+        }
+    }
 }
@@ -0,0 +1,733 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.DoubleUnaryOperator;
+
+import net.objecthunter.exp4j.ExpressionBuilder;
+import net.objecthunter.exp4j.function.Function;
+import net.objecthunter.exp4j.operator.Operator;
+import net.objecthunter.exp4j.operator.Operators;
+import net.objecthunter.exp4j.shuntingyard.ShuntingYard;
+import net.objecthunter.exp4j.tokenizer.FunctionToken;
+import net.objecthunter.exp4j.tokenizer.NumberToken;
+import net.objecthunter.exp4j.tokenizer.OperatorToken;
+import net.objecthunter.exp4j.tokenizer.Token;
+import net.objecthunter.exp4j.tokenizer.VariableToken;
+
+/**
+ * Converts an exp4j expression
+ * into an evaluator
+ * that is a function of a single variable,
+ * the <em>iteration variable</em>.
+ * <p>
+ * Preparation takes place in three steps:
+ * </p>
+ * <ol>
+ * <li>
+ *      The expression is converted to Reverse Polish Notation
+ *      using the exp4j shunting-yard algorithm,
+ *      exactly as it would be by ExpressionBuilder.
+ * </li>
+ * <li>
+ *      Every variable other than the iteration variable
+ *      is replaced by its current value,
+ *      and every built-in constant
+ *      (<em>pi, e</em>, etc.)
+ *      by its value.
+ * </li>
+ * <li>
+ *      Every operator and function
+ *      whose operands are constant
+ *      is evaluated,
+ *      and replaced by its value;
+ *      <em>2 * pi / a</em>, for example,
+ *      is reduced to a single number.
+ * </li>
+ * </ol>
+ * <p>
+ * The remaining operations are composed
+ * into a tree of DoubleUnaryOperators,
+ * with specialized implementations
+ * of the most common arithmetic operators.
+ * Evaluating the result
+ * therefore entails no variable lookups,
+ * and no repeated evaluation of constant subexpressions.
+ * Since operations are folded
+ * in exactly the order
+ * in which exp4j would evaluate them,
+ * the results are identical
+ * to those obtained by evaluating the original expression.
+ * </p>
+ * <p>
+ * An evaluator is immutable;
+ * it may be shared between threads,
+ * and is unaffected by subsequent changes
+ * to the variables from which it was prepared.
+ * </p>
+ *
+ * @author Jack Straub
+ *
+ * @see Exp4jEquation#prepareEvaluator(String, String)
+ */
+public class Exp4jEvaluator
+{
+    /** Values of the exp4j built-in constants. */
+    private static final Map<String,Double>     constants   =
+        getConstants();
+    /** Functions available to expressions, indexed by name. */
+    private static final Map<String,Function>   functions   =
+        getFunctions();
+
+    /** Built-in binary addition operator. */
+    static final Operator           addOp       =
+        Operators.getBuiltinOperator( '+', 2 );
+    /** Built-in binary subtraction operator. */
+    static final Operator           subtractOp  =
+        Operators.getBuiltinOperator( '-', 2 );
+    /** Built-in multiplication operator. */
+    static final Operator           multiplyOp  =
+        Operators.getBuiltinOperator( '*', 2 );
+    /** Built-in division operator. */
+    static final Operator           divideOp    =
+        Operators.getBuiltinOperator( '/', 2 );
+    /** Built-in exponentiation operator. */
+    static final Operator           powerOp     =
+        Operators.getBuiltinOperator( '^', 2 );
+    /** Built-in unary minus operator. */
+    static final Operator           minusOp     =
+        Operators.getBuiltinOperator( '-', 1 );
+    /** Built-in unary plus operator. */
+    static final Operator           plusOp      =
+        Operators.getBuiltinOperator( '+', 1 );
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private Exp4jEvaluator()
+    {
+    }
+
+    /**
+     * Prepares an evaluator for a given expression,
+     * as a function of a given iteration variable,
+     * binding all other variables
+     * to their values in a given map.
+     *
+     * @param exprStr   the given expression
+     * @param vars      the given map
+     * @param varName   the name of the iteration variable
+     *
+     * @return  an evaluator for the given expression
+     *
+     * @throws ValidationException
+     *      if the expression is invalid,
+     *      or refers to a variable
+     *      that is not in the given map
+     */
+    public static DoubleUnaryOperator
+    prepare( String exprStr, Map<String,Double> vars, String varName )
+    {
+        DoubleUnaryOperator result  =
+            parse( exprStr, vars, varName ).toOperator();
+        return result;
+    }
+
+    /**
+     * Parses a given expression
+     * into a tree of terms
+     * in which all variables
+     * other than a given iteration variable
+     * have been bound to their values in a given map,
+     * and all constant subexpressions
+     * have been folded.
+     * The result can be converted
+     * to an operator tree
+     * or, for example, to bytecode.
+     *
+     * @param exprStr   the given expression
+     * @param vars      the given map
+     * @param varName   the name of the iteration variable
+     *
+     * @return  the root of the tree of terms
+     *
+     * @throws ValidationException
+     *      if the expression is invalid,
+     *      or refers to a variable
+     *      that is not in the given map
+     *
+     * @see Exp4jCompiler
+     */
+    static Term
+    parse( String exprStr, Map<String,Double> vars, String varName )
+    {
+        Set<String> varNames    = new HashSet<>( vars.keySet() );
+        varNames.addAll( constants.keySet() );
+        varNames.add( varName );
+
+        Token[]     tokens      = null;
+        try
+        {
+            tokens = ShuntingYard.convertToRPN(
+                exprStr, functions, Map.of(), varNames, true
+            );
+        }
+        catch ( IllegalArgumentException exc )
+        {
+            String  message = "Invalid expression \"" + exprStr + "\": "
+                + exc.getMessage();
+            throw new ValidationException( message );
+        }
+
+        Deque<Term> stack   = new ArrayDeque<>();
+        for ( Token token : tokens )
+        {
+            switch ( token.getType() )
+            {
+            case Token.TOKEN_NUMBER:
+                double  value   = ((NumberToken)token).getValue();
+                stack.push( new Term( value ) );
+                break;
+            case Token.TOKEN_VARIABLE:
+                String  name    = ((VariableToken)token).getName();
+                stack.push( getVariable( name, vars, varName ) );
+                break;
+            case Token.TOKEN_OPERATOR:
+                Operator    oper    = ((OperatorToken)token).getOperator();
+                Term[]      opers   =
+                    pop( stack, oper.getNumOperands(), exprStr );
+                stack.push( apply( oper, opers ) );
+                break;
+            case Token.TOKEN_FUNCTION:
+                Function    func    = ((FunctionToken)token).getFunction();
+                Term[]      args    =
+                    pop( stack, func.getNumArguments(), exprStr );
+                stack.push( apply( func, args ) );
+                break;
+            default:
+                String  message = "Unexpected token in \"" + exprStr + "\"";
+                throw new ValidationException( message );
+            }
+        }
+        if ( stack.size() != 1 )
+        {
+            String  message = "Invalid expression \"" + exprStr + "\"";
+            throw new ValidationException( message );
+        }
+        Term    result  = stack.pop();
+        return result;
+    }
+
+    /**
+     * Obtains the term
+     * corresponding to a variable with a given name.
+     * Variables in the given map
+     * take precedence over built-in constants,
+     * as they do in exp4j.
+     *
+     * @param name      the given name
+     * @param vars      map of variable names to values
+     * @param varName   the name of the iteration variable
+     *
+     * @return  the term corresponding to the given variable
+     *
+     * @throws ValidationException
+     *      if the variable has no value
+     */
+    private static Term
+    getVariable( String name, Map<String,Double> vars, String varName )
+    {
+        Term    term    = null;
+        Double  value   = vars.get( name );
+        if ( name.equals( varName ) )
+            term = new Term();
+        else if ( value != null )
+            term = new Term( value );
+        else if ( (value = constants.get( name )) != null )
+            term = new Term( value );
+        else
+        {
+            String  message = "No value has been set for \"" + name + "\"";
+            throw new ValidationException( message );
+        }
+        return term;
+    }
+
+    /**
+     * Pops a given number of terms
+     * from a given stack,
+     * returning them in the order
+     * in which they were pushed.
+     *
+     * @param stack     the given stack
+     * @param count     the given number of terms
+     * @param exprStr   the expression, for formulating an error message
+     *
+     * @return  the popped terms
+     *
+     * @throws ValidationException
+     *      if the stack contains too few terms
+     */
+    private static Term[] pop( Deque<Term> stack, int count, String exprStr )
+    {
+        if ( stack.size() < count )
+        {
+            String  message = "Invalid expression \"" + exprStr + "\"";
+            throw new ValidationException( message );
+        }
+        Term[]  terms   = new Term[count];
+        for ( int inx = count - 1 ; inx >= 0 ; --inx )
+            terms[inx] = stack.pop();
+        return terms;
+    }
+
+    /**
+     * Applies a given operator to a given set of operands.
+     * If all operands are constant
+     * the result is a constant;
+     * otherwise it is an operator term.
+     *
+     * @param oper      the given operator
+     * @param operands  the given set of operands
+     *
+     * @return  the result of applying the operator
+     */
+    private static Term apply( Operator oper, Term[] operands )
+    {
+        Term    result  = fold( operands, oper::apply );
+        if ( result == null )
+            result = new Term( oper, operands );
+        return result;
+    }
+
+    /**
+     * Applies a given function to a given set of arguments.
+     * If all arguments are constant
+     * the result is a constant;
+     * otherwise it is a function term.
+     *
+     * @param func  the given function
+     * @param args  the given set of arguments
+     *
+     * @return  the result of applying the function
+     */
+    private static Term apply( Function func, Term[] args )
+    {
+        Term    result  = fold( args, func::apply );
+        if ( result == null )
+            result = new Term( func, args );
+        return result;
+    }
+
+    /**
+     * Attempts to fold an operation
+     * with a given set of operands
+     * into a constant.
+     * Folding succeeds
+     * if all operands are constant,
+     * and evaluating the operation does not throw an exception;
+     * for example, <em>1/0</em> is not folded,
+     * so that the exception is thrown
+     * when the expression is evaluated,
+     * as it would be by exp4j.
+     *
+     * @param operands  the given set of operands
+     * @param operation the operation
+     *
+     * @return  a constant term if folding succeeds, otherwise null
+     */
+    private static Term fold( Term[] operands, Operation operation )
+    {
+        boolean constant    = true;
+        double[] values     = new double[operands.length];
+        for ( int inx = 0 ; inx < operands.length && constant ; ++inx )
+        {
+            constant = operands[inx].isConstant();
+            values[inx] = operands[inx].getValue();
+        }
+
+        Term    result      = null;
+        if ( constant )
+        {
+            try
+            {
+                result = new Term( operation.apply( values ) );
+            }
+            catch ( ArithmeticException exc )
+            {
+                result = null;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Converts an operator term
+     * into an operator tree,
+     * using a specialized implementation
+     * for the most common arithmetic operators.
+     *
+     * @param oper      the operator
+     * @param operands  the operands of the operator
+     *
+     * @return  an operator tree that applies the given operator
+     */
+    private static DoubleUnaryOperator
+    toOperator( Operator oper, Term[] operands )
+    {
+        DoubleUnaryOperator result  = null;
+        if ( operands.length == 2 )
+        {
+            DoubleUnaryOperator left    = operands[0].toOperator();
+            DoubleUnaryOperator right   = operands[1].toOperator();
+            if ( oper == addOp )
+                result =
+                    x -> left.applyAsDouble( x ) + right.applyAsDouble( x );
+            else if ( oper == subtractOp )
+                result =
+                    x -> left.applyAsDouble( x ) - right.applyAsDouble( x );
+            else if ( oper == multiplyOp )
+                result =
+                    x -> left.applyAsDouble( x ) * right.applyAsDouble( x );
+            else if ( oper == divideOp )
+                result = x -> divide( left, right, x );
+            else if ( oper == powerOp )
+                result = x -> 
+                    Math.pow( left.applyAsDouble( x ), right.applyAsDouble( x ) );
+        }
+        else if ( operands.length == 1 )
+        {
+            DoubleUnaryOperator operand = operands[0].toOperator();
+            if ( oper == minusOp )
+                result = x -> -operand.applyAsDouble( x );
+            else if ( oper == plusOp )
+                result = operand;
+        }
+
+        if ( result == null )
+            result = getGeneric( operands, oper::apply );
+        return result;
+    }
+
+    /**
+     * Converts a function term
+     * into an operator tree.
+     *
+     * @param func  the function
+     * @param args  the arguments of the function
+     *
+     * @return  an operator tree that applies the given function
+     */
+    private static DoubleUnaryOperator
+    toOperator( Function func, Term[] args )
+    {
+        DoubleUnaryOperator result  = null;
+        if ( args.length == 1 )
+        {
+            DoubleUnaryOperator arg = args[0].toOperator();
+            result = x -> func.apply( arg.applyAsDouble( x ) );
+        }
+        else
+            result = getGeneric( args, func::apply );
+        return result;
+    }
+
+    /**
+     * Gets an operator tree
+     * that applies a given operation
+     * to the results of a given set of operands,
+     * for any number of operands.
+     *
+     * @param operands  the given set of operands
+     * @param operation the operation
+     *
+     * @return  an operator tree that applies the given operation
+     */
+    private static DoubleUnaryOperator
+    getGeneric( Term[] operands, Operation operation )
+    {
+        int                     count   = operands.length;
+        DoubleUnaryOperator[]   opers   = new DoubleUnaryOperator[count];
+        for ( int inx = 0 ; inx < count ; ++inx )
+            opers[inx] = operands[inx].toOperator();
+        DoubleUnaryOperator     result  = x -> {
+            double[]    values  = new double[count];
+            for ( int inx = 0 ; inx < count ; ++inx )
+                values[inx] = opers[inx].applyAsDouble( x );
+            return operation.apply( values );
+        };
+        return result;
+    }
+
+    /**
+     * Divides the results of two operator trees,
+     * throwing the same exception as exp4j
+     * if the divisor is zero.
+     *
+     * @param left  the operator tree for the dividend
+     * @param right the operator tree for the divisor
+     * @param xco   the value of the iteration variable
+     *
+     * @return  the quotient
+     *
+     * @throws ArithmeticException if the divisor is 0
+     */
+    private static double divide(
+        DoubleUnaryOperator left,
+        DoubleUnaryOperator right,
+        double xco
+    )
+    {
+        double  dividend    = left.applyAsDouble( xco );
+        double  divisor     = right.applyAsDouble( xco );
+        if ( divisor == 0 )
+            throw new ArithmeticException( "Division by zero!" );
+        return dividend / divisor;
+    }
+
+    /**
+     * Gets the values of the exp4j built-in constants.
+     * The values are obtained from exp4j itself,
+     * by evaluating each constant as an expression.
+     *
+     * @return  map of built-in constant names to values
+     */
+    private static Map<String,Double> getConstants()
+    {
+        Map<String,Double>  map     = new HashMap<>();
+        for ( String name : new String[] { "pi", "\u03c0", "e", "\u03c6" } )
+            map.put( name, new ExpressionBuilder( name ).build().evaluate() );
+        return map;
+    }
+
+    /**
+     * Gets the functions available to expressions,
+     * indexed by name.
+     * These are the functions
+     * from {@linkplain Exp4jFunctions};
+     * the exp4j built-in functions
+     * are resolved by the shunting-yard algorithm.
+     *
+     * @return  map of function names to functions
+     */
+    private static Map<String,Function> getFunctions()
+    {
+        Map<String,Function>    map     = new HashMap<>();
+        Exp4jFunctions.getFunctions()
+            .forEach( f -> map.put( f.getName(), f ) );
+        return map;
+    }
+
+    /**
+     * An operation applied to an array of operands;
+     * the common form of exp4j operators and functions.
+     *
+     * @author Jack Straub
+     */
+    @FunctionalInterface
+    private interface Operation
+    {
+        /**
+         * Applies this operation to a given array of operands.
+         *
+         * @param operands  the given array of operands
+         *
+         * @return  the result of the operation
+         */
+        double apply( double[] operands );
+    }
+
+    /**
+     * A term in a prepared expression.
+     * A term is one of:
+     * <ul>
+     * <li>a constant;</li>
+     * <li>the iteration variable;</li>
+     * <li>
+     *      an operator applied to one or more terms,
+     *      at least one of which is not constant;
+     *      or
+     * </li>
+     * <li>
+     *      a function applied to one or more terms,
+     *      at least one of which is not constant.
+     * </li>
+     * </ul>
+     *
+     * @author Jack Straub
+     */
+    static class Term
+    {
+        /** The value of this term, if constant. */
+        private final double    value;
+        /** True if this term is the iteration variable. */
+        private final boolean   variable;
+        /** The operator applied by this term; may be null. */
+        private final Operator  oper;
+        /** The function applied by this term; may be null. */
+        private final Function  func;
+        /** The operands of the operator or function; may be null. */
+        private final Term[]    operands;
+
+        /**
+         * Constructor.
+         * Creates a term
+         * representing the iteration variable.
+         */
+        public Term()
+        {
+            this( Double.NaN, true, null, null, null );
+        }
+
+        /**
+         * Constructor.
+         * Creates a constant term.
+         *
+         * @param value the value of the term
+         */
+        public Term( double value )
+        {
+            this( value, false, null, null, null );
+        }
+
+        /**
+         * Constructor.
+         * Creates a term
+         * that applies an operator to a given set of operands.
+         *
+         * @param oper      the operator
+         * @param operands  the given set of operands
+         */
+        public Term( Operator oper, Term[] operands )
+        {
+            this( Double.NaN, false, oper, null, operands );
+        }
+
+        /**
+         * Constructor.
+         * Creates a term
+         * that applies a function to a given set of arguments.
+         *
+         * @param func  the function
+         * @param args  the given set of arguments
+         */
+        public Term( Function func, Term[] args )
+        {
+            this( Double.NaN, false, null, func, args );
+        }
+
+        /**
+         * Constructor.
+         * Fully initializes this term.
+         *
+         * @param value     the value of the term, if constant
+         * @param variable  true if this is the iteration variable
+         * @param oper      the operator applied by the term; may be null
+         * @param func      the function applied by the term; may be null
+         * @param operands  the operands of the term; may be null
+         */
+        private Term(
+            double value,
+            boolean variable,
+            Operator oper,
+            Function func,
+            Term[] operands
+        )
+        {
+            this.value = value;
+            this.variable = variable;
+            this.oper = oper;
+            this.func = func;
+            this.operands = operands;
+        }
+
+        /**
+         * Indicates whether this term is constant.
+         *
+         * @return  true if this term is constant
+         */
+        public boolean isConstant()
+        {
+            return !variable && oper == null && func == null;
+        }
+
+        /**
+         * Indicates whether this term is the iteration variable.
+         *
+         * @return  true if this term is the iteration variable
+         */
+        public boolean isVariable()
+        {
+            return variable;
+        }
+
+        /**
+         * Gets the value of this term;
+         * meaningful only if this term is constant.
+         *
+         * @return  the value of this term
+         */
+        public double getValue()
+        {
+            return value;
+        }
+
+        /**
+         * Gets the operator applied by this term.
+         *
+         * @return  the operator applied by this term; may be null
+         */
+        public Operator getOperator()
+        {
+            return oper;
+        }
+
+        /**
+         * Gets the function applied by this term.
+         *
+         * @return  the function applied by this term; may be null
+         */
+        public Function getFunction()
+        {
+            return func;
+        }
+
+        /**
+         * Gets the operands of the operator or function
+         * applied by this term.
+         *
+         * @return  the operands of this term; may be null
+         */
+        public Term[] getOperands()
+        {
+            return operands;
+        }
+
+        /**
+         * Gets an operator
+         * that computes the value of this term.
+         *
+         * @return  an operator that computes the value of this term
+         */
+        public DoubleUnaryOperator toOperator()
+        {
+            DoubleUnaryOperator result      = null;
+            if ( variable )
+                result = x -> x;
+            else if ( oper != null )
+                result = Exp4jEvaluator.toOperator( oper, operands );
+            else if ( func != null )
+                result = Exp4jEvaluator.toOperator( func, operands );
+            else
+            {
+                double  constant    = value;
+                result = x -> constant;
+            }
+            return result;
+        }
+    }
+}
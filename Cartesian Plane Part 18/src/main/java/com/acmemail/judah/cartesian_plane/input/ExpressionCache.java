@@ -0,0 +1,212 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * Bounded, thread-safe cache of compiled expressions.
+ * A compiled expression is identified
+ * by the text of the expression
+ * together with the set of variable names
+ * that were declared when it was compiled;
+ * the same text compiled with a different set of variables
+ * may produce a different result,
+ * and is cached separately.
+ * <p>
+ * The form of a compiled expression
+ * is determined by the client;
+ * typically it encapsulates
+ * the result of validating the expression
+ * and, if valid,
+ * a prototype from which the client
+ * can obtain a copy for evaluation.
+ * Since a cached object may be returned
+ * to multiple threads
+ * the client must not modify it
+ * (or must synchronize on it while doing so).
+ * </p>
+ * <p>
+ * When the cache is full
+ * the least recently used expression is discarded.
+ * </p>
+ *
+ * @author Jack Straub
+ *
+ * @param <E>   the type of a compiled expression
+ *
+ * @see Exp4jEquation
+ * @see JEPEquation
+ */
+public class ExpressionCache<E>
+{
+    /** Default maximum number of expressions to cache. */
+    public static final int DEF_CAPACITY    = 256;
+
+    /** Compiles an expression, given its text and variable names. */
+    private final BiFunction<String,Set<String>,E>  compiler;
+    /** Map of expression keys to compiled expressions, in access order. */
+    private final Map<Key,E>                        cache;
+
+    /**
+     * Constructor.
+     * Creates a cache with the default capacity.
+     *
+     * @param compiler
+     *      function to compile an expression,
+     *      given its text and the names of the declared variables
+     */
+    public ExpressionCache( BiFunction<String,Set<String>,E> compiler )
+    {
+        this( DEF_CAPACITY, compiler );
+    }
+
+    /**
+     * Constructor.
+     * Creates a cache with a given capacity.
+     *
+     * @param capacity  the given capacity
+     * @param compiler
+     *      function to compile an expression,
+     *      given its text and the names of the declared variables
+     *
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    public ExpressionCache(
+        int capacity,
+        BiFunction<String,Set<String>,E> compiler
+    )
+    {
+        if ( capacity < 1 )
+        {
+            String  message = "Invalid capacity: " + capacity;
+            throw new IllegalArgumentException( message );
+        }
+        this.compiler = compiler;
+        cache = new LinkedHashMap<>( 16, .75f, true ) {
+            private static final long serialVersionUID = 1L;
+            @Override
+            protected boolean removeEldestEntry( Map.Entry<Key,E> eldest )
+            {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Gets the compiled form of a given expression
+     * compiled with a given set of variable names.
+     * If the expression is not in the cache
+     * it is compiled and added.
+     * <p>
+     * Compilation takes place without locking the cache,
+     * so if two threads simultaneously request
+     * the same uncached expression
+     * it may be compiled twice;
+     * in this case the first result to be cached
+     * is returned to both threads.
+     * </p>
+     *
+     * @param expr      the given expression
+     * @param varNames  the given variable names
+     *
+     * @return  the compiled form of the given expression
+     */
+    public E get( String expr, Collection<String> varNames )
+    {
+        Key     key     = new Key( expr, Set.copyOf( varNames ) );
+        E       result  = null;
+        synchronized ( cache )
+        {
+            result = cache.get( key );
+        }
+        if ( result == null )
+        {
+            E   compiled    = compiler.apply( expr, key.varNames );
+            synchronized ( cache )
+            {
+                result = cache.putIfAbsent( key, compiled );
+                if ( result == null )
+                    result = compiled;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of expressions in the cache.
+     *
+     * @return  the number of expressions in the cache
+     */
+    public int size()
+    {
+        synchronized ( cache )
+        {
+            return cache.size();
+        }
+    }
+
+    /**
+     * Discards all expressions in the cache.
+     */
+    public void clear()
+    {
+        synchronized ( cache )
+        {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Identifies a compiled expression
+     * by its text and variable names.
+     *
+     * @author Jack Straub
+     */
+    private static class Key
+    {
+        private final String        expr;
+        private final Set<String>   varNames;
+
+        /**
+         * Constructor.
+         * Fully initializes this key.
+         *
+         * @param expr      the text of the expression
+         * @param varNames  the variable names; must be immutable
+         */
+        public Key( String expr, Set<String> varNames )
+        {
+            this.expr = expr;
+            this.varNames = varNames;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            int hash    = Objects.hash( expr, varNames );
+            return hash;
+        }
+
+        @Override
+        public boolean equals( Object other )
+        {
+            boolean result  = false;
+            if ( this == other )
+                result = true;
+            else if ( !(other instanceof Key) )
+                result = false;
+            else
+            {
+                Key that    = (Key)other;
+                result =
+                    Objects.equals( expr, that.expr )
+                    && varNames.equals( that.varNames );
+            }
+            return result;
+        }
+    }
+}
@@ -279,7 +279,7 @@ public class InputParser
             System.out.println( equation.getPlot() );
         else
         {
-            Command cmd = Command.valueOf( argString.toUpperCase() );
+            Command cmd = Command.toCommand( argString );
             if ( validPlots.contains( cmd ) )
                 equation.setPlot( argString );
             else
@@ -1,7 +1,6 @@
 package com.acmemail.judah.cartesian_plane.input;
 
 import java.util.Stack;
-import java.util.stream.IntStream;
 
 import org.nfunk.jep.ParseException;
 import org.nfunk.jep.function.PostfixMathCommand;
@@ -11,6 +10,19 @@ import org.nfunk.jep.function.PostfixMathCommand;
  * a JEP custom function.
  * implements PostfixMathCommand
  * as required by JEP.
+ * <p>
+ * Every subclass must implement
+ * {@linkplain #evaluate(double...)}.
+ * A function with one or two parameters
+ * should also override
+ * {@linkplain #evaluate(double)} or
+ * {@linkplain #evaluate(double, double)};
+ * when a fixed-arity function is invoked by JEP
+ * these overloads are called directly,
+ * so evaluation requires no array of parameters.
+ * The default implementations
+ * delegate to the varargs method.
+ * </p>
  * 
  * @author Jack Straub
  */
@@ -26,6 +38,45 @@ public abstract class JEPAbstractFunction extends PostfixMathCommand
      */
     public abstract double evaluate( double... param );
     
+    /**
+     * Evaluates this function
+     * given a single parameter.
+     * The default implementation
+     * delegates to {@linkplain #evaluate(double...)};
+     * a function that takes one parameter
+     * should override this method
+     * to avoid allocating an array on every call.
+     * 
+     * @param param the given parameter
+     * 
+     * @return  the result of the evaluation
+     */
+    public double evaluate( double param )
+    {
+        double  result  = evaluate( new double[] { param } );
+        return result;
+    }
+    
+    /**
+     * Evaluates this function
+     * given two parameters.
+     * The default implementation
+     * delegates to {@linkplain #evaluate(double...)};
+     * a function that takes two parameters
+     * should override this method
+     * to avoid allocating an array on every call.
+     * 
+     * @param param1    the first parameter
+     * @param param2    the second parameter
+     * 
+     * @return  the result of the evaluation
+     */
+    public double evaluate( double param1, double param2 )
+    {
+        double  result  = evaluate( new double[] { param1, param2 } );
+        return result;
+    }
+    
     /** The name of the function. */
     private final String    name;
     
@@ -67,10 +118,24 @@ public abstract class JEPAbstractFunction extends PostfixMathCommand
             numberOfParameters; 
 
         checkStack( inStack );
-        double[]    params  = new double[actNumParams];
-        IntStream.iterate( actNumParams - 1, i -> i >= 0, i -> i - 1 )
-            .forEach( i -> params[i] = (Double)inStack.pop() );
-        double      result  = evaluate( params );
+        
+        // Parameters are on the stack in reverse order
+        double  result  = 0;
+        if ( actNumParams == 1 )
+            result = evaluate( (Double)inStack.pop() );
+        else if ( actNumParams == 2 )
+        {
+            double  param2  = (Double)inStack.pop();
+            double  param1  = (Double)inStack.pop();
+            result = evaluate( param1, param2 );
+        }
+        else
+        {
+            double[]    params  = new double[actNumParams];
+            for ( int inx = actNumParams - 1 ; inx >= 0 ; --inx )
+                params[inx] = (Double)inStack.pop();
+            result = evaluate( params );
+        }
         inStack.push( result );
     }
 }
@@ -5,12 +5,15 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.DoubleConsumer;
+import java.util.function.DoubleUnaryOperator;
 import java.util.stream.DoubleStream;
 import java.util.stream.Stream;
 
 import org.nfunk.jep.JEP;
+import org.nfunk.jep.Variable;
 
 /**
  * Implementation of the Equation interface
@@ -63,6 +66,19 @@ public class JEPEquation implements Equation
     private JEP                         yExpr       = null;
     private JEP                         tExpr       = null;
     private JEP                         rExpr       = null;
+    /** 
+     * The number of modifications made to this equation.
+     * 
+     * @see #getModificationCount()
+     */
+    private long                        modCount    = 0;
+    
+    /** 
+     * Cache of parsed expressions,
+     * shared by all JEPEquation instances.
+     */
+    private static final ExpressionCache<Compiled>  exprCache   =
+        new ExpressionCache<>( Compiled::new );
     
     /**
      * Default constructor.
@@ -124,12 +140,14 @@ public class JEPEquation implements Equation
     public void setVar(String name, double val)
     {
         vars.put( name, val );
+        ++modCount;
     }
 
     @Override
     public void removeVar(String name)
     {
         vars.remove( name );
+        ++modCount;
     }
 
     @Override
@@ -149,6 +167,12 @@ public class JEPEquation implements Equation
         return varsRet;
     }
 
+    @Override
+    public long getModificationCount()
+    {
+        return modCount;
+    }
+
     @Override
     public Result setXExpression(String exprStr)
     {
@@ -208,9 +232,8 @@ public class JEPEquation implements Equation
     @Override
     public boolean isValidExpression( String exprStr )
     {
-        JEP     parser  = newParser();
-        parser.parseExpression( exprStr );
-        boolean status  = !parser.hasError();
+        Compiled    compiled    = exprCache.get( exprStr, vars.keySet() );
+        boolean     status      = compiled.isValid();
         return status;
     }
     
@@ -218,11 +241,12 @@ public class JEPEquation implements Equation
     public Stream<Point2D> yPlot()
     {
         plot = "YPlot";
-        updateVars( yExpr );
+        Variable        xVar    = prepare( yExpr, "x" );
         Stream<Point2D> stream  =
-            DoubleStream.iterate( rStart, d -> d <= rEnd, d -> d + rStep )
-                .peek( d -> yExpr.addVariable( "x", d ) )
-                .mapToObj( d -> new Point2D.Double( d, yExpr.getValue() ) );
+            rangeStream()
+                .mapToObj( d -> 
+                    new Point2D.Double( d, evaluate( yExpr, xVar, d ) )
+                );
         return stream;
     }
 
@@ -230,14 +254,15 @@ public class JEPEquation implements Equation
     public Stream<Point2D> xyPlot()
     {
         plot = "XYPlot";
-        updateVars( xExpr );
-        updateVars( yExpr );
+        Variable        xVar    = prepare( xExpr, param );
+        Variable        yVar    = prepare( yExpr, param );
         Stream<Point2D> stream  =
-            DoubleStream.iterate( rStart, t -> t <= rEnd, t -> t + rStep )
-                .peek( t -> xExpr.addVariable( "t", t ) )
-                .peek( t -> yExpr.addVariable( "t", t ) )
+            rangeStream()
                 .mapToObj( t -> 
-                    new Point2D.Double( xExpr.getValue(), yExpr.getValue() )
+                    new Point2D.Double( 
+                        evaluate( xExpr, xVar, t ), 
+                        evaluate( yExpr, yVar, t )
+                    )
                 );
         return stream;
     }
@@ -246,12 +271,10 @@ public class JEPEquation implements Equation
     public Stream<Point2D> rPlot()
     {
         plot = "RPlot";
-        updateVars( rExpr );
+        Variable        tVar    = prepare( rExpr, theta );
         Stream<Point2D> stream  =
-            DoubleStream.iterate( rStart, t -> t <= rEnd, t -> t + rStep )
-                .peek( t -> rExpr.addVariable( theta, t ) )
-                .mapToObj( t -> Polar.of( rExpr.getValue(), t ) )
-                .map( p -> p.toPoint() );
+            rangeStream()
+                .mapToObj( t -> toPoint( evaluate( rExpr, tVar, t ), t ) );
         return stream;
     }
 
@@ -259,14 +282,63 @@ public class JEPEquation implements Equation
     public Stream<Point2D> tPlot()
     {
         plot = "TPlot";
+        Variable        rVar    = prepare( tExpr, radius );
         Stream<Point2D> stream  =
-            DoubleStream.iterate( rStart, r -> r <= rEnd, r -> r += rStep )
-                .peek( r -> tExpr.addVariable( radius, r ) )
-                .mapToObj( r -> Polar.of( r, tExpr.getValue() ) )
-                .map( p -> p.toPoint() );
+            rangeStream()
+                .mapToObj( r -> toPoint( r, evaluate( tExpr, rVar, r ) ) );
         return stream;
     }
 
+    @Override
+    public void evaluateY( double[] xcos, double[] ycos, int count )
+    {
+        Variable    xVar    = prepare( yExpr, "x" );
+        for ( int inx = 0 ; inx < count ; ++inx )
+            ycos[inx] = evaluate( yExpr, xVar, xcos[inx] );
+    }
+
+    @Override
+    public void 
+    evaluateXY( double[] params, double[] xcos, double[] ycos, int count )
+    {
+        Variable    xVar    = prepare( xExpr, param );
+        Variable    yVar    = prepare( yExpr, param );
+        for ( int inx = 0 ; inx < count ; ++inx )
+        {
+            double  tVal    = params[inx];
+            xcos[inx] = evaluate( xExpr, xVar, tVal );
+            ycos[inx] = evaluate( yExpr, yVar, tVal );
+        }
+    }
+
+    @Override
+    public void 
+    evaluateR( double[] thetas, double[] xcos, double[] ycos, int count )
+    {
+        Variable    tVar    = prepare( rExpr, theta );
+        for ( int inx = 0 ; inx < count ; ++inx )
+        {
+            double  tVal    = thetas[inx];
+            double  rVal    = evaluate( rExpr, tVar, tVal );
+            xcos[inx] = rVal * Math.cos( tVal );
+            ycos[inx] = rVal * Math.sin( tVal );
+        }
+    }
+
+    @Override
+    public void 
+    evaluateT( double[] radii, double[] xcos, double[] ycos, int count )
+    {
+        Variable    rVar    = prepare( tExpr, radius );
+        for ( int inx = 0 ; inx < count ; ++inx )
+        {
+            double  rVal    = radii[inx];
+            double  tVal    = evaluate( tExpr, rVar, rVal );
+            xcos[inx] = rVal * Math.cos( tVal );
+            ycos[inx] = rVal * Math.sin( tVal );
+        }
+    }
+
     @Override
     public String getParamName()
     {
@@ -277,6 +349,7 @@ public class JEPEquation implements Equation
     public void setParamName(String param)
     {
         this.param = param;
+        ++modCount;
     }
 
     @Override
@@ -289,6 +362,7 @@ public class JEPEquation implements Equation
     public void setRadiusName(String radius)
     {
         this.radius = radius;
+        ++modCount;
     }
 
     @Override
@@ -301,6 +375,7 @@ public class JEPEquation implements Equation
     public void setThetaName(String theta)
     {
         this.theta = theta;
+        ++modCount;
     }
     
     /**
@@ -439,11 +514,38 @@ public class JEPEquation implements Equation
     @Override
     public Optional<Double> evaluate(String exprStr)
     {
-        Optional<Double>    result  = Optional.empty();
-        JEP parser  = newParser();
+        Optional<Double>    result      = Optional.empty();
+        Compiled            compiled    = 
+            exprCache.get( exprStr, vars.keySet() );
+        if ( compiled.isValid() )
+            result = Optional.of( compiled.evaluate( vars ) );
+        return result;
+    }
+    
+    /**
+     * Prepares a given expression
+     * for evaluation
+     * as a function of a single variable.
+     * The expression is parsed
+     * by a parser of its own,
+     * which is bound to the current values
+     * of all declared variables;
+     * a handle to the iteration variable
+     * is obtained once,
+     * so that no variable lookup takes place
+     * during evaluation.
+     * The returned evaluator is not thread-safe.
+     */
+    @Override
+    public DoubleUnaryOperator 
+    prepareEvaluator( String exprStr, String varName )
+    {
+        JEP                 parser  = newParser();
         parser.parseExpression( exprStr );
-        if ( !parser.hasError() )
-            result = Optional.of( parser.getValue() );
+        if ( parser.hasError() )
+            throw new ValidationException( parser.getErrorInfo() );
+        Variable            var     = prepare( parser, varName );
+        DoubleUnaryOperator result  = d -> evaluate( parser, var, d );
         return result;
     }
     
@@ -470,6 +572,7 @@ public class JEPEquation implements Equation
         {
             valSetter.accept( dVal.get() );
             strSetter.accept( str );
+            ++modCount;
             result = new Result( true );
         }
         else
@@ -542,6 +645,7 @@ public class JEPEquation implements Equation
             result = new Result( true, null );
             objDest.accept( parser );
             strDest.accept( exprStr );
+            ++modCount;
         }
         return result;
     }
@@ -552,16 +656,108 @@ public class JEPEquation implements Equation
      * @return  the new JEP object
      */
     private JEP newParser()
+    {
+        JEP parser  = createParser();
+        updateVars( parser );
+        return parser;
+    }
+    
+    /**
+     * Instantiate a JEP object
+     * with the standard constants and functions,
+     * and the functions from {@linkplain JEPFunctions},
+     * but without any variables.
+     * 
+     * @return  the new JEP object
+     */
+    private static JEP createParser()
     {
         JEP parser  = new JEP();
         parser.addStandardConstants();
         parser.addStandardFunctions();
         JEPFunctions.addFunctions( parser );
         parser.setImplicitMul( true );
-        updateVars( parser );
         return parser;
     }
     
+    /**
+     * Prepares a given parser for evaluation
+     * by loading the current values of all declared variables,
+     * and obtains the parser's handle
+     * to the variable with the given name.
+     * The handle is used to set the value of the variable
+     * without looking it up by name
+     * every time the expression is evaluated.
+     * 
+     * @param parser    the given parser
+     * @param name      the given name
+     * 
+     * @return  the parser's handle to the variable with the given name
+     */
+    private Variable prepare( JEP parser, String name )
+    {
+        updateVars( parser );
+        Variable    var     = parser.getVar( name );
+        if ( var == null )
+        {
+            parser.addVariable( name, 0 );
+            var = parser.getVar( name );
+        }
+        return var;
+    }
+    
+    /**
+     * Evaluates the expression
+     * encapsulated in a given parser
+     * after setting the value of a given variable.
+     * 
+     * @param parser    the given parser
+     * @param var       the given variable
+     * @param val       the value of the given variable
+     * 
+     * @return  the value of the expression
+     */
+    private static double evaluate( JEP parser, Variable var, double val )
+    {
+        var.setValue( val );
+        double  result  = parser.getValue();
+        return result;
+    }
+    
+    /**
+     * Converts a given radius and angle
+     * to Cartesian coordinates.
+     * 
+     * @param radius    the given radius
+     * @param theta     the given angle
+     * 
+     * @return  Point2D object equivalent to the given polar coordinates
+     * 
+     * @see Polar#toPoint()
+     */
+    private static Point2D toPoint( double radius, double theta )
+    {
+        double  xco     = radius * Math.cos( theta );
+        double  yco     = radius * Math.sin( theta );
+        Point2D point   = new Point2D.Double( xco, yco );
+        return point;
+    }
+    
+    /**
+     * Generates a stream of the values
+     * in the encapsulated iteration range.
+     * 
+     * @return  a stream of the values in the encapsulated iteration range
+     * 
+     * @see Equation#getRangeValues(double[])
+     */
+    private DoubleStream rangeStream()
+    {
+        DoubleStream    stream  =
+            DoubleStream.iterate( rStart, d -> d <= rEnd, d -> d + rStep );
+        return stream;
+    }
+    
     /**
      * Add all existing variables
      * to the given parser.
@@ -569,7 +765,93 @@ public class JEPEquation implements Equation
      * @param parser    the given parser
      */
     private void updateVars( JEP parser )
+    {
+        updateVars( parser, vars );
+    }
+    
+    /**
+     * Add all variables in a given map
+     * to the given parser.
+     * 
+     * @param parser    the given parser
+     * @param vars      the given map
+     */
+    private static void updateVars( JEP parser, Map<String,Double> vars )
     {
         vars.forEach( (s,d) -> parser.addVariable( s,  d ) );
     }
+    
+    /**
+     * Encapsulates the result of parsing an expression
+     * with a given set of variable names.
+     * If parsing succeeds
+     * the parser is retained,
+     * and may be re-evaluated
+     * after rebinding its variables to new values.
+     * Since the parser may be shared between threads,
+     * rebinding and evaluation are synchronized.
+     * <p>
+     * Note that the parse tree of a JEP object
+     * is bound to that object's variables,
+     * and cannot be copied;
+     * the cache is therefore not used
+     * for the x-, y-, r- and t-expressions,
+     * each of which requires a parser
+     * owned by its Equation.
+     * </p>
+     * 
+     * @author Jack Straub
+     * 
+     * @see ExpressionCache
+     */
+    private static class Compiled
+    {
+        /** The parser; null if parsing failed. */
+        private final JEP   parser;
+        
+        /**
+         * Constructor.
+         * Parses a given expression
+         * with a given set of variable names.
+         * 
+         * @param exprStr   the given expression
+         * @param varNames  the given set of variable names
+         */
+        public Compiled( String exprStr, Set<String> varNames )
+        {
+            JEP temp    = createParser();
+            varNames.forEach( n -> temp.addVariable( n, 0 ) );
+            temp.parseExpression( exprStr );
+            parser = temp.hasError() ? null : temp;
+        }
+        
+        /**
+         * Indicates whether the expression
+         * was parsed successfully.
+         * 
+         * @return  true if the expression was parsed successfully
+         */
+        public boolean isValid()
+        {
+            return parser != null;
+        }
+        
+        /**
+         * Evaluates the parsed expression
+         * after binding its variables
+         * to the values in a given map.
+         * The caller must first verify
+         * that the expression is valid.
+         * 
+         * @param vars  the given map
+         * 
+         * @return  the value of the expression
+         */
+        public synchronized double evaluate( Map<String,Double> vars )
+        {
+            updateVars( parser, vars );
+            double  result  = parser.getValue();
+            return result;
+        }
+    }
 }
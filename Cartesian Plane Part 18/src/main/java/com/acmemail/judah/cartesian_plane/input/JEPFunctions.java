@@ -30,6 +30,13 @@ import org.nfunk.jep.JEP;
  *     Override the <em>evaluate( double params )</em> method.
  *     Compute and return the desired value.
  * </li>
+ * <li>
+ *     If the function takes one or two arguments,
+ *     also override the corresponding fixed-arity
+ *     <em>evaluate</em> method,
+ *     and have the varargs method delegate to it;
+ *     see {@linkplain JEPAbstractFunction}.
+ * </li>
  * </ol>
  * <p>
  * See {@link JEPFunctions.ToDegrees} for an example.
@@ -109,7 +116,14 @@ public class JEPFunctions
         @Override
         public double evaluate( double... params )
         {
-            double  degrees = params[0] * 180 / Math.PI;
+            double  degrees = evaluate( params[0] );
+            return degrees;
+        }
+        
+        @Override
+        public double evaluate( double param )
+        {
+            double  degrees = param * 180 / Math.PI;
             return degrees;
         }
     }
@@ -135,7 +149,14 @@ public class JEPFunctions
         @Override
         public double evaluate( double... params )
         {
-            double  radians = params[0] * Math.PI / 180.;
+            double  radians = evaluate( params[0] );
+            return radians;
+        }
+        
+        @Override
+        public double evaluate( double param )
+        {
+            double  radians = param * Math.PI / 180.;
             return radians;
         }
     }
@@ -161,7 +182,14 @@ public class JEPFunctions
         @Override
         public double evaluate( double... params )
         {
-            double  secant = 1.0 / Math.cos( params[0] );
+            double  secant = evaluate( params[0] );
+            return secant;
+        }
+        
+        @Override
+        public double evaluate( double param )
+        {
+            double  secant = 1.0 / Math.cos( param );
             return secant;
         }
     }
@@ -188,7 +216,14 @@ public class JEPFunctions
         @Override
         public double evaluate( double... params )
         {
-            double  cosecant = 1.0 / Math.sin( params[0] );
+            double  cosecant = evaluate( params[0] );
+            return cosecant;
+        }
+        
+        @Override
+        public double evaluate( double param )
+        {
+            double  cosecant = 1.0 / Math.sin( param );
             return cosecant;
         }
     }
@@ -214,7 +249,14 @@ public class JEPFunctions
         @Override
         public double evaluate( double... params )
         {
-            double  cotan = 1.0 / Math.tan( params[0] );
+            double  cotan = evaluate( params[0] );
+            return cotan;
+        }
+        
+        @Override
+        public double evaluate( double param )
+        {
+            double  cotan = 1.0 / Math.tan( param );
             return cotan;
         }
     }
@@ -0,0 +1,231 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import java.util.Arrays;
+
+/**
+ * An ordered, growable sequence of points
+ * stored in primitive arrays.
+ * A PointBuffer is used to transfer
+ * the results of a plot
+ * without allocating an object for each point.
+ * <p>
+ * A point whose x- or y-coordinate is NaN
+ * is a <em>break</em>;
+ * it indicates a discontinuity in a curve,
+ * and consumers that connect consecutive points
+ * should not connect the points on either side of it.
+ * Consumers that plot individual points
+ * should skip it.
+ * </p>
+ * <p>
+ * For the convenience of bulk producers,
+ * the underlying arrays are available directly;
+ * see {@linkplain #getXcos()}.
+ * </p>
+ *
+ * @author Jack Straub
+ */
+public class PointBuffer
+{
+    /** Default initial capacity. */
+    private static final int    defCapacity = 256;
+
+    /** The x-coordinates of the points in this buffer. */
+    private double[]    xcos;
+    /** The y-coordinates of the points in this buffer. */
+    private double[]    ycos;
+    /** The number of points in this buffer. */
+    private int         size    = 0;
+
+    /**
+     * Default constructor.
+     * Creates a buffer with a default initial capacity.
+     */
+    public PointBuffer()
+    {
+        this( defCapacity );
+    }
+
+    /**
+     * Constructor.
+     * Creates a buffer with a given initial capacity.
+     *
+     * @param capacity  the given initial capacity
+     */
+    public PointBuffer( int capacity )
+    {
+        xcos = new double[capacity];
+        ycos = new double[capacity];
+    }
+
+    /**
+     * Determines whether a given point is a break.
+     *
+     * @param xco   the x-coordinate of the given point
+     * @param yco   the y-coordinate of the given point
+     *
+     * @return  true if the given point is a break
+     */
+    public static boolean isBreak( double xco, double yco )
+    {
+        boolean result  = Double.isNaN( xco ) || Double.isNaN( yco );
+        return result;
+    }
+
+    /**
+     * Removes all points from this buffer.
+     * The capacity of the buffer is unchanged.
+     */
+    public void clear()
+    {
+        size = 0;
+    }
+
+    /**
+     * Gets the number of points in this buffer.
+     *
+     * @return  the number of points in this buffer
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Sets the number of points in this buffer.
+     * Used by bulk producers
+     * that store points directly in the underlying arrays.
+     *
+     * @param size  the number of points in this buffer
+     *
+     * @throws IllegalArgumentException
+     *      if size is negative or greater than the capacity of this buffer
+     *
+     * @see #getXcos()
+     * @see #ensureCapacity(int)
+     */
+    public void setSize( int size )
+    {
+        if ( size < 0 || size > xcos.length )
+        {
+            String  message =
+                "Size " + size + " out of range; capacity = " + xcos.length;
+            throw new IllegalArgumentException( message );
+        }
+        this.size = size;
+    }
+
+    /**
+     * Ensures that this buffer can hold
+     * at least the given number of points.
+     * Existing points are retained.
+     *
+     * @param capacity  the given number of points
+     */
+    public void ensureCapacity( int capacity )
+    {
+        if ( capacity > xcos.length )
+        {
+            xcos = Arrays.copyOf( xcos, capacity );
+            ycos = Arrays.copyOf( ycos, capacity );
+        }
+    }
+
+    /**
+     * Adds a point to the end of this buffer.
+     *
+     * @param xco   the x-coordinate of the point
+     * @param yco   the y-coordinate of the point
+     */
+    public void add( double xco, double yco )
+    {
+        if ( size == xcos.length )
+            ensureCapacity( Math.max( defCapacity, 2 * size ) );
+        xcos[size] = xco;
+        ycos[size] = yco;
+        ++size;
+    }
+
+    /**
+     * Adds a break to the end of this buffer.
+     * A break is never added
+     * to the beginning of the buffer,
+     * or immediately following another break.
+     */
+    public void addBreak()
+    {
+        if ( size > 0 && !isBreak( size - 1 ) )
+            add( Double.NaN, Double.NaN );
+    }
+
+    /**
+     * Gets the x-coordinate of the point at the given index.
+     *
+     * @param index the given index
+     *
+     * @return  the x-coordinate of the point at the given index
+     */
+    public double getXco( int index )
+    {
+        return xcos[index];
+    }
+
+    /**
+     * Gets the y-coordinate of the point at the given index.
+     *
+     * @param index the given index
+     *
+     * @return  the y-coordinate of the point at the given index
+     */
+    public double getYco( int index )
+    {
+        return ycos[index];
+    }
+
+    /**
+     * Determines whether the point at the given index
+     * is a break.
+     *
+     * @param index the given index
+     *
+     * @return  true if the point at the given index is a break
+     */
+    public boolean isBreak( int index )
+    {
+        boolean result  = isBreak( xcos[index], ycos[index] );
+        return result;
+    }
+
+    /**
+     * Gets the array
+     * that stores the x-coordinates of the points in this buffer.
+     * The array is live;
+     * changes to the array are reflected in the buffer.
+     * The array may be longer than the size of the buffer,
+     * and is replaced
+     * whenever the capacity of the buffer increases.
+     *
+     * @return
+     *      the array that stores the x-coordinates
+     *      of the points in this buffer
+     */
+    public double[] getXcos()
+    {
+        return xcos;
+    }
+
+    /**
+     * Gets the array
+     * that stores the y-coordinates of the points in this buffer.
+     * The array is live;
+     * see {@linkplain #getXcos()}.
+     *
+     * @return
+     *      the array that stores the y-coordinates
+     *      of the points in this buffer
+     */
+    public double[] getYcos()
+    {
+        return ycos;
+    }
+}
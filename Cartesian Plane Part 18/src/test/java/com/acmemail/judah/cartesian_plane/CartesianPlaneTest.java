@@ -0,0 +1,113 @@
+package com.acmemail.judah.cartesian_plane;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.awt.Graphics2D;
+import java.awt.event.InputEvent;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.image.BufferedImage;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifies that zooming a CartesianPlane
+ * changes the scale of the grid
+ * without changing the GRID_UNIT property.
+ *
+ * @author Jack Straub
+ */
+class CartesianPlaneTest
+{
+    private static final PropertyManager    pmgr    = 
+        PropertyManager.INSTANCE;
+    private static final int                width   = 600;
+    private static final int                height  = 500;
+    
+    private String          saveGridUnit;
+    private CartesianPlane  plane;
+    private BufferedImage   image;
+    
+    @BeforeEach
+    public void beforeEach() throws Exception
+    {
+        saveGridUnit = pmgr.asString( Property.GRID_UNIT );
+        pmgr.setProperty( CPConstants.GRID_UNIT_PN, 65 );
+        image = 
+            new BufferedImage( width, height, BufferedImage.TYPE_INT_ARGB );
+        SwingUtilities.invokeAndWait( () -> {
+            plane = new CartesianPlane( width, height );
+            plane.setSize( width, height );
+        });
+    }
+    
+    @AfterEach
+    public void afterEach()
+    {
+        // The plane must not respond to property changes
+        // made by later tests.
+        pmgr.removePropertyChangeListener( plane );
+        pmgr.setProperty( CPConstants.GRID_UNIT_PN, saveGridUnit );
+    }
+    
+    @Test
+    public void testZoomGridUnit() throws Exception
+    {
+        SwingUtilities.invokeAndWait( () -> {
+            paint();
+            assertEquals( 65, plane.getGraphManager().getGridUnit() );
+            
+            // Zoom in by one notch, then complete the gesture
+            // by pressing and releasing the mouse
+            int     xco     = width / 2;
+            int     yco     = height / 2;
+            long    when    = System.currentTimeMillis();
+            plane.dispatchEvent(
+                new MouseWheelEvent( 
+                    plane, MouseEvent.MOUSE_WHEEL, when, 0, 
+                    xco, yco, 0, false, 
+                    MouseWheelEvent.WHEEL_UNIT_SCROLL, 1, -1
+                )
+            );
+            int     mods    = InputEvent.BUTTON1_DOWN_MASK;
+            plane.dispatchEvent(
+                new MouseEvent(
+                    plane, MouseEvent.MOUSE_PRESSED, when, mods,
+                    xco, yco, 1, false, MouseEvent.BUTTON1
+                )
+            );
+            plane.dispatchEvent(
+                new MouseEvent(
+                    plane, MouseEvent.MOUSE_RELEASED, when, 0,
+                    xco, yco, 1, false, MouseEvent.BUTTON1
+                )
+            );
+            paint();
+            
+            // The grid is drawn at the zoomed scale,
+            // but the property is unchanged.
+            float   expUnit = (float)(65 * 1.1);
+            assertEquals( 
+                expUnit, 
+                plane.getGraphManager().getGridUnit(), 
+                .001
+            );
+            assertEquals( 65, pmgr.asFloat( Property.GRID_UNIT ) );
+        });
+    }
+    
+    /**
+     * Paints the CartesianPlane under test
+     * into an off-screen image.
+     */
+    private void paint()
+    {
+        Graphics2D  gtx = image.createGraphics();
+        plane.paintComponent( gtx );
+        gtx.dispose();
+    }
+}
@@ -0,0 +1,127 @@
+package com.acmemail.judah.cartesian_plane;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.awt.Font;
+import java.awt.font.FontRenderContext;
+import java.awt.geom.AffineTransform;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LabelCacheTest
+{
+    private final Font              font    =
+        new Font( Font.MONOSPACED, Font.PLAIN, 10 );
+    private final FontRenderContext frc     =
+        new FontRenderContext( null, true, true );
+
+    private LabelCache  cache;
+
+    @BeforeEach
+    public void beforeEach() throws Exception
+    {
+        cache = new LabelCache();
+    }
+
+    @Test
+    public void testGet()
+    {
+        LabelCache.Label    label   = cache.get( 1.5f, font, frc );
+        assertEquals( String.format( "%3.2f", 1.5 ), label.getText() );
+        assertEquals(
+            label.getLayout().getBounds(),
+            label.getBounds()
+        );
+        assertSame( label, cache.get( 1.5f, font, frc ) );
+        assertEquals( 1, cache.size() );
+
+        // Values that format identically share a label
+        assertSame( label, cache.get( 1.4999999f, font, frc ) );
+        assertEquals( 1, cache.size() );
+
+        assertNotSame( label, cache.get( -1.5f, font, frc ) );
+        assertEquals( 2, cache.size() );
+    }
+
+    @Test
+    public void testRounding()
+    {
+        // Ties are rounded away from zero
+        // regardless of sign.
+        assertEquals( "0.13", cache.get( .125f, font, frc ).getText() );
+        assertEquals( "-0.13", cache.get( -.125f, font, frc ).getText() );
+        assertEquals( "-0.38", cache.get( -.375f, font, frc ).getText() );
+        assertEquals( "-0.00", cache.get( -.001f, font, frc ).getText() );
+        
+        // Labels of eighths and sixty-fourths of a unit,
+        // on both sides of the axis,
+        // are the same as the directly formatted values.
+        for ( int inx = -128 ; inx <= 128 ; ++inx )
+        {
+            float   eighths         = inx / 8f;
+            float   sixtyFourths    = inx / 64f;
+            assertEquals( 
+                String.format( "%3.2f", eighths ), 
+                cache.get( eighths, font, frc ).getText()
+            );
+            assertEquals( 
+                String.format( "%3.2f", sixtyFourths ), 
+                cache.get( sixtyFourths, font, frc ).getText()
+            );
+        }
+    }
+
+    @Test
+    public void testKey()
+    {
+        LabelCache.Label    label       = cache.get( 2, font, frc );
+        Font                bold        = font.deriveFont( Font.BOLD );
+        FontRenderContext   scaledFrc   =
+            new FontRenderContext(
+                AffineTransform.getScaleInstance( 2, 2 ),
+                true,
+                true
+            );
+        assertNotSame( label, cache.get( 2, bold, frc ) );
+        assertNotSame( label, cache.get( 2, font, scaledFrc ) );
+        assertEquals( 3, cache.size() );
+
+        // Equal but distinct Font and FRC objects share a label
+        Font                sameFont    =
+            new Font( Font.MONOSPACED, Font.PLAIN, 10 );
+        FontRenderContext   sameFrc     =
+            new FontRenderContext( null, true, true );
+        assertSame( label, cache.get( 2, sameFont, sameFrc ) );
+    }
+
+    @Test
+    public void testLRU()
+    {
+        LabelCache          lru     = new LabelCache( 3 );
+        LabelCache.Label    one     = lru.get( 1, font, frc );
+        LabelCache.Label    two     = lru.get( 2, font, frc );
+        lru.get( 3, font, frc );
+        assertSame( one, lru.get( 1, font, frc ) );
+
+        // Least recently used label (2) is discarded
+        lru.get( 4, font, frc );
+        assertEquals( 3, lru.size() );
+        assertSame( one, lru.get( 1, font, frc ) );
+        assertNotSame( two, lru.get( 2, font, frc ) );
+
+        lru.clear();
+        assertEquals( 0, lru.size() );
+    }
+
+    @Test
+    public void testGoWrong()
+    {
+        Class<IllegalArgumentException> clazz   =
+            IllegalArgumentException.class;
+        assertThrows( clazz, () -> new LabelCache( 0 ) );
+    }
+}
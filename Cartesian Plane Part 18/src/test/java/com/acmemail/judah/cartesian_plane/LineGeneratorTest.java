@@ -2,16 +2,21 @@ package com.acmemail.judah.cartesian_plane;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -213,6 +218,85 @@ class LineGeneratorTest
         
     }
 
+    @ParameterizedTest
+    @ValueSource( ints= {
+        LineGenerator.HORIZONTAL, 
+        LineGenerator.VERTICAL,
+        LineGenerator.BOTH
+    })
+    public void testSharedIterator( int orientation )
+    {
+        testLPU = 3;
+        LineGenerator       lineGen     = new LineGenerator(
+            testRect, 
+            testGPU, 
+            testLPU, 
+            testLen, 
+            orientation 
+        );
+        Iterator<Line2D>    expIter     = lineGen.iterator();
+        Iterator<Line2D>    actIter     = lineGen.sharedIterator();
+        Line2D              shared      = null;
+        while ( expIter.hasNext() )
+        {
+            assertTrue( actIter.hasNext() );
+            Line2D  actLine = actIter.next();
+            if ( shared == null )
+                shared = actLine;
+            assertSame( shared, actLine );
+            assertLineEquals( expIter.next(), actLine );
+        }
+        assertFalse( actIter.hasNext() );
+        assertThrows( NoSuchElementException.class, () -> actIter.next() );
+    }
+
+    @ParameterizedTest
+    @ValueSource( ints= {
+        LineGenerator.HORIZONTAL, 
+        LineGenerator.VERTICAL,
+        LineGenerator.BOTH
+    })
+    public void testAppendTo( int orientation )
+    {
+        testLPU = 3;
+        LineGenerator       lineGen     = new LineGenerator(
+            testRect, 
+            testGPU, 
+            testLPU, 
+            -1, 
+            orientation 
+        );
+        Path2D              path        = new Path2D.Double();
+        int                 count       = lineGen.appendTo( path );
+        
+        Iterator<Line2D>    expIter     = lineGen.iterator();
+        PathIterator        pathIter    = path.getPathIterator( null );
+        double[]            coords      = new double[6];
+        int                 actCount    = 0;
+        while ( expIter.hasNext() )
+        {
+            Line2D  expLine = expIter.next();
+            assertEquals( 
+                PathIterator.SEG_MOVETO, 
+                pathIter.currentSegment( coords )
+            );
+            assertEquals( expLine.getX1(), coords[0], .001 );
+            assertEquals( expLine.getY1(), coords[1], .001 );
+            pathIter.next();
+            assertEquals( 
+                PathIterator.SEG_LINETO, 
+                pathIter.currentSegment( coords )
+            );
+            assertEquals( expLine.getX2(), coords[0], .001 );
+            assertEquals( expLine.getY2(), coords[1], .001 );
+            pathIter.next();
+            ++actCount;
+        }
+        assertTrue( pathIter.isDone() );
+        assertEquals( count, actCount );
+        assertTrue( count > 0 );
+    }
+
     @Test
     public void testAxesIterator()
     {
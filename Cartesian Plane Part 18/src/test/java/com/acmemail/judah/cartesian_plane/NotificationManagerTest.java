@@ -0,0 +1,133 @@
+package com.acmemail.judah.cartesian_plane;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifies that the NotificationManager
+ * delivers notifications to the correct listeners,
+ * and that notifications for coalesced properties
+ * are delivered once per burst.
+ *
+ * @author Jack Straub
+ */
+class NotificationManagerTest
+{
+    private static final String prop1   = "notificationManagerTest1";
+    private static final String prop2   = "notificationManagerTest2";
+
+    private final NotificationManager   mgr     =
+        NotificationManager.INSTANCE;
+    private final List<String>          log     = new ArrayList<>();
+
+    private final NotificationListener  all     =
+        e -> log.add( "all:" + e.getProperty() );
+    private final NotificationListener  first   =
+        e -> log.add( "first:" + e.getProperty() );
+    private final NotificationListener  second  =
+        e -> log.add( "second:" + e.getProperty() );
+    private final List<Object>          data    = new ArrayList<>();
+    private final NotificationListener  dataLog =
+        e -> data.add( e.getData() );
+
+    @AfterEach
+    public void afterEach()
+    {
+        mgr.removeNotificationListener( prop1, first );
+        mgr.removeNotificationListener( prop1, second );
+        mgr.removeNotificationListener( prop2, second );
+        mgr.removeNotificationListener( prop1, dataLog );
+        mgr.removeNotificationListener( all );
+        mgr.setCoalesced( prop1, false );
+    }
+
+    @Test
+    public void testPropagate()
+    {
+        mgr.addNotificationListener( all );
+        mgr.addNotificationListener( prop1, first );
+        mgr.addNotificationListener( prop1, second );
+        mgr.addNotificationListener( prop2, second );
+
+        mgr.propagateNotification( prop1 );
+        assertEquals( List.of( "first:" + prop1, "second:" + prop1,
+            "all:" + prop1 ), log );
+
+        log.clear();
+        mgr.propagateNotification( prop2 );
+        assertEquals( List.of( "second:" + prop2, "all:" + prop2 ), log );
+
+        log.clear();
+        mgr.removeNotificationListener( prop1, first );
+        mgr.propagateNotification( prop1 );
+        assertEquals( List.of( "second:" + prop1, "all:" + prop1 ), log );
+
+        log.clear();
+        mgr.removeNotificationListener( all );
+        mgr.propagateNotification( "notificationManagerTestNone" );
+        assertTrue( log.isEmpty() );
+    }
+
+    @Test
+    public void testRemoveFirstInstance()
+    {
+        mgr.addNotificationListener( prop1, first );
+        mgr.addNotificationListener( prop1, first );
+        mgr.removeNotificationListener( prop1, first );
+        mgr.propagateNotification( prop1 );
+        assertEquals( List.of( "first:" + prop1 ), log );
+
+        // Removing a listener that isn't registered is harmless
+        mgr.removeNotificationListener( prop1, second );
+        mgr.removeNotificationListener( second );
+    }
+
+    @Test
+    public void testCoalesced() throws Exception
+    {
+        mgr.addNotificationListener( prop1, dataLog );
+        mgr.addNotificationListener( prop2, second );
+
+        // Only redraw notifications are coalesced by default
+        assertTrue( mgr.isCoalesced( CPConstants.REDRAW_NP ) );
+        assertFalse( mgr.isCoalesced( prop1 ) );
+        mgr.setCoalesced( prop1, true );
+        assertTrue( mgr.isCoalesced( prop1 ) );
+
+        // Nothing can be delivered on the EDT
+        // until this runnable completes.
+        SwingUtilities.invokeAndWait( () -> {
+            for ( int inx = 0 ; inx < 100 ; ++inx )
+                mgr.propagateNotification( this, prop1, inx );
+            assertTrue( data.isEmpty() );
+
+            // Notifications for other properties aren't affected
+            mgr.propagateNotification( prop2 );
+            assertEquals( List.of( "second:" + prop2 ), log );
+        });
+        // Wait for pending deliveries
+        SwingUtilities.invokeAndWait( () -> {} );
+        assertEquals( List.of( 99 ), data );
+
+        SwingUtilities.invokeAndWait(
+            () -> mgr.propagateNotification( this, prop1, "next" )
+        );
+        SwingUtilities.invokeAndWait( () -> {} );
+        assertEquals( List.of( 99, "next" ), data );
+
+        mgr.setCoalesced( prop1, false );
+        mgr.propagateNotification( this, prop1, this );
+        assertEquals( 3, data.size() );
+        assertSame( this, data.get( 2 ) );
+    }
+}
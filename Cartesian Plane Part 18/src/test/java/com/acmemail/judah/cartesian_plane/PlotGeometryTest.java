@@ -0,0 +1,487 @@
+package com.acmemail.judah.cartesian_plane;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import com.acmemail.judah.cartesian_plane.input.Command;
+import com.acmemail.judah.cartesian_plane.input.Equation;
+import com.acmemail.judah.cartesian_plane.input.Exp4jEquation;
+
+class PlotGeometryTest
+{
+    private Equation    equation;
+
+    @BeforeEach
+    public void setUp() throws Exception
+    {
+        equation = new Exp4jEquation();
+        equation.setVar( "a", 2 );
+        equation.setYExpression( "a * x^2" );
+        equation.setXExpression( "a * cos(t)" );
+        equation.setRExpression( "a * sin(t)" );
+        equation.setTExpression( "r / a" );
+        equation.setRangeStart( "-2" );
+        equation.setRangeEnd( "2" );
+        equation.setRangeStep( ".25" );
+    }
+
+    @ParameterizedTest
+    @EnumSource(
+        value = Command.class,
+        names = { "YPLOT", "XYPLOT", "RPLOT", "TPLOT" }
+    )
+    public void testRefresh( Command plotType )
+    {
+        PlotGeometry    geometry    = new PlotGeometry( equation, plotType );
+        assertTrue( geometry.refresh() );
+        validate( geometry );
+        assertFalse( geometry.refresh() );
+    }
+
+    @Test
+    public void testRefreshVarChange()
+    {
+        PlotGeometry    geometry    =
+            new PlotGeometry( equation, Command.YPLOT );
+        assertTrue( geometry.refresh() );
+        assertFalse( geometry.refresh() );
+        equation.setVar( "a", 3 );
+        assertTrue( geometry.refresh() );
+        validate( geometry );
+        assertFalse( geometry.refresh() );
+    }
+
+    @Test
+    public void testRefreshExprChange()
+    {
+        PlotGeometry    geometry    =
+            new PlotGeometry( equation, Command.YPLOT );
+        assertTrue( geometry.refresh() );
+        equation.setYExpression( "a * x^3" );
+        assertTrue( geometry.refresh() );
+        validate( geometry );
+    }
+
+    @Test
+    public void testRefreshRangeChange()
+    {
+        PlotGeometry    geometry    =
+            new PlotGeometry( equation, Command.XYPLOT );
+        assertTrue( geometry.refresh() );
+        equation.setRangeEnd( "4" );
+        assertTrue( geometry.refresh() );
+        validate( geometry );
+        equation.setRangeStep( ".1" );
+        assertTrue( geometry.refresh() );
+        validate( geometry );
+    }
+
+    @Test
+    public void testInvalidate()
+    {
+        PlotGeometry    geometry    =
+            new PlotGeometry( equation, Command.RPLOT );
+        assertTrue( geometry.refresh() );
+        geometry.invalidate();
+        assertTrue( geometry.refresh() );
+        validate( geometry );
+    }
+
+    @Test
+    public void testAdaptive()
+    {
+        PlotGeometry    geometry    =
+            new PlotGeometry( equation, Command.YPLOT );
+        Rectangle2D     bounds      = new Rectangle2D.Double( -5, -5, 10, 10 );
+        assertFalse( geometry.isAdaptive() );
+        geometry.setViewport( 50, bounds );
+        assertTrue( geometry.refresh() );
+        int             fixedSize   = geometry.size();
+
+        // In non-adaptive mode the viewport is not part of the key
+        geometry.setViewport( 60, bounds );
+        assertFalse( geometry.refresh() );
+
+        geometry.setAdaptive( true );
+        assertTrue( geometry.isAdaptive() );
+        assertTrue( geometry.refresh() );
+        assertFalse( geometry.refresh() );
+        assertTrue( geometry.size() > fixedSize );
+        for ( int inx = 0 ; inx < geometry.size() ; ++inx )
+        {
+            double  xco     = geometry.getXco( inx );
+            if ( !geometry.isBreak( inx ) )
+                assertEquals( 2 * xco * xco, geometry.getYco( inx ), .0001 );
+        }
+
+        // In adaptive mode the viewport is part of the key
+        geometry.setViewport( 50, bounds );
+        assertTrue( geometry.refresh() );
+        geometry.setViewport( 50, new Rectangle2D.Double( -1, -1, 2, 2 ) );
+        assertTrue( geometry.refresh() );
+        assertFalse( geometry.refresh() );
+
+        geometry.setAdaptive( false );
+        geometry.setViewport( 50, bounds );
+        assertTrue( geometry.refresh() );
+        assertEquals( fixedSize, geometry.size() );
+    }
+
+    @Test
+    public void testViewportYPlot()
+    {
+        equation.setRangeStart( "-100" );
+        equation.setRangeEnd( "100" );
+        equation.setRangeStep( ".01" );
+        PlotGeometry    geometry    =
+            new PlotGeometry( equation, Command.YPLOT );
+        Rectangle2D     bounds      = new Rectangle2D.Double( -1, -1, 4, 4 );
+        geometry.setViewport( 50, bounds );
+        assertTrue( geometry.refresh() );
+        assertFalse( geometry.refresh() );
+        validateViewport( geometry, bounds );
+
+        // Only the visible portion of the range is evaluated
+        int             size        = geometry.size();
+        assertTrue( size > 0 );
+        assertTrue( size * 10 < equation.getRangeSize() );
+
+        // Panning the viewport requires re-evaluation
+        geometry.setViewport( 50, new Rectangle2D.Double( 50, -1, 4, 4 ) );
+        assertTrue( geometry.refresh() );
+        assertEquals( 0, geometry.size() );
+        bounds = new Rectangle2D.Double( 1, 1, 4, 4 );
+        geometry.setViewport( 50, bounds );
+        assertTrue( geometry.refresh() );
+        validateViewport( geometry, bounds );
+
+        // Without a viewport the entire range is evaluated
+        geometry.setViewport( 50, null );
+        assertTrue( geometry.refresh() );
+        validate( geometry );
+    }
+
+    @ParameterizedTest
+    @EnumSource(
+        value = Command.class,
+        names = { "XYPLOT", "RPLOT", "TPLOT" }
+    )
+    public void testViewportCull( Command plotType )
+    {
+        equation.setRangeStart( "-10" );
+        equation.setRangeEnd( "10" );
+        equation.setRangeStep( ".01" );
+        PlotGeometry    geometry    = new PlotGeometry( equation, plotType );
+        assertTrue( geometry.refresh() );
+        int             fullSize    = geometry.size();
+
+        Rectangle2D     bounds      = new Rectangle2D.Double( 0, 0, 1, 1 );
+        geometry.setViewport( 50, bounds );
+        assertTrue( geometry.refresh() );
+        assertFalse( geometry.refresh() );
+        assertTrue( geometry.size() > 0 );
+        assertTrue( geometry.size() < fullSize );
+        validateViewport( geometry, bounds );
+
+        // A narrow strip, such as the one exposed by a pan
+        Rectangle2D     strip       =
+            new Rectangle2D.Double( -.5, -10, .05, 20 );
+        geometry.setViewport( 50, strip );
+        assertTrue( geometry.refresh() );
+        assertTrue( geometry.size() < fullSize );
+        validateViewport( geometry, strip );
+
+        geometry.setViewport( 50, null );
+        assertTrue( geometry.refresh() );
+        validate( geometry );
+    }
+
+    @ParameterizedTest
+    @EnumSource(
+        value = Command.class,
+        names = { "YPLOT", "XYPLOT", "RPLOT", "TPLOT" }
+    )
+    public void testSnapshot( Command plotType )
+    {
+        PlotGeometry    source      = new PlotGeometry( equation, plotType );
+        assertTrue( source.isSnapshotStale() );
+        PlotGeometry    snapshot    = source.snapshot();
+        assertFalse( source.isSnapshotStale() );
+        assertEquals( plotType, snapshot.getPlotType() );
+        assertNotSame( equation, snapshot.getEquation() );
+        assertTrue( snapshot.refresh() );
+        validate( snapshot );
+
+        // Editing the source equation doesn't affect the snapshot
+        equation.setVar( "a", 3 );
+        assertTrue( source.isSnapshotStale() );
+        assertFalse( snapshot.refresh() );
+        equation.setVar( "a", 2 );
+        validate( snapshot );
+        assertFalse( source.isSnapshotStale() );
+
+        source.setAdaptive( true );
+        assertTrue( source.isSnapshotStale() );
+        source.snapshot();
+        assertFalse( source.isSnapshotStale() );
+        source.invalidate();
+        assertTrue( source.isSnapshotStale() );
+    }
+
+    @Test
+    public void testCoarsen()
+    {
+        equation.setRangeStart( "-10" );
+        equation.setRangeEnd( "10" );
+        equation.setRangeStep( ".001" );
+        PlotGeometry    source      =
+            new PlotGeometry( equation, Command.XYPLOT );
+        source.snapshot();
+        PlotGeometry    coarse      = source.coarsen( 100 );
+        assertFalse( source.isSnapshotStale() );
+        assertFalse( coarse.isAdaptive() );
+        assertTrue( coarse.refresh() );
+        int             size        = coarse.size();
+        assertTrue( size > 50 && size <= 101, "" + size );
+        for ( int inx = 0 ; inx < size ; ++inx )
+        {
+            double  param   = -10 + inx * 200 * .001;
+            assertEquals( 2 * Math.cos( param ), coarse.getXco( inx ), .001 );
+        }
+
+        // No coarse version if it wouldn't save enough work
+        assertNull( source.coarsen( 10000 ) );
+
+        // Adaptive plots always have a coarse version
+        source.setAdaptive( true );
+        assertNotNull( source.coarsen( 10000 ) );
+
+        // The coarse version of a YPLOT
+        // is based on the visible portion of the range
+        PlotGeometry    yPlot       =
+            new PlotGeometry( equation, Command.YPLOT );
+        yPlot.setViewport( 50, new Rectangle2D.Double( -1, -1, 2, 2 ) );
+        assertNull( yPlot.coarsen( 1000 ) );
+        coarse = yPlot.coarsen( 100 );
+        assertTrue( coarse.refresh() );
+        assertTrue( coarse.size() > 50 && coarse.size() <= 101 );
+    }
+
+    @Test
+    public void testRestrict()
+    {
+        equation.setRangeStart( "-10" );
+        equation.setRangeEnd( "10" );
+        equation.setRangeStep( ".01" );
+        PlotGeometry    geometry    =
+            new PlotGeometry( equation, Command.RPLOT );
+        Rectangle2D     bounds      = new Rectangle2D.Double( 0, 0, 1, 1 );
+        assertFalse( geometry.restrict( bounds ) );
+        assertTrue( geometry.refresh() );
+        int             fullSize    = geometry.size();
+
+        assertTrue( geometry.restrict( bounds ) );
+        assertFalse( geometry.restrict( bounds ) );
+        assertTrue( geometry.size() < fullSize );
+        validateViewport( geometry, bounds );
+
+        // Refreshing culls to the viewport (here, none)
+        // without re-evaluating
+        assertTrue( geometry.refresh() );
+        assertFalse( geometry.refresh() );
+        assertEquals( fullSize, geometry.size() );
+        assertTrue( geometry.restrict( bounds ) );
+        assertTrue( geometry.restrict( null ) );
+        validate( geometry );
+    }
+
+    @Test
+    public void testForBounds()
+    {
+        equation.setRangeStart( "-100" );
+        equation.setRangeEnd( "100" );
+        equation.setRangeStep( ".25" );
+        PlotGeometry    geometry    =
+            new PlotGeometry( equation, Command.YPLOT );
+        Rectangle2D     bounds      = new Rectangle2D.Double( -1, -1, 4, 4 );
+        geometry.setViewport( 50, bounds );
+        assertTrue( geometry.refresh() );
+        
+        // A strip within the evaluated x-range is covered,
+        // a strip outside it is not.
+        Rectangle2D     inside      = 
+            new Rectangle2D.Double( 0, -10, .05, 20 );
+        Rectangle2D     outside     = 
+            new Rectangle2D.Double( 5, 40, .05, 20 );
+        assertTrue( geometry.covers( inside ) );
+        assertFalse( geometry.covers( outside ) );
+        assertFalse( geometry.covers( null ) );
+        
+        // The strip is narrower than the range increment;
+        // the segment that crosses it is evaluated.
+        PlotGeometry    strip       = geometry.forBounds( outside );
+        assertTrue( strip.covers( outside ) );
+        assertTrue( strip.refresh() );
+        assertTrue( strip.size() >= 2 );
+        assertTrue( strip.getXco( 0 ) < outside.getMinX() );
+        assertTrue( strip.getXco( strip.size() - 1 ) > outside.getMaxX() );
+        validateViewport( strip, outside );
+        
+        // A plot that isn't a YPLOT covers any bounds,
+        // unless it is generated by adaptive sampling.
+        geometry = new PlotGeometry( equation, Command.XYPLOT );
+        geometry.setViewport( 50, bounds );
+        assertTrue( geometry.covers( outside ) );
+        assertTrue( geometry.covers( null ) );
+        geometry.setAdaptive( true );
+        assertTrue( geometry.covers( new Rectangle2D.Double( 0, 0, .05, 1 ) ) );
+        assertFalse( geometry.covers( inside ) );
+        assertFalse( geometry.covers( outside ) );
+    }
+
+    @Test
+    public void testInvalidPlotType()
+    {
+        Class<IllegalArgumentException> clazz   =
+            IllegalArgumentException.class;
+        assertThrows( clazz, () -> new PlotGeometry( equation, Command.SET ) );
+        assertThrows( clazz, () -> PlotGeometry.plot( equation, Command.SET ) );
+    }
+
+    /**
+     * Verifies that a given PlotGeometry object
+     * has been correctly culled to given visible bounds.
+     * Every point inside the visible bounds must be retained.
+     * (To allow for rounding differences
+     * between an evaluation restricted to the visible bounds
+     * and one over the entire iteration range,
+     * points within a small tolerance of the edge of the bounds
+     * are not considered.)
+     * Every retained point outside the visible bounds
+     * (extended by the view margin)
+     * must be the endpoint of a retained segment
+     * that crosses the extended bounds.
+     * The plot may not begin or end with a break.
+     *
+     * @param geometry  the given PlotGeometry object
+     * @param bounds    the given visible bounds
+     */
+    private void validateViewport( PlotGeometry geometry, Rectangle2D bounds )
+    {
+        double      tolerance   = .001;
+        Rectangle2D inside      = new Rectangle2D.Double(
+            bounds.getX() + tolerance,
+            bounds.getY() + tolerance,
+            bounds.getWidth() - 2 * tolerance,
+            bounds.getHeight() - 2 * tolerance
+        );
+        long        expInside   =
+            PlotGeometry.plot( equation, geometry.getPlotType() )
+                .filter( inside::contains )
+                .count();
+        long        actInside   = 0;
+        double      xMargin     = bounds.getWidth() * .05 + .0001;
+        double      yMargin     = bounds.getHeight() * .05 + .0001;
+        Rectangle2D viewBounds  = new Rectangle2D.Double(
+            bounds.getX() - xMargin,
+            bounds.getY() - yMargin,
+            bounds.getWidth() + 2 * xMargin,
+            bounds.getHeight() + 2 * yMargin
+        );
+
+        int         size        = geometry.size();
+        if ( size > 0 )
+        {
+            assertFalse( geometry.isBreak( 0 ) );
+            assertFalse( geometry.isBreak( size - 1 ) );
+        }
+        for ( int inx = 0 ; inx < size ; ++inx )
+        {
+            double  xco     = geometry.getXco( inx );
+            double  yco     = geometry.getYco( inx );
+            if ( inside.contains( xco, yco ) )
+                ++actInside;
+            if ( !geometry.isBreak( inx ) && !viewBounds.contains( xco, yco ) )
+            {
+                boolean crosses =
+                    crosses( geometry, viewBounds, inx - 1, inx )
+                    || crosses( geometry, viewBounds, inx, inx + 1 );
+                assertTrue( crosses, "" + inx );
+            }
+        }
+        assertEquals( expInside, actInside );
+    }
+
+    /**
+     * Determines whether the segment connecting two points
+     * in a given PlotGeometry object
+     * crosses given bounds.
+     * If either point is a break,
+     * or doesn't exist,
+     * false is returned.
+     *
+     * @param geometry  the given PlotGeometry object
+     * @param bounds    the given bounds
+     * @param from      the index of the first point
+     * @param to        the index of the second point
+     *
+     * @return  true if the segment crosses the given bounds
+     */
+    private boolean crosses(
+        PlotGeometry geometry,
+        Rectangle2D bounds,
+        int from,
+        int to
+    )
+    {
+        boolean result  =
+            from >= 0
+            && to < geometry.size()
+            && !geometry.isBreak( from )
+            && !geometry.isBreak( to )
+            && bounds.intersectsLine(
+                geometry.getXco( from ),
+                geometry.getYco( from ),
+                geometry.getXco( to ),
+                geometry.getYco( to )
+            );
+        return result;
+    }
+
+    /**
+     * Verifies that the coordinates cached in a given PlotGeometry
+     * object are the same as those generated by the
+     * encapsulated equation.
+     *
+     * @param geometry  the given PlotGeometry object
+     */
+    private void validate( PlotGeometry geometry )
+    {
+        Command         plotType    = geometry.getPlotType();
+        List<Point2D>   expPoints   =
+            PlotGeometry.plot( equation, plotType )
+                .collect( Collectors.toList() );
+        assertEquals( expPoints.size(), geometry.size() );
+        for ( int inx = 0 ; inx < expPoints.size() ; ++inx )
+        {
+            Point2D point   = expPoints.get( inx );
+            assertEquals( point.getX(), geometry.getXco( inx ) );
+            assertEquals( point.getY(), geometry.getYco( inx ) );
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.acmemail.judah.cartesian_plane;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.acmemail.judah.cartesian_plane.input.Command;
+import com.acmemail.judah.cartesian_plane.input.Equation;
+import com.acmemail.judah.cartesian_plane.input.Exp4jEquation;
+
+/**
+ * Verifies that a PlotRenderer
+ * publishes results progressively
+ * and never publishes the results
+ * of a cancelled evaluation.
+ *
+ * @author Jack Straub
+ */
+class PlotRendererTest
+{
+    /** The maximum time, in milliseconds, to wait for an evaluation. */
+    private static final long   maxWait     = 10000;
+
+    private final List<PlotGeometry>    published   = new ArrayList<>();
+    private final PlotRenderer          renderer    =
+        new PlotRenderer( this::publish );
+
+    private Equation    equation;
+    /** Set on the EDT when polling the renderer. */
+    private boolean     rendering;
+
+    @BeforeEach
+    public void beforeEach()
+    {
+        equation = new Exp4jEquation();
+        equation.setVar( "a", 2 );
+        equation.setYExpression( "a * x^2" );
+        equation.setXExpression( "a * cos(t)" );
+        equation.setRExpression( "a * sin(t)" );
+        equation.setRangeStart( "-10" );
+        equation.setRangeEnd( "10" );
+        equation.setRangeStep( ".0001" );
+    }
+
+    @Test
+    public void testProgressive() throws Exception
+    {
+        SwingUtilities.invokeAndWait( () -> {
+            renderer.setPlot( equation, Command.XYPLOT );
+            renderer.update( false, 50, null );
+            assertTrue( renderer.isRendering() );
+        });
+        waitForRenderer();
+
+        // Coarse version first, followed by full resolution
+        assertEquals( 2, published.size() );
+        int fullSize    = equation.getRangeSize();
+        assertTrue( published.get( 0 ).size() < fullSize / 4 );
+        assertEquals( fullSize, published.get( 1 ).size() );
+
+        // Nothing has changed; no new evaluation is required
+        SwingUtilities.invokeAndWait( () -> {
+            assertEquals( published.get( 1 ), renderer.getPlot() );
+            renderer.update( false, 50, null );
+            assertFalse( renderer.isRendering() );
+        });
+
+        // A small plot is published at full resolution only
+        published.clear();
+        equation.setRangeStep( ".1" );
+        SwingUtilities.invokeAndWait( () -> renderer.update( false, 50, null ) );
+        waitForRenderer();
+        assertEquals( 1, published.size() );
+        assertEquals( equation.getRangeSize(), published.get( 0 ).size() );
+    }
+
+    @Test
+    public void testNewPlotCancels() throws Exception
+    {
+        // Nothing can be published on the EDT
+        // until this runnable completes.
+        SwingUtilities.invokeAndWait( () -> {
+            renderer.setPlot( equation, Command.XYPLOT );
+            renderer.update( false, 50, null );
+            renderer.setPlot( equation, Command.RPLOT );
+            assertNull( renderer.getPlot() );
+            assertFalse( renderer.isRendering() );
+            renderer.update( false, 50, null );
+        });
+        waitForRenderer();
+        assertFalse( published.isEmpty() );
+        published.forEach(
+            p -> assertEquals( Command.RPLOT, p.getPlotType() )
+        );
+    }
+
+    @Test
+    public void testCancel() throws Exception
+    {
+        SwingUtilities.invokeAndWait( () -> {
+            renderer.setPlot( equation, Command.XYPLOT );
+            renderer.update( false, 50, null );
+            renderer.cancel();
+            assertFalse( renderer.isRendering() );
+        });
+        waitForRenderer();
+        assertTrue( published.isEmpty() );
+
+        // The next update starts a new evaluation,
+        // even though the plot hasn't changed
+        SwingUtilities.invokeAndWait( () -> {
+            renderer.update( false, 50, null );
+            assertTrue( renderer.isRendering() );
+        });
+        waitForRenderer();
+        assertEquals( 2, published.size() );
+    }
+
+    @Test
+    public void testEvaluationFails() throws Exception
+    {
+        // Division by zero at t = 0, in both
+        // the coarse and full-resolution passes
+        equation.setXExpression( "1 / t" );
+        equation.setYExpression( "t" );
+        equation.setRangeStart( "-1024" );
+        equation.setRangeEnd( "1024" );
+        equation.setRangeStep( ".0078125" );
+        SwingUtilities.invokeAndWait( () -> {
+            renderer.setPlot( equation, Command.XYPLOT );
+            renderer.update( false, 50, null );
+            assertTrue( renderer.isRendering() );
+        });
+        waitForRenderer();
+        assertEquals( 1, published.size() );
+        assertNull( published.get( 0 ) );
+        
+        // The renderer recovers when the equation is corrected
+        published.clear();
+        equation.setXExpression( "t" );
+        SwingUtilities.invokeAndWait( () -> renderer.update( false, 50, null ) );
+        waitForRenderer();
+        assertEquals( 2, published.size() );
+        assertEquals( equation.getRangeSize(), published.get( 1 ).size() );
+    }
+
+    @Test
+    public void testPatch() throws Exception
+    {
+        equation.setRangeStep( ".01" );
+        Rectangle2D bounds  = new Rectangle2D.Double( -1, -1, 2, 2 );
+        Rectangle2D strip   = new Rectangle2D.Double( 5, 40, 1, 40 );
+        SwingUtilities.invokeAndWait( () -> {
+            renderer.setPlot( equation, Command.YPLOT );
+            renderer.update( false, 50, bounds );
+        });
+        waitForRenderer();
+        assertEquals( 1, published.size() );
+        PlotGeometry    plot    = published.get( 0 );
+        
+        // The strip isn't covered by the published result;
+        // it is evaluated in the background, not on the EDT.
+        published.clear();
+        SwingUtilities.invokeAndWait( () -> {
+            assertFalse( plot.covers( strip ) );
+            assertEquals( plot, renderer.getPlot( strip ) );
+            assertTrue( renderer.getPatches().isEmpty() );
+            assertFalse( renderer.isRendering() );
+        });
+        long    limit   = System.currentTimeMillis() + maxWait;
+        while ( published.isEmpty() && System.currentTimeMillis() < limit )
+        {
+            Thread.sleep( 10 );
+            SwingUtilities.invokeAndWait( () -> {} );
+        }
+        assertEquals( 1, published.size() );
+        SwingUtilities.invokeAndWait( () -> {
+            assertEquals( plot, renderer.getPlot() );
+            assertEquals( 1, renderer.getPatches().size() );
+            PlotGeometry    patch   = renderer.getPatches().get( 0 );
+            assertTrue( patch.covers( strip ) );
+            assertTrue( patch.size() > 0 );
+            assertTrue( patch.getXco( 0 ) < strip.getMinX() );
+        });
+        
+        // A covered area doesn't need a patch
+        SwingUtilities.invokeAndWait( () -> renderer.getPlot( bounds ) );
+        waitForRenderer();
+        assertEquals( 1, published.size() );
+        
+        // Patches are discarded when the next result is published
+        SwingUtilities.invokeAndWait( () -> {
+            renderer.update( false, 50, strip );
+        });
+        waitForRenderer();
+        SwingUtilities.invokeAndWait( 
+            () -> assertTrue( renderer.getPatches().isEmpty() )
+        );
+    }
+
+    /**
+     * Records the result published by the renderer.
+     * Invoked on the EDT.
+     */
+    private void publish()
+    {
+        published.add( renderer.getPlot() );
+    }
+
+    /**
+     * Waits for the renderer to finish
+     * the evaluation in progress, if any,
+     * and for all pending results to be published.
+     *
+     * @throws Exception    if the wait is interrupted
+     */
+    private void waitForRenderer() throws Exception
+    {
+        long    limit   = System.currentTimeMillis() + maxWait;
+        rendering = true;
+        while ( rendering && System.currentTimeMillis() < limit )
+        {
+            Thread.sleep( 10 );
+            SwingUtilities.invokeAndWait(
+                () -> rendering = renderer.isRendering()
+            );
+        }
+        // Wait for any results of cancelled evaluations
+        // to reach the EDT.
+        Thread.sleep( 100 );
+        SwingUtilities.invokeAndWait( () -> {} );
+        assertFalse( rendering );
+    }
+}
@@ -0,0 +1,190 @@
+package com.acmemail.judah.cartesian_plane;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PolylineBuilderTest
+{
+    private PolylineBuilder builder;
+    private Path2D          path;
+
+    @BeforeEach
+    public void beforeEach() throws Exception
+    {
+        builder = new PolylineBuilder();
+        path = new Path2D.Double();
+    }
+
+    @Test
+    public void testStraightLine()
+    {
+        for ( int inx = 0 ; inx <= 1000 ; ++inx )
+            builder.add( inx, 2 * inx + 1 );
+        assertFalse( builder.isEmpty() );
+        assertEquals( 2, builder.appendTo( path, null ) );
+        assertTrue( builder.isEmpty() );
+
+        List<List<double[]>>    runs    = getRuns( path );
+        assertEquals( 1, runs.size() );
+        List<double[]>          run     = runs.get( 0 );
+        assertEquals( 2, run.size() );
+        assertPoint( 0, 1, run.get( 0 ) );
+        assertPoint( 1000, 2001, run.get( 1 ) );
+    }
+
+    @Test
+    public void testSimplify()
+    {
+        // A sine wave sampled at 100 points per pixel
+        double          scale       = 50;
+        List<double[]>  samples     = new ArrayList<>();
+        for ( int inx = 0 ; inx <= 50000 ; ++inx )
+        {
+            double  xco = inx / 100.0;
+            double  yco = scale * Math.sin( xco / scale );
+            samples.add( new double[] { xco, yco } );
+            builder.add( xco, yco );
+        }
+        int count   = builder.appendTo( path, null );
+        assertTrue( count > 2 );
+        assertTrue( count < 500 );
+
+        // Every sample lies within tolerance of the polyline
+        List<double[]>  run         = getRuns( path ).get( 0 );
+        assertEquals( count, run.size() );
+        int             segment     = 0;
+        for ( double[] sample : samples )
+        {
+            while ( run.get( segment + 1 )[0] < sample[0] )
+                ++segment;
+            double[]    from    = run.get( segment );
+            double[]    to      = run.get( segment + 1 );
+            double      dist    = Line2D.ptSegDist(
+                from[0], from[1], to[0], to[1], sample[0], sample[1]
+            );
+            assertTrue( dist <= PolylineBuilder.DEF_TOLERANCE );
+        }
+    }
+
+    @Test
+    public void testBreaks()
+    {
+        builder.add( 0, 0 );
+        builder.add( 1, 1 );
+        builder.add( Double.NaN, 2 );
+        builder.add( 3, 3 );
+        builder.add( 4, 4 );
+        builder.add( 5, Double.POSITIVE_INFINITY );
+        builder.addBreak();
+        builder.add( 6, 6 );
+        builder.addBreak();
+        builder.appendTo( path, null );
+
+        List<List<double[]>>    runs    = getRuns( path );
+        assertEquals( 3, runs.size() );
+        assertPoint( 0, 0, runs.get( 0 ).get( 0 ) );
+        assertPoint( 1, 1, runs.get( 0 ).get( 1 ) );
+        assertPoint( 3, 3, runs.get( 1 ).get( 0 ) );
+        assertPoint( 4, 4, runs.get( 1 ).get( 1 ) );
+
+        // A single point is drawn as a zero-length segment
+        assertEquals( 2, runs.get( 2 ).size() );
+        assertPoint( 6, 6, runs.get( 2 ).get( 0 ) );
+        assertPoint( 6, 6, runs.get( 2 ).get( 1 ) );
+    }
+
+    @Test
+    public void testDiscontinuity()
+    {
+        // Pixel coordinates of tan(x); the y-axis points down.
+        Rectangle2D bounds  = new Rectangle2D.Double( 0, 0, 600, 400 );
+        double      unit    = 100;
+        for ( int inx = 0 ; inx <= 300 ; ++inx )
+        {
+            double  xco = inx / 100.0;
+            builder.add( xco * unit, 200 - Math.tan( xco ) * unit );
+        }
+        builder.appendTo( path, bounds );
+        assertEquals( 2, getRuns( path ).size() );
+
+        // A steep but continuous curve is not broken
+        path.reset();
+        for ( int inx = -100 ; inx <= 100 ; ++inx )
+            builder.add( 300 + inx, 200 - inx * 1000 );
+        builder.appendTo( path, bounds );
+        assertEquals( 1, getRuns( path ).size() );
+    }
+
+    @Test
+    public void testClear()
+    {
+        builder.add( 1, 1 );
+        builder.clear();
+        assertTrue( builder.isEmpty() );
+        assertEquals( 0, builder.appendTo( path, null ) );
+        assertEquals( 0, getRuns( path ).size() );
+    }
+
+    @Test
+    public void testGoWrong()
+    {
+        Class<IllegalArgumentException> clazz   =
+            IllegalArgumentException.class;
+        assertThrows( clazz, () -> new PolylineBuilder( -1 ) );
+        assertThrows( clazz, () -> new PolylineBuilder( Double.NaN ) );
+    }
+
+    /**
+     * Asserts that a given point
+     * has the given coordinates.
+     *
+     * @param expXco    the expected x-coordinate
+     * @param expYco    the expected y-coordinate
+     * @param actual    the given point
+     */
+    private static void assertPoint(
+        double expXco,
+        double expYco,
+        double[] actual
+    )
+    {
+        assertEquals( expXco, actual[0], .0001 );
+        assertEquals( expYco, actual[1], .0001 );
+    }
+
+    /**
+     * Divides a given path into subpaths,
+     * each of which is described
+     * by a list of its vertices.
+     *
+     * @param path  the given path
+     *
+     * @return  a list of the subpaths in the given path
+     */
+    private static List<List<double[]>> getRuns( Path2D path )
+    {
+        List<List<double[]>>    runs    = new ArrayList<>();
+        PathIterator            iter    = path.getPathIterator( null );
+        for ( ; !iter.isDone() ; iter.next() )
+        {
+            double[]    coords  = new double[6];
+            int         type    = iter.currentSegment( coords );
+            if ( type == PathIterator.SEG_MOVETO )
+                runs.add( new ArrayList<>() );
+            runs.get( runs.size() - 1 ).add( coords );
+        }
+        return runs;
+    }
+}
@@ -0,0 +1,184 @@
+package com.acmemail.judah.cartesian_plane;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifies that property changes made
+ * during a PropertyManager batch
+ * are delivered to listeners
+ * when the batch is committed.
+ *
+ * @author Jack Straub
+ */
+class PropertyBatchTest
+{
+    private final PropertyManager   pmgr    = PropertyManager.INSTANCE;
+
+    private final List<List<PropertyChangeEvent>>  batches     =
+        new ArrayList<>();
+    private final List<PropertyChangeEvent>         generic     =
+        new ArrayList<>();
+    private final List<PropertyChangeEvent>         named       =
+        new ArrayList<>();
+
+    private final PropertyChangeBatchListener   batchListener   =
+        new BatchListener();
+    private final PropertyChangeListener        genericListener =
+        generic::add;
+    private final PropertyChangeListener        namedListener   =
+        named::add;
+
+    private String  saveGridUnit;
+    private String  saveMWBgColor;
+
+    @BeforeEach
+    public void beforeEach()
+    {
+        saveGridUnit = pmgr.asString( Property.GRID_UNIT );
+        saveMWBgColor = pmgr.asString( Property.MW_BG_COLOR );
+        pmgr.addPropertyChangeListener( batchListener );
+        pmgr.addPropertyChangeListener( genericListener );
+        pmgr.addPropertyChangeListener(
+            CPConstants.GRID_UNIT_PN,
+            namedListener
+        );
+    }
+
+    @AfterEach
+    public void afterEach()
+    {
+        pmgr.removePropertyChangeListener( batchListener );
+        pmgr.removePropertyChangeListener( genericListener );
+        pmgr.removePropertyChangeListener(
+            CPConstants.GRID_UNIT_PN,
+            namedListener
+        );
+        while ( pmgr.isBatchInProgress() )
+            pmgr.commit();
+        pmgr.setProperty( CPConstants.GRID_UNIT_PN, saveGridUnit );
+        pmgr.setProperty( CPConstants.MW_BG_COLOR_PN, saveMWBgColor );
+    }
+
+    @Test
+    public void testNoBatch()
+    {
+        pmgr.setProperty( CPConstants.GRID_UNIT_PN, "17" );
+        assertEquals( 1, named.size() );
+        assertEquals( 1, generic.size() );
+        // Outside of a batch a batch listener
+        // receives individual events
+        assertTrue( batches.isEmpty() );
+    }
+
+    @Test
+    public void testBatch()
+    {
+        String  newGridUnit = saveGridUnit + "1";
+        pmgr.beginBatch();
+        assertTrue( pmgr.isBatchInProgress() );
+        pmgr.setProperty( CPConstants.GRID_UNIT_PN, "17" );
+        pmgr.setProperty( CPConstants.GRID_UNIT_PN, newGridUnit );
+        pmgr.setProperty( CPConstants.MW_BG_COLOR_PN, "0x123456" );
+
+        // Values are updated immediately...
+        assertEquals( newGridUnit, pmgr.asString( Property.GRID_UNIT ) );
+        // ... but listeners are not notified
+        assertTrue( batches.isEmpty() );
+        assertTrue( generic.isEmpty() );
+        assertTrue( named.isEmpty() );
+
+        pmgr.commit();
+        assertFalse( pmgr.isBatchInProgress() );
+        assertEquals( 1, batches.size() );
+        List<PropertyChangeEvent>   events  = batches.get( 0 );
+        assertEquals( 2, events.size() );
+
+        PropertyChangeEvent gridEvent   = events.get( 0 );
+        assertEquals( CPConstants.GRID_UNIT_PN, gridEvent.getPropertyName() );
+        assertEquals( saveGridUnit, gridEvent.getOldValue() );
+        assertEquals( newGridUnit, gridEvent.getNewValue() );
+
+        PropertyChangeEvent colorEvent  = events.get( 1 );
+        assertEquals(
+            CPConstants.MW_BG_COLOR_PN,
+            colorEvent.getPropertyName()
+        );
+        assertEquals( saveMWBgColor, colorEvent.getOldValue() );
+        assertEquals( "0x123456", colorEvent.getNewValue() );
+
+        assertEquals( events, generic );
+        assertEquals( List.of( gridEvent ), named );
+        assertThrows(
+            UnsupportedOperationException.class,
+            () -> events.clear()
+        );
+    }
+
+    @Test
+    public void testNestedBatch()
+    {
+        pmgr.beginBatch();
+        pmgr.setProperty( CPConstants.GRID_UNIT_PN, "17" );
+        pmgr.beginBatch();
+        pmgr.setProperty( CPConstants.MW_BG_COLOR_PN, "0x123456" );
+        pmgr.commit();
+        assertTrue( pmgr.isBatchInProgress() );
+        assertTrue( batches.isEmpty() );
+        pmgr.commit();
+        assertEquals( 1, batches.size() );
+        assertEquals( 2, batches.get( 0 ).size() );
+    }
+
+    @Test
+    public void testUnchanged()
+    {
+        pmgr.beginBatch();
+        pmgr.setProperty( CPConstants.GRID_UNIT_PN, "17" );
+        pmgr.setProperty( CPConstants.GRID_UNIT_PN, saveGridUnit );
+        pmgr.commit();
+        assertTrue( batches.isEmpty() );
+        assertTrue( generic.isEmpty() );
+        assertTrue( named.isEmpty() );
+    }
+
+    @Test
+    public void testCommitWithoutBatch()
+    {
+        assertFalse( pmgr.isBatchInProgress() );
+        assertThrows( IllegalStateException.class, () -> pmgr.commit() );
+    }
+
+    /**
+     * PropertyChangeBatchListener
+     * that records batches
+     * but ignores individual events.
+     *
+     * @author Jack Straub
+     */
+    private class BatchListener implements PropertyChangeBatchListener
+    {
+        @Override
+        public void propertyChange( PropertyChangeEvent evt )
+        {
+            // ignore individual events
+        }
+
+        @Override
+        public void propertyChangeBatch( List<PropertyChangeEvent> events )
+        {
+            batches.add( events );
+        }
+    }
+}
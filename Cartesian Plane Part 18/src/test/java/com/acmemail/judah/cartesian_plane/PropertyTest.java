@@ -0,0 +1,143 @@
+package com.acmemail.judah.cartesian_plane;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.lang.reflect.Field;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifies that the Property enum
+ * is consistent with the _PN/_DV fields
+ * declared in CPConstants,
+ * and that typed access via Property
+ * agrees with access by name.
+ *
+ * @author Jack Straub
+ */
+class PropertyTest
+{
+    private final PropertyManager   pmgr    = PropertyManager.INSTANCE;
+
+    private String  saveGridUnit;
+    private String  saveMWBgColor;
+    private String  saveDPrecision;
+
+    @BeforeEach
+    public void beforeEach()
+    {
+        saveGridUnit = pmgr.asString( Property.GRID_UNIT );
+        saveMWBgColor = pmgr.asString( Property.MW_BG_COLOR );
+        saveDPrecision = pmgr.asString( Property.VP_DPRECISION );
+    }
+
+    @AfterEach
+    public void afterEach()
+    {
+        pmgr.setProperty( CPConstants.GRID_UNIT_PN, saveGridUnit );
+        pmgr.setProperty( CPConstants.MW_BG_COLOR_PN, saveMWBgColor );
+        pmgr.setProperty( CPConstants.VP_DPRECISION_PN, saveDPrecision );
+    }
+
+    @Test
+    public void testCoverage() throws Exception
+    {
+        int     count   = 0;
+        for ( Field pnField : CPConstants.class.getFields() )
+        {
+            String  fieldName   = pnField.getName();
+            if ( fieldName.endsWith( "_PN" ) )
+            {
+                int     pNameLen    = fieldName.length();
+                String  pNamePrefix = fieldName.substring( 0, pNameLen - 3 );
+                Field   dvField     =
+                    CPConstants.class.getField( pNamePrefix + "_DV" );
+                String  propName    = (String)pnField.get( null );
+                String  propDefault = (String)dvField.get( null );
+
+                Property    property    = Property.valueOf( pNamePrefix );
+                assertEquals( propName, property.getName() );
+                assertEquals( propDefault, property.getDefaultValue() );
+                assertSame( property, Property.fromName( propName ) );
+                ++count;
+            }
+        }
+        assertEquals( count, Property.values().length );
+        assertNull( Property.fromName( "notAProperty" ) );
+    }
+
+    @Test
+    public void testTypedAccess()
+    {
+        for ( Property property : Property.values() )
+        {
+            String  propName    = property.getName();
+            assertEquals(
+                pmgr.asString( propName ),
+                pmgr.asString( property )
+            );
+            assertEquals(
+                pmgr.asBoolean( propName ),
+                pmgr.asBoolean( property )
+            );
+            assertEquals(
+                pmgr.asFontStyle( propName ),
+                pmgr.asFontStyle( property )
+            );
+        }
+
+        assertEquals(
+            pmgr.asFloat( CPConstants.GRID_UNIT_PN ),
+            pmgr.asFloat( Property.GRID_UNIT )
+        );
+        assertEquals(
+            pmgr.asColor( CPConstants.MW_BG_COLOR_PN ),
+            pmgr.asColor( Property.MW_BG_COLOR )
+        );
+    }
+
+    @Test
+    public void testSetProperty()
+    {
+        pmgr.setProperty( CPConstants.GRID_UNIT_PN, 42.5f );
+        assertEquals( 42.5f, pmgr.asFloat( Property.GRID_UNIT ) );
+        assertEquals( "42.5", pmgr.asString( Property.GRID_UNIT ) );
+        
+        pmgr.setProperty( CPConstants.VP_DPRECISION_PN, 6 );
+        assertEquals( 6, pmgr.asInt( Property.VP_DPRECISION ) );
+        assertEquals( 6, pmgr.asInt( CPConstants.VP_DPRECISION_PN ) );
+
+        Color   color   = new Color( 0x123456 );
+        pmgr.setProperty( CPConstants.MW_BG_COLOR_PN, color );
+        assertEquals( color, pmgr.asColor( Property.MW_BG_COLOR ) );
+
+        pmgr.setProperty( CPConstants.MW_BG_COLOR_PN, "bold italic" );
+        assertEquals(
+            Font.BOLD | Font.ITALIC,
+            pmgr.asFontStyle( Property.MW_BG_COLOR )
+        );
+        assertThrows(
+            NumberFormatException.class,
+            () -> pmgr.asColor( Property.MW_BG_COLOR )
+        );
+        assertThrows(
+            NumberFormatException.class,
+            () -> pmgr.asFloat( CPConstants.MW_BG_COLOR_PN )
+        );
+
+        // Properties not enumerated by Property
+        String  propName    = "propertyTestProperty";
+        assertNull( pmgr.asString( propName ) );
+        pmgr.setProperty( propName, 7 );
+        assertEquals( 7, pmgr.asInt( propName ) );
+        assertNotNull( pmgr.asColor( propName ) );
+    }
+}
@@ -0,0 +1,223 @@
+package com.acmemail.judah.cartesian_plane;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RenderLayerTest
+{
+    private static final int    width   = 100;
+    private static final int    height  = 50;
+
+    private BufferedImage   targetImage;
+    private Graphics2D      target;
+
+    @BeforeEach
+    public void beforeEach() throws Exception
+    {
+        int     type    = BufferedImage.TYPE_INT_RGB;
+        targetImage = new BufferedImage( 2 * width, 2 * height, type );
+        target = targetImage.createGraphics();
+    }
+
+    @AfterEach
+    public void afterEach()
+    {
+        target.dispose();
+    }
+
+    @Test
+    public void testValid()
+    {
+        RenderLayer layer   = new RenderLayer( false );
+        assertFalse( layer.isValid( target, width, height ) );
+        assertNull( layer.getImage() );
+
+        layer.begin( null, target, width, height ).dispose();
+        assertTrue( layer.isValid( target, width, height ) );
+        BufferedImage   image   = layer.getImage();
+
+        // Image is reused if size doesn't change
+        layer.invalidate();
+        assertFalse( layer.isValid( target, width, height ) );
+        layer.begin( null, target, width, height ).dispose();
+        assertSame( image, layer.getImage() );
+
+        // Size change invalidates layer
+        assertFalse( layer.isValid( target, width + 1, height ) );
+        assertFalse( layer.isValid( target, width, height + 1 ) );
+    }
+
+    @Test
+    public void testDraw()
+    {
+        RenderLayer opaque      = new RenderLayer( false );
+        Graphics2D  gtx         = opaque.begin( null, target, width, height );
+        gtx.setColor( Color.RED );
+        gtx.fillRect( 0, 0, width, height );
+        gtx.dispose();
+
+        RenderLayer transparent = new RenderLayer( true );
+        gtx = transparent.begin( null, target, width, height );
+        gtx.setColor( Color.BLUE );
+        gtx.fillRect( 10, 10, 10, 10 );
+        gtx.dispose();
+
+        opaque.draw( target );
+        transparent.draw( target );
+        assertEquals( Color.RED.getRGB(), targetImage.getRGB( 5, 5 ) );
+        assertEquals( Color.BLUE.getRGB(), targetImage.getRGB( 15, 15 ) );
+
+        // Re-rendering a transparent layer clears it
+        gtx = transparent.begin( null, target, width, height );
+        gtx.dispose();
+        opaque.draw( target );
+        transparent.draw( target );
+        assertEquals( Color.RED.getRGB(), targetImage.getRGB( 15, 15 ) );
+    }
+
+    @Test
+    public void testScale()
+    {
+        RenderLayer layer   = new RenderLayer( false );
+        layer.begin( null, target, width, height ).dispose();
+        BufferedImage   image   = layer.getImage();
+        assertEquals( width, image.getWidth() );
+        assertEquals( height, image.getHeight() );
+
+        // Simulate a HiDPI display
+        target.scale( 2, 2 );
+        assertFalse( layer.isValid( target, width, height ) );
+        Graphics2D      gtx     = layer.begin( null, target, width, height );
+        gtx.setColor( Color.GREEN );
+        gtx.fillRect( width - 1, height - 1, 1, 1 );
+        gtx.dispose();
+        image = layer.getImage();
+        assertEquals( 2 * width, image.getWidth() );
+        assertEquals( 2 * height, image.getHeight() );
+        assertTrue( layer.isValid( target, width, height ) );
+
+        // One image pixel per device pixel
+        layer.draw( target );
+        int     green   = Color.GREEN.getRGB();
+        int     xco     = 2 * width;
+        int     yco     = 2 * height;
+        assertEquals( green, targetImage.getRGB( xco - 1, yco - 1 ) );
+        assertEquals( green, targetImage.getRGB( xco - 2, yco - 2 ) );
+        assertNotEquals( green, targetImage.getRGB( xco - 3, yco - 3 ) );
+    }
+
+    @Test
+    public void testEdit()
+    {
+        RenderLayer layer   = new RenderLayer( true );
+        assertThrows( IllegalStateException.class, () -> layer.edit( target ) );
+
+        Graphics2D  gtx     = layer.begin( null, target, width, height );
+        gtx.setColor( Color.RED );
+        gtx.fillRect( 0, 0, 10, 10 );
+        gtx.dispose();
+
+        // Editing preserves existing contents
+        gtx = layer.edit( target );
+        gtx.setColor( Color.BLUE );
+        gtx.fillRect( 20, 20, 10, 10 );
+        gtx.dispose();
+        assertTrue( layer.isValid( target, width, height ) );
+
+        BufferedImage   image   = layer.getImage();
+        assertEquals( Color.RED.getRGB(), image.getRGB( 5, 5 ) );
+        assertEquals( Color.BLUE.getRGB(), image.getRGB( 25, 25 ) );
+    }
+
+    @Test
+    public void testScroll()
+    {
+        RenderLayer opaque      = new RenderLayer( false );
+        RenderLayer transparent = new RenderLayer( true );
+        for ( RenderLayer layer : new RenderLayer[] { opaque, transparent } )
+        {
+            Graphics2D  gtx = layer.begin( null, target, width, height );
+            gtx.setColor( Color.RED );
+            gtx.fillRect( 0, 0, width, height );
+            gtx.setColor( Color.BLUE );
+            gtx.fillRect( 40, 20, 10, 10 );
+            gtx.dispose();
+        }
+
+        // Scroll all but a 10 pixel border
+        Rectangle2D area    = 
+            new Rectangle2D.Double( 10, 10, width - 20, height - 20 );
+        int         red     = Color.RED.getRGB();
+        int         blue    = Color.BLUE.getRGB();
+        opaque.scroll( area, 5, -3 );
+        transparent.scroll( area, 5, -3 );
+
+        BufferedImage   image   = opaque.getImage();
+        assertEquals( blue, image.getRGB( 45, 17 ) );
+        assertEquals( blue, image.getRGB( 54, 26 ) );
+        assertEquals( red, image.getRGB( 44, 27 ) );
+        
+        image = transparent.getImage();
+        assertEquals( blue, image.getRGB( 45, 17 ) );
+        assertEquals( blue, image.getRGB( 54, 26 ) );
+        // Exposed strips are cleared...
+        assertEquals( 0, image.getRGB( 12, 20 ) );
+        assertEquals( 0, image.getRGB( 50, height - 12 ) );
+        assertEquals( red, image.getRGB( 15, 20 ) );
+        // ... and the area outside the scrolled area is unchanged
+        assertEquals( red, image.getRGB( 5, 5 ) );
+        assertEquals( red, image.getRGB( 50, height - 5 ) );
+    }
+
+    @Test
+    public void testScrollTransparent()
+    {
+        RenderLayer layer   = new RenderLayer( true );
+        Graphics2D  gtx     = layer.begin( null, target, width, height );
+        gtx.setColor( Color.BLUE );
+        gtx.fillRect( 40, 20, 10, 10 );
+        gtx.dispose();
+
+        // Transparent pixels replace the original contents
+        Rectangle2D area    = new Rectangle2D.Double( 0, 0, width, height );
+        layer.scroll( area, 20, 0 );
+        BufferedImage   image   = layer.getImage();
+        assertEquals( 0, image.getRGB( 45, 25 ) );
+        assertEquals( Color.BLUE.getRGB(), image.getRGB( 65, 25 ) );
+    }
+
+    @Test
+    public void testScrollScaled()
+    {
+        target.scale( 2, 2 );
+        RenderLayer layer   = new RenderLayer( false );
+        Graphics2D  gtx     = layer.begin( null, target, width, height );
+        gtx.setColor( Color.RED );
+        gtx.fillRect( 0, 0, width, height );
+        gtx.setColor( Color.BLUE );
+        gtx.fillRect( 10, 10, 1, 1 );
+        gtx.dispose();
+
+        Rectangle2D area    = new Rectangle2D.Double( 0, 0, width, height );
+        layer.scroll( area, 2, 1 );
+        BufferedImage   image   = layer.getImage();
+        int             blue    = Color.BLUE.getRGB();
+        assertEquals( blue, image.getRGB( 24, 22 ) );
+        assertEquals( blue, image.getRGB( 25, 23 ) );
+        assertEquals( Color.RED.getRGB(), image.getRGB( 20, 20 ) );
+    }
+}
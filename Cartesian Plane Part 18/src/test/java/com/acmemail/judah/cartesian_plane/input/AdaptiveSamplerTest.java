@@ -0,0 +1,297 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.geom.Rectangle2D;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveSamplerTest
+{
+    private static final double     gridUnit    = 65;
+    private static final double     epsilon     = .000001;
+
+    private Equation    equation;
+    private PointBuffer buffer;
+
+    @BeforeEach
+    public void beforeEach() throws Exception
+    {
+        equation = new Exp4jEquation();
+        buffer = new PointBuffer();
+    }
+
+    @Test
+    public void testYPlot()
+    {
+        equation.setYExpression( "sin(x)" );
+        setRange( "-10", "10", ".0001" );
+        AdaptiveSampler sampler =
+            new AdaptiveSampler( equation, Command.YPLOT, gridUnit );
+        sampler.sample( buffer );
+
+        int size    = buffer.size();
+        assertTrue( size > 0 );
+        assertEquals( -10, buffer.getXco( 0 ), epsilon );
+        assertEquals( 10, buffer.getXco( size - 1 ), epsilon );
+        for ( int inx = 0 ; inx < size ; ++inx )
+        {
+            assertFalse( buffer.isBreak( inx ) );
+            double  xco = buffer.getXco( inx );
+            assertEquals( Math.sin( xco ), buffer.getYco( inx ), epsilon );
+            if ( inx > 0 )
+                assertTrue( xco > buffer.getXco( inx - 1 ) );
+        }
+        validateGaps( AdaptiveSampler.DEF_MAX_GAP );
+
+        // Fewer evaluations than the fixed-step equivalent
+        int fixedCount  = equation.getRangeSize();
+        assertTrue( sampler.getEvaluationCount() * 10 < fixedCount );
+    }
+
+    @Test
+    public void testYPlotFlat()
+    {
+        // With the default range (-1 to 1, increment .05)
+        // a flat curve should need fewer evaluations
+        // than the fixed-step equivalent.
+        equation.setYExpression( "1" );
+        AdaptiveSampler sampler =
+            new AdaptiveSampler( equation, Command.YPLOT, gridUnit );
+        sampler.sample( buffer );
+        int fixedCount  = equation.getRangeSize();
+        assertTrue( sampler.getEvaluationCount() < fixedCount );
+        validateGaps( AdaptiveSampler.DEF_MAX_GAP );
+        
+        // A straight line is no different
+        equation.setYExpression( "2x + 1" );
+        sampler.sample( buffer );
+        assertTrue( sampler.getEvaluationCount() < fixedCount );
+        validateGaps( AdaptiveSampler.DEF_MAX_GAP );
+    }
+
+    @Test
+    public void testXYPlot()
+    {
+        double  radius  = 3;
+        equation.setVar( "a", radius );
+        equation.setXExpression( "a * cos(t)" );
+        equation.setYExpression( "a * sin(t)" );
+        setRange( "0", "2pi", ".01" );
+        equation.adaptivePlot( Command.XYPLOT, gridUnit, null, buffer );
+
+        int size    = buffer.size();
+        assertTrue( size > 0 );
+        for ( int inx = 0 ; inx < size ; ++inx )
+        {
+            double  xco     = buffer.getXco( inx );
+            double  yco     = buffer.getYco( inx );
+            assertEquals( radius, Math.hypot( xco, yco ), epsilon );
+        }
+        validateGaps( AdaptiveSampler.DEF_MAX_GAP );
+    }
+
+    @Test
+    public void testRPlot()
+    {
+        equation.setVar( "a", 2 );
+        equation.setRExpression( "a * sin(2t)" );
+        setRange( "0", "2pi", ".01" );
+        equation.adaptivePlot( Command.RPLOT, gridUnit, null, buffer );
+
+        int size    = buffer.size();
+        assertTrue( size > 0 );
+        for ( int inx = 0 ; inx < size ; ++inx )
+        {
+            double  xco     = buffer.getXco( inx );
+            double  yco     = buffer.getYco( inx );
+            assertTrue( Math.hypot( xco, yco ) <= 2 + epsilon );
+        }
+        validateGaps( AdaptiveSampler.DEF_MAX_GAP );
+    }
+
+    @Test
+    public void testTPlot()
+    {
+        equation.setTExpression( "r" );
+        setRange( "0", "5", ".01" );
+        equation.adaptivePlot( Command.TPLOT, gridUnit, null, buffer );
+
+        int size    = buffer.size();
+        assertTrue( size > 0 );
+        for ( int inx = 0 ; inx < size ; ++inx )
+        {
+            double  xco     = buffer.getXco( inx );
+            double  yco     = buffer.getYco( inx );
+            assertTrue( Math.hypot( xco, yco ) <= 5 + epsilon );
+        }
+        validateGaps( AdaptiveSampler.DEF_MAX_GAP );
+    }
+
+    @Test
+    public void testDiscontinuity()
+    {
+        equation.setYExpression( "tan(x)" );
+        setRange( "-3", "3", ".001" );
+        Rectangle2D bounds  = new Rectangle2D.Double( -5, -5, 10, 10 );
+        equation.adaptivePlot( Command.YPLOT, gridUnit, bounds, buffer );
+
+        // Expect a break at each pole, +/- pi/2
+        int size        = buffer.size();
+        int numBreaks   = 0;
+        for ( int inx = 0 ; inx < size ; ++inx )
+            if ( buffer.isBreak( inx ) )
+                ++numBreaks;
+        assertEquals( 2, numBreaks );
+
+        // No two consecutive points may straddle a pole
+        double  pole    = Math.PI / 2;
+        for ( int inx = 1 ; inx < size ; ++inx )
+        {
+            if ( !buffer.isBreak( inx ) && !buffer.isBreak( inx - 1 ) )
+            {
+                double  prev    = Math.abs( buffer.getXco( inx - 1 ) );
+                double  curr    = Math.abs( buffer.getXco( inx ) );
+                assertFalse( prev < pole && curr > pole );
+                assertFalse( prev > pole && curr < pole );
+            }
+        }
+    }
+
+    @Test
+    public void testUndefined()
+    {
+        // Points that can't be evaluated are omitted
+        equation.setYExpression( "sqrt(x)" );
+        setRange( "-1", "1", ".001" );
+        equation.adaptivePlot( Command.YPLOT, gridUnit, null, buffer );
+
+        int size    = buffer.size();
+        assertTrue( size > 0 );
+        for ( int inx = 0 ; inx < size ; ++inx )
+        {
+            assertFalse( buffer.isBreak( inx ) );
+            assertTrue( buffer.getXco( inx ) >= 0 );
+        }
+        assertEquals( 0, buffer.getXco( 0 ), .001 );
+    }
+
+    @Test
+    public void testBounds()
+    {
+        equation.setYExpression( "x^2" );
+        setRange( "-100", "100", ".001" );
+
+        AdaptiveSampler unbounded   =
+            new AdaptiveSampler( equation, Command.YPLOT, gridUnit );
+        unbounded.sample( buffer );
+
+        Rectangle2D     bounds      = new Rectangle2D.Double( -1, -1, 2, 2 );
+        AdaptiveSampler bounded     =
+            new AdaptiveSampler( equation, Command.YPLOT, gridUnit );
+        bounded.setBounds( bounds );
+        bounded.sample( buffer );
+        assertTrue(
+            bounded.getEvaluationCount() * 10
+                < unbounded.getEvaluationCount()
+        );
+
+        // The visible portion is still resolved:
+        // the midpoint of each visible segment
+        // is within tolerance of the curve.
+        for ( int inx = 1 ; inx < buffer.size() ; ++inx )
+        {
+            double  prevXco = buffer.getXco( inx - 1 );
+            double  currXco = buffer.getXco( inx );
+            if ( Math.abs( prevXco ) < 1 && Math.abs( currXco ) < 1 )
+            {
+                double  midXco  = (prevXco + currXco) / 2;
+                double  midYco  = 
+                    (buffer.getYco( inx - 1 ) + buffer.getYco( inx )) / 2;
+                double  dev     = (midYco - midXco * midXco) * gridUnit;
+                assertTrue( dev <= AdaptiveSampler.DEF_TOLERANCE, "" + inx );
+            }
+        }
+    }
+
+    @Test
+    public void testEmptyRange()
+    {
+        setRange( "1", "-1", ".1" );
+        equation.adaptivePlot( Command.YPLOT, gridUnit, null, buffer );
+        assertEquals( 0, buffer.size() );
+
+        setRange( "1", "1", ".1" );
+        equation.adaptivePlot( Command.YPLOT, gridUnit, null, buffer );
+        assertEquals( 1, buffer.size() );
+    }
+
+    @Test
+    public void testGoWrong()
+    {
+        Class<IllegalArgumentException> clazz   =
+            IllegalArgumentException.class;
+        assertThrows( clazz, () ->
+            new AdaptiveSampler( equation, Command.SET, gridUnit )
+        );
+        assertThrows( clazz, () ->
+            new AdaptiveSampler( equation, Command.YPLOT, 0 )
+        );
+        assertThrows( clazz, () ->
+            new AdaptiveSampler( equation, Command.YPLOT, 1, 0, 1 )
+        );
+        assertThrows( clazz, () ->
+            new AdaptiveSampler( equation, Command.YPLOT, 1, 1, 0 )
+        );
+    }
+
+    /**
+     * Sets the iteration range of the equation under test.
+     *
+     * @param start the start of the range
+     * @param end   the end of the range
+     * @param step  the range increment
+     */
+    private void setRange( String start, String end, String step )
+    {
+        assertTrue( equation.setRangeStart( start ).isSuccess() );
+        assertTrue( equation.setRangeEnd( end ).isSuccess() );
+        assertTrue( equation.setRangeStep( step ).isSuccess() );
+    }
+
+    /**
+     * Verifies that no two consecutive points in the buffer
+     * are separated by more than a given distance, in pixels.
+     *
+     * @param maxGap    the given distance
+     */
+    private void validateGaps( double maxGap )
+    {
+        for ( int inx = 1 ; inx < buffer.size() ; ++inx )
+        {
+            if ( !buffer.isBreak( inx ) && !buffer.isBreak( inx - 1 ) )
+                assertTrue( getGap( inx - 1, inx ) <= maxGap, "" + inx );
+        }
+    }
+
+    /**
+     * Calculates the distance, in pixels,
+     * between two points in the buffer.
+     *
+     * @param from  index of the first point
+     * @param to    index of the second point
+     *
+     * @return  the distance between the two points, in pixels
+     */
+    private double getGap( int from, int to )
+    {
+        double  xDiff   = buffer.getXco( to ) - buffer.getXco( from );
+        double  yDiff   = buffer.getYco( to ) - buffer.getYco( from );
+        double  gap     = Math.hypot( xDiff, yDiff ) * gridUnit;
+        return gap;
+    }
+}
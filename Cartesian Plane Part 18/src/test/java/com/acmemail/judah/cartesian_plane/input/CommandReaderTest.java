@@ -1,6 +1,7 @@
 package com.acmemail.judah.cartesian_plane.input;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -11,7 +12,12 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.PrintStream;
 import java.io.PrintWriter;
+import java.io.StringReader;
+import java.nio.CharBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 import java.util.stream.Collectors;
@@ -20,6 +26,7 @@ import java.util.stream.Stream;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
@@ -61,6 +68,9 @@ class CommandReaderTest
     private List<ParsedCommand> expResults;
     private List<ParsedCommand> actResults;
     
+    @TempDir
+    private Path                tempDir;
+    
     @BeforeEach
     public void beforeEach()
     {
@@ -360,6 +370,156 @@ class CommandReaderTest
 
     }
     
+    @Test
+    public void testText() throws IOException
+    {
+        String          text        = getMixedText( "\r\n" );
+        List<ParsedCommand> expList = readAll( text );
+        assertTrue( expList.size() > 10 );
+        
+        String[]    lineSeps    = { "\n", "\r", "\r\n" };
+        for ( String lineSep : lineSeps )
+        {
+            String          next        = getMixedText( lineSep );
+            CommandReader   cmdReader   = new CommandReader( next );
+            actResults.clear();
+            ParsedCommand   command     = cmdReader.nextCommand( null );
+            while ( command.getCommand() != Command.NONE )
+            {
+                actResults.add( command );
+                command = cmdReader.nextCommand( null );
+            }
+            assertEquals( expList, actResults );
+            
+            // EOF is sticky
+            command = cmdReader.nextCommand( null );
+            assertEquals( Command.NONE, command.getCommand() );
+            
+            cmdReader = new CommandReader( CharBuffer.wrap( next ) );
+            actResults = cmdReader.stream().collect( Collectors.toList() );
+            assertEquals( expList, actResults );
+        }
+    }
+    
+    @Test
+    public void testTextEmpty() throws IOException
+    {
+        String[]    texts   = { "", "\n", "  \r\n# comment\r\n\t" };
+        for ( String text : texts )
+        {
+            CommandReader   cmdReader   = new CommandReader( text );
+            assertEquals( 0, cmdReader.stream().count() );
+            cmdReader = new CommandReader( text );
+            ParsedCommand   command     = cmdReader.nextCommand( null );
+            assertEquals( new ParsedCommand( Command.NONE, "", "" ), command );
+        }
+    }
+    
+    @Test
+    public void testTextSharedCommandStrings() throws IOException
+    {
+        String          text        = "END 1\nend 2\nEnd 3\nend 4";
+        CommandReader   cmdReader   = new CommandReader( text );
+        assertSame( "END", cmdReader.nextCommand( null ).getCommandString() );
+        String          lower       = 
+            cmdReader.nextCommand( null ).getCommandString();
+        assertEquals( "end", lower );
+        assertEquals( "End", cmdReader.nextCommand( null ).getCommandString() );
+        assertSame( lower, cmdReader.nextCommand( null ).getCommandString() );
+    }
+    
+    @ParameterizedTest
+    @ValueSource( strings = 
+        { "end", "end   arg  ", "x=", "Y=  arg", "t=arg", "bad arg", "b" }
+    )
+    public void testParseCommandRange( String line )
+    {
+        String          padded  = "##" + line + "##";
+        int             end     = line.length() + 2;
+        ParsedCommand   parsed  = 
+            CommandReader.parseCommand( padded, 2, end );
+        assertEquals( CommandReader.parseCommand( line ), parsed );
+    }
+    
+    @Test
+    public void testOpen() throws IOException
+    {
+        // One file smaller than the mapping threshold, one larger
+        int[]   reps    = { 1, 2000 };
+        for ( int rep : reps )
+        {
+            StringBuilder   bldr    = new StringBuilder();
+            for ( int inx = 0 ; inx < rep ; ++inx )
+                bldr.append( getMixedText( System.lineSeparator() ) );
+            String          text    = bldr.toString();
+            Path            file    = tempDir.resolve( "file" + rep );
+            Files.writeString( file, text );
+            
+            List<ParsedCommand> expList     = readAll( text );
+            CommandReader       cmdReader   = CommandReader.open( file );
+            actResults = cmdReader.stream().collect( Collectors.toList() );
+            assertEquals( expList, actResults );
+        }
+    }
+    
+    /**
+     * Generates text containing
+     * a mix of commands, shortcuts,
+     * comments, blank lines and invalid commands,
+     * with leading and trailing whitespace.
+     * 
+     * @param lineSep   the line separator to use
+     * 
+     * @return  the generated text
+     */
+    private String getMixedText( String lineSep )
+    {
+        Random          rand    = new Random( 1 );
+        StringBuilder   bldr    = new StringBuilder();
+        // NONE is omitted; reading it would be indistinguishable from EOF
+        Command[]       cmds    = Arrays.stream( Command.values() )
+            .filter( c -> c != Command.NONE )
+            .toArray( Command[]::new );
+        for ( Command cmd : cmds )
+        {
+            String  name    = cmd.name();
+            String  cmdStr  = 
+                rand.nextBoolean() ? name.toLowerCase() : name;
+            bldr.append( "  " ).append( cmdStr ).append( " \t" )
+                .append( lineSep )
+                .append( "# " ).append( name ).append( lineSep )
+                .append( lineSep )
+                .append( cmdStr ).append( "   arg  " ).append( name )
+                .append( lineSep );
+        }
+        bldr.append( "x=a" ).append( lineSep )
+            .append( "Y=  b c " ).append( lineSep )
+            .append( "r= 1" ).append( lineSep )
+            .append( "T=" ).append( lineSep )
+            .append( "\tbogus command  " ).append( lineSep )
+            .append( "SeT a=1" );
+        return bldr.toString();
+    }
+    
+    /**
+     * Parses given text
+     * using a CommandReader
+     * that reads from a BufferedReader.
+     * 
+     * @param text  the given text
+     * 
+     * @return  list of commands parsed from the given text
+     */
+    private List<ParsedCommand> readAll( String text )
+    {
+        BufferedReader  reader  = 
+            new BufferedReader( new StringReader( text ) );
+        List<ParsedCommand> list    = 
+            new CommandReader( reader ).stream()
+                .collect( Collectors.toList() );
+        return list;
+    }
+    
     @Test
     public void testPrompt()
     {
@@ -40,6 +40,27 @@ class CommandTest
         assertEquals( Command.INVALID, Command.toCommand( "not-a-command" ) );
     }
 
+    @Test
+    void testToCommandRange()
+    {
+        Arrays.stream( Command.values() )
+            .forEach( c -> {
+                String  text    = c.name();
+                int     len     = text.length();
+                String  lower   = "x " + text.toLowerCase() + " y";
+                assertEquals( c, Command.toCommand( text, 0, len ) );
+                assertEquals( c, Command.toCommand( lower, 2, len + 2 ) );
+                assertEquals( 
+                    Command.INVALID,
+                    Command.toCommand( text, 0, len - 1 )
+                );
+            });
+        
+        assertEquals( Command.NONE, Command.toCommand( "end", 1, 1 ) );
+        assertEquals( Command.INVALID, Command.toCommand( "plat", 0, 4 ) );
+        assertEquals( Command.INVALID, Command.toCommand( "yplots", 0, 6 ) );
+    }
+
     @Test
     void testUsage()
     {
@@ -0,0 +1,164 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class EquationDescriptorTest
+{
+    @TempDir
+    private Path    tempDir;
+
+    @AfterEach
+    public void afterEach()
+    {
+        EquationMap.setMaterializedLimit( 0 );
+        EquationMap.init();
+    }
+
+    @Test
+    public void testRead() throws Exception
+    {
+        Path    file    = write( "eq.txt",
+            "# comment",
+            "",
+            "  equation  eName  ",
+            "set a=5",
+            "y= a x"
+        );
+        EquationDescriptor  descriptor  = EquationDescriptor.read( file, true );
+        assertNotNull( descriptor );
+        assertEquals( "eName", descriptor.getName() );
+        assertEquals( file, descriptor.getSource() );
+        assertEquals(
+            List.of( "equation eName", "set a=5", "y= a x" ),
+            descriptor.getCommands()
+        );
+
+        assertFalse( descriptor.isMaterialized() );
+        Equation    equation    = descriptor.getEquation();
+        assertTrue( descriptor.isMaterialized() );
+        assertEquals( "eName", equation.getName() );
+        assertEquals( 5., equation.getVar( "a" ).orElse( null ) );
+        assertEquals( "a x", equation.getYExpression() );
+        assertSame( equation, descriptor.getEquation() );
+
+        descriptor.release();
+        assertFalse( descriptor.isMaterialized() );
+        assertNotSame( equation, descriptor.getEquation() );
+    }
+
+    @Test
+    public void testReadStrict() throws Exception
+    {
+        Path    file    = write( "late.txt", "set a=5", "equation late" );
+        assertNull( EquationDescriptor.read( file, true ) );
+        EquationDescriptor  descriptor  = EquationDescriptor.read( file, false );
+        assertNotNull( descriptor );
+        assertEquals( "late", descriptor.getName() );
+
+        file = write( "noName.txt", "equation", "y= 2x" );
+        assertNull( EquationDescriptor.read( file, true ) );
+        assertNull( EquationDescriptor.read( file, false ) );
+    }
+
+    @Test
+    public void testReadStrictBinary() throws Exception
+    {
+        // Large enough to be mapped if read in full;
+        // the bytes are not valid in most character sets.
+        byte[]  bytes   = new byte[256 * 1024];
+        for ( int inx = 0 ; inx < bytes.length ; ++inx )
+            bytes[inx] = (byte)(0x80 | inx);
+        bytes[100] = '\n';
+        Path    file    = tempDir.resolve( "image.png" );
+        Files.write( file, bytes );
+        assertNull( EquationDescriptor.read( file, true ) );
+        
+        // An equation file with a binary tail
+        // is read in full.
+        byte[]  header  = "equation binary\ny= 2x\n".getBytes();
+        System.arraycopy( header, 0, bytes, 0, header.length );
+        Files.write( file, bytes );
+        EquationDescriptor  descriptor  = EquationDescriptor.read( file, true );
+        assertNotNull( descriptor );
+        assertEquals( "binary", descriptor.getName() );
+        assertTrue( descriptor.getCommands().contains( "y= 2x" ) );
+    }
+
+    @Test
+    public void testLazyEquationMap() throws Exception
+    {
+        for ( int inx = 0 ; inx < 5 ; ++inx )
+            write( "eq" + inx + ".txt", "equation eq" + inx, "y= " + inx );
+        EquationMap.init();
+        EquationMap.parseEquationFiles( tempDir.toFile() );
+
+        Map<String,EquationDescriptor>  descriptors = 
+            EquationMap.getDescriptorMap();
+        Map<String,Equation>            equations   = 
+            EquationMap.getEquationMap();
+        assertEquals( 5, equations.size() );
+        assertTrue( equations.containsKey( "eq3" ) );
+        descriptors.values()
+            .forEach( d -> assertFalse( d.isMaterialized() ) );
+
+        assertEquals( "3", equations.get( "eq3" ).getYExpression() );
+        assertTrue( descriptors.get( "eq3" ).isMaterialized() );
+        assertFalse( descriptors.get( "eq2" ).isMaterialized() );
+
+        // Limit materialized equations; least recently used is released
+        EquationMap.setMaterializedLimit( 2 );
+        Equation    eq0 = EquationMap.getEquation( "eq0" );
+        EquationMap.getEquation( "eq1" );
+        EquationMap.getEquation( "eq0" );
+        EquationMap.getEquation( "eq2" );
+        assertTrue( descriptors.get( "eq0" ).isMaterialized() );
+        assertFalse( descriptors.get( "eq1" ).isMaterialized() );
+        assertTrue( descriptors.get( "eq2" ).isMaterialized() );
+        assertSame( eq0, EquationMap.getEquation( "eq0" ) );
+        
+        // A modified equation is never released
+        Equation    eq2 = EquationMap.getEquation( "eq2" );
+        eq2.setVar( "a", 1 );
+        EquationMap.getEquation( "eq3" );
+        EquationMap.getEquation( "eq4" );
+        assertFalse( descriptors.get( "eq0" ).isMaterialized() );
+        assertTrue( descriptors.get( "eq2" ).isMaterialized() );
+        assertSame( eq2, EquationMap.getEquation( "eq2" ) );
+        assertEquals( 1., eq2.getVar( "a" ).orElse( null ) );
+        
+        EquationMap.setMaterializedLimit( 1 );
+        assertTrue( descriptors.get( "eq2" ).isMaterialized() );
+    }
+
+    @Test
+    public void testGoWrong()
+    {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> EquationMap.setMaterializedLimit( -1 )
+        );
+    }
+
+    private Path write( String name, String... lines ) throws Exception
+    {
+        Path    file    = tempDir.resolve( name );
+        Files.write( file, List.of( lines ) );
+        return file;
+    }
+}
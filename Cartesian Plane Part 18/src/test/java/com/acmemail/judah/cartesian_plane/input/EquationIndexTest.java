@@ -0,0 +1,176 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class EquationIndexTest
+{
+    private static final int    numEquations    = 10;
+
+    @TempDir
+    private Path    tempDir;
+
+    @BeforeEach
+    public void beforeEach() throws Exception
+    {
+        Path    subDir  = Files.createDirectories( tempDir.resolve( "sub" ) );
+        for ( int inx = 0 ; inx < numEquations ; ++inx )
+        {
+            Path    dir     = inx % 2 == 0 ? tempDir : subDir;
+            write( dir.resolve( "eq" + inx + ".txt" ), inx, inx );
+        }
+        Files.write( tempDir.resolve( "notEq.txt" ), List.of( "y= 2x" ) );
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception
+    {
+        Map<String,Equation>    parsed  = load();
+        assertTrue( parsed.keySet().contains( "eName0" ) );
+        Path                    idxPath = 
+            tempDir.resolve( EquationIndex.INDEX_NAME );
+        assertTrue( Files.exists( idxPath ) );
+
+        EquationIndex   index   = new EquationIndex( tempDir );
+        assertTrue( index.read() );
+        assertEquals( numEquations + 1, index.size() );
+
+        Map<String,Equation>    indexed = load();
+        assertEquals( parsed.keySet(), indexed.keySet() );
+        for ( String name : parsed.keySet() )
+        {
+            Equation    expEq   = parsed.get( name );
+            Equation    actEq   = indexed.get( name );
+            assertEquals( expEq.getVars(), actEq.getVars() );
+            assertEquals( expEq.getParamName(), actEq.getParamName() );
+            assertEquals( expEq.getRadiusName(), actEq.getRadiusName() );
+            assertEquals( expEq.getThetaName(), actEq.getThetaName() );
+            assertEquals( expEq.getRangeStartExpr(), actEq.getRangeStartExpr() );
+            assertEquals( expEq.getRangeEndExpr(), actEq.getRangeEndExpr() );
+            assertEquals( expEq.getRangeStepExpr(), actEq.getRangeStepExpr() );
+            assertEquals( expEq.getRangeEnd(), actEq.getRangeEnd() );
+            assertEquals( expEq.getXExpression(), actEq.getXExpression() );
+            assertEquals( expEq.getYExpression(), actEq.getYExpression() );
+            assertEquals( expEq.getTExpression(), actEq.getTExpression() );
+            assertEquals( expEq.getRExpression(), actEq.getRExpression() );
+            assertEquals( expEq.getPrecision(), actEq.getPrecision() );
+            assertEquals( expEq.getPlot(), actEq.getPlot() );
+        }
+    }
+
+    @Test
+    public void testIncrementalUpdate() throws Exception
+    {
+        load();
+
+        // Same size and modification time: the index is trusted,
+        // so the modified file is not reparsed.
+        Path        file    = tempDir.resolve( "eq0.txt" );
+        FileTime    mtime   = Files.getLastModifiedTime( file );
+        write( file, 0, 9 );
+        Files.setLastModifiedTime( file, mtime );
+        Equation    equation    = load().get( "eName0" );
+        assertNotNull( equation );
+        assertEquals( 0., equation.getVar( "a" ).orElse( null ) );
+
+        // Modification time changed: the file is reparsed.
+        Files.setLastModifiedTime( file, FileTime.fromMillis( 0 ) );
+        equation = load().get( "eName0" );
+        assertEquals( 9., equation.getVar( "a" ).orElse( null ) );
+
+        // Deleted files are dropped from the index.
+        Files.delete( tempDir.resolve( "sub/eq1.txt" ) );
+        Map<String,Equation>    map     = load();
+        assertEquals( numEquations - 1, map.size() );
+        EquationIndex           index   = new EquationIndex( tempDir );
+        assertTrue( index.read() );
+        assertEquals( numEquations, index.size() );
+    }
+
+    @Test
+    public void testCorruptIndex() throws Exception
+    {
+        Path    idxPath = tempDir.resolve( EquationIndex.INDEX_NAME );
+        Files.write( idxPath, new byte[] { 0x45, 0x51, 0x49, 0x58, 0, 0 } );
+        EquationIndex   index   = new EquationIndex( tempDir );
+        assertFalse( index.read() );
+        assertEquals( 0, index.size() );
+
+        assertEquals( numEquations, load().size() );
+        assertTrue( index.read() );
+        assertEquals( numEquations + 1, index.size() );
+    }
+
+    @Test
+    public void testCorruptLength() throws Exception
+    {
+        load();
+        Path    idxPath = tempDir.resolve( EquationIndex.INDEX_NAME );
+        byte[]  bytes   = Files.readAllBytes( idxPath );
+        
+        // The first entry begins with the length of its path,
+        // followed by the path, the modification time and size
+        // of the file, and the length of its data.
+        int     pathPos = 12;
+        int     pathLen = ByteBuffer.wrap( bytes ).getInt( pathPos );
+        int     dataPos = pathPos + 4 + pathLen + 16;
+        int[]   corrupt = { pathPos, dataPos };
+        for ( int pos : corrupt )
+        {
+            for ( int length : new int[] { Integer.MAX_VALUE - 8, -1 } )
+            {
+                byte[]  copy    = bytes.clone();
+                ByteBuffer.wrap( copy ).putInt( pos, length );
+                Files.write( idxPath, copy );
+                EquationIndex   index   = new EquationIndex( tempDir );
+                assertFalse( index.read() );
+                assertEquals( 0, index.size() );
+            }
+        }
+    }
+
+    private Map<String,Equation> load() throws InterruptedException
+    {
+        Map<String,EquationDescriptor>  map     = new ConcurrentHashMap<>();
+        EquationLoader                  loader  = new EquationLoader( map, 2 );
+        loader.setIndex( new EquationIndex( tempDir ) );
+        loader.start( tempDir );
+        loader.await();
+        
+        Map<String,Equation>    result  = new HashMap<>();
+        map.forEach( (n,d) -> result.put( n, d.getEquation() ) );
+        return result;
+    }
+
+    private static void write( Path file, int num, int aVal ) throws Exception
+    {
+        List<String>    lines   = List.of(
+            "equation eName" + num,
+            "set a=" + aVal + ",b=2",
+            "start -2",
+            "end 2pi",
+            "step .01",
+            "param p",
+            "y= a x^2 + b",
+            "x= cos(p)",
+            "prec 4",
+            "plot XYPlot"
+        );
+        Files.write( file, lines );
+    }
+}
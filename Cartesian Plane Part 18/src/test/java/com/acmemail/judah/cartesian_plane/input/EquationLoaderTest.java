@@ -0,0 +1,137 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class EquationLoaderTest
+{
+    private static final int    numEquations    = 50;
+
+    @TempDir
+    private Path                    tempDir;
+    private Map<String,EquationDescriptor>  map;
+
+    @BeforeEach
+    public void beforeEach() throws Exception
+    {
+        map = new ConcurrentHashMap<>();
+        Path    subDir  = Files.createDirectories( tempDir.resolve( "a/b" ) );
+        for ( int inx = 0 ; inx < numEquations ; ++inx )
+        {
+            Path    dir     = inx % 2 == 0 ? tempDir : subDir;
+            Path    file    = dir.resolve( "eq" + inx + ".txt" );
+            List<String>    lines   = List.of(
+                "# Equation " + inx,
+                "equation eName" + inx,
+                "set a=" + inx,
+                "y= a x^2"
+            );
+            Files.write( file, lines );
+        }
+        Files.write( tempDir.resolve( "noName.txt" ), List.of( "equation" ) );
+        Files.write( subDir.resolve( "notEq.txt" ), List.of( "y= 2x" ) );
+    }
+
+    @Test
+    public void testLoad() throws Exception
+    {
+        EquationLoader  loader      = new EquationLoader( map, 3 );
+        AtomicInteger   lastCount   = new AtomicInteger();
+        loader.setProgressListener( 
+            (f, e) -> lastCount.accumulateAndGet( f, Math::max )
+        );
+        loader.start( tempDir );
+        loader.await();
+
+        assertTrue( loader.isDone() );
+        assertFalse( loader.isCancelled() );
+        assertEquals( numEquations + 2, loader.getFileCount() );
+        assertEquals( numEquations, loader.getEquationCount() );
+        assertEquals( numEquations + 2, lastCount.get() );
+        assertEquals( numEquations, map.size() );
+        for ( int inx = 0 ; inx < numEquations ; ++inx )
+        {
+            EquationDescriptor  descriptor  = map.get( "eName" + inx );
+            assertNotNull( descriptor );
+            assertFalse( descriptor.isMaterialized() );
+            Equation            equation    = descriptor.getEquation();
+            assertEquals( (double)inx, equation.getVar( "a" ).orElse( null ) );
+            assertEquals( "a x^2", equation.getYExpression() );
+        }
+    }
+
+    @Test
+    public void testNotDirectory() throws Exception
+    {
+        EquationLoader  loader  = new EquationLoader( map );
+        loader.start( tempDir.resolve( "eq0.txt" ) );
+        loader.await();
+        assertEquals( 0, loader.getFileCount() );
+        assertTrue( map.isEmpty() );
+    }
+
+    @Test
+    public void testCancel() throws Exception
+    {
+        EquationLoader  loader  = new EquationLoader( map, 1 );
+        loader.setProgressListener( (f, e) -> sleep() );
+        loader.start( tempDir );
+        loader.cancel();
+        loader.await();
+        assertTrue( loader.isDone() );
+        assertTrue( loader.isCancelled() );
+        assertTrue( loader.getFileCount() < numEquations + 2 );
+    }
+
+    @Test
+    public void testEquationMap() throws Exception
+    {
+        EquationMap.init();
+        EquationMap.parseEquationFiles( tempDir.toFile() );
+        assertEquals( numEquations, EquationMap.getEquationMap().size() );
+        EquationMap.init();
+    }
+
+    @Test
+    public void testGoWrong() throws IOException
+    {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> new EquationLoader( map, 0 )
+        );
+        EquationLoader  loader  = new EquationLoader( map );
+        loader.start( tempDir );
+        assertThrows(
+            IllegalStateException.class,
+            () -> loader.start( tempDir )
+        );
+        loader.cancel();
+    }
+
+    private static void sleep()
+    {
+        try
+        {
+            Thread.sleep( 10 );
+        }
+        catch ( InterruptedException exc )
+        {
+            // ignore
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.awt.geom.Point2D;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.DoubleUnaryOperator;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import net.objecthunter.exp4j.Expression;
+import net.objecthunter.exp4j.ExpressionBuilder;
+
+class Exp4jCompilerTest
+{
+    private Map<String,Double>  vars;
+
+    @BeforeEach
+    public void beforeEach() throws Exception
+    {
+        vars = new HashMap<>();
+        vars.put( "x", 0. );
+        vars.put( "a", 2. );
+        vars.put( "b", 3. );
+    }
+
+    @ParameterizedTest
+    @ValueSource( strings= {
+        "x",
+        "2",
+        "-0",
+        "2x + 1",
+        "2 * pi / a * x",
+        "a x^2 + b x - 1",
+        "-x^2 + +b",
+        "sin(2 * pi * x / b) + cos(a)",
+        "sqrt(abs(x)) + exp(x / 5) - log10(a + x^2)",
+        "sec(x) + cot(pi / 4) + log2(b + x^2) * signum(x)",
+        "toDegrees(x) - toRadians(x) + csc(x) * cot(x)",
+        "pow(x, a) - pow(b, 2)",
+        "x % 3 + e^a",
+        "1 / (x - 7)",
+    })
+    public void testCompile( String exprStr )
+    {
+        Expression          expr    =
+            new ExpressionBuilder( exprStr )
+                .variables( vars.keySet() )
+                .functions( Exp4jFunctions.getFunctions() )
+                .build();
+        expr.setVariables( vars );
+        DoubleUnaryOperator func    =
+            Exp4jCompiler.compile( exprStr, vars, "x" );
+        for ( double xco = -5 ; xco <= 5 ; xco += .1 )
+        {
+            expr.setVariable( "x", xco );
+            assertEquals( expr.evaluate(), func.applyAsDouble( xco ) );
+        }
+    }
+
+    @Test
+    public void testBinding()
+    {
+        DoubleUnaryOperator func    =
+            Exp4jCompiler.compile( "a t + b", vars, "t" );
+        assertEquals( 7, func.applyAsDouble( 2 ) );
+
+        // Changes to variables do not affect a compiled evaluator
+        vars.put( "a", 10. );
+        assertEquals( 7, func.applyAsDouble( 2 ) );
+        func = Exp4jCompiler.compile( "a t + b", vars, "t" );
+        assertEquals( 23, func.applyAsDouble( 2 ) );
+    }
+
+    @Test
+    public void testDivisionByZero()
+    {
+        DoubleUnaryOperator func    =
+            Exp4jCompiler.compile( "1 / x", vars, "x" );
+        assertEquals( .5, func.applyAsDouble( 2 ) );
+        assertThrows(
+            ArithmeticException.class,
+            () -> func.applyAsDouble( 0 )
+        );
+    }
+
+    @Test
+    public void testCompiledEquation()
+    {
+        Equation    interpreted = new Exp4jEquation();
+        Equation    compiled    = new CompiledEquation();
+        assertEquals( CompiledEquation.class, compiled.newEquation().getClass() );
+        interpreted.setVar( "a", 2 );
+        compiled.setVar( "a", 2 );
+        interpreted.setYExpression( "a sin(x) + cot(x + 1)" );
+        compiled.setYExpression( "a sin(x) + cot(x + 1)" );
+        interpreted.setRangeStart( "-3" );
+        compiled.setRangeStart( "-3" );
+        interpreted.setRangeEnd( "3" );
+        compiled.setRangeEnd( "3" );
+        interpreted.setRangeStep( ".01" );
+        compiled.setRangeStep( ".01" );
+
+        Iterator<Point2D>   expIter = interpreted.yPlot().iterator();
+        Iterator<Point2D>   actIter = compiled.yPlot().iterator();
+        while ( expIter.hasNext() )
+            assertEquals( expIter.next(), actIter.next() );
+        assertEquals( expIter.hasNext(), actIter.hasNext() );
+    }
+
+    @Test
+    public void testCompiledEvaluators()
+    {
+        Equation            equation    = new CompiledEquation();
+        equation.setVar( "a", 2 );
+        DoubleUnaryOperator first       = 
+            equation.prepareEvaluator( "a x", "x" );
+        assertSame( first, equation.prepareEvaluator( "a x", "x" ) );
+        
+        // Revisions of an expression are retained
+        // only until they are displaced by more recent revisions.
+        for ( int inx = 1 ; inx < CompiledEquation.MAX_COMPILED ; ++inx )
+            equation.prepareEvaluator( "a x + " + inx, "x" );
+        assertSame( first, equation.prepareEvaluator( "a x", "x" ) );
+        for ( int inx = 1 ; inx <= CompiledEquation.MAX_COMPILED ; ++inx )
+            equation.prepareEvaluator( "a x - " + inx, "x" );
+        DoubleUnaryOperator next        = 
+            equation.prepareEvaluator( "a x", "x" );
+        assertNotSame( first, next );
+        assertEquals( first.applyAsDouble( 3 ), next.applyAsDouble( 3 ) );
+    }
+
+    @Test
+    public void testGoWrong()
+    {
+        Class<ValidationException>  clazz   = ValidationException.class;
+        assertThrows( clazz, () -> Exp4jCompiler.compile( "q x", vars, "x" ) );
+        assertThrows( clazz, () -> Exp4jCompiler.compile( "2 +", vars, "x" ) );
+        assertThrows( clazz, () -> Exp4jCompiler.compile( "", vars, "x" ) );
+    }
+}
@@ -93,6 +93,69 @@ class Exp4jEquationTest
         validateDefaultYExpression();
     }
 
+    @Test
+    public void testCopy()
+    {
+        equation.setName( "copyTest" );
+        equation.removeVar( "b" );
+        equation.setVar( "q", 2.5 );
+        equation.setVar( "p", 0 );
+        equation.setParamName( "p" );
+        equation.setXExpression( "q * cos(p)" );
+        equation.setYExpression( "q * x^2" );
+        equation.setRangeEnd( "q * 2" );
+        equation.setPrecision( 5 );
+        equation.setPlot( "XYPlot" );
+        equation.setParallel( true );
+
+        Exp4jEquation   copy    = (Exp4jEquation)equation.copy();
+        assertEquals( "copyTest", copy.getName() );
+        assertEquals( equation.getVars(), copy.getVars() );
+        assertEquals( "p", copy.getParamName() );
+        assertEquals( "q * cos(p)", copy.getXExpression() );
+        assertEquals( "q * x^2", copy.getYExpression() );
+        assertEquals( "q * 2", copy.getRangeEndExpr() );
+        assertEquals( 5, copy.getPrecision() );
+        assertEquals( "XYPlot", copy.getPlot() );
+        assertTrue( copy.isParallel() );
+
+        // The default range start expression is not consistent
+        // with the default range start value; the value is copied.
+        assertEquals( equation.getRangeStart(), copy.getRangeStart() );
+        assertEquals( equation.getRangeEnd(), copy.getRangeEnd() );
+        assertEquals( equation.getRangeStep(), copy.getRangeStep() );
+
+        // The equations are independent
+        copy.setVar( "q", 3 );
+        copy.setYExpression( "x" );
+        assertEquals( 2.5, equation.getVar( "q" ).get() );
+        assertEquals( "q * x^2", equation.getYExpression() );
+    }
+
+    @Test
+    public void testGetModificationCount()
+    {
+        long    count   = equation.getModificationCount();
+        equation.setVar( "a", 2 );
+        assertTrue( equation.getModificationCount() > count );
+        
+        count = equation.getModificationCount();
+        equation.setYExpression( "a * x" );
+        assertTrue( equation.getModificationCount() > count );
+        
+        count = equation.getModificationCount();
+        equation.setRangeStep( ".5" );
+        assertTrue( equation.getModificationCount() > count );
+        
+        // Failed and read-only operations are not modifications
+        count = equation.getModificationCount();
+        equation.setYExpression( "a * undeclared" );
+        equation.setRangeStep( "undeclared" );
+        equation.yPlot().count();
+        equation.getVars();
+        assertEquals( count, equation.getModificationCount() );
+    }
+
 
     @Test
     public void testSetRemoveVar()
@@ -431,6 +494,252 @@ class Exp4jEquationTest
         assertThrows( clazz, () -> equation.tPlot() );
     }
 
+    @Test
+    public void testEvaluateY()
+    {
+        equation.setVar( "a", 2 );
+        equation.setYExpression( "a * x^2 - 1" );
+        setBatchRange();
+        List<Point2D>   expPoints   =
+            equation.yPlot().collect( Collectors.toList() );
+        
+        int         count   = equation.getRangeSize();
+        double[]    xcos    = new double[count];
+        double[]    ycos    = new double[count];
+        assertEquals( count, equation.getRangeValues( xcos ) );
+        equation.evaluateY( xcos, ycos );
+        validateBatch( expPoints, xcos, ycos, count );
+    }
+    
+    @Test
+    public void testEvaluateXY()
+    {
+        equation.setVar( "a", 2 );
+        equation.setXExpression( "a * cos(t)" );
+        equation.setYExpression( "sin(t) / a" );
+        setBatchRange();
+        List<Point2D>   expPoints   =
+            equation.xyPlot().collect( Collectors.toList() );
+        
+        int         count   = equation.getRangeSize();
+        double[]    params  = new double[count];
+        double[]    xcos    = new double[count];
+        double[]    ycos    = new double[count];
+        equation.getRangeValues( params );
+        equation.evaluateXY( params, xcos, ycos );
+        validateBatch( expPoints, xcos, ycos, count );
+    }
+    
+    @Test
+    public void testEvaluateR()
+    {
+        equation.setVar( "a", 2 );
+        equation.setRExpression( "a * sin(t)" );
+        setBatchRange();
+        List<Point2D>   expPoints   =
+            equation.rPlot().collect( Collectors.toList() );
+        
+        int         count   = equation.getRangeSize();
+        double[]    thetas  = new double[count];
+        double[]    xcos    = new double[count];
+        double[]    ycos    = new double[count];
+        equation.getRangeValues( thetas );
+        equation.evaluateR( thetas, xcos, ycos );
+        validateBatch( expPoints, xcos, ycos, count );
+    }
+    
+    @Test
+    public void testEvaluateT()
+    {
+        equation.setVar( "a", 2 );
+        equation.setTExpression( "r / a" );
+        setBatchRange();
+        List<Point2D>   expPoints   =
+            equation.tPlot().collect( Collectors.toList() );
+        
+        int         count   = equation.getRangeSize();
+        double[]    radii   = new double[count];
+        double[]    xcos    = new double[count];
+        double[]    ycos    = new double[count];
+        equation.getRangeValues( radii );
+        equation.evaluateT( radii, xcos, ycos );
+        validateBatch( expPoints, xcos, ycos, count );
+    }
+    
+    @Test
+    public void testEvaluatePartial()
+    {
+        equation.setYExpression( "2x" );
+        setBatchRange();
+        int         count   = equation.getRangeSize();
+        double[]    xcos    = new double[count + 10];
+        double[]    ycos    = new double[count + 10];
+        Arrays.fill( ycos, -1 );
+        assertEquals( count, equation.getRangeValues( xcos ) );
+        equation.evaluateY( xcos, ycos, 5 );
+        IntStream.range( 0, 5 )
+            .forEach( i -> assertEquals( 2 * xcos[i], ycos[i] ) );
+        IntStream.range( 5, ycos.length )
+            .forEach( i -> assertEquals( -1, ycos[i] ) );
+    }
+    
+    @Test
+    public void testParallel()
+    {
+        assertFalse( equation.isParallel() );
+        equation.setParallel( true );
+        assertTrue( equation.isParallel() );
+        equation.setParallel( false );
+        assertFalse( equation.isParallel() );
+    }
+    
+    @Test
+    public void testEvaluateParallel()
+    {
+        equation.setVar( "a", 2 );
+        equation.setYExpression( "a * sec(x) + cot(x) - x^3" );
+        equation.setXExpression( "a * cos(t) + csc(t)" );
+        equation.setRExpression( "a * sin(3t) + toDegrees(t)" );
+        equation.setTExpression( "r / a + toRadians(r)" );
+        equation.setRangeStart( "-50" );
+        equation.setRangeEnd( "50" );
+        equation.setRangeStep( ".001" );
+        
+        int         count   = equation.getRangeSize();
+        assertTrue( count > 10000 );
+        double[]    params  = new double[count];
+        equation.getRangeValues( params );
+        
+        double[]    expX    = new double[count];
+        double[]    expY    = new double[count];
+        double[]    actX    = new double[count];
+        double[]    actY    = new double[count];
+        
+        equation.setParallel( false );
+        equation.evaluateY( params, expY );
+        equation.setParallel( true );
+        equation.evaluateY( params, actY );
+        assertTrue( Arrays.equals( expY, actY ) );
+        
+        equation.setParallel( false );
+        equation.evaluateXY( params, expX, expY );
+        equation.setParallel( true );
+        equation.evaluateXY( params, actX, actY );
+        assertTrue( Arrays.equals( expX, actX ) );
+        assertTrue( Arrays.equals( expY, actY ) );
+        
+        equation.setParallel( false );
+        equation.evaluateR( params, expX, expY );
+        equation.setParallel( true );
+        equation.evaluateR( params, actX, actY );
+        assertTrue( Arrays.equals( expX, actX ) );
+        assertTrue( Arrays.equals( expY, actY ) );
+        
+        equation.setParallel( false );
+        equation.evaluateT( params, expX, expY );
+        equation.setParallel( true );
+        equation.evaluateT( params, actX, actY );
+        assertTrue( Arrays.equals( expX, actX ) );
+        assertTrue( Arrays.equals( expY, actY ) );
+        
+        // Verify against the serial stream
+        List<Point2D>   expPoints   =
+            equation.tPlot().collect( Collectors.toList() );
+        validateBatch( expPoints, actX, actY, count );
+    }
+    
+    @Test
+    public void testEvaluateParallelGoWrong()
+    {
+        String  varName = "varName";
+        equation.setVar( varName, 0 );
+        equation.setYExpression( varName + " + x" );
+        equation.removeVar( varName );
+        equation.setParallel( true );
+        double[]    xcos    = new double[10000];
+        double[]    ycos    = new double[10000];
+        Class<ValidationException>  clazz   = ValidationException.class;
+        assertThrows( clazz, () -> equation.evaluateY( xcos, ycos ) );
+    }
+    
+    @Test
+    public void testGetRangeValues()
+    {
+        double  start   = -2;
+        double  end     = 2;
+        double  step    = .1;
+        double[]    expValues   =
+            DoubleStream.iterate( start, x -> x <= end, x -> x + step )
+                .toArray();
+        equation.setRangeStart( String.valueOf( start ) );
+        equation.setRangeEnd( String.valueOf( end ) );
+        equation.setRangeStep( String.valueOf( step ) );
+        assertEquals( expValues.length, equation.getRangeSize() );
+        
+        double[]    actValues   = new double[expValues.length];
+        assertEquals( 
+            expValues.length, 
+            equation.getRangeValues( actValues )
+        );
+        assertTrue( Arrays.equals( expValues, actValues ) );
+        
+        // array shorter than range
+        double[]    shortValues = new double[5];
+        assertEquals( 5, equation.getRangeValues( shortValues ) );
+        assertTrue( 
+            Arrays.equals( shortValues, 0, 5, expValues, 0, 5 )
+        );
+        
+        // invalid step
+        equation.setRangeStep( "0" );
+        assertEquals( 0, equation.getRangeSize() );
+        assertEquals( 0, equation.getRangeValues( actValues ) );
+    }
+
+    @Test
+    public void testGetRangeValuesInterval()
+    {
+        equation.setRangeStart( "-2" );
+        equation.setRangeEnd( "2" );
+        equation.setRangeStep( ".25" );
+        double[]    values  = new double[20];
+        
+        // interval within range
+        assertEquals( 5, equation.getRangeSize( -.6, .5 ) );
+        assertEquals( 5, equation.getRangeValues( values, -.6, .5 ) );
+        double[]    expValues   = { -.5, -.25, 0, .25, .5 };
+        assertTrue( Arrays.equals( expValues, 0, 5, values, 0, 5 ) );
+        
+        // interval overlaps start and end of range
+        assertEquals( 
+            equation.getRangeSize(), 
+            equation.getRangeSize( -10, 10 )
+        );
+        
+        // interval outside range
+        assertEquals( 0, equation.getRangeSize( 3, 4 ) );
+        assertEquals( 0, equation.getRangeValues( values, -4, -3 ) );
+        
+        // array shorter than interval
+        assertEquals( 2, equation.getRangeValues( new double[2], -1, 1 ) );
+        
+        // With an increment that can't be represented exactly
+        // the values must be identical to those of the plot methods.
+        equation.setRangeStep( ".1" );
+        double[]    expX    =
+            equation.yPlot()
+                .mapToDouble( p -> p.getX() )
+                .filter( x -> x >= -.55 && x <= 1.25 )
+                .toArray();
+        assertEquals( expX.length, equation.getRangeSize( -.55, 1.25 ) );
+        assertEquals( 
+            expX.length, 
+            equation.getRangeValues( values, -.55, 1.25 )
+        );
+        int         len     = expX.length;
+        assertTrue( Arrays.equals( expX, 0, len, values, 0, len ) );
+    }
+
     @Test
     public void testGetParam()
     {
@@ -559,6 +868,43 @@ class Exp4jEquationTest
         assertEquals( name, equation.getName() );
     }
     
+    /**
+     * Sets the iteration range
+     * for testing the batch evaluation methods.
+     */
+    private void setBatchRange()
+    {
+        equation.setRangeStart( "-2" );
+        equation.setRangeEnd( "2" );
+        equation.setRangeStep( ".01" );
+    }
+    
+    /**
+     * Verifies that the results of a batch evaluation
+     * are identical to the points generated
+     * by the corresponding plot method.
+     * 
+     * @param expPoints points generated by the plot method
+     * @param xcos      x-coordinates from batch evaluation
+     * @param ycos      y-coordinates from batch evaluation
+     * @param count     number of points in the batch evaluation
+     */
+    private void validateBatch( 
+        List<Point2D> expPoints, 
+        double[] xcos, 
+        double[] ycos, 
+        int count
+    )
+    {
+        assertEquals( expPoints.size(), count );
+        for ( int inx = 0 ; inx < count ; ++inx )
+        {
+            Point2D point   = expPoints.get( inx );
+            assertEquals( point.getX(), xcos[inx], "" + inx );
+            assertEquals( point.getY(), ycos[inx], "" + inx );
+        }
+    }
+    
     private void testEvaluatePass( String expr, double expVal )
     {
         Optional<Double>    optional    = equation.evaluate( expr );
@@ -0,0 +1,103 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.DoubleUnaryOperator;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import net.objecthunter.exp4j.Expression;
+import net.objecthunter.exp4j.ExpressionBuilder;
+
+class Exp4jEvaluatorTest
+{
+    private Map<String,Double>  vars;
+
+    @BeforeEach
+    public void beforeEach() throws Exception
+    {
+        vars = new HashMap<>();
+        vars.put( "x", 0. );
+        vars.put( "a", 2. );
+        vars.put( "b", 3. );
+    }
+
+    @ParameterizedTest
+    @ValueSource( strings= {
+        "x",
+        "2x + 1",
+        "2 * pi / a * x",
+        "a x^2 + b x - 1",
+        "-x^2 + +b",
+        "sin(2 * pi * x / b) + cos(a)",
+        "sec(x) + cot(pi / 4)",
+        "pow(x, a) - pow(b, 2)",
+        "x % 3 + e^a",
+        "1 / (x - 7)",
+    })
+    public void testPrepare( String exprStr )
+    {
+        Expression          expr    =
+            new ExpressionBuilder( exprStr )
+                .variables( vars.keySet() )
+                .functions( Exp4jFunctions.getFunctions() )
+                .build();
+        expr.setVariables( vars );
+        DoubleUnaryOperator func    =
+            Exp4jEvaluator.prepare( exprStr, vars, "x" );
+        for ( double xco = -5 ; xco <= 5 ; xco += .1 )
+        {
+            expr.setVariable( "x", xco );
+            assertEquals( expr.evaluate(), func.applyAsDouble( xco ) );
+        }
+    }
+
+    @Test
+    public void testBinding()
+    {
+        DoubleUnaryOperator func    =
+            Exp4jEvaluator.prepare( "a t + b", vars, "t" );
+        assertEquals( 7, func.applyAsDouble( 2 ) );
+
+        // Changes to variables do not affect a prepared evaluator
+        vars.put( "a", 10. );
+        assertEquals( 7, func.applyAsDouble( 2 ) );
+        func = Exp4jEvaluator.prepare( "a t + b", vars, "t" );
+        assertEquals( 23, func.applyAsDouble( 2 ) );
+
+        // Variables take precedence over built-in constants
+        vars.put( "pi", 3. );
+        func = Exp4jEvaluator.prepare( "pi", vars, "x" );
+        assertEquals( 3, func.applyAsDouble( 0 ) );
+    }
+
+    @Test
+    public void testDivisionByZero()
+    {
+        // Not folded; throws on evaluation, as exp4j does
+        DoubleUnaryOperator func    =
+            Exp4jEvaluator.prepare( "1 / (a - 2) + x", vars, "x" );
+        Class<ArithmeticException>  clazz   = ArithmeticException.class;
+        assertThrows( clazz, () -> func.applyAsDouble( 0 ) );
+
+        DoubleUnaryOperator func2   =
+            Exp4jEvaluator.prepare( "1 / x", vars, "x" );
+        assertEquals( .5, func2.applyAsDouble( 2 ) );
+        assertThrows( clazz, () -> func2.applyAsDouble( 0 ) );
+    }
+
+    @Test
+    public void testGoWrong()
+    {
+        Class<ValidationException>  clazz   = ValidationException.class;
+        assertThrows( clazz, () -> Exp4jEvaluator.prepare( "q x", vars, "x" ) );
+        assertThrows( clazz, () -> Exp4jEvaluator.prepare( "2 +", vars, "x" ) );
+        assertThrows( clazz, () -> Exp4jEvaluator.prepare( "", vars, "x" ) );
+    }
+}
@@ -0,0 +1,143 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ExpressionCacheTest
+{
+    private AtomicInteger           compileCount;
+    private ExpressionCache<String> cache;
+
+    @BeforeEach
+    public void beforeEach() throws Exception
+    {
+        compileCount = new AtomicInteger();
+        cache = new ExpressionCache<>( 3, this::compile );
+    }
+
+    @Test
+    public void testGet()
+    {
+        Set<String> vars    = Set.of( "x", "y" );
+        String      first   = cache.get( "2x", vars );
+        assertEquals( "2x:[x, y]", first );
+        assertEquals( 1, compileCount.get() );
+
+        // Order of variable names is irrelevant
+        String      second  = cache.get( "2x", List.of( "y", "x" ) );
+        assertSame( first, second );
+        assertEquals( 1, compileCount.get() );
+        assertEquals( 1, cache.size() );
+
+        // Different variable names, different entry
+        String      third   = cache.get( "2x", Set.of( "x" ) );
+        assertNotSame( first, third );
+        assertEquals( 2, compileCount.get() );
+        assertEquals( 2, cache.size() );
+    }
+
+    @Test
+    public void testEviction()
+    {
+        Set<String> vars    = Set.of( "x" );
+        String      one     = cache.get( "1", vars );
+        cache.get( "2", vars );
+        cache.get( "3", vars );
+
+        // Access "1" so that "2" becomes least recently used
+        assertSame( one, cache.get( "1", vars ) );
+        cache.get( "4", vars );
+        assertEquals( 3, cache.size() );
+        assertEquals( 4, compileCount.get() );
+
+        cache.get( "1", vars );
+        assertEquals( 4, compileCount.get() );
+        cache.get( "2", vars );
+        assertEquals( 5, compileCount.get() );
+
+        cache.clear();
+        assertEquals( 0, cache.size() );
+    }
+
+    @Test
+    public void testConcurrent() throws Exception
+    {
+        int                     nThreads    = 8;
+        ExecutorService         service     =
+            Executors.newFixedThreadPool( nThreads );
+        List<Future<String>>    futures     = new ArrayList<>();
+        for ( int inx = 0 ; inx < nThreads ; ++inx )
+            futures.add( service.submit( () -> {
+                String  last    = null;
+                for ( int jnx = 0 ; jnx < 1000 ; ++jnx )
+                    last = cache.get( "" + jnx % 5, Set.of( "x" ) );
+                return last;
+            }));
+        for ( Future<String> future : futures )
+            assertEquals( "4:[x]", future.get() );
+        service.shutdown();
+        assertTrue( cache.size() <= 3 );
+    }
+
+    @Test
+    public void testEquationsShareCache()
+    {
+        // Results must not depend on cached variable values.
+        Equation    equation1   = new Exp4jEquation();
+        Equation    equation2   = new Exp4jEquation();
+        equation1.setVar( "a", 2 );
+        equation2.setVar( "a", 3 );
+        assertEquals( Optional.of( 4.0 ), equation1.evaluate( "2a" ) );
+        assertEquals( Optional.of( 6.0 ), equation2.evaluate( "2a" ) );
+        assertEquals( Optional.empty(), equation1.evaluate( "2q" ) );
+
+        equation1 = new JEPEquation();
+        equation2 = new JEPEquation();
+        equation1.setVar( "a", 2 );
+        equation2.setVar( "a", 3 );
+        assertEquals( Optional.of( 4.0 ), equation1.evaluate( "2a" ) );
+        assertEquals( Optional.of( 6.0 ), equation2.evaluate( "2a" ) );
+        assertEquals( Optional.empty(), equation1.evaluate( "2q" ) );
+    }
+
+    @Test
+    public void testGoWrong()
+    {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> new ExpressionCache<>( 0, this::compile )
+        );
+    }
+
+    /**
+     * Compiler used for testing.
+     * The compiled form of an expression
+     * is the expression followed by the sorted variable names.
+     *
+     * @param expr      the expression to compile
+     * @param varNames  the variable names
+     *
+     * @return  the compiled expression
+     */
+    private String compile( String expr, Set<String> varNames )
+    {
+        compileCount.incrementAndGet();
+        String  result  = expr + ":" + varNames.stream().sorted().toList();
+        return result;
+    }
+}
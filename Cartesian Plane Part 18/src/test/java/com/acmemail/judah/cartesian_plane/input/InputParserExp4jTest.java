@@ -295,6 +295,22 @@ class InputParserExp4jTest
         assertFalse( sVal.isPresent() );
     }
     
+    @Test
+    public void testPlot()
+    {
+        Result  result  = parser.parseInput( Command.PLOT, "xyPlot" );
+        assertTrue( result.isSuccess() );
+        assertEquals( "xyPlot", parser.getEquation().getPlot() );
+        
+        // not a plot command
+        result = parser.parseInput( Command.PLOT, "end" );
+        assertFalse( result.isSuccess() );
+        // not a command
+        result = parser.parseInput( Command.PLOT, "bogus" );
+        assertFalse( result.isSuccess() );
+        assertEquals( "xyPlot", parser.getEquation().getPlot() );
+    }
+    
     private void testSetDouble( Command cmd, DoubleSupplier getter  )
     {
         double  oldVal  = getter.getAsDouble();
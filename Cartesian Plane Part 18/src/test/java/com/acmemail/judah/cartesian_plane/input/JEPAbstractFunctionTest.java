@@ -29,6 +29,29 @@ class JEPAbstractFunctionTest
         assertEquals( 5, parser.getValue() );
     }
 
+    /**
+     * Validate that JEP invokes
+     * the fixed-arity overloads
+     * of a custom function with one or two arguments,
+     * and not the varargs method.
+     */
+    @Test
+    void testFixedArityOverloads()
+    {
+        JEP             parser  = new JEP();
+        FixedArity      funk1   = new FixedArity( "neg", 1 );
+        FixedArity      funk2   = new FixedArity( "minus", 2 );
+        parser.addFunction( funk1.getName(), funk1 );
+        parser.addFunction( funk2.getName(), funk2 );
+        parser.parseExpression( "minus( 10, neg( 4 ) )" );
+        assertFalse( parser.hasError() );
+        assertEquals( 14, parser.getValue() );
+        
+        // Default overloads delegate to the varargs method
+        FixedArgs       funk3   = new FixedArgs();
+        assertEquals( 5, funk3.evaluate( 10, 2 ) );
+    }
+
     /**
      * Validate execution of a custom function
      * with a variable number arguments
@@ -89,6 +112,42 @@ class JEPAbstractFunctionTest
         }
     }
 
+    /**
+     * Custom function with one or two arguments
+     * that may only be evaluated
+     * via the fixed-arity overloads.
+     * Given one argument, negates it;
+     * given two arguments,
+     * subtracts the second from the first.
+     * 
+     * @author Jack Straub
+     */
+    public static class FixedArity extends JEPAbstractFunction
+    {
+        public FixedArity( String name, int numParams )
+        {
+            super( name, numParams );
+        }
+        
+        @Override 
+        public double evaluate( double... args )
+        {
+            throw new UnsupportedOperationException( "varargs" );
+        }
+        
+        @Override 
+        public double evaluate( double arg )
+        {
+            return -arg;
+        }
+        
+        @Override 
+        public double evaluate( double arg1, double arg2 )
+        {
+            return arg1 - arg2;
+        }
+    }
+
     /**
      * Custom function with a variable number of arguments.
      * Order of parameters matters.
@@ -363,6 +363,129 @@ class JEPEquationTest
         });
     }
 
+    @Test
+    public void testEvaluateY()
+    {
+        equation.setVar( "a", 2 );
+        equation.setYExpression( "a * x^2 - 1" );
+        setBatchRange();
+        List<Point2D>   expPoints   =
+            equation.yPlot().collect( Collectors.toList() );
+        
+        int         count   = equation.getRangeSize();
+        double[]    xcos    = new double[count];
+        double[]    ycos    = new double[count];
+        assertEquals( count, equation.getRangeValues( xcos ) );
+        equation.evaluateY( xcos, ycos );
+        validateBatch( expPoints, xcos, ycos, count );
+    }
+    
+    @Test
+    public void testEvaluateXY()
+    {
+        equation.setVar( "a", 2 );
+        equation.setXExpression( "a * cos(t)" );
+        equation.setYExpression( "sin(t) / a" );
+        setBatchRange();
+        List<Point2D>   expPoints   =
+            equation.xyPlot().collect( Collectors.toList() );
+        
+        int         count   = equation.getRangeSize();
+        double[]    params  = new double[count];
+        double[]    xcos    = new double[count];
+        double[]    ycos    = new double[count];
+        equation.getRangeValues( params );
+        equation.evaluateXY( params, xcos, ycos );
+        validateBatch( expPoints, xcos, ycos, count );
+    }
+    
+    @Test
+    public void testEvaluateR()
+    {
+        equation.setVar( "a", 2 );
+        equation.setRExpression( "a * sin(t)" );
+        setBatchRange();
+        List<Point2D>   expPoints   =
+            equation.rPlot().collect( Collectors.toList() );
+        
+        int         count   = equation.getRangeSize();
+        double[]    thetas  = new double[count];
+        double[]    xcos    = new double[count];
+        double[]    ycos    = new double[count];
+        equation.getRangeValues( thetas );
+        equation.evaluateR( thetas, xcos, ycos );
+        validateBatch( expPoints, xcos, ycos, count );
+    }
+    
+    @Test
+    public void testEvaluateT()
+    {
+        equation.setVar( "a", 2 );
+        equation.setTExpression( "r / a" );
+        setBatchRange();
+        List<Point2D>   expPoints   =
+            equation.tPlot().collect( Collectors.toList() );
+        
+        int         count   = equation.getRangeSize();
+        double[]    radii   = new double[count];
+        double[]    xcos    = new double[count];
+        double[]    ycos    = new double[count];
+        equation.getRangeValues( radii );
+        equation.evaluateT( radii, xcos, ycos );
+        validateBatch( expPoints, xcos, ycos, count );
+    }
+    
+    @Test
+    public void testEvaluatePartial()
+    {
+        equation.setYExpression( "2x" );
+        setBatchRange();
+        int         count   = equation.getRangeSize();
+        double[]    xcos    = new double[count + 10];
+        double[]    ycos    = new double[count + 10];
+        Arrays.fill( ycos, -1 );
+        assertEquals( count, equation.getRangeValues( xcos ) );
+        equation.evaluateY( xcos, ycos, 5 );
+        IntStream.range( 0, 5 )
+            .forEach( i -> assertEquals( 2 * xcos[i], ycos[i] ) );
+        IntStream.range( 5, ycos.length )
+            .forEach( i -> assertEquals( -1, ycos[i] ) );
+    }
+    
+    @Test
+    public void testGetRangeValues()
+    {
+        double  start   = -2;
+        double  end     = 2;
+        double  step    = .1;
+        double[]    expValues   =
+            DoubleStream.iterate( start, x -> x <= end, x -> x + step )
+                .toArray();
+        equation.setRangeStart( String.valueOf( start ) );
+        equation.setRangeEnd( String.valueOf( end ) );
+        equation.setRangeStep( String.valueOf( step ) );
+        assertEquals( expValues.length, equation.getRangeSize() );
+        
+        double[]    actValues   = new double[expValues.length];
+        assertEquals( 
+            expValues.length, 
+            equation.getRangeValues( actValues )
+        );
+        assertTrue( Arrays.equals( expValues, actValues ) );
+        
+        // array shorter than range
+        double[]    shortValues = new double[5];
+        assertEquals( 5, equation.getRangeValues( shortValues ) );
+        assertTrue( 
+            Arrays.equals( shortValues, 0, 5, expValues, 0, 5 )
+        );
+        
+        // invalid step
+        equation.setRangeStep( "0" );
+        assertEquals( 0, equation.getRangeSize() );
+        assertEquals( 0, equation.getRangeValues( actValues ) );
+    }
+
     @Test
     public void testGetParam()
     {
@@ -497,6 +620,43 @@ class JEPEquationTest
         equation.setRangeStep( String.valueOf( step ) );
     }
     
+    /**
+     * Sets the iteration range
+     * for testing the batch evaluation methods.
+     */
+    private void setBatchRange()
+    {
+        equation.setRangeStart( "-2" );
+        equation.setRangeEnd( "2" );
+        equation.setRangeStep( ".01" );
+    }
+    
+    /**
+     * Verifies that the results of a batch evaluation
+     * are identical to the points generated
+     * by the corresponding plot method.
+     * 
+     * @param expPoints points generated by the plot method
+     * @param xcos      x-coordinates from batch evaluation
+     * @param ycos      y-coordinates from batch evaluation
+     * @param count     number of points in the batch evaluation
+     */
+    private void validateBatch( 
+        List<Point2D> expPoints, 
+        double[] xcos, 
+        double[] ycos, 
+        int count
+    )
+    {
+        assertEquals( expPoints.size(), count );
+        for ( int inx = 0 ; inx < count ; ++inx )
+        {
+            Point2D point   = expPoints.get( inx );
+            assertEquals( point.getX(), xcos[inx], "" + inx );
+            assertEquals( point.getY(), ycos[inx], "" + inx );
+        }
+    }
+    
     private void testEvaluatePass( String expr, double expVal )
     {
         Optional<Double>    optional    = equation.evaluate( expr );
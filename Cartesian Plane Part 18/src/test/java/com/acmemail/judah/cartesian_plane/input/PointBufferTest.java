@@ -0,0 +1,104 @@
+package com.acmemail.judah.cartesian_plane.input;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class PointBufferTest
+{
+    @Test
+    public void testAdd()
+    {
+        PointBuffer buffer  = new PointBuffer( 2 );
+        int         count   = 1000;
+        for ( int inx = 0 ; inx < count ; ++inx )
+            buffer.add( inx, -inx );
+        assertEquals( count, buffer.size() );
+        for ( int inx = 0 ; inx < count ; ++inx )
+        {
+            assertEquals( inx, buffer.getXco( inx ) );
+            assertEquals( -inx, buffer.getYco( inx ) );
+            assertFalse( buffer.isBreak( inx ) );
+        }
+    }
+
+    @Test
+    public void testAddBreak()
+    {
+        PointBuffer buffer  = new PointBuffer();
+        
+        // break not added at start of buffer
+        buffer.addBreak();
+        assertEquals( 0, buffer.size() );
+        
+        buffer.add( 1, 2 );
+        buffer.addBreak();
+        assertEquals( 2, buffer.size() );
+        assertTrue( buffer.isBreak( 1 ) );
+        
+        // break not added following another break
+        buffer.addBreak();
+        assertEquals( 2, buffer.size() );
+        
+        buffer.add( 3, 4 );
+        assertEquals( 3, buffer.size() );
+        assertFalse( buffer.isBreak( 2 ) );
+    }
+
+    @Test
+    public void testIsBreak()
+    {
+        assertTrue( PointBuffer.isBreak( Double.NaN, 0 ) );
+        assertTrue( PointBuffer.isBreak( 0, Double.NaN ) );
+        assertFalse( PointBuffer.isBreak( 0, Double.POSITIVE_INFINITY ) );
+        assertFalse( PointBuffer.isBreak( 0, 0 ) );
+    }
+
+    @Test
+    public void testClear()
+    {
+        PointBuffer buffer  = new PointBuffer();
+        buffer.add( 1, 2 );
+        buffer.add( 3, 4 );
+        buffer.clear();
+        assertEquals( 0, buffer.size() );
+    }
+
+    @Test
+    public void testEnsureCapacity()
+    {
+        PointBuffer buffer  = new PointBuffer( 1 );
+        buffer.add( 1, 2 );
+        buffer.ensureCapacity( 100 );
+        assertTrue( buffer.getXcos().length >= 100 );
+        assertTrue( buffer.getYcos().length >= 100 );
+        assertEquals( 1, buffer.size() );
+        assertEquals( 1, buffer.getXco( 0 ) );
+        assertEquals( 2, buffer.getYco( 0 ) );
+    }
+
+    @Test
+    public void testSetSize()
+    {
+        PointBuffer buffer  = new PointBuffer( 10 );
+        double[]    xcos    = buffer.getXcos();
+        double[]    ycos    = buffer.getYcos();
+        for ( int inx = 0 ; inx < 5 ; ++inx )
+        {
+            xcos[inx] = inx;
+            ycos[inx] = 2 * inx;
+        }
+        buffer.setSize( 5 );
+        assertEquals( 5, buffer.size() );
+        assertEquals( 4, buffer.getXco( 4 ) );
+        assertEquals( 8, buffer.getYco( 4 ) );
+        
+        Class<IllegalArgumentException> clazz   = 
+            IllegalArgumentException.class;
+        assertThrows( clazz, () -> buffer.setSize( -1 ) );
+        assertThrows( clazz, () -> buffer.setSize( 11 ) );
+    }
+}
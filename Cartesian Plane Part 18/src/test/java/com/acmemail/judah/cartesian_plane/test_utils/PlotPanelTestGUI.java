@@ -21,6 +21,7 @@ import javax.swing.JPanel;
 
 import com.acmemail.judah.cartesian_plane.CartesianPlane;
 import com.acmemail.judah.cartesian_plane.PlotCommand;
+import com.acmemail.judah.cartesian_plane.PlotGeometry;
 import com.acmemail.judah.cartesian_plane.PlotPointCommand;
 import com.acmemail.judah.cartesian_plane.components.PlotPanel;
 import com.acmemail.judah.cartesian_plane.graphics_utils.ComponentFinder;
@@ -208,8 +209,10 @@ public class PlotPanelTestGUI extends FTextFieldTestMgr
     {
         /**
          * The stream supplier. Set by the client by calling 
-         * setStreamSupplier at the beginning of a plot operation.
+         * setStreamSupplier or setPlotEquation 
+         * at the beginning of a plot operation.
          * @see #setStreamSupplier(Supplier)
+         * @see #setPlotEquation(Equation, Command)
          */
         private Supplier<Stream<PlotCommand>>   supplier;
         /** 
@@ -229,6 +232,18 @@ public class PlotPanelTestGUI extends FTextFieldTestMgr
             this.supplier = supplier;
         }
         
+        /**
+         * Sets the stream supplier from the equation and plot type
+         * provided by the client.
+         */
+        @Override
+        public void setPlotEquation( Equation equation, Command plotType )
+        {
+            this.supplier = () ->
+                PlotGeometry.plot( equation, plotType )
+                .map( p -> PlotPointCommand.of( p, this ) );
+        }
+        
         /**
          * Called by a PlotPointCommand's execute method.
          * @see #getPlotPoint()